@@ -0,0 +1,18 @@
+package com.tourism.gateWay;
+
+import org.springframework.cloud.gateway.route.Route;
+
+/**
+ * Name a route goes by in the gateway.* settings and meter tags.
+ */
+public final class RouteNames {
+
+    private RouteNames() {
+    }
+
+    // Service id for the lb:// routes of the discovery locator, route id for the rest
+    public static String of(Route route) {
+        return "lb".equals(route.getUri().getScheme()) && route.getUri().getHost() != null
+                ? route.getUri().getHost() : route.getId();
+    }
+}
@@ -0,0 +1,177 @@
+package com.tourism.gateWay.balancing;
+
+import com.tourismSystem.shared.balancing.InstanceStats;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.LoadBalancerUriTools;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.filter.ReactiveLoadBalancerClientFilter;
+import org.springframework.cloud.gateway.filter.headers.HttpHeadersFilter;
+import org.springframework.cloud.gateway.support.DelegatingServiceInstance;
+import org.springframework.cloud.loadbalancer.core.ServiceInstanceListSupplier;
+import org.springframework.cloud.loadbalancer.support.LoadBalancerClientFactory;
+import org.springframework.core.Ordered;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+import reactor.core.publisher.Mono;
+import reactor.netty.http.client.HttpClient;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.GATEWAY_REQUEST_URL_ATTR;
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.GATEWAY_SCHEME_PREFIX_ATTR;
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.setAlreadyRouted;
+
+/**
+ * Hedged reads (gateway.load-balancing.hedging, off by default): a GET to a service with at least
+ * two instances goes to the one {@link InstanceStats#choose} picks, and if it has not answered by
+ * the service's p95 latency, to the best of the others as well. The first answer is written back
+ * and the other call is cancelled (its time so far is still recorded, as a lower bound).
+ * <p>
+ * Runs just ahead of the load balancer filter and, when it hedges, makes both calls itself, so the
+ * answer is buffered (up to max-body-size) instead of streamed; streams and feeds are excluded.
+ * Published meters: gateway.hedged.requests (tagged route and winner: primary or hedge).
+ */
+@Component
+public class HedgingFilter implements GlobalFilter, Ordered {
+
+    public static final int ORDER = ReactiveLoadBalancerClientFilter.LOAD_BALANCER_CLIENT_FILTER_ORDER - 1;
+
+    private final InstanceStats stats;
+    private final LoadBalancerClientFactory clientFactory;
+    private final ObjectProvider<List<HttpHeadersFilter>> headersFilters;
+    private final LoadBalancingProperties.Hedging properties;
+    private final MeterRegistry meterRegistry;
+    private final List<PathPattern> excludedPaths;
+    private final WebClient webClient;
+
+    public HedgingFilter(InstanceStats stats, LoadBalancerClientFactory clientFactory,
+                         ObjectProvider<List<HttpHeadersFilter>> headersFilters, HttpClient httpClient,
+                         LoadBalancingProperties properties, MeterRegistry meterRegistry) {
+        this.stats = stats;
+        this.clientFactory = clientFactory;
+        this.headersFilters = headersFilters;
+        this.properties = properties.getHedging();
+        this.meterRegistry = meterRegistry;
+        this.excludedPaths = this.properties.getExcludedPaths().stream().map(PathPatternParser.defaultInstance::parse).toList();
+        this.webClient = WebClient.builder()
+                .clientConnector(new ReactorClientHttpConnector(httpClient))
+                .codecs(codecs -> codecs.defaultCodecs().maxInMemorySize((int) this.properties.getMaxBodySize().toBytes()))
+                .build();
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        URI url = exchange.getAttribute(GATEWAY_REQUEST_URL_ATTR);
+        String schemePrefix = exchange.getAttribute(GATEWAY_SCHEME_PREFIX_ATTR);
+        if (!properties.isEnabled() || url == null || exchange.getRequest().getMethod() != HttpMethod.GET
+                || !("lb".equals(url.getScheme()) || "lb".equals(schemePrefix))
+                || excludedPaths.stream().anyMatch(pattern -> pattern.matches(exchange.getRequest().getPath().pathWithinApplication()))) {
+            return chain.filter(exchange);
+        }
+        String serviceId = url.getHost();
+        Optional<Duration> delay = stats.hedgeDelay(serviceId);
+        ServiceInstanceListSupplier supplier = clientFactory.getLazyProvider(serviceId, ServiceInstanceListSupplier.class).getIfAvailable();
+        if (delay.isEmpty() || supplier == null) {
+            return chain.filter(exchange);
+        }
+        return supplier.get().next().defaultIfEmpty(List.of()).flatMap(instances -> {
+            if (instances.size() < 2) {
+                return chain.filter(exchange);
+            }
+            ServiceInstance primary = stats.choose(instances);
+            ServiceInstance backup = stats.choose(InstanceStats.without(instances, primary));
+            HttpHeaders headers = HttpHeadersFilter.filterRequest(headersFilters.getIfAvailable(List::of), exchange);
+            headers.remove(HttpHeaders.HOST);
+            setAlreadyRouted(exchange);
+
+            // When both calls fail, the first failure is the one reported
+            AtomicReference<Throwable> failure = new AtomicReference<>();
+            Mono<Answer> first = send(primary, url, headers, false)
+                    .doOnError(ex -> failure.compareAndSet(null, ex));
+            Mono<Answer> second = Mono.delay(delay.get())
+                    .then(Mono.defer(() -> send(backup, url, headers, true)))
+                    .doOnError(ex -> failure.compareAndSet(null, ex));
+            return Mono.firstWithValue(first, second)
+                    .onErrorMap(NoSuchElementException.class, ex -> failure.get() == null ? ex : failure.get())
+                    .flatMap(answer -> {
+                        meterRegistry.counter("gateway.hedged.requests", "route", serviceId,
+                                "winner", answer.hedge() ? "hedge" : "primary").increment();
+                        exchange.getAttributes().put(GATEWAY_REQUEST_URL_ATTR, answer.uri());
+                        return write(exchange, answer.response());
+                    });
+        });
+    }
+
+    @Override
+    public int getOrder() {
+        return ORDER;
+    }
+
+    private Mono<Answer> send(ServiceInstance instance, URI url, HttpHeaders headers, boolean hedge) {
+        // As the load balancer filter does: lb://service becomes http(s)://host:port of the instance
+        String scheme = instance.isSecure() ? "https" : "http";
+        URI uri = LoadBalancerUriTools.reconstructURI(new DelegatingServiceInstance(instance, scheme), url);
+        return Mono.defer(() -> {
+            long start = System.nanoTime();
+            AtomicBoolean recorded = new AtomicBoolean();
+            stats.started(instance);
+            return webClient.get().uri(uri)
+                    .headers(outgoing -> outgoing.addAll(headers))
+                    .exchangeToMono(response -> response.toEntity(byte[].class))
+                    // Lost the race halfway through the body: the buffers read so far go back to the pool
+                    .doOnDiscard(DataBuffer.class, DataBufferUtils::release)
+                    .map(response -> new Answer(response, uri, hedge))
+                    .doOnSuccess(answer -> {
+                        if (recorded.compareAndSet(false, true)) {
+                            stats.finished(instance, System.nanoTime() - start,
+                                    answer == null || answer.response().getStatusCode().is5xxServerError());
+                        }
+                    })
+                    .doOnError(ex -> {
+                        if (recorded.compareAndSet(false, true)) {
+                            stats.finished(instance, System.nanoTime() - start, true);
+                        }
+                    })
+                    // Lost the race: at least this slow
+                    .doOnCancel(() -> {
+                        if (recorded.compareAndSet(false, true)) {
+                            stats.finished(instance, System.nanoTime() - start, false);
+                        }
+                    });
+        });
+    }
+
+    private Mono<Void> write(ServerWebExchange exchange, ResponseEntity<byte[]> answer) {
+        ServerHttpResponse response = exchange.getResponse();
+        response.setStatusCode(answer.getStatusCode());
+        HttpHeaders headers = HttpHeadersFilter.filter(headersFilters.getIfAvailable(List::of), answer.getHeaders(),
+                exchange, HttpHeadersFilter.Type.RESPONSE);
+        response.getHeaders().putAll(headers);
+        response.getHeaders().remove(HttpHeaders.TRANSFER_ENCODING);
+        byte[] body = answer.getBody() == null ? new byte[0] : answer.getBody();
+        response.getHeaders().setContentLength(body.length);
+        return response.writeWith(Mono.just(response.bufferFactory().wrap(body)));
+    }
+
+    private record Answer(ResponseEntity<byte[]> response, URI uri, boolean hedge) {
+    }
+}
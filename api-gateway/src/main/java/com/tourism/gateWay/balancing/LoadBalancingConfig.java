@@ -0,0 +1,20 @@
+package com.tourism.gateWay.balancing;
+
+import com.tourismSystem.shared.balancing.InstanceStats;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Declares the {@link InstanceStats} shared with cities-service, set up from gateway.load-balancing.*.
+ */
+@Configuration
+public class LoadBalancingConfig {
+
+    @Bean
+    public InstanceStats instanceStats(LoadBalancingProperties properties, MeterRegistry meterRegistry) {
+        LoadBalancingProperties.Hedging hedging = properties.getHedging();
+        return new InstanceStats(meterRegistry, properties.getSmoothing(), properties.getProbeAfter(),
+                properties.getFailurePenalty(), hedging.getMinSamples(), hedging.getMinDelay(), hedging.getMaxDelay());
+    }
+}
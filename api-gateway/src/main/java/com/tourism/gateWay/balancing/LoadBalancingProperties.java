@@ -0,0 +1,130 @@
+package com.tourism.gateWay.balancing;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Settings of the instance choice and the hedged reads (gateway.load-balancing.*).
+ */
+@ConfigurationProperties(prefix = "gateway.load-balancing")
+public class LoadBalancingProperties {
+
+    // Latency-aware choice (EWMA and in-flight count, power of two choices); false keeps round robin
+    private boolean latencyAware = true;
+    // Weight of each new latency sample in the moving average of an instance
+    private double smoothing = 0.3;
+    // An instance not called for this long counts as unknown again, so it is probed
+    private Duration probeAfter = Duration.ofSeconds(10);
+    // Latency recorded for a failed call, when it failed faster than this
+    private Duration failurePenalty = Duration.ofSeconds(1);
+    private Hedging hedging = new Hedging();
+
+    public boolean isLatencyAware() {
+        return latencyAware;
+    }
+
+    public void setLatencyAware(boolean latencyAware) {
+        this.latencyAware = latencyAware;
+    }
+
+    public double getSmoothing() {
+        return smoothing;
+    }
+
+    public void setSmoothing(double smoothing) {
+        this.smoothing = smoothing;
+    }
+
+    public Duration getProbeAfter() {
+        return probeAfter;
+    }
+
+    public void setProbeAfter(Duration probeAfter) {
+        this.probeAfter = probeAfter;
+    }
+
+    public Duration getFailurePenalty() {
+        return failurePenalty;
+    }
+
+    public void setFailurePenalty(Duration failurePenalty) {
+        this.failurePenalty = failurePenalty;
+    }
+
+    public Hedging getHedging() {
+        return hedging;
+    }
+
+    public void setHedging(Hedging hedging) {
+        this.hedging = hedging;
+    }
+
+    /**
+     * GETs still unanswered after the p95 latency of the service are sent to a second instance too,
+     * and the first answer wins.
+     */
+    public static class Hedging {
+
+        private boolean enabled = false;
+        // Latencies of the service needed before its p95 is trusted
+        private int minSamples = 50;
+        // Bounds of the p95 wait before hedging
+        private Duration minDelay = Duration.ofMillis(20);
+        private Duration maxDelay = Duration.ofSeconds(2);
+        // Hedged answers are buffered before being written; larger ones fail the request
+        private DataSize maxBodySize = DataSize.ofMegabytes(16);
+        // Streams and feeds, never hedged (PathPattern syntax)
+        private List<String> excludedPaths = List.of("/hotels-service/hotels/export/**", "/hotels-service/hotels/events/**");
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public int getMinSamples() {
+            return minSamples;
+        }
+
+        public void setMinSamples(int minSamples) {
+            this.minSamples = minSamples;
+        }
+
+        public Duration getMinDelay() {
+            return minDelay;
+        }
+
+        public void setMinDelay(Duration minDelay) {
+            this.minDelay = minDelay;
+        }
+
+        public Duration getMaxDelay() {
+            return maxDelay;
+        }
+
+        public void setMaxDelay(Duration maxDelay) {
+            this.maxDelay = maxDelay;
+        }
+
+        public DataSize getMaxBodySize() {
+            return maxBodySize;
+        }
+
+        public void setMaxBodySize(DataSize maxBodySize) {
+            this.maxBodySize = maxBodySize;
+        }
+
+        public List<String> getExcludedPaths() {
+            return excludedPaths;
+        }
+
+        public void setExcludedPaths(List<String> excludedPaths) {
+            this.excludedPaths = excludedPaths;
+        }
+    }
+}
@@ -0,0 +1,128 @@
+package com.tourism.gateWay.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.http.HttpHeaders;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Store of the edge response cache: a Caffeine cache weighted by the size of each response and
+ * bounded by gateway.response-cache.max-size. An entry stays fresh for its TTL; one with an ETag is
+ * then kept stale-retention longer, so the filter can revalidate it instead of fetching it again.
+ * Published meters: the cache.* meters of "gateway.responses" and gateway.response.cache.bytes.
+ */
+@Component
+public class ResponseCache {
+
+    private final Cache<Key, Entry> entries;
+    private final AtomicLong bytes = new AtomicLong();
+    private final long staleRetentionNanos;
+
+    public ResponseCache(ResponseCacheProperties properties, MeterRegistry meterRegistry) {
+        this.staleRetentionNanos = properties.getStaleRetention().toNanos();
+        this.entries = Caffeine.newBuilder()
+                .maximumWeight(properties.getMaxSize().toBytes())
+                .weigher((Key key, Entry entry) -> entry.weight())
+                .expireAfter(new Retention())
+                .removalListener((Key key, Entry entry, RemovalCause cause) -> {
+                    if (entry != null) {
+                        bytes.addAndGet(-entry.weight());
+                    }
+                })
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, entries, "gateway.responses");
+        Gauge.builder("gateway.response.cache.bytes", bytes, AtomicLong::get)
+                .baseUnit("bytes")
+                .register(meterRegistry);
+    }
+
+    @Nullable
+    public Entry get(Key key) {
+        return entries.getIfPresent(key);
+    }
+
+    public void put(Key key, Entry entry) {
+        bytes.addAndGet(entry.weight());
+        entries.put(key, entry);
+    }
+
+    /**
+     * Drops the entries of a route, those whose path starts with a prefix, or both conditions
+     * together; with neither, everything. Returns how many were dropped.
+     */
+    public int purge(@Nullable String route, @Nullable String pathPrefix) {
+        List<Key> matching = entries.asMap().keySet().stream()
+                .filter(key -> route == null || key.route().equals(route))
+                .filter(key -> pathPrefix == null || key.path().startsWith(pathPrefix))
+                .toList();
+        entries.invalidateAll(matching);
+        return matching.size();
+    }
+
+    public long size() {
+        return entries.estimatedSize();
+    }
+
+    public long bytes() {
+        return bytes.get();
+    }
+
+    /**
+     * Path and query as received, plus the values of the configured key headers.
+     */
+    public record Key(String route, String path, List<String> varyingHeaders) {
+    }
+
+    /**
+     * A cached response: status 200, its headers without hop-by-hop ones, and the whole body.
+     */
+    public record Entry(HttpHeaders headers, byte[] body, @Nullable String etag, long storedAt, long ttlNanos) {
+
+        public boolean isFresh() {
+            return System.nanoTime() - storedAt < ttlNanos;
+        }
+
+        public long ageSeconds() {
+            return (System.nanoTime() - storedAt) / 1_000_000_000L;
+        }
+
+        public Entry renewed(long ttlNanos) {
+            return new Entry(headers, body, etag, System.nanoTime(), ttlNanos);
+        }
+
+        int weight() {
+            int headerBytes = headers.entrySet().stream()
+                    .mapToInt(header -> header.getKey().length() + header.getValue().stream().mapToInt(String::length).sum())
+                    .sum();
+            return body.length + headerBytes;
+        }
+    }
+
+    private final class Retention implements Expiry<Key, Entry> {
+
+        @Override
+        public long expireAfterCreate(Key key, Entry entry, long currentTime) {
+            return entry.etag() == null ? entry.ttlNanos() : entry.ttlNanos() + staleRetentionNanos;
+        }
+
+        @Override
+        public long expireAfterUpdate(Key key, Entry entry, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, entry, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(Key key, Entry entry, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
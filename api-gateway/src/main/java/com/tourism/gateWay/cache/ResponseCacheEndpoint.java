@@ -0,0 +1,35 @@
+package com.tourism.gateWay.cache;
+
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/**
+ * Admin view of the edge response cache, at /actuator/responsecache: GET gives its size and
+ * DELETE purges it, by route (?route=cities-service), by path prefix
+ * (?prefix=/hotels-service/hotels/country), both, or entirely without parameters.
+ */
+@Component
+@Endpoint(id = "responsecache")
+public class ResponseCacheEndpoint {
+
+    private final ResponseCache cache;
+
+    public ResponseCacheEndpoint(ResponseCache cache) {
+        this.cache = cache;
+    }
+
+    @ReadOperation
+    public Map<String, Long> size() {
+        return Map.of("entries", cache.size(), "bytes", cache.bytes());
+    }
+
+    @DeleteOperation
+    public Map<String, Integer> purge(@Nullable String route, @Nullable String prefix) {
+        return Map.of("purged", cache.purge(route, prefix));
+    }
+}
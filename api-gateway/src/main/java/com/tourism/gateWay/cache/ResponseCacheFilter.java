@@ -0,0 +1,281 @@
+package com.tourism.gateWay.cache;
+
+import com.tourism.gateWay.RouteNames;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.reactivestreams.Publisher;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.filter.NettyWriteResponseFilter;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.core.Ordered;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.http.server.reactive.ServerHttpResponseDecorator;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.io.ByteArrayOutputStream;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.TreeSet;
+
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR;
+
+/**
+ * Edge cache of the idempotent catalog reads: GET responses of the routed services are kept in
+ * memory (see {@link ResponseCache}) and answered without reaching the backend while fresh.
+ * <ul>
+ *   <li>Key: route, path and query as received, and the gateway.response-cache.key-headers values
+ *   (Accept, Accept-Encoding and Accept-Language by default).</li>
+ *   <li>TTL: gateway.response-cache.routes for the route, else default-ttl, shortened by the response
+ *   max-age or s-maxage. Responses with no-store, private, Set-Cookie or a Vary outside the key
+ *   headers are not stored, and no-cache ones are stored only to be revalidated.</li>
+ *   <li>Expired entries with an ETag are revalidated with If-None-Match: a 304 from the backend
+ *   renews them and the cached body is served.</li>
+ *   <li>Requests with Authorization or Cache-Control: no-store go straight to the backend; no-cache
+ *   or max-age=0 makes the entry be revalidated first. An If-None-Match matching the cached ETag is
+ *   answered 304 here.</li>
+ * </ul>
+ * Answers carry X-Cache (HIT, REVALIDATED or MISS) and Age. Published meters:
+ * gateway.response.cache (tagged route and result: hit, miss, revalidated or bypass).
+ */
+@Component
+public class ResponseCacheFilter implements GlobalFilter, Ordered {
+
+    // Ahead of NettyWriteResponseFilter, so the body it writes goes through the decorated response
+    public static final int ORDER = NettyWriteResponseFilter.WRITE_RESPONSE_FILTER_ORDER - 1;
+    public static final String CACHE_STATUS = "X-Cache";
+
+    private static final Set<String> NOT_STORED = new TreeSet<>(String.CASE_INSENSITIVE_ORDER);
+
+    static {
+        NOT_STORED.addAll(List.of(HttpHeaders.CONNECTION, "Keep-Alive", HttpHeaders.TRANSFER_ENCODING,
+                HttpHeaders.CONTENT_LENGTH, HttpHeaders.DATE, HttpHeaders.AGE, CACHE_STATUS));
+    }
+
+    private final ResponseCache cache;
+    private final ResponseCacheProperties properties;
+    private final MeterRegistry meterRegistry;
+    private final List<PathPattern> excludedPaths;
+    private final Set<String> keyHeaders = new TreeSet<>(String.CASE_INSENSITIVE_ORDER);
+
+    public ResponseCacheFilter(ResponseCache cache, ResponseCacheProperties properties, MeterRegistry meterRegistry) {
+        this.cache = cache;
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+        this.excludedPaths = properties.getExcludedPaths().stream().map(PathPatternParser.defaultInstance::parse).toList();
+        this.keyHeaders.addAll(properties.getKeyHeaders());
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        ServerHttpRequest request = exchange.getRequest();
+        Route route = exchange.getAttribute(GATEWAY_ROUTE_ATTR);
+        if (!properties.isEnabled() || route == null || request.getMethod() != HttpMethod.GET) {
+            return chain.filter(exchange);
+        }
+        String routeName = RouteNames.of(route);
+        Duration ttl = properties.ttlOf(routeName);
+        Set<String> requestDirectives = directives(request.getHeaders());
+        if (!ttl.isPositive() || requestDirectives.contains("no-store")
+                || request.getHeaders().containsKey(HttpHeaders.AUTHORIZATION)
+                || excludedPaths.stream().anyMatch(pattern -> pattern.matches(request.getPath().pathWithinApplication()))) {
+            count(routeName, "bypass");
+            return chain.filter(exchange);
+        }
+
+        ResponseCache.Key key = key(routeName, request);
+        ResponseCache.Entry cached = cache.get(key);
+        boolean mustRevalidate = requestDirectives.contains("no-cache") || requestDirectives.contains("max-age=0");
+        if (cached != null && cached.isFresh() && !mustRevalidate) {
+            count(routeName, "hit");
+            return serve(exchange.getResponse(), request.getHeaders(), cached, "HIT");
+        }
+
+        ServerWebExchange forwarded = exchange;
+        ResponseCache.Entry revalidated = cached != null && cached.etag() != null ? cached : null;
+        if (revalidated != null) {
+            forwarded = exchange.mutate()
+                    .request(builder -> builder.headers(headers -> headers.setIfNoneMatch(revalidated.etag())))
+                    .build();
+        } else {
+            count(routeName, "miss");
+        }
+        Storing response = new Storing(exchange.getResponse(), request.getHeaders(), routeName, key, ttl, revalidated);
+        return chain.filter(forwarded.mutate().response(response).build());
+    }
+
+    @Override
+    public int getOrder() {
+        return ORDER;
+    }
+
+    private Mono<Void> serve(ServerHttpResponse response, HttpHeaders requestHeaders, ResponseCache.Entry entry, String outcome) {
+        HttpHeaders headers = response.getHeaders();
+        headers.putAll(entry.headers());
+        headers.remove(HttpHeaders.TRANSFER_ENCODING);
+        headers.set(CACHE_STATUS, outcome);
+        headers.set(HttpHeaders.AGE, Long.toString(entry.ageSeconds()));
+        if (entry.etag() != null && matches(requestHeaders.getIfNoneMatch(), entry.etag())) {
+            response.setStatusCode(HttpStatus.NOT_MODIFIED);
+            headers.remove(HttpHeaders.CONTENT_LENGTH);
+            return response.setComplete();
+        }
+        response.setStatusCode(HttpStatus.OK);
+        headers.setContentLength(entry.body().length);
+        return response.writeWith(Mono.just(response.bufferFactory().wrap(entry.body())));
+    }
+
+    private ResponseCache.Key key(String routeName, ServerHttpRequest request) {
+        String query = request.getURI().getRawQuery();
+        String path = request.getURI().getRawPath() + (query == null ? "" : "?" + query);
+        List<String> varying = new ArrayList<>(keyHeaders.size());
+        for (String header : keyHeaders) {
+            varying.add(String.join(",", request.getHeaders().getOrEmpty(header)));
+        }
+        return new ResponseCache.Key(routeName, path, varying);
+    }
+
+    private static Set<String> directives(HttpHeaders headers) {
+        Set<String> directives = new TreeSet<>();
+        for (String value : headers.getOrEmpty(HttpHeaders.CACHE_CONTROL)) {
+            for (String directive : value.split(",")) {
+                directives.add(directive.trim().toLowerCase(Locale.ROOT).replace(" ", ""));
+            }
+        }
+        return directives;
+    }
+
+    // Weak comparison, as If-None-Match requires
+    private static boolean matches(List<String> ifNoneMatch, String etag) {
+        String opaque = etag.startsWith("W/") ? etag.substring(2) : etag;
+        return ifNoneMatch.stream().anyMatch(candidate -> candidate.equals("*")
+                || (candidate.startsWith("W/") ? candidate.substring(2) : candidate).equals(opaque));
+    }
+
+    private void count(String route, String result) {
+        meterRegistry.counter("gateway.response.cache", "route", route, "result", result).increment();
+    }
+
+    /**
+     * Response of a miss or a revalidation: stores a cacheable 200 while it is written to the client,
+     * and turns the 304 of a revalidation back into the cached 200.
+     */
+    private final class Storing extends ServerHttpResponseDecorator {
+
+        private final HttpHeaders requestHeaders;
+        private final String routeName;
+        private final ResponseCache.Key key;
+        private final Duration routeTtl;
+        @Nullable
+        private final ResponseCache.Entry revalidated;
+
+        Storing(ServerHttpResponse delegate, HttpHeaders requestHeaders, String routeName, ResponseCache.Key key,
+                Duration routeTtl, @Nullable ResponseCache.Entry revalidated) {
+            super(delegate);
+            this.requestHeaders = requestHeaders;
+            this.routeName = routeName;
+            this.key = key;
+            this.routeTtl = routeTtl;
+            this.revalidated = revalidated;
+        }
+
+        @Override
+        public Mono<Void> writeWith(Publisher<? extends DataBuffer> body) {
+            HttpStatusCode status = getStatusCode();
+            if (revalidated != null && status == HttpStatus.NOT_MODIFIED) {
+                count(routeName, "revalidated");
+                ResponseCache.Entry renewed = revalidated.renewed(ttlNanos(directives(getHeaders())));
+                cache.put(key, renewed);
+                return Flux.from(body).doOnNext(DataBufferUtils::release)
+                        .then(Mono.defer(() -> serve(getDelegate(), requestHeaders, renewed, "REVALIDATED")));
+            }
+            if (revalidated != null) {
+                count(routeName, "miss");
+            }
+
+            HttpHeaders headers = getHeaders();
+            Set<String> directives = directives(headers);
+            String etag = headers.getETag();
+            long ttlNanos = ttlNanos(directives);
+            long maxEntryBytes = properties.getMaxEntrySize().toBytes();
+            if (status != HttpStatus.OK || directives.contains("no-store") || directives.contains("private")
+                    || headers.containsKey(HttpHeaders.SET_COOKIE) || !variesOnlyByKeyHeaders(headers)
+                    || (ttlNanos <= 0 && etag == null) || headers.getContentLength() > maxEntryBytes) {
+                return super.writeWith(body);
+            }
+
+            HttpHeaders stored = new HttpHeaders();
+            headers.forEach((name, values) -> {
+                if (!NOT_STORED.contains(name)) {
+                    stored.addAll(name, values);
+                }
+            });
+            headers.set(CACHE_STATUS, "MISS");
+            ByteArrayOutputStream captured = new ByteArrayOutputStream();
+            boolean[] tooLarge = {false};
+            return super.writeWith(Flux.from(body)
+                    .doOnNext(buffer -> {
+                        int readable = buffer.readableByteCount();
+                        if (tooLarge[0] || captured.size() + readable > maxEntryBytes) {
+                            tooLarge[0] = true;
+                            return;
+                        }
+                        // Copied without consuming: the same buffer is still written to the client
+                        byte[] bytes = new byte[readable];
+                        int position = buffer.readPosition();
+                        buffer.read(bytes);
+                        buffer.readPosition(position);
+                        captured.writeBytes(bytes);
+                    })
+                    .doOnComplete(() -> {
+                        if (!tooLarge[0]) {
+                            cache.put(key, new ResponseCache.Entry(stored, captured.toByteArray(), etag,
+                                    System.nanoTime(), ttlNanos));
+                        }
+                    }));
+        }
+
+        private long ttlNanos(Set<String> directives) {
+            if (directives.contains("no-cache")) {
+                return 0;
+            }
+            long ttl = routeTtl.toNanos();
+            for (String directive : directives) {
+                String seconds = directive.startsWith("s-maxage=") ? directive.substring(9)
+                        : directive.startsWith("max-age=") ? directive.substring(8) : null;
+                if (seconds != null) {
+                    try {
+                        ttl = Math.min(ttl, Duration.ofSeconds(Long.parseLong(seconds)).toNanos());
+                    } catch (NumberFormatException ex) {
+                        return 0;
+                    }
+                }
+            }
+            return ttl;
+        }
+
+        private boolean variesOnlyByKeyHeaders(HttpHeaders headers) {
+            return headers.getOrEmpty(HttpHeaders.VARY).stream()
+                    .flatMap(value -> Arrays.stream(value.split(",")))
+                    .map(String::trim)
+                    .filter(header -> !header.isEmpty())
+                    .allMatch(header -> !header.equals("*") && keyHeaders.contains(header));
+        }
+    }
+}
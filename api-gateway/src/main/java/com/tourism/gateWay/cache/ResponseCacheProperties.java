@@ -0,0 +1,101 @@
+package com.tourism.gateWay.cache;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Settings of the edge response cache (gateway.response-cache.*).
+ */
+@ConfigurationProperties(prefix = "gateway.response-cache")
+public class ResponseCacheProperties {
+
+    private boolean enabled = true;
+    // TTL of the routes not listed in routes
+    private Duration defaultTtl = Duration.ofSeconds(30);
+    // TTL per route: service id for the discovery routes (cities-service), route id otherwise; 0 disables it
+    private Map<String, Duration> routes = new HashMap<>();
+    // Byte budget of all cached bodies and headers together
+    private DataSize maxSize = DataSize.ofMegabytes(64);
+    // Larger responses are passed through without being cached
+    private DataSize maxEntrySize = DataSize.ofKilobytes(512);
+    // How long an expired entry with an ETag is kept to revalidate it with If-None-Match
+    private Duration staleRetention = Duration.ofMinutes(10);
+    // Request headers that select a different representation, and so a different entry
+    private List<String> keyHeaders = List.of("Accept", "Accept-Encoding", "Accept-Language");
+    // Paths never cached (PathPattern syntax)
+    private List<String> excludedPaths = List.of("/*/actuator/**", "/hotels-service/hotels/events/**",
+            "/hotels-service/hotels/export/**");
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public Duration getDefaultTtl() {
+        return defaultTtl;
+    }
+
+    public void setDefaultTtl(Duration defaultTtl) {
+        this.defaultTtl = defaultTtl;
+    }
+
+    public Map<String, Duration> getRoutes() {
+        return routes;
+    }
+
+    public void setRoutes(Map<String, Duration> routes) {
+        this.routes = routes;
+    }
+
+    public DataSize getMaxSize() {
+        return maxSize;
+    }
+
+    public void setMaxSize(DataSize maxSize) {
+        this.maxSize = maxSize;
+    }
+
+    public DataSize getMaxEntrySize() {
+        return maxEntrySize;
+    }
+
+    public void setMaxEntrySize(DataSize maxEntrySize) {
+        this.maxEntrySize = maxEntrySize;
+    }
+
+    public Duration getStaleRetention() {
+        return staleRetention;
+    }
+
+    public void setStaleRetention(Duration staleRetention) {
+        this.staleRetention = staleRetention;
+    }
+
+    public List<String> getKeyHeaders() {
+        return keyHeaders;
+    }
+
+    public void setKeyHeaders(List<String> keyHeaders) {
+        this.keyHeaders = keyHeaders;
+    }
+
+    public List<String> getExcludedPaths() {
+        return excludedPaths;
+    }
+
+    public void setExcludedPaths(List<String> excludedPaths) {
+        this.excludedPaths = excludedPaths;
+    }
+
+    public Duration ttlOf(String route) {
+        return routes.getOrDefault(route, defaultTtl);
+    }
+}
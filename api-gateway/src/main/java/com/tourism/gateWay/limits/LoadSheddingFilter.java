@@ -0,0 +1,162 @@
+package com.tourism.gateWay.limits;
+
+import com.tourism.gateWay.RouteNames;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.filter.NettyWriteResponseFilter;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.PathContainer;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR;
+
+/**
+ * Sheds load by priority while a backend is slow. The latency of each route (time until the
+ * backend answers, as a moving average weighted by gateway.load-shedding.smoothing) decides:
+ * <ul>
+ *   <li>above latency-threshold, low-priority requests (low-priority-paths, e.g. the filter and
+ *   search queries) are turned away;</li>
+ *   <li>above twice the threshold, normal ones too;</li>
+ *   <li>critical-paths requests always go through.</li>
+ * </ul>
+ * A route is not judged before min-samples answers, which are averaged plainly, so one cold request
+ * cannot shed it. Only the requests let through take samples: while a route sheds, one request per
+ * probe-interval goes through anyway so the average can come back down, and a route with no sample
+ * for sample-window starts over. Shed requests get 503 with Retry-After. Runs after the
+ * response cache, so cached answers are never shed. Published meters: gateway.load-shedding.rejected
+ * (tagged route and priority) and gateway.backend.latency (moving average per route).
+ */
+@Component
+public class LoadSheddingFilter implements GlobalFilter, Ordered {
+
+    // Right after NettyWriteResponseFilter: the chain below completes when the backend answers
+    public static final int ORDER = NettyWriteResponseFilter.WRITE_RESPONSE_FILTER_ORDER + 1;
+
+    enum Priority {
+        LOW, NORMAL, CRITICAL
+    }
+
+    private final LoadSheddingProperties properties;
+    private final MeterRegistry meterRegistry;
+    private final List<PathPattern> lowPriority;
+    private final List<PathPattern> critical;
+    private final Map<String, Latency> latencies = new ConcurrentHashMap<>();
+
+    public LoadSheddingFilter(LoadSheddingProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+        this.lowPriority = properties.getLowPriorityPaths().stream().map(PathPatternParser.defaultInstance::parse).toList();
+        this.critical = properties.getCriticalPaths().stream().map(PathPatternParser.defaultInstance::parse).toList();
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        Route route = exchange.getAttribute(GATEWAY_ROUTE_ATTR);
+        if (!properties.isEnabled() || route == null) {
+            return chain.filter(exchange);
+        }
+        String routeName = RouteNames.of(route);
+        Latency latency = latencies.computeIfAbsent(routeName, this::track);
+        Priority priority = priority(exchange.getRequest().getPath().pathWithinApplication());
+
+        long now = System.nanoTime();
+        long average = latency.average(now, properties.getSampleWindow().toNanos(), properties.getMinSamples());
+        long threshold = properties.getLatencyThreshold().toNanos();
+        boolean slow = (priority == Priority.LOW && average > threshold) || (priority == Priority.NORMAL && average > 2 * threshold);
+        if (slow && !latency.tryProbe(now, properties.getProbeInterval().toNanos())) {
+            String name = priority.name().toLowerCase(Locale.ROOT);
+            meterRegistry.counter("gateway.load-shedding.rejected", "route", routeName, "priority", name).increment();
+            return Rejections.reject(exchange, HttpStatus.SERVICE_UNAVAILABLE, properties.getRetryAfter().toNanos(),
+                    routeName + " is answering slowly, " + name + " priority requests are shed");
+        }
+        return chain.filter(exchange)
+                .doOnSuccess(ignored -> record(latency, now))
+                .doOnError(ignored -> record(latency, now));
+    }
+
+    @Override
+    public int getOrder() {
+        return ORDER;
+    }
+
+    private Priority priority(PathContainer path) {
+        if (critical.stream().anyMatch(pattern -> pattern.matches(path))) {
+            return Priority.CRITICAL;
+        }
+        return lowPriority.stream().anyMatch(pattern -> pattern.matches(path)) ? Priority.LOW : Priority.NORMAL;
+    }
+
+    private void record(Latency latency, long start) {
+        latency.record(start, System.nanoTime(), properties.getSmoothing(),
+                properties.getSampleWindow().toNanos(), properties.getMinSamples());
+    }
+
+    private Latency track(String routeName) {
+        Latency latency = new Latency();
+        Gauge.builder("gateway.backend.latency", latency,
+                        tracked -> tracked.average(System.nanoTime(), properties.getSampleWindow().toNanos(),
+                                properties.getMinSamples()) / 1e9)
+                .tag("route", routeName)
+                .baseUnit("seconds")
+                .register(meterRegistry);
+        return latency;
+    }
+
+    /**
+     * Plain mean over the first samples, exponentially weighted moving average after them; the state
+     * is replaced with a CAS instead of a lock.
+     */
+    static final class Latency {
+
+        private record State(long averageNanos, int samples, long lastSample) {
+        }
+
+        private final AtomicReference<State> state = new AtomicReference<>(new State(0, 0, 0));
+        private final AtomicLong nextProbe = new AtomicLong();
+
+        void record(long start, long end, double smoothing, long windowNanos, int minSamples) {
+            long sample = end - start;
+            state.updateAndGet(current -> {
+                if (current.samples() == 0 || end - current.lastSample() > windowNanos) {
+                    return new State(sample, 1, end);
+                }
+                if (current.samples() < minSamples) {
+                    int samples = current.samples() + 1;
+                    return new State(current.averageNanos() + (sample - current.averageNanos()) / samples, samples, end);
+                }
+                return new State(current.averageNanos() + (long) (smoothing * (sample - current.averageNanos())),
+                        current.samples(), end);
+            });
+        }
+
+        long average(long now, long windowNanos, int minSamples) {
+            State current = state.get();
+            return current.samples() < minSamples || now - current.lastSample() > windowNanos ? 0 : current.averageNanos();
+        }
+
+        // True for at most one caller per interval, the first one a whole interval after shedding started
+        boolean tryProbe(long now, long intervalNanos) {
+            long next = nextProbe.get();
+            if (next == 0 || now - next > intervalNanos) {
+                nextProbe.compareAndSet(next, now + intervalNanos);
+                return false;
+            }
+            return now - next >= 0 && nextProbe.compareAndSet(next, now + intervalNanos);
+        }
+    }
+}
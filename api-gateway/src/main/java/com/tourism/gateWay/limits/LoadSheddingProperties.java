@@ -0,0 +1,104 @@
+package com.tourism.gateWay.limits;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Settings of the latency-driven load shedding (gateway.load-shedding.*).
+ */
+@ConfigurationProperties(prefix = "gateway.load-shedding")
+public class LoadSheddingProperties {
+
+    private boolean enabled = true;
+    // Backend latency (moving average per route) above which low-priority requests are shed;
+    // at twice it, normal ones too
+    private Duration latencyThreshold = Duration.ofSeconds(1);
+    // Weight of each new latency sample in the moving average
+    private double smoothing = 0.2;
+    // Answers a route needs before it can be considered slow
+    private int minSamples = 5;
+    // A route with no sample for this long is no longer considered slow
+    private Duration sampleWindow = Duration.ofSeconds(5);
+    // While a route sheds, one request per interval goes through anyway to measure it again
+    private Duration probeInterval = Duration.ofSeconds(1);
+    // Retry-After of the shed requests
+    private Duration retryAfter = Duration.ofSeconds(5);
+    // PathPattern syntax; requests matching neither list have normal priority
+    private List<String> lowPriorityPaths = new ArrayList<>();
+    private List<String> criticalPaths = new ArrayList<>();
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public Duration getLatencyThreshold() {
+        return latencyThreshold;
+    }
+
+    public void setLatencyThreshold(Duration latencyThreshold) {
+        this.latencyThreshold = latencyThreshold;
+    }
+
+    public double getSmoothing() {
+        return smoothing;
+    }
+
+    public void setSmoothing(double smoothing) {
+        this.smoothing = smoothing;
+    }
+
+    public int getMinSamples() {
+        return minSamples;
+    }
+
+    public void setMinSamples(int minSamples) {
+        this.minSamples = minSamples;
+    }
+
+    public Duration getSampleWindow() {
+        return sampleWindow;
+    }
+
+    public void setSampleWindow(Duration sampleWindow) {
+        this.sampleWindow = sampleWindow;
+    }
+
+    public Duration getProbeInterval() {
+        return probeInterval;
+    }
+
+    public void setProbeInterval(Duration probeInterval) {
+        this.probeInterval = probeInterval;
+    }
+
+    public Duration getRetryAfter() {
+        return retryAfter;
+    }
+
+    public void setRetryAfter(Duration retryAfter) {
+        this.retryAfter = retryAfter;
+    }
+
+    public List<String> getLowPriorityPaths() {
+        return lowPriorityPaths;
+    }
+
+    public void setLowPriorityPaths(List<String> lowPriorityPaths) {
+        this.lowPriorityPaths = lowPriorityPaths;
+    }
+
+    public List<String> getCriticalPaths() {
+        return criticalPaths;
+    }
+
+    public void setCriticalPaths(List<String> criticalPaths) {
+        this.criticalPaths = criticalPaths;
+    }
+}
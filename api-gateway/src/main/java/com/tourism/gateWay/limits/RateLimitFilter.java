@@ -0,0 +1,129 @@
+package com.tourism.gateWay.limits;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.tourism.gateWay.RouteNames;
+import com.tourism.gateWay.cache.ResponseCacheFilter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+import reactor.core.publisher.Mono;
+
+import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR;
+
+/**
+ * In-memory rate limiting of the routed requests, without Redis: every client has a
+ * {@link TokenBucket} per policy, the first gateway.rate-limit.policies entry whose path matches or
+ * else the default one. Clients are told apart by IP (the connection address, not
+ * X-Forwarded-For), by the API key header (falling back to the IP), or not at all when a policy
+ * limits the whole route. Buckets live in a Caffeine cache bounded by max-buckets and dropped after
+ * idle-timeout unused.
+ * <p>
+ * Runs ahead of the response cache, so cached answers count too. Answers carry X-RateLimit-Limit
+ * and X-RateLimit-Remaining; past the limit the answer is 429 with Retry-After. Published meters:
+ * gateway.rate-limit.rejected (tagged route and policy).
+ */
+@Component
+public class RateLimitFilter implements GlobalFilter, Ordered {
+
+    public static final int ORDER = ResponseCacheFilter.ORDER - 1;
+
+    private final RateLimitProperties properties;
+    private final MeterRegistry meterRegistry;
+    private final List<PathPattern> paths = new ArrayList<>();
+    private final Cache<List<Object>, TokenBucket> buckets;
+
+    public RateLimitFilter(RateLimitProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+        for (RateLimitProperties.Policy policy : properties.getPolicies()) {
+            if (policy.getPath() == null) {
+                throw new IllegalArgumentException("Every gateway.rate-limit.policies entry needs a path");
+            }
+            paths.add(PathPatternParser.defaultInstance.parse(policy.getPath()));
+        }
+        this.buckets = Caffeine.newBuilder()
+                .maximumSize(properties.getMaxBuckets())
+                .expireAfterAccess(properties.getIdleTimeout())
+                .build();
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        Route route = exchange.getAttribute(GATEWAY_ROUTE_ATTR);
+        if (!properties.isEnabled() || route == null) {
+            return chain.filter(exchange);
+        }
+        ServerHttpRequest request = exchange.getRequest();
+        int index = policyIndex(request);
+        RateLimitProperties.Policy policy = index < 0 ? properties.getDefaultPolicy() : properties.getPolicies().get(index);
+        String routeName = RouteNames.of(route);
+        long now = System.nanoTime();
+        TokenBucket bucket = buckets.get(List.of(index, client(policy, request, routeName)),
+                key -> new TokenBucket(policy.getBurst(), policy.getRefillPerSecond(), now));
+
+        long wait = bucket.tryTake(now);
+        String remaining = Integer.toString(bucket.remaining(now));
+        if (wait > 0) {
+            String name = index < 0 ? "default" : policy.getPath();
+            meterRegistry.counter("gateway.rate-limit.rejected", "route", routeName, "policy", name).increment();
+            setLimitHeaders(exchange.getResponse().getHeaders(), policy, remaining);
+            return Rejections.reject(exchange, HttpStatus.TOO_MANY_REQUESTS, wait,
+                    "Rate limit of " + policy.getBurst() + " requests exceeded, refilled at "
+                            + policy.getRefillPerSecond() + " per second");
+        }
+        // Set on commit, so they are neither stored by the response cache nor replaced by a cached answer
+        exchange.getResponse().beforeCommit(() -> {
+            setLimitHeaders(exchange.getResponse().getHeaders(), policy, remaining);
+            return Mono.empty();
+        });
+        return chain.filter(exchange);
+    }
+
+    @Override
+    public int getOrder() {
+        return ORDER;
+    }
+
+    private static void setLimitHeaders(HttpHeaders headers, RateLimitProperties.Policy policy, String remaining) {
+        headers.set("X-RateLimit-Limit", Integer.toString(policy.getBurst()));
+        headers.set("X-RateLimit-Remaining", remaining);
+    }
+
+    // -1 for the default policy
+    private int policyIndex(ServerHttpRequest request) {
+        for (int i = 0; i < paths.size(); i++) {
+            if (paths.get(i).matches(request.getPath().pathWithinApplication())) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private String client(RateLimitProperties.Policy policy, ServerHttpRequest request, String routeName) {
+        if (policy.getKeyBy() == RateLimitProperties.KeyBy.ROUTE) {
+            return "route:" + routeName;
+        }
+        if (policy.getKeyBy() == RateLimitProperties.KeyBy.API_KEY) {
+            String apiKey = request.getHeaders().getFirst(properties.getApiKeyHeader());
+            if (apiKey != null && !apiKey.isBlank()) {
+                return "key:" + apiKey;
+            }
+        }
+        InetSocketAddress remote = request.getRemoteAddress();
+        return "ip:" + (remote == null || remote.getAddress() == null ? "unknown" : remote.getAddress().getHostAddress());
+    }
+}
@@ -0,0 +1,122 @@
+package com.tourism.gateWay.limits;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Settings of the per-client rate limiting (gateway.rate-limit.*).
+ */
+@ConfigurationProperties(prefix = "gateway.rate-limit")
+public class RateLimitProperties {
+
+    private boolean enabled = true;
+    // Header carrying the API key of the clients limited by key; without it they are limited by IP
+    private String apiKeyHeader = "X-API-Key";
+    // Buckets kept at once, and how long an unused one is kept (a dropped bucket starts full again)
+    private long maxBuckets = 100_000;
+    private Duration idleTimeout = Duration.ofMinutes(10);
+    // Limit of the paths matched by no policy
+    private Policy defaultPolicy = new Policy();
+    // Limits per path, the first match applies
+    private List<Policy> policies = new ArrayList<>();
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public String getApiKeyHeader() {
+        return apiKeyHeader;
+    }
+
+    public void setApiKeyHeader(String apiKeyHeader) {
+        this.apiKeyHeader = apiKeyHeader;
+    }
+
+    public long getMaxBuckets() {
+        return maxBuckets;
+    }
+
+    public void setMaxBuckets(long maxBuckets) {
+        this.maxBuckets = maxBuckets;
+    }
+
+    public Duration getIdleTimeout() {
+        return idleTimeout;
+    }
+
+    public void setIdleTimeout(Duration idleTimeout) {
+        this.idleTimeout = idleTimeout;
+    }
+
+    public Policy getDefaultPolicy() {
+        return defaultPolicy;
+    }
+
+    public void setDefaultPolicy(Policy defaultPolicy) {
+        this.defaultPolicy = defaultPolicy;
+    }
+
+    public List<Policy> getPolicies() {
+        return policies;
+    }
+
+    public void setPolicies(List<Policy> policies) {
+        this.policies = policies;
+    }
+
+    public enum KeyBy {
+        IP, API_KEY, ROUTE
+    }
+
+    /**
+     * A token bucket per client (or per route): burst requests at once, refilled at
+     * refill-per-second.
+     */
+    public static class Policy {
+
+        // PathPattern syntax; unused in the default policy
+        private String path;
+        private KeyBy keyBy = KeyBy.IP;
+        private int burst = 100;
+        private double refillPerSecond = 50;
+
+        public String getPath() {
+            return path;
+        }
+
+        public void setPath(String path) {
+            this.path = path;
+        }
+
+        public KeyBy getKeyBy() {
+            return keyBy;
+        }
+
+        public void setKeyBy(KeyBy keyBy) {
+            this.keyBy = keyBy;
+        }
+
+        public int getBurst() {
+            return burst;
+        }
+
+        public void setBurst(int burst) {
+            this.burst = burst;
+        }
+
+        public double getRefillPerSecond() {
+            return refillPerSecond;
+        }
+
+        public void setRefillPerSecond(double refillPerSecond) {
+            this.refillPerSecond = refillPerSecond;
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package com.tourism.gateWay.limits;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Answer of a request the gateway turns away, with the error body of the services.
+ */
+final class Rejections {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private Rejections() {
+    }
+
+    static Mono<Void> reject(ServerWebExchange exchange, HttpStatus status, long retryAfterNanos, String message) {
+        ServerHttpResponse response = exchange.getResponse();
+        response.setStatusCode(status);
+        // Whole seconds, rounded up
+        response.getHeaders().set(HttpHeaders.RETRY_AFTER,
+                Long.toString(Math.max(1, (retryAfterNanos + 999_999_999L) / 1_000_000_000L)));
+        response.getHeaders().setContentType(MediaType.APPLICATION_JSON);
+        Map<String, String> error = new LinkedHashMap<>();
+        error.put("error", status.getReasonPhrase());
+        error.put("message", message);
+        try {
+            byte[] body = MAPPER.writeValueAsBytes(error);
+            response.getHeaders().setContentLength(body.length);
+            return response.writeWith(Mono.just(response.bufferFactory().wrap(body)));
+        } catch (JsonProcessingException ex) {
+            return response.setComplete();
+        }
+    }
+}
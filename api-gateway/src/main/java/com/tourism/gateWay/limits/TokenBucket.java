@@ -0,0 +1,46 @@
+package com.tourism.gateWay.limits;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lock-free token bucket, kept as the single instant at which the bucket would be full again
+ * (the GCRA form): taking a token moves that instant one refill interval ahead, and a token is
+ * available while it stays within burst intervals of now. One CAS per request, no timer.
+ */
+final class TokenBucket {
+
+    private final long intervalNanos;
+    private final long capacityNanos;
+    private final AtomicLong fullAt;
+
+    TokenBucket(int burst, double refillPerSecond, long now) {
+        if (burst < 1 || refillPerSecond <= 0) {
+            throw new IllegalArgumentException("A rate limit needs burst >= 1 and refill-per-second > 0");
+        }
+        this.intervalNanos = Math.max(1, (long) (1_000_000_000L / refillPerSecond));
+        this.capacityNanos = intervalNanos * burst;
+        this.fullAt = new AtomicLong(now);
+    }
+
+    /**
+     * Takes a token: 0 when taken, else the nanoseconds until the next one.
+     */
+    long tryTake(long now) {
+        while (true) {
+            long current = fullAt.get();
+            long next = (current - now > 0 ? current : now) + intervalNanos;
+            long wait = next - capacityNanos - now;
+            if (wait > 0) {
+                return wait;
+            }
+            if (fullAt.compareAndSet(current, next)) {
+                return 0;
+            }
+        }
+    }
+
+    int remaining(long now) {
+        long used = Math.max(0, fullAt.get() - now);
+        return (int) Math.max(0, (capacityNanos - used) / intervalNanos);
+    }
+}
@@ -0,0 +1,24 @@
+package com.tourism.gateWay.metrics;
+
+import io.micrometer.core.instrument.config.MeterFilter;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Caps the distinct route and instance tags of the gateway.route.* meters: past
+ * gateway.metrics.max-route-tags and max-instance-tags, new values are dropped instead of opening
+ * new series.
+ */
+@Configuration
+public class RouteMetricsConfig {
+
+    @Bean
+    public MeterFilter routeTagLimit(RouteMetricsProperties properties) {
+        return MeterFilter.maximumAllowableTags(RouteMetricsFilter.PREFIX, "route", properties.getMaxRouteTags(), MeterFilter.deny());
+    }
+
+    @Bean
+    public MeterFilter instanceTagLimit(RouteMetricsProperties properties) {
+        return MeterFilter.maximumAllowableTags(RouteMetricsFilter.PREFIX, "instance", properties.getMaxInstanceTags(), MeterFilter.deny());
+    }
+}
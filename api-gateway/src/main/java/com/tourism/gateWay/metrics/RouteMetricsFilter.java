@@ -0,0 +1,138 @@
+package com.tourism.gateWay.metrics;
+
+import com.tourism.gateWay.RouteNames;
+import com.tourism.gateWay.limits.RateLimitFilter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.LongTaskTimer;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import org.reactivestreams.Publisher;
+import org.springframework.boot.actuate.metrics.http.Outcome;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.core.Ordered;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.server.reactive.ServerHttpRequestDecorator;
+import org.springframework.http.server.reactive.ServerHttpResponseDecorator;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.net.URI;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.GATEWAY_REQUEST_URL_ATTR;
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR;
+
+/**
+ * Per-route traffic through the gateway, the routes being what http.server.requests cannot tell
+ * apart (its uri tag is UNKNOWN for every routed request):
+ * <ul>
+ *   <li>gateway.route.requests: time until the answer is written, tagged route, instance
+ *   (host:port of the backend called, none when the gateway answered itself: cached, rate-limited
+ *   or shed), method, status and outcome;</li>
+ *   <li>gateway.route.requests.active: requests in flight, tagged route;</li>
+ *   <li>gateway.route.request.size and gateway.route.response.size: bytes read from the client
+ *   and written back (before compression), same tags as the timer.</li>
+ * </ul>
+ * Runs first of the gateway's filters, so rejected and cached answers are measured too. The
+ * percentile histograms are configured under management.metrics.distribution; the tags are capped
+ * by {@link RouteMetricsConfig}.
+ */
+@Component
+public class RouteMetricsFilter implements GlobalFilter, Ordered {
+
+    public static final String PREFIX = "gateway.route";
+    public static final int ORDER = RateLimitFilter.ORDER - 1;
+
+    private final MeterRegistry meterRegistry;
+
+    public RouteMetricsFilter(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        Route route = exchange.getAttribute(GATEWAY_ROUTE_ATTR);
+        if (route == null) {
+            return chain.filter(exchange);
+        }
+        String routeName = RouteNames.of(route);
+        AtomicLong bytesIn = new AtomicLong();
+        AtomicLong bytesOut = new AtomicLong();
+        ServerWebExchange counted = exchange.mutate()
+                .request(new ServerHttpRequestDecorator(exchange.getRequest()) {
+                    @Override
+                    public Flux<DataBuffer> getBody() {
+                        return super.getBody().doOnNext(buffer -> bytesIn.addAndGet(buffer.readableByteCount()));
+                    }
+                })
+                .response(new ServerHttpResponseDecorator(exchange.getResponse()) {
+                    @Override
+                    public Mono<Void> writeWith(Publisher<? extends DataBuffer> body) {
+                        return super.writeWith(Flux.from(body).doOnNext(buffer -> bytesOut.addAndGet(buffer.readableByteCount())));
+                    }
+
+                    @Override
+                    public Mono<Void> writeAndFlushWith(Publisher<? extends Publisher<? extends DataBuffer>> body) {
+                        return super.writeAndFlushWith(Flux.from(body).map(part -> Flux.from(part)
+                                .doOnNext(buffer -> bytesOut.addAndGet(buffer.readableByteCount()))));
+                    }
+                })
+                .build();
+
+        LongTaskTimer.Sample active = LongTaskTimer.builder(PREFIX + ".requests.active")
+                .tags("route", routeName)
+                .register(meterRegistry)
+                .start();
+        long start = System.nanoTime();
+        Consumer<Tags> record = status -> {
+            active.stop();
+            Tags tags = Tags.of("route", routeName, "instance", instance(counted), "method", exchange.getRequest().getMethod().name())
+                    .and(status);
+            Timer.builder(PREFIX + ".requests").tags(tags).register(meterRegistry)
+                    .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            summary(PREFIX + ".request.size", tags).record(bytesIn.get());
+            summary(PREFIX + ".response.size", tags).record(bytesOut.get());
+        };
+        // Recorded on the way out, before the server completes the answer
+        return chain.filter(counted)
+                .doOnSuccess(done -> record.accept(status(exchange, null)))
+                .doOnError(failure -> record.accept(status(exchange, failure)))
+                .doOnCancel(() -> record.accept(Tags.of("status", "CLIENT_CLOSED", "outcome", Outcome.UNKNOWN.name())));
+    }
+
+    @Override
+    public int getOrder() {
+        return ORDER;
+    }
+
+    private DistributionSummary summary(String name, Tags tags) {
+        return DistributionSummary.builder(name).baseUnit("bytes").tags(tags).register(meterRegistry);
+    }
+
+    // The backend the request went to, once the load balancer has resolved lb:// to an instance
+    private static String instance(ServerWebExchange exchange) {
+        URI url = exchange.getAttribute(GATEWAY_REQUEST_URL_ATTR);
+        if (url == null || url.getHost() == null || "lb".equals(url.getScheme())) {
+            return "none";
+        }
+        return url.getPort() == -1 ? url.getHost() : url.getHost() + ":" + url.getPort();
+    }
+
+    // On an error the answer is not written yet: its status is the one the error handler will give
+    private static Tags status(ServerWebExchange exchange, Throwable failure) {
+        HttpStatusCode status = failure instanceof ResponseStatusException rejected ? rejected.getStatusCode()
+                : failure != null ? HttpStatus.INTERNAL_SERVER_ERROR : exchange.getResponse().getStatusCode();
+        int code = status == null ? 200 : status.value();
+        return Tags.of("status", Integer.toString(code), "outcome", Outcome.forStatus(code).name());
+    }
+}
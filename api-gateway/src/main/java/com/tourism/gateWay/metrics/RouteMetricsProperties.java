@@ -0,0 +1,31 @@
+package com.tourism.gateWay.metrics;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Cardinality limits of the per-route meters (gateway.metrics.*).
+ */
+@ConfigurationProperties(prefix = "gateway.metrics")
+public class RouteMetricsProperties {
+
+    // Distinct route tags kept; past it, meters of new routes are dropped
+    private int maxRouteTags = 100;
+    // Distinct instance tags kept (instances come and go with every deploy and scale-out)
+    private int maxInstanceTags = 200;
+
+    public int getMaxRouteTags() {
+        return maxRouteTags;
+    }
+
+    public void setMaxRouteTags(int maxRouteTags) {
+        this.maxRouteTags = maxRouteTags;
+    }
+
+    public int getMaxInstanceTags() {
+        return maxInstanceTags;
+    }
+
+    public void setMaxInstanceTags(int maxInstanceTags) {
+        this.maxInstanceTags = maxInstanceTags;
+    }
+}
@@ -0,0 +1,167 @@
+package com.tourism.gateWay.balancing;
+
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.read.ListAppender;
+import com.sun.net.httpserver.HttpServer;
+import io.netty.util.ResourceLeakDetector;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * A hedged read whose losing call is cancelled halfway through its body must give that body's
+ * pooled buffers back. Runs with the Netty leak detector at PARANOID, so every buffer is tracked,
+ * and fails on any leak it reports.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("test")
+class HedgingFilterTest {
+
+    private static final int BODY_SIZE = 256 * 1024;
+    private static final long STALL_MILLIS = 3000;
+
+    // The first /mirror/partial request sends part of its body, then stalls
+    private static final AtomicBoolean stalled = new AtomicBoolean();
+    private static final HttpServer mirror1 = backend();
+    private static final HttpServer mirror2 = backend();
+
+    private static final HttpClient http = HttpClient.newHttpClient();
+    private static ResourceLeakDetector.Level previousLevel;
+
+    private final Logger leakLogger = (Logger) LoggerFactory.getLogger(ResourceLeakDetector.class);
+    private final ListAppender<ILoggingEvent> leaks = new ListAppender<>();
+
+    @LocalServerPort
+    private int port;
+
+    @DynamicPropertySource
+    static void routes(DynamicPropertyRegistry registry) {
+        registry.add("spring.cloud.discovery.client.simple.instances.mirror[0].uri", () -> uri(mirror1));
+        registry.add("spring.cloud.discovery.client.simple.instances.mirror[1].uri", () -> uri(mirror2));
+        registry.add("spring.cloud.gateway.server.webflux.routes[0].id", () -> "mirror");
+        registry.add("spring.cloud.gateway.server.webflux.routes[0].uri", () -> "lb://mirror");
+        registry.add("spring.cloud.gateway.server.webflux.routes[0].predicates[0]", () -> "Path=/mirror/**");
+        registry.add("gateway.response-cache.enabled", () -> "false");
+        registry.add("gateway.rate-limit.enabled", () -> "false");
+        registry.add("gateway.load-balancing.hedging.enabled", () -> "true");
+        registry.add("gateway.load-balancing.hedging.min-samples", () -> "20");
+    }
+
+    @BeforeAll
+    static void trackEveryBuffer() {
+        previousLevel = ResourceLeakDetector.getLevel();
+        ResourceLeakDetector.setLevel(ResourceLeakDetector.Level.PARANOID);
+    }
+
+    @AfterAll
+    static void stopBackends() {
+        ResourceLeakDetector.setLevel(previousLevel);
+        http.close();
+        mirror1.stop(0);
+        mirror2.stop(0);
+    }
+
+    @BeforeEach
+    void watchLeaks() throws Exception {
+        // Leaks of earlier tests in this JVM are reported before watching
+        collectGarbage();
+        leaks.start();
+        leakLogger.addAppender(leaks);
+    }
+
+    @AfterEach
+    void stopWatching() {
+        leakLogger.detachAppender(leaks);
+    }
+
+    @Test
+    void theCallCancelledMidBodyReleasesIt() throws Exception {
+        // Enough samples for the p95 of mirror
+        for (int i = 0; i < 30; i++) {
+            assertEquals(200, send("/mirror/hotels").statusCode());
+        }
+
+        long start = System.nanoTime();
+        HttpResponse<byte[]> response = send("/mirror/partial");
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+
+        // Answered by the hedge while the stalled call was still inside its body
+        assertEquals(200, response.statusCode());
+        assertEquals(BODY_SIZE, response.body().length);
+        assertTrue(stalled.get());
+        assertTrue(elapsedMillis < STALL_MILLIS, "hedged read took " + elapsedMillis + " ms");
+        collectGarbage();
+        assertEquals(List.of(), leaks.list.stream().map(ILoggingEvent::getFormattedMessage).toList());
+    }
+
+    // The detector reports what the GC found on the next buffers it tracks: requests allocate them
+    private void collectGarbage() throws Exception {
+        for (int i = 0; i < 5; i++) {
+            System.gc();
+            Thread.sleep(50);
+            send("/mirror/hotels");
+        }
+    }
+
+    private HttpResponse<byte[]> send(String path) throws IOException, InterruptedException {
+        return http.send(HttpRequest.newBuilder(URI.create("http://localhost:" + port + path)).GET().build(),
+                HttpResponse.BodyHandlers.ofByteArray());
+    }
+
+    private static String uri(HttpServer server) {
+        return "http://localhost:" + server.getAddress().getPort();
+    }
+
+    private static HttpServer backend() {
+        try {
+            HttpServer server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+            server.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+            server.createContext("/", exchange -> {
+                byte[] body = new byte[BODY_SIZE];
+                Arrays.fill(body, (byte) 'h');
+                boolean stall = exchange.getRequestURI().getPath().endsWith("/partial") && stalled.compareAndSet(false, true);
+                try (OutputStream out = exchange.getResponseBody()) {
+                    exchange.sendResponseHeaders(200, body.length);
+                    int sent = 0;
+                    if (stall) {
+                        sent = BODY_SIZE / 4;
+                        out.write(body, 0, sent);
+                        out.flush();
+                        Thread.sleep(STALL_MILLIS);
+                    }
+                    out.write(body, sent, BODY_SIZE - sent);
+                } catch (IOException | InterruptedException ignored) {
+                    // The gateway gave up on this call
+                }
+            });
+            server.start();
+            return server;
+        } catch (IOException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+}
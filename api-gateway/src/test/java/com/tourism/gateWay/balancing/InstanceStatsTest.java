@@ -0,0 +1,85 @@
+package com.tourism.gateWay.balancing;
+
+import com.tourismSystem.shared.balancing.InstanceStats;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.client.DefaultServiceInstance;
+import org.springframework.cloud.client.ServiceInstance;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class InstanceStatsTest {
+
+    private final InstanceStats stats = new InstanceStats(new SimpleMeterRegistry(), 0.3, Duration.ofHours(1),
+            Duration.ofSeconds(1), 50, Duration.ofMillis(20), Duration.ofSeconds(2));
+
+    private final ServiceInstance fast1 = instance("fast-1", 8081);
+    private final ServiceInstance fast2 = instance("fast-2", 8082);
+    private final ServiceInstance slow = instance("slow", 8083);
+    private final List<ServiceInstance> candidates = List.of(fast1, fast2, slow);
+
+    @Test
+    void theSlowInstanceLosesEveryPairItIsIn() {
+        sample(fast1, Duration.ofMillis(2));
+        sample(fast2, Duration.ofMillis(3));
+        sample(slow, Duration.ofMillis(300));
+
+        Map<ServiceInstance, Integer> chosen = choose(1000);
+        assertEquals(0, chosen.getOrDefault(slow, 0));
+        assertTrue(chosen.get(fast1) > 0);
+        assertTrue(chosen.get(fast2) > 0);
+    }
+
+    @Test
+    void callsInFlightWeighTheLatency() {
+        sample(fast1, Duration.ofMillis(2));
+        sample(fast2, Duration.ofMillis(3));
+        sample(slow, Duration.ofMillis(300));
+        // 2 ms x 201 and 3 ms x 201 both lose to 300 ms x 1
+        for (int i = 0; i < 200; i++) {
+            stats.started(fast1);
+            stats.started(fast2);
+        }
+
+        Map<ServiceInstance, Integer> chosen = choose(1000);
+        assertEquals(0, chosen.getOrDefault(fast2, 0));
+        assertTrue(chosen.get(slow) > chosen.get(fast1));
+    }
+
+    @Test
+    void anInstanceNeverCalledIsProbedOnceAtATime() {
+        sample(fast1, Duration.ofMillis(2));
+        sample(fast2, Duration.ofMillis(3));
+        assertTrue(choose(1000).get(slow) > 0);
+
+        // Its first call is not back yet
+        stats.started(slow);
+        assertEquals(0, choose(1000).getOrDefault(slow, 0));
+
+        stats.finished(slow, Duration.ofMillis(300).toNanos(), false);
+        assertEquals(0, choose(1000).getOrDefault(slow, 0));
+    }
+
+    private void sample(ServiceInstance instance, Duration latency) {
+        stats.started(instance);
+        stats.finished(instance, latency.toNanos(), false);
+    }
+
+    private Map<ServiceInstance, Integer> choose(int times) {
+        Map<ServiceInstance, Integer> chosen = new HashMap<>();
+        for (int i = 0; i < times; i++) {
+            chosen.merge(stats.choose(candidates), 1, Integer::sum);
+        }
+        return chosen;
+    }
+
+    private static ServiceInstance instance(String id, int port) {
+        return new DefaultServiceInstance(id, "catalog", "localhost", port, false);
+    }
+}
@@ -0,0 +1,160 @@
+package com.tourism.gateWay.balancing;
+
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.DefaultRequest;
+import org.springframework.cloud.loadbalancer.core.RoundRobinLoadBalancer;
+import org.springframework.cloud.loadbalancer.core.ServiceInstanceListSupplier;
+import org.springframework.cloud.loadbalancer.support.LoadBalancerClientFactory;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * p50 and p99 of a route over three instances, one of them slow, with the latency-aware balancer
+ * (through the gateway) vs. picking the same instances in turn as the default round robin does.
+ * Run with: mvn test -Dtest=LatencyAwareLoadBalancerBenchmark -Dbenchmark=true
+ *           [-Dbenchmark.requests=2000] [-Dbenchmark.concurrency=4] [-Dbenchmark.delay-ms=300]
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("test")
+class LatencyAwareLoadBalancerBenchmark {
+
+    private static final int REQUESTS = Integer.getInteger("benchmark.requests", 2000);
+    private static final int CONCURRENCY = Integer.getInteger("benchmark.concurrency", 4);
+    private static final long DELAY_MS = Long.getLong("benchmark.delay-ms", 300);
+
+    private static final HttpServer fast1 = backend(0);
+    private static final HttpServer fast2 = backend(0);
+    private static final HttpServer slow = backend(DELAY_MS);
+
+    private static final HttpClient http = HttpClient.newHttpClient();
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private LoadBalancerClientFactory clientFactory;
+
+    @DynamicPropertySource
+    static void routes(DynamicPropertyRegistry registry) {
+        registry.add("spring.cloud.discovery.client.simple.instances.catalog[0].uri", () -> uri(fast1));
+        registry.add("spring.cloud.discovery.client.simple.instances.catalog[1].uri", () -> uri(fast2));
+        registry.add("spring.cloud.discovery.client.simple.instances.catalog[2].uri", () -> uri(slow));
+        registry.add("spring.cloud.gateway.server.webflux.routes[0].id", () -> "balanced");
+        registry.add("spring.cloud.gateway.server.webflux.routes[0].uri", () -> "lb://catalog");
+        registry.add("spring.cloud.gateway.server.webflux.routes[0].predicates[0]", () -> "Path=/balanced/**");
+        registry.add("gateway.response-cache.enabled", () -> "false");
+        registry.add("gateway.rate-limit.enabled", () -> "false");
+        registry.add("gateway.load-shedding.enabled", () -> "false");
+    }
+
+    @AfterAll
+    static void stopBackends() {
+        http.close();
+        for (HttpServer server : List.of(fast1, fast2, slow)) {
+            server.stop(0);
+        }
+    }
+
+    @Test
+    void compareLatencyAwareAndRoundRobin() throws Exception {
+        // Warm-up, and lets the balancer meet the three instances
+        timed(50, 1, i -> URI.create("http://localhost:" + port + "/balanced/hotels"));
+
+        List<Long> latencyAware = timed(REQUESTS, CONCURRENCY, i -> URI.create("http://localhost:" + port + "/balanced/hotels"));
+
+        RoundRobinLoadBalancer roundRobin = new RoundRobinLoadBalancer(
+                clientFactory.getLazyProvider("catalog", ServiceInstanceListSupplier.class), "catalog");
+        List<Long> roundRobinLatencies = timed(REQUESTS, CONCURRENCY, i -> {
+            ServiceInstance instance = roundRobin.choose(new DefaultRequest<>()).block().getServer();
+            return instance.getUri().resolve("/balanced/hotels");
+        });
+
+        System.out.printf("%d requests, %d concurrent clients, one of three instances %d ms slow%n",
+                REQUESTS, CONCURRENCY, DELAY_MS);
+        System.out.printf("  latency-aware: p50 %d ms, p99 %d ms%n", percentile(latencyAware, 0.50), percentile(latencyAware, 0.99));
+        System.out.printf("  round robin:   p50 %d ms, p99 %d ms%n",
+                percentile(roundRobinLatencies, 0.50), percentile(roundRobinLatencies, 0.99));
+    }
+
+    // Latency in ms of each of the requests, sent by the given number of concurrent clients
+    private List<Long> timed(int requests, int clients, Function<Integer, URI> target) throws Exception {
+        List<Long> latencies = Collections.synchronizedList(new ArrayList<>());
+        try (ExecutorService executor = Executors.newFixedThreadPool(clients)) {
+            List<Future<?>> sent = new ArrayList<>();
+            for (int i = 0; i < requests; i++) {
+                int request = i;
+                sent.add(executor.submit(() -> {
+                    long start = System.nanoTime();
+                    HttpResponse<String> response = http.send(HttpRequest.newBuilder(target.apply(request)).GET().build(),
+                            HttpResponse.BodyHandlers.ofString());
+                    assertEquals(200, response.statusCode());
+                    latencies.add((System.nanoTime() - start) / 1_000_000);
+                    return null;
+                }));
+            }
+            for (Future<?> future : sent) {
+                future.get();
+            }
+        }
+        return latencies;
+    }
+
+    private static long percentile(List<Long> latencies, double percentile) {
+        List<Long> sorted = latencies.stream().sorted().toList();
+        return sorted.get((int) Math.ceil(sorted.size() * percentile) - 1);
+    }
+
+    private static String uri(HttpServer server) {
+        return "http://localhost:" + server.getAddress().getPort();
+    }
+
+    private static HttpServer backend(long delayMillis) {
+        try {
+            HttpServer server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+            server.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+            server.createContext("/", exchange -> {
+                try {
+                    Thread.sleep(delayMillis);
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                }
+                byte[] body = "ok".getBytes(StandardCharsets.UTF_8);
+                exchange.sendResponseHeaders(200, body.length);
+                try (OutputStream out = exchange.getResponseBody()) {
+                    out.write(body);
+                }
+            });
+            server.start();
+            return server;
+        } catch (IOException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+}
@@ -0,0 +1,205 @@
+package com.tourism.gateWay.balancing;
+
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("test")
+class LatencyAwareLoadBalancerTest {
+
+    private static final long SLOW_MILLIS = 300;
+
+    // Three instances of "catalog", the last one slow; two instances of "flaky"
+    private static final HttpServer fast1 = backend("fast-1", 0);
+    private static final HttpServer fast2 = backend("fast-2", 0);
+    private static final HttpServer slow = backend("slow", SLOW_MILLIS);
+    private static final HttpServer flaky1 = backend("flaky-1", 0);
+    private static final HttpServer flaky2 = backend("flaky-2", 0);
+    // The first /hedged/stall request stalls on whichever instance gets it
+    private static final AtomicBoolean stalled = new AtomicBoolean();
+    // Requests answered by each backend, by name
+    private static final Map<String, AtomicInteger> hits = new ConcurrentHashMap<>();
+
+    // Closed after the class, so no keep-alive connection holds up the gateway's graceful shutdown
+    private static final HttpClient http = HttpClient.newHttpClient();
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @DynamicPropertySource
+    static void routes(DynamicPropertyRegistry registry) {
+        registry.add("spring.cloud.discovery.client.simple.instances.catalog[0].uri", () -> uri(fast1));
+        registry.add("spring.cloud.discovery.client.simple.instances.catalog[1].uri", () -> uri(fast2));
+        registry.add("spring.cloud.discovery.client.simple.instances.catalog[2].uri", () -> uri(slow));
+        registry.add("spring.cloud.discovery.client.simple.instances.flaky[0].uri", () -> uri(flaky1));
+        registry.add("spring.cloud.discovery.client.simple.instances.flaky[1].uri", () -> uri(flaky2));
+        registry.add("spring.cloud.gateway.server.webflux.routes[0].id", () -> "balanced");
+        registry.add("spring.cloud.gateway.server.webflux.routes[0].uri", () -> "lb://catalog");
+        registry.add("spring.cloud.gateway.server.webflux.routes[0].predicates[0]", () -> "Path=/balanced/**");
+        registry.add("spring.cloud.gateway.server.webflux.routes[1].id", () -> "hedged");
+        registry.add("spring.cloud.gateway.server.webflux.routes[1].uri", () -> "lb://flaky");
+        registry.add("spring.cloud.gateway.server.webflux.routes[1].predicates[0]", () -> "Path=/hedged/**");
+        registry.add("gateway.response-cache.enabled", () -> "false");
+        registry.add("gateway.rate-limit.enabled", () -> "false");
+        registry.add("gateway.load-balancing.hedging.enabled", () -> "true");
+        registry.add("gateway.load-balancing.hedging.min-samples", () -> "20");
+        registry.add("gateway.load-balancing.hedging.excluded-paths[0]", () -> "/balanced/**");
+    }
+
+    @AfterAll
+    static void stopBackends() {
+        http.close();
+        for (HttpServer server : List.of(fast1, fast2, slow, flaky1, flaky2)) {
+            server.stop(0);
+        }
+    }
+
+    @Test
+    void theSlowInstanceOnlyGetsProbes() throws Exception {
+        // Warms the gateway up, and lets the balancer meet the three instances
+        timed(20, 1, this::viaGateway);
+
+        Map<String, Integer> before = Map.copyOf(hitCounts());
+        timed(200, 4, this::viaGateway);
+        Map<String, Integer> after = hitCounts();
+
+        // Round robin would send the slow instance a third of them
+        int slowHits = after.get("slow") - before.get("slow");
+        assertTrue(slowHits <= 20, "slow instance got " + slowHits + " of 200 requests");
+        assertTrue(after.get("fast-1") > before.get("fast-1"));
+        assertTrue(after.get("fast-2") > before.get("fast-2"));
+        assertTrue(meterRegistry.get("loadbalancer.instance.latency").tag("service", "catalog")
+                .tag("instance", "localhost:" + slow.getAddress().getPort()).gauge().value() >= SLOW_MILLIS / 1000.0);
+    }
+
+    @Test
+    void aStalledReadIsAnsweredByTheHedge() throws Exception {
+        // Enough samples for the p95 of flaky
+        timed(30, 1, i -> URI.create("http://localhost:" + port + "/hedged/hotels"));
+
+        double hedgesBefore = hedgesWon();
+        long start = System.nanoTime();
+        HttpResponse<String> response = send(URI.create("http://localhost:" + port + "/hedged/stall"));
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+
+        assertEquals(200, response.statusCode());
+        assertTrue(stalled.get());
+        assertTrue(elapsedMillis < 1000, "hedged read took " + elapsedMillis + " ms");
+        assertEquals(hedgesBefore + 1, hedgesWon());
+    }
+
+    private double hedgesWon() {
+        Counter counter = meterRegistry.find("gateway.hedged.requests").tag("route", "flaky").tag("winner", "hedge").counter();
+        return counter == null ? 0 : counter.count();
+    }
+
+    private URI viaGateway(int ignored) {
+        return URI.create("http://localhost:" + port + "/balanced/hotels");
+    }
+
+    // Latency in ms of each of the requests, sent by the given number of concurrent clients
+    private List<Long> timed(int requests, int clients, Function<Integer, URI> target) throws Exception {
+        List<Long> latencies = Collections.synchronizedList(new ArrayList<>());
+        try (ExecutorService executor = Executors.newFixedThreadPool(clients)) {
+            List<Future<?>> sent = new ArrayList<>();
+            for (int i = 0; i < requests; i++) {
+                int request = i;
+                sent.add(executor.submit(() -> {
+                    long start = System.nanoTime();
+                    assertEquals(200, send(target.apply(request)).statusCode());
+                    latencies.add((System.nanoTime() - start) / 1_000_000);
+                    return null;
+                }));
+            }
+            for (Future<?> future : sent) {
+                future.get();
+            }
+        }
+        return latencies;
+    }
+
+    private HttpResponse<String> send(URI uri) throws IOException, InterruptedException {
+        return http.send(HttpRequest.newBuilder(uri).GET().build(), HttpResponse.BodyHandlers.ofString());
+    }
+
+    private static Map<String, Integer> hitCounts() {
+        Map<String, Integer> counts = new HashMap<>();
+        for (String name : List.of("fast-1", "fast-2", "slow")) {
+            counts.put(name, hits.computeIfAbsent(name, ignored -> new AtomicInteger()).get());
+        }
+        return counts;
+    }
+
+    private static String uri(HttpServer server) {
+        return "http://localhost:" + server.getAddress().getPort();
+    }
+
+    // Answers with its name, after the given delay
+    private static HttpServer backend(String name, long delayMillis) {
+        try {
+            HttpServer server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+            server.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+            server.createContext("/", exchange -> {
+                hits.computeIfAbsent(name, ignored -> new AtomicInteger()).incrementAndGet();
+                long delay = delayMillis;
+                if (exchange.getRequestURI().getPath().endsWith("/stall") && stalled.compareAndSet(false, true)) {
+                    delay = 5000;
+                }
+                try {
+                    Thread.sleep(delay);
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                }
+                byte[] body = name.getBytes(StandardCharsets.UTF_8);
+                try {
+                    exchange.sendResponseHeaders(200, body.length);
+                    try (OutputStream out = exchange.getResponseBody()) {
+                        out.write(body);
+                    }
+                } catch (IOException ignored) {
+                    // The gateway gave up on this call
+                }
+            });
+            server.start();
+            return server;
+        } catch (IOException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+}
@@ -0,0 +1,192 @@
+package com.tourism.gateWay.cache;
+
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalManagementPort;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("test")
+class ResponseCacheFilterTest {
+
+    private static final String ETAG = "W/\"1-0\"";
+    private static final Map<String, AtomicInteger> hits = new ConcurrentHashMap<>();
+    private static final List<String> conditionals = new CopyOnWriteArrayList<>();
+    private static final HttpServer backend = backend();
+
+    @LocalServerPort
+    private int port;
+
+    @LocalManagementPort
+    private int managementPort;
+
+    @Autowired
+    private ResponseCache cache;
+
+    @DynamicPropertySource
+    static void routes(DynamicPropertyRegistry registry) {
+        String uri = "http://localhost:" + backend.getAddress().getPort();
+        registry.add("spring.cloud.gateway.server.webflux.routes[0].id", () -> "catalog");
+        registry.add("spring.cloud.gateway.server.webflux.routes[0].uri", () -> uri);
+        registry.add("spring.cloud.gateway.server.webflux.routes[0].predicates[0]", () -> "Path=/catalog/**");
+        registry.add("spring.cloud.gateway.server.webflux.routes[1].id", () -> "revalidated");
+        registry.add("spring.cloud.gateway.server.webflux.routes[1].uri", () -> uri);
+        registry.add("spring.cloud.gateway.server.webflux.routes[1].predicates[0]", () -> "Path=/revalidated/**");
+        registry.add("gateway.response-cache.routes.catalog", () -> "1m");
+        registry.add("gateway.response-cache.routes.revalidated", () -> "100ms");
+    }
+
+    @AfterAll
+    static void stopBackend() {
+        backend.stop(0);
+    }
+
+    @BeforeEach
+    void emptyCache() {
+        cache.purge(null, null);
+        hits.clear();
+        conditionals.clear();
+    }
+
+    @Test
+    void repeatedReadsAreAnsweredAtTheEdge() {
+        for (int i = 0; i < 5; i++) {
+            get("/catalog/hotels/country/Japón?limit=50").expectStatus().isOk()
+                    .expectHeader().valueEquals(ResponseCacheFilter.CACHE_STATUS, i == 0 ? "MISS" : "HIT")
+                    .expectBody(String.class).isEqualTo("hotels of /catalog/hotels/country/Japón?limit=50");
+        }
+        assertEquals(1, hits("/catalog/hotels/country/Japón"));
+
+        // Another query, or another representation, is another entry
+        get("/catalog/hotels/country/Japón?limit=10").expectStatus().isOk();
+        client().get().uri("/catalog/hotels/country/Japón?limit=50").header(HttpHeaders.ACCEPT, "application/cbor")
+                .exchange().expectHeader().valueEquals(ResponseCacheFilter.CACHE_STATUS, "MISS");
+        assertEquals(3, hits("/catalog/hotels/country/Japón"));
+
+        // The client's own ETag is answered here
+        client().get().uri("/catalog/hotels/country/Japón?limit=50").header(HttpHeaders.IF_NONE_MATCH, ETAG)
+                .exchange().expectStatus().isNotModified();
+        assertEquals(3, hits("/catalog/hotels/country/Japón"));
+    }
+
+    @Test
+    void expiredEntriesAreRevalidatedWithTheirETag() throws InterruptedException {
+        get("/revalidated/hotels/id/1").expectHeader().valueEquals(ResponseCacheFilter.CACHE_STATUS, "MISS");
+        Thread.sleep(200);
+
+        get("/revalidated/hotels/id/1").expectStatus().isOk()
+                .expectHeader().valueEquals(ResponseCacheFilter.CACHE_STATUS, "REVALIDATED")
+                .expectBody(String.class).isEqualTo("hotels of /revalidated/hotels/id/1");
+        assertEquals(List.of(ETAG), conditionals);
+        get("/revalidated/hotels/id/1").expectHeader().valueEquals(ResponseCacheFilter.CACHE_STATUS, "HIT");
+        assertEquals(2, hits("/revalidated/hotels/id/1"));
+    }
+
+    @Test
+    void noStoreResponsesAndAuthorizedRequestsAreNotCached() {
+        get("/catalog/private/bookings").expectStatus().isOk();
+        get("/catalog/private/bookings").expectStatus().isOk();
+        assertEquals(2, hits("/catalog/private/bookings"));
+
+        client().get().uri("/catalog/cities/1").header(HttpHeaders.AUTHORIZATION, "Bearer token").exchange();
+        get("/catalog/cities/1").expectHeader().valueEquals(ResponseCacheFilter.CACHE_STATUS, "MISS");
+        assertEquals(2, hits("/catalog/cities/1"));
+    }
+
+    @Test
+    void purgingByPrefixLeavesTheOtherEntries() {
+        get("/catalog/hotels/id/1");
+        get("/catalog/cities/id/1");
+
+        management().delete().uri("/actuator/responsecache?prefix=/catalog/hotels").exchange()
+                .expectStatus().isOk()
+                .expectBody().jsonPath("$.purged").isEqualTo(1);
+
+        get("/catalog/hotels/id/1").expectHeader().valueEquals(ResponseCacheFilter.CACHE_STATUS, "MISS");
+        get("/catalog/cities/id/1").expectHeader().valueEquals(ResponseCacheFilter.CACHE_STATUS, "HIT");
+
+        management().delete().uri("/actuator/responsecache?route=catalog").exchange().expectStatus().isOk();
+        get("/catalog/cities/id/1").expectHeader().valueEquals(ResponseCacheFilter.CACHE_STATUS, "MISS");
+    }
+
+    @Test
+    void thePublicPortCannotPurgeTheCache() {
+        get("/catalog/hotels/id/1");
+
+        client().delete().uri("/actuator/responsecache").exchange().expectStatus().isNotFound();
+        client().get().uri("/actuator/prometheus").exchange().expectStatus().isNotFound();
+
+        get("/catalog/hotels/id/1").expectHeader().valueEquals(ResponseCacheFilter.CACHE_STATUS, "HIT");
+    }
+
+    private WebTestClient.ResponseSpec get(String uri) {
+        return client().get().uri(uri).exchange();
+    }
+
+    private WebTestClient client() {
+        return WebTestClient.bindToServer().baseUrl("http://localhost:" + port).build();
+    }
+
+    // Actuator listens on management.server.port only
+    private WebTestClient management() {
+        return WebTestClient.bindToServer().baseUrl("http://localhost:" + managementPort).build();
+    }
+
+    private static int hits(String path) {
+        return hits.getOrDefault(path, new AtomicInteger()).get();
+    }
+
+    // Answers every path with the same ETag, and 304 when asked with it
+    private static HttpServer backend() {
+        try {
+            HttpServer server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+            server.createContext("/", exchange -> {
+                String path = exchange.getRequestURI().getPath();
+                String query = exchange.getRequestURI().getQuery();
+                hits.computeIfAbsent(path, ignored -> new AtomicInteger()).incrementAndGet();
+                String ifNoneMatch = exchange.getRequestHeaders().getFirst(HttpHeaders.IF_NONE_MATCH);
+                exchange.getResponseHeaders().set(HttpHeaders.ETAG, ETAG);
+                if (path.contains("/private/")) {
+                    exchange.getResponseHeaders().set(HttpHeaders.CACHE_CONTROL, "no-store");
+                }
+                if (ETAG.equals(ifNoneMatch)) {
+                    conditionals.add(ifNoneMatch);
+                    exchange.sendResponseHeaders(304, -1);
+                    exchange.close();
+                    return;
+                }
+                byte[] body = ("hotels of " + path + (query == null ? "" : "?" + query)).getBytes(StandardCharsets.UTF_8);
+                exchange.getResponseHeaders().set(HttpHeaders.CONTENT_TYPE, "text/plain;charset=UTF-8");
+                exchange.sendResponseHeaders(200, body.length);
+                try (OutputStream out = exchange.getResponseBody()) {
+                    out.write(body);
+                }
+            });
+            server.start();
+            return server;
+        } catch (IOException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+}
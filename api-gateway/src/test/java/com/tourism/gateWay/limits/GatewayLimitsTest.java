@@ -0,0 +1,179 @@
+package com.tourism.gateWay.limits;
+
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("test")
+class GatewayLimitsTest {
+
+    private static final HttpServer backend = backend();
+    private static volatile long recoveringDelayMillis;
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @DynamicPropertySource
+    static void routes(DynamicPropertyRegistry registry) {
+        String uri = "http://localhost:" + backend.getAddress().getPort();
+        registry.add("spring.cloud.gateway.server.webflux.routes[0].id", () -> "catalog");
+        registry.add("spring.cloud.gateway.server.webflux.routes[0].uri", () -> uri);
+        registry.add("spring.cloud.gateway.server.webflux.routes[0].predicates[0]", () -> "Path=/catalog/**");
+        registry.add("spring.cloud.gateway.server.webflux.routes[1].id", () -> "slow");
+        registry.add("spring.cloud.gateway.server.webflux.routes[1].uri", () -> uri);
+        registry.add("spring.cloud.gateway.server.webflux.routes[1].predicates[0]", () -> "Path=/slow/**");
+        registry.add("spring.cloud.gateway.server.webflux.routes[2].id", () -> "recovering");
+        registry.add("spring.cloud.gateway.server.webflux.routes[2].uri", () -> uri);
+        registry.add("spring.cloud.gateway.server.webflux.routes[2].predicates[0]", () -> "Path=/recovering/**");
+        registry.add("gateway.response-cache.enabled", () -> "false");
+        registry.add("gateway.rate-limit.policies[0].path", () -> "/catalog/limited/**");
+        registry.add("gateway.rate-limit.policies[0].burst", () -> "3");
+        registry.add("gateway.rate-limit.policies[0].refill-per-second", () -> "0.5");
+        registry.add("gateway.rate-limit.policies[1].path", () -> "/catalog/keyed/**");
+        registry.add("gateway.rate-limit.policies[1].key-by", () -> "api-key");
+        registry.add("gateway.rate-limit.policies[1].burst", () -> "2");
+        registry.add("gateway.rate-limit.policies[1].refill-per-second", () -> "0.5");
+        registry.add("gateway.load-shedding.latency-threshold", () -> "200ms");
+        registry.add("gateway.load-shedding.min-samples", () -> "3");
+        registry.add("gateway.load-shedding.probe-interval", () -> "500ms");
+        registry.add("gateway.load-shedding.low-priority-paths[0]", () -> "/slow/reports/**");
+        registry.add("gateway.load-shedding.critical-paths[0]", () -> "/slow/health");
+    }
+
+    @AfterAll
+    static void stopBackend() {
+        backend.stop(0);
+    }
+
+    @Test
+    void pastTheBurstClientsAreToldWhenToRetry() {
+        for (int i = 0; i < 3; i++) {
+            get("/catalog/limited/hotels").expectStatus().isOk()
+                    .expectHeader().valueEquals("X-RateLimit-Limit", "3")
+                    .expectHeader().valueEquals("X-RateLimit-Remaining", Integer.toString(2 - i));
+        }
+        get("/catalog/limited/hotels").expectStatus().isEqualTo(429)
+                .expectHeader().valueEquals(HttpHeaders.RETRY_AFTER, "2")
+                .expectBody().jsonPath("$.error").isEqualTo("Too Many Requests");
+
+        // Other paths have their own, larger bucket
+        get("/catalog/hotels").expectStatus().isOk();
+        assertEquals(1.0, meterRegistry.get("gateway.rate-limit.rejected")
+                .tag("route", "catalog").tag("policy", "/catalog/limited/**").counter().count());
+    }
+
+    @Test
+    void everyApiKeyHasItsOwnBucket() {
+        for (String key : new String[]{"agency-a", "agency-a", "agency-b", "agency-b"}) {
+            client().get().uri("/catalog/keyed/hotels").header("X-API-Key", key).exchange().expectStatus().isOk();
+        }
+        client().get().uri("/catalog/keyed/hotels").header("X-API-Key", "agency-a").exchange()
+                .expectStatus().isEqualTo(429);
+    }
+
+    @Test
+    void aSlowBackendShedsLowPriorityRequestsFirst() {
+        // Opens the connection to the backend, so no sample below pays for it
+        get("/catalog/hotels").expectStatus().isOk();
+        for (int i = 0; i < 3; i++) {
+            get("/slow/hotels").expectStatus().isOk();
+        }
+
+        // About 300 ms: past the threshold, below twice it
+        get("/slow/reports/occupancy").expectStatus().isEqualTo(503)
+                .expectHeader().valueEquals(HttpHeaders.RETRY_AFTER, "5");
+        get("/slow/hotels").expectStatus().isOk();
+        get("/slow/health").expectStatus().isOk();
+        assertEquals(1.0, meterRegistry.get("gateway.load-shedding.rejected")
+                .tag("route", "slow").tag("priority", "low").counter().count());
+    }
+
+    @Test
+    void aShedRouteIsProbedUntilItRecovers() throws InterruptedException {
+        recoveringDelayMillis = 500;
+        get("/catalog/hotels").expectStatus().isOk();
+        for (int i = 0; i < 3; i++) {
+            get("/recovering/hotels").expectStatus().isOk();
+        }
+        get("/recovering/hotels").expectStatus().isEqualTo(503);
+
+        // Back to fast: one request per probe interval still goes through and pulls the average down
+        recoveringDelayMillis = 0;
+        for (int i = 0; i < 3; i++) {
+            Thread.sleep(600);
+            get("/recovering/hotels").expectStatus().isOk();
+        }
+        get("/recovering/hotels").expectStatus().isOk();
+        get("/recovering/hotels").expectStatus().isOk();
+    }
+
+    @Test
+    void oneSlowSampleDoesNotMakeARouteSlow() {
+        LoadSheddingFilter.Latency latency = new LoadSheddingFilter.Latency();
+        long window = Duration.ofSeconds(5).toNanos();
+        long start = System.nanoTime();
+        latency.record(start, start + Duration.ofSeconds(3).toNanos(), 0.2, window, 3);
+        assertEquals(0, latency.average(start, window, 3));
+
+        long later = start + Duration.ofSeconds(3).toNanos();
+        latency.record(later, later + Duration.ofMillis(100).toNanos(), 0.2, window, 3);
+        latency.record(later, later + Duration.ofMillis(200).toNanos(), 0.2, window, 3);
+        assertEquals(Duration.ofMillis(1100).toNanos(), latency.average(later, window, 3));
+    }
+
+    private WebTestClient.ResponseSpec get(String uri) {
+        return client().get().uri(uri).exchange();
+    }
+
+    private WebTestClient client() {
+        return WebTestClient.bindToServer().baseUrl("http://localhost:" + port).build();
+    }
+
+    // Answers after 300 ms under /slow, after recoveringDelayMillis under /recovering, at once elsewhere
+    private static HttpServer backend() {
+        try {
+            HttpServer server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+            server.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+            server.createContext("/", exchange -> {
+                String path = exchange.getRequestURI().getPath();
+                long delay = path.startsWith("/slow/") ? 300 : path.startsWith("/recovering/") ? recoveringDelayMillis : 0;
+                try {
+                    Thread.sleep(delay);
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                }
+                byte[] body = "ok".getBytes(StandardCharsets.UTF_8);
+                exchange.sendResponseHeaders(200, body.length);
+                try (OutputStream out = exchange.getResponseBody()) {
+                    out.write(body);
+                }
+            });
+            server.start();
+            return server;
+        } catch (IOException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+}
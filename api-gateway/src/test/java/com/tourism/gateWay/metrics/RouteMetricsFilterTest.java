@@ -0,0 +1,153 @@
+package com.tourism.gateWay.metrics;
+
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalManagementPort;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@AutoConfigureObservability
+@ActiveProfiles("test")
+class RouteMetricsFilterTest {
+
+    private static final String HOTELS = "[{\"name\":\"Park Hyatt\"}]";
+
+    private static final HttpServer backend = backend();
+
+    @LocalServerPort
+    private int port;
+
+    @LocalManagementPort
+    private int managementPort;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @DynamicPropertySource
+    static void routes(DynamicPropertyRegistry registry) {
+        String uri = "http://localhost:" + backend.getAddress().getPort();
+        registry.add("spring.cloud.discovery.client.simple.instances.catalog[0].uri", () -> uri);
+        registry.add("spring.cloud.gateway.server.webflux.routes[0].id", () -> "catalog-route");
+        registry.add("spring.cloud.gateway.server.webflux.routes[0].uri", () -> "lb://catalog");
+        registry.add("spring.cloud.gateway.server.webflux.routes[0].predicates[0]", () -> "Path=/catalog/**");
+        registry.add("spring.cloud.gateway.server.webflux.routes[1].id", () -> "direct");
+        registry.add("spring.cloud.gateway.server.webflux.routes[1].uri", () -> uri);
+        registry.add("spring.cloud.gateway.server.webflux.routes[1].predicates[0]", () -> "Path=/direct/**");
+        registry.add("gateway.response-cache.enabled", () -> "false");
+        registry.add("gateway.rate-limit.enabled", () -> "false");
+    }
+
+    @AfterAll
+    static void stopBackend() {
+        backend.stop(0);
+    }
+
+    @Test
+    void everyRouteHasItsLatencyBytesAndInstance() throws InterruptedException {
+        for (String city : List.of("Tokio", "Osaka", "Sapporo")) {
+            client().get().uri("/catalog/hotels/city/" + city).exchange().expectStatus().isOk();
+        }
+        client().post().uri("/catalog/hotels/batch").bodyValue("[1,2,3]").exchange().expectStatus().isOk();
+        client().get().uri("/catalog/missing").exchange().expectStatus().isNotFound();
+
+        awaitRecorded(5);
+        String instance = "localhost:" + backend.getAddress().getPort();
+        Timer reads = meterRegistry.get("gateway.route.requests")
+                .tags("route", "catalog", "instance", instance, "method", "GET", "status", "200", "outcome", "SUCCESS")
+                .timer();
+        assertEquals(3, reads.count());
+        assertEquals(1, meterRegistry.get("gateway.route.requests")
+                .tags("route", "catalog", "status", "404", "outcome", "CLIENT_ERROR").timer().count());
+        assertEquals(3.0 * HOTELS.length(), meterRegistry.get("gateway.route.response.size")
+                .tags("route", "catalog", "method", "GET", "status", "200").summary().totalAmount());
+        assertEquals(7.0, meterRegistry.get("gateway.route.request.size")
+                .tags("route", "catalog", "method", "POST").summary().totalAmount());
+        assertEquals(0, meterRegistry.get("gateway.route.requests.active").tag("route", "catalog").longTaskTimer().activeTasks());
+    }
+
+    @Test
+    void prometheusScrapesTheRouteHistograms() {
+        client().get().uri("/direct/hotels/city/Tokio").exchange().expectStatus().isOk();
+
+        String scrape = client(managementPort).get().uri("/actuator/prometheus").exchange()
+                .expectStatus().isOk()
+                .expectBody(String.class).returnResult().getResponseBody();
+
+        assertTrue(scrape.contains("gateway_route_requests_seconds_bucket{"), "latency histogram");
+        assertTrue(scrape.contains("gateway_route_response_size_bytes_bucket{"), "response size histogram");
+        assertTrue(scrape.contains("route=\"direct\""), "route tag");
+        assertTrue(scrape.contains("application=\"api-gateway\""), "application tag");
+        // Paths never become tags
+        assertFalse(scrape.contains("Tokio"));
+    }
+
+    // The client can read the answer a moment before the gateway records it
+    private void awaitRecorded(long requests) throws InterruptedException {
+        for (int i = 0; i < 50 && recorded() < requests; i++) {
+            Thread.sleep(20);
+        }
+    }
+
+    private long recorded() {
+        return meterRegistry.find("gateway.route.requests").tag("route", "catalog").timers().stream()
+                .mapToLong(Timer::count).sum();
+    }
+
+    private WebTestClient client() {
+        return client(port);
+    }
+
+    // Actuator listens on management.server.port only
+    private WebTestClient client(int port) {
+        // The scrape, with every histogram bucket, is larger than the default 256 KB
+        return WebTestClient.bindToServer().baseUrl("http://localhost:" + port)
+                .codecs(codecs -> codecs.defaultCodecs().maxInMemorySize(16 * 1024 * 1024))
+                .build();
+    }
+
+    // Answers the same hotels on every path, 404 on /missing
+    private static HttpServer backend() {
+        try {
+            HttpServer server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+            server.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+            server.createContext("/", exchange -> {
+                try (InputStream in = exchange.getRequestBody()) {
+                    in.readAllBytes();
+                }
+                byte[] body = HOTELS.getBytes(StandardCharsets.UTF_8);
+                int status = exchange.getRequestURI().getPath().endsWith("/missing") ? 404 : 200;
+                exchange.getResponseHeaders().set("Content-Type", "application/json");
+                exchange.sendResponseHeaders(status, body.length);
+                try (OutputStream out = exchange.getResponseBody()) {
+                    out.write(body);
+                }
+            });
+            server.start();
+            return server;
+        } catch (IOException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+}
@@ -1,13 +1,17 @@
 package com.tourismSystem.cities;
 
+import com.tourismSystem.cities.balancing.LatencyAwareLoadBalancerConfiguration;
 import com.tourismSystem.cities.entities.City;
 import com.tourismSystem.cities.repositories.CityRepository;
+import com.tourismSystem.shared.geocoding.CityGeocoder;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.CommandLineRunner;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.cloud.client.discovery.EnableDiscoveryClient;
+import org.springframework.cloud.loadbalancer.annotation.LoadBalancerClients;
 import org.springframework.cloud.openfeign.EnableFeignClients;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 import java.io.BufferedReader;
 import java.io.InputStream;
@@ -16,12 +20,17 @@ import java.io.InputStreamReader;
 @SpringBootApplication
 @EnableDiscoveryClient
 @EnableFeignClients
+@EnableScheduling
+@LoadBalancerClients(defaultConfiguration = LatencyAwareLoadBalancerConfiguration.class)
 
 public class CitiesApplication implements CommandLineRunner {
 
 	@Autowired
 	private CityRepository cityRepository;
 
+	@Autowired
+	private CityGeocoder cityGeocoder;
+
     public static void main(String[] args) {
 		SpringApplication.run(CitiesApplication.class, args);
 	}
@@ -61,6 +70,11 @@ public class CitiesApplication implements CommandLineRunner {
 			city.setName(data[1].trim());      // name
 			city.setState(data[2].trim());     // state
 			city.setCountry(data[3].trim());   // country
+			double[] position = cityGeocoder.locate(city.getName(), city.getState(), city.getCountry());
+			if (position != null) {
+				city.setLatitude(position[0]);
+				city.setLongitude(position[1]);
+			}
 
 			cityRepository.save(city);
 		}
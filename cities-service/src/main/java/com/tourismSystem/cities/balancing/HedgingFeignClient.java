@@ -0,0 +1,173 @@
+package com.tourismSystem.cities.balancing;
+
+import com.tourismSystem.shared.balancing.InstanceStats;
+import feign.Client;
+import feign.Request;
+import feign.Response;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Hedged reads of the Feign clients (cities.load-balancing.hedging.enabled, off by default): a GET
+ * still unanswered after the p95 latency of its service is sent again, and the load balancer gives
+ * the second call another instance (both carry the same {@link #HEDGE_ID}). The first answer that
+ * is not a 5xx is returned and the other one is closed once it arrives. While the service has too
+ * few samples for its p95, calls go through unhedged.
+ * <p>
+ * Wraps the load-balanced Feign client, so the instance choice, the lifecycle that feeds
+ * {@link InstanceStats} and the resilience4j annotations of IHotelRepository all see both calls.
+ * Published meters: hotels.client.hedged.requests (tagged service and winner: primary or hedge).
+ */
+public class HedgingFeignClient implements Client {
+
+    public static final String HEDGE_ID = "X-Hedge-Id";
+
+    private final Client delegate;
+    private final InstanceStats stats;
+    private final Executor executor;
+    private final MeterRegistry meterRegistry;
+
+    public HedgingFeignClient(Client delegate, InstanceStats stats, Executor executor, MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        this.stats = stats;
+        this.executor = executor;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public Response execute(Request request, Request.Options options) throws IOException {
+        String serviceId = URI.create(request.url()).getHost();
+        Optional<Duration> delay = request.httpMethod() == Request.HttpMethod.GET && serviceId != null
+                ? stats.hedgeDelay(serviceId) : Optional.empty();
+        if (delay.isEmpty()) {
+            return delegate.execute(request, options);
+        }
+        Request tagged = withHedgeId(request, UUID.randomUUID().toString());
+        CompletableFuture<Response> primary = send(tagged, options);
+        try {
+            // A 5xx before the delay is returned as is, as an unhedged call would
+            return primary.get(delay.get().toNanos(), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException slow) {
+            return race(serviceId, primary, send(tagged, options));
+        } catch (ExecutionException ex) {
+            throw unwrap(ex.getCause());
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            closeUnless(primary, null);
+            throw new IOException("Interrupted while waiting for " + serviceId, ex);
+        }
+    }
+
+    // The first answer below 500 wins; when neither has one, the primary's outcome is reported
+    private Response race(String serviceId, CompletableFuture<Response> primary, CompletableFuture<Response> hedge)
+            throws IOException {
+        CompletableFuture<Response> winner = new CompletableFuture<>();
+        primary.thenAccept(response -> {
+            if (response.status() < 500) {
+                winner.complete(response);
+            }
+        });
+        hedge.thenAccept(response -> {
+            if (response.status() < 500) {
+                winner.complete(response);
+            }
+        });
+        CompletableFuture.allOf(primary, hedge).whenComplete((ignored, failure) -> {
+            Response answered = usable(hedge) != null ? usable(hedge) : usable(primary);
+            if (answered != null) {
+                winner.complete(answered);
+            } else {
+                primary.whenComplete((response, ex) -> {
+                    if (ex != null) {
+                        winner.completeExceptionally(ex);
+                    } else {
+                        winner.complete(response);
+                    }
+                });
+            }
+        });
+        Response response;
+        try {
+            response = winner.get();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            closeUnless(primary, null);
+            closeUnless(hedge, null);
+            throw new IOException("Interrupted while waiting for " + serviceId, ex);
+        } catch (ExecutionException ex) {
+            closeUnless(primary, null);
+            closeUnless(hedge, null);
+            throw unwrap(ex.getCause());
+        }
+        String won = response == answer(hedge) ? "hedge" : "primary";
+        meterRegistry.counter("hotels.client.hedged.requests", "service", serviceId, "winner", won).increment();
+        closeUnless(primary, response);
+        closeUnless(hedge, response);
+        return response;
+    }
+
+    // The answer of a finished call, or null
+    private static Response answer(CompletableFuture<Response> call) {
+        return call.isDone() && !call.isCompletedExceptionally() ? call.join() : null;
+    }
+
+    private static Response usable(CompletableFuture<Response> call) {
+        Response response = answer(call);
+        return response != null && response.status() < 500 ? response : null;
+    }
+
+    private CompletableFuture<Response> send(Request request, Request.Options options) {
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                return delegate.execute(request, options);
+            } catch (IOException ex) {
+                throw new UncheckedIOException(ex);
+            }
+        }, executor);
+    }
+
+    private static void closeUnless(CompletableFuture<Response> call, Response kept) {
+        call.thenAccept(response -> {
+            if (response != kept) {
+                response.close();
+            }
+        });
+    }
+
+    private static Request withHedgeId(Request request, String hedgeId) {
+        Map<String, Collection<String>> headers = new LinkedHashMap<>(request.headers());
+        headers.put(HEDGE_ID, List.of(hedgeId));
+        return Request.create(request.httpMethod(), request.url(), headers, request.body(), request.charset(),
+                request.requestTemplate());
+    }
+
+    private static IOException unwrap(Throwable failure) {
+        Throwable cause = failure instanceof CompletionException && failure.getCause() != null ? failure.getCause() : failure;
+        if (cause instanceof UncheckedIOException unchecked) {
+            return unchecked.getCause();
+        }
+        if (cause instanceof IOException io) {
+            return io;
+        }
+        if (cause instanceof RuntimeException runtime) {
+            throw runtime;
+        }
+        return new IOException(cause);
+    }
+}
@@ -0,0 +1,44 @@
+package com.tourismSystem.cities.balancing;
+
+import com.tourismSystem.shared.balancing.InstanceStats;
+import feign.Client;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Only active with cities.load-balancing.hedging.enabled. Wraps the load-balanced Feign client in a
+ * {@link HedgingFeignClient}; both calls of a hedged read run on virtual threads.
+ */
+@Component
+@ConditionalOnProperty(value = "cities.load-balancing.hedging.enabled", havingValue = "true")
+public class HedgingFeignClientPostProcessor implements BeanPostProcessor {
+
+    private final ObjectProvider<InstanceStats> stats;
+    private final ObjectProvider<MeterRegistry> meterRegistry;
+    private final ExecutorService calls = Executors.newVirtualThreadPerTaskExecutor();
+
+    public HedgingFeignClientPostProcessor(ObjectProvider<InstanceStats> stats, ObjectProvider<MeterRegistry> meterRegistry) {
+        this.stats = stats;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (bean instanceof Client client && !(bean instanceof HedgingFeignClient)) {
+            return new HedgingFeignClient(client, stats.getObject(), calls, meterRegistry.getObject());
+        }
+        return bean;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        calls.shutdownNow();
+    }
+}
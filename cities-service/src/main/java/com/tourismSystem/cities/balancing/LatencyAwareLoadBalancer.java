@@ -0,0 +1,82 @@
+package com.tourismSystem.cities.balancing;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.tourismSystem.shared.balancing.InstanceStats;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.DefaultResponse;
+import org.springframework.cloud.client.loadbalancer.EmptyResponse;
+import org.springframework.cloud.client.loadbalancer.Request;
+import org.springframework.cloud.client.loadbalancer.RequestDataContext;
+import org.springframework.cloud.client.loadbalancer.Response;
+import org.springframework.cloud.loadbalancer.core.NoopServiceInstanceListSupplier;
+import org.springframework.cloud.loadbalancer.core.ReactorServiceInstanceLoadBalancer;
+import org.springframework.cloud.loadbalancer.core.SelectedInstanceCallback;
+import org.springframework.cloud.loadbalancer.core.ServiceInstanceListSupplier;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Load balancer of one service that picks its instance with {@link InstanceStats#choose}, in place
+ * of round robin. The calls of one hedged read share a {@link HedgingFeignClient#HEDGE_ID} header,
+ * and each of them goes to an instance none of the others went to.
+ */
+public class LatencyAwareLoadBalancer implements ReactorServiceInstanceLoadBalancer {
+
+    private final ObjectProvider<ServiceInstanceListSupplier> suppliers;
+    private final InstanceStats stats;
+    // Instances already given to each hedged read
+    private final Cache<String, Set<String>> hedges = Caffeine.newBuilder()
+            .expireAfterWrite(Duration.ofMinutes(1))
+            .build();
+
+    public LatencyAwareLoadBalancer(ObjectProvider<ServiceInstanceListSupplier> suppliers, InstanceStats stats) {
+        this.suppliers = suppliers;
+        this.stats = stats;
+    }
+
+    @Override
+    @SuppressWarnings("rawtypes")
+    public Mono<Response<ServiceInstance>> choose(Request request) {
+        ServiceInstanceListSupplier supplier = suppliers.getIfAvailable(NoopServiceInstanceListSupplier::new);
+        return supplier.get(request).next().map(instances -> {
+            ServiceInstance chosen = choose(instances, hedgeId(request));
+            if (chosen == null) {
+                return new EmptyResponse();
+            }
+            if (supplier instanceof SelectedInstanceCallback callback) {
+                callback.selectedServiceInstance(chosen);
+            }
+            return new DefaultResponse(chosen);
+        });
+    }
+
+    private ServiceInstance choose(List<ServiceInstance> instances, String hedgeId) {
+        if (hedgeId == null) {
+            return stats.choose(instances);
+        }
+        Set<String> taken = hedges.get(hedgeId, ignored -> ConcurrentHashMap.newKeySet());
+        List<ServiceInstance> untaken = instances.stream()
+                .filter(instance -> !taken.contains(InstanceStats.key(instance)))
+                .toList();
+        ServiceInstance chosen = stats.choose(untaken.isEmpty() ? instances : untaken);
+        if (chosen != null) {
+            taken.add(InstanceStats.key(chosen));
+        }
+        return chosen;
+    }
+
+    @SuppressWarnings("rawtypes")
+    private static String hedgeId(Request request) {
+        if (request.getContext() instanceof RequestDataContext context && context.getClientRequest() != null
+                && context.getClientRequest().getHeaders() != null) {
+            return context.getClientRequest().getHeaders().getFirst(HedgingFeignClient.HEDGE_ID);
+        }
+        return null;
+    }
+}
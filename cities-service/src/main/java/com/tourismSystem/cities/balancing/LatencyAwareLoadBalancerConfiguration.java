@@ -0,0 +1,29 @@
+package com.tourismSystem.cities.balancing;
+
+import com.tourismSystem.shared.balancing.InstanceStats;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.loadbalancer.core.ReactorLoadBalancer;
+import org.springframework.cloud.loadbalancer.core.ServiceInstanceListSupplier;
+import org.springframework.cloud.loadbalancer.support.LoadBalancerClientFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.core.env.Environment;
+
+/**
+ * Load balancer of every service the Feign clients call (registered through @LoadBalancerClients,
+ * so it lives in each service's own context and is deliberately not a scanned @Configuration).
+ * The api-gateway has a configuration of the same shape, kept apart because it builds a different
+ * balancer: the one here also spreads the calls of a hedged read over distinct instances. What both
+ * balancers rely on, the instance statistics, is the shared {@link InstanceStats}.
+ */
+public class LatencyAwareLoadBalancerConfiguration {
+
+    @Bean
+    @ConditionalOnProperty(value = "cities.load-balancing.latency-aware", havingValue = "true", matchIfMissing = true)
+    public ReactorLoadBalancer<ServiceInstance> latencyAwareLoadBalancer(Environment environment,
+                                                                        LoadBalancerClientFactory clientFactory,
+                                                                        InstanceStats stats) {
+        String serviceId = LoadBalancerClientFactory.getName(environment);
+        return new LatencyAwareLoadBalancer(clientFactory.getLazyProvider(serviceId, ServiceInstanceListSupplier.class), stats);
+    }
+}
@@ -0,0 +1,28 @@
+package com.tourismSystem.cities.balancing;
+
+import com.tourismSystem.shared.balancing.InstanceStats;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * Declares the {@link InstanceStats} shared with api-gateway, set up from cities.load-balancing.*.
+ */
+@Configuration
+public class LoadBalancingConfig {
+
+    @Bean
+    public InstanceStats instanceStats(MeterRegistry meterRegistry,
+                                       @Value("${cities.load-balancing.smoothing:0.3}") double smoothing,
+                                       @Value("${cities.load-balancing.probe-after:10s}") Duration probeAfter,
+                                       @Value("${cities.load-balancing.failure-penalty:1s}") Duration failurePenalty,
+                                       @Value("${cities.load-balancing.hedging.min-samples:50}") int hedgeMinSamples,
+                                       @Value("${cities.load-balancing.hedging.min-delay:20ms}") Duration hedgeMinDelay,
+                                       @Value("${cities.load-balancing.hedging.max-delay:2s}") Duration hedgeMaxDelay) {
+        return new InstanceStats(meterRegistry, smoothing, probeAfter, failurePenalty,
+                hedgeMinSamples, hedgeMinDelay, hedgeMaxDelay);
+    }
+}
@@ -0,0 +1,164 @@
+package com.tourismSystem.cities.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.tourismSystem.cities.exceptions.InformationNotAvailable;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Supplier;
+
+/**
+ * Stale-while-revalidate cache of the hotels-service answers, keyed like the calls themselves
+ * (method and normalized arguments) in a bounded Caffeine cache:
+ * <ul>
+ *   <li>younger than cities.hotel-cache.soft-ttl: served as is;</li>
+ *   <li>younger than hard-ttl: served while one background call refreshes it;</li>
+ *   <li>older, or not cached: fetched first. When that fetch brings no answer (a null from the
+ *   IHotelRepository fallbacks on a 5xx, timeout or open circuit, or a timed-out wait) the last
+ *   known good answer is served, up to max-stale old, before degrading to the empty answer. A 404
+ *   is an answer: the fallbacks turn it into an empty one, cached like any other.</li>
+ * </ul>
+ * Published meters: hotels.client.cache.requests (tagged result: hit, stale or miss),
+ * hotels.client.cache.refreshes (tagged outcome: updated or failed), hotels.client.cache.fallbacks
+ * (tagged served: last-known-good or empty) and the cache.* meters of "hotels.client".
+ */
+@Component
+public class HotelResponseCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(HotelResponseCache.class);
+
+    private final Cache<List<Object>, Answer> answers;
+    private final Set<List<Object>> refreshing = ConcurrentHashMap.newKeySet();
+    private final ExecutorService refresher = Executors.newVirtualThreadPerTaskExecutor();
+    private final long softTtlNanos;
+    private final long hardTtlNanos;
+    private final Counter hits;
+    private final Counter staleHits;
+    private final Counter misses;
+    private final Counter refreshed;
+    private final Counter refreshFailures;
+    private final Counter lastKnownGood;
+    private final Counter degraded;
+
+    public HotelResponseCache(MeterRegistry meterRegistry,
+                              @Value("${cities.hotel-cache.maximum-size:10000}") long maximumSize,
+                              @Value("${cities.hotel-cache.soft-ttl:30s}") Duration softTtl,
+                              @Value("${cities.hotel-cache.hard-ttl:5m}") Duration hardTtl,
+                              @Value("${cities.hotel-cache.max-stale:1h}") Duration maxStale) {
+        if (softTtl.compareTo(hardTtl) > 0 || hardTtl.compareTo(maxStale) > 0) {
+            throw new IllegalArgumentException("cities.hotel-cache needs soft-ttl <= hard-ttl <= max-stale");
+        }
+        this.answers = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(maxStale)
+                .recordStats()
+                .build();
+        this.softTtlNanos = softTtl.toNanos();
+        this.hardTtlNanos = hardTtl.toNanos();
+
+        CaffeineCacheMetrics.monitor(meterRegistry, answers, "hotels.client");
+        this.hits = meterRegistry.counter("hotels.client.cache.requests", "result", "hit");
+        this.staleHits = meterRegistry.counter("hotels.client.cache.requests", "result", "stale");
+        this.misses = meterRegistry.counter("hotels.client.cache.requests", "result", "miss");
+        this.refreshed = meterRegistry.counter("hotels.client.cache.refreshes", "outcome", "updated");
+        this.refreshFailures = meterRegistry.counter("hotels.client.cache.refreshes", "outcome", "failed");
+        this.lastKnownGood = meterRegistry.counter("hotels.client.cache.fallbacks", "served", "last-known-good");
+        this.degraded = meterRegistry.counter("hotels.client.cache.fallbacks", "served", "empty");
+    }
+
+    /**
+     * Answer of fetch for this key, following the TTLs above. fetch returns null when hotels-service
+     * gave no answer; empty is what is served then if nothing good is cached.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T get(String method, List<?> arguments, Supplier<T> fetch, T empty) {
+        List<Object> key = List.of(method, arguments);
+        Answer cached = answers.getIfPresent(key);
+        long age = cached == null ? Long.MAX_VALUE : System.nanoTime() - cached.fetchedAt();
+        if (age < softTtlNanos) {
+            hits.increment();
+            return (T) cached.value();
+        }
+        if (age < hardTtlNanos) {
+            staleHits.increment();
+            refresh(key, fetch);
+            return (T) cached.value();
+        }
+
+        misses.increment();
+        T fetched;
+        try {
+            fetched = fetch.get();
+        } catch (InformationNotAvailable ex) {
+            if (cached == null) {
+                throw ex;
+            }
+            fetched = null;
+        }
+        if (fetched != null) {
+            answers.put(key, new Answer(fetched, System.nanoTime()));
+            return fetched;
+        }
+        if (cached != null) {
+            lastKnownGood.increment();
+            logger.warn("hotels-service gave no answer to {}{}: serving the one from {} s ago",
+                    method, arguments, age / 1_000_000_000);
+            return (T) cached.value();
+        }
+        degraded.increment();
+        return empty;
+    }
+
+    public void invalidateAll() {
+        answers.invalidateAll();
+    }
+
+    // One refresh per key at a time; a failed one keeps the cached answer for the next stale read
+    private void refresh(List<Object> key, Supplier<?> fetch) {
+        if (!refreshing.add(key)) {
+            return;
+        }
+        try {
+            refresher.execute(() -> {
+                try {
+                    Object fetched = fetch.get();
+                    if (fetched != null) {
+                        answers.put(key, new Answer(fetched, System.nanoTime()));
+                        refreshed.increment();
+                    } else {
+                        refreshFailures.increment();
+                    }
+                } catch (RuntimeException ex) {
+                    refreshFailures.increment();
+                    logger.warn("Refresh of {} failed: {}", key, ex.getMessage());
+                } finally {
+                    refreshing.remove(key);
+                }
+            });
+        } catch (RejectedExecutionException ex) {
+            refreshing.remove(key);
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        refresher.shutdownNow();
+    }
+
+    private record Answer(Object value, long fetchedAt) {
+    }
+}
@@ -0,0 +1,20 @@
+package com.tourismSystem.cities.config;
+
+import com.tourismSystem.shared.geocoding.CityGeocoder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.io.Resource;
+
+/**
+ * The offline {@link CityGeocoder}, read from {@code cities.geo.geocoding-location}; by default the
+ * geocoding/cities.csv of the shared resources.
+ */
+@Configuration
+public class GeocodingConfig {
+
+    @Bean
+    public CityGeocoder cityGeocoder(@Value("${cities.geo.geocoding-location:classpath:geocoding/cities.csv}") Resource geocodingCsv) {
+        return new CityGeocoder(geocodingCsv);
+    }
+}
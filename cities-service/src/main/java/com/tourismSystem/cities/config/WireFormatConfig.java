@@ -0,0 +1,39 @@
+package com.tourismSystem.cities.config;
+
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileGenerator;
+import com.tourismSystem.cities.converters.CityProtobufHttpMessageConverter;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.List;
+
+/**
+ * Encodings picked by Accept, after JSON (which stays the default): CBOR (application/cbor) and Smile
+ * (application/x-jackson-smile) come from Jackson, Protobuf (application/x-protobuf) from
+ * {@link CityProtobufHttpMessageConverter}. Smile also back-references repeated string values, so the
+ * state/country of long city lists are written once.
+ */
+@Configuration
+public class WireFormatConfig implements WebMvcConfigurer {
+
+    private final Jackson2ObjectMapperBuilder objectMapperBuilder;
+
+    public WireFormatConfig(Jackson2ObjectMapperBuilder objectMapperBuilder) {
+        this.objectMapperBuilder = objectMapperBuilder;
+    }
+
+    @Override
+    public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+        SmileFactory smile = SmileFactory.builder()
+                .enable(SmileGenerator.Feature.CHECK_SHARED_STRING_VALUES)
+                .build();
+        converters.replaceAll(converter -> converter instanceof MappingJackson2SmileHttpMessageConverter
+                ? new MappingJackson2SmileHttpMessageConverter(objectMapperBuilder.factory(smile).build())
+                : converter);
+        converters.add(new CityProtobufHttpMessageConverter());
+    }
+}
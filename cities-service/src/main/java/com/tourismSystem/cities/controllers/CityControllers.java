@@ -1,9 +1,17 @@
 package com.tourismSystem.cities.controllers;
 
+import com.tourismSystem.cities.dtos.BulkImportSummaryDTO;
+import com.tourismSystem.cities.dtos.CityBatchDTO;
 import com.tourismSystem.cities.dtos.CityDTO;
+import com.tourismSystem.cities.dtos.CityWithHotelsDTO;
+import com.tourismSystem.cities.dtos.HotelsBatchDTO;
 import com.tourismSystem.cities.dtos.HotelsDTO;
 import com.tourismSystem.cities.repositories.IHotelRepository;
+import com.tourismSystem.cities.services.ICityImportService;
 import com.tourismSystem.cities.services.ICityService;
+import com.tourismSystem.cities.services.ICityWithHotelsService;
+import com.tourismSystem.cities.services.IHotelQueryService;
+import com.tourismSystem.shared.http.ETags;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -12,11 +20,15 @@ import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import jakarta.validation.Valid;
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.List;
 import java.util.Map;
 
@@ -26,11 +38,18 @@ import java.util.Map;
 public class CityControllers {
 
     private final ICityService cityService;
+    private final ICityImportService cityImportService;
     private final IHotelRepository hotelRepository;
+    private final IHotelQueryService hotelQueryService;
+    private final ICityWithHotelsService cityWithHotelsService;
 
-    public CityControllers(ICityService cityService, IHotelRepository hotelRepository) {
+    public CityControllers(ICityService cityService, ICityImportService cityImportService, IHotelRepository hotelRepository,
+                           IHotelQueryService hotelQueryService, ICityWithHotelsService cityWithHotelsService) {
         this.cityService = cityService;
+        this.cityImportService = cityImportService;
         this.hotelRepository = hotelRepository;
+        this.hotelQueryService = hotelQueryService;
+        this.cityWithHotelsService = cityWithHotelsService;
     }
 
     /* =================== GET ENDPOINTS =================== */
@@ -62,12 +81,13 @@ public class CityControllers {
     @GetMapping("/cities")
     public ResponseEntity<List<CityDTO>> findAllCities() {
         List<CityDTO> cities = cityService.findAllCites();
-        return ResponseEntity.ok(cities);
+        // A matching If-None-Match gets 304 before the list is serialized
+        return ResponseEntity.ok().eTag(ETags.ofAll(cities)).body(cities);
     }
 
     @Operation(
             summary = "Find city by ID",
-            description = "Retrieves detailed information of a specific city using its unique identifier",
+            description = "Retrieves detailed information of a specific city using its unique identifier. Responses carry an ETag; a request whose If-None-Match still matches gets 304 after a version check, without loading the city",
             tags = {"Cities"}
     )
     @ApiResponses(value = {
@@ -94,6 +114,11 @@ public class CityControllers {
                             )
                     )
             ),
+            @ApiResponse(
+                    responseCode = "304",
+                    description = "City unchanged since the ETag in If-None-Match",
+                    content = @Content(schema = @Schema(hidden = true))
+            ),
             @ApiResponse(
                     responseCode = "400",
                     description = "Invalid ID format",
@@ -107,9 +132,14 @@ public class CityControllers {
                     example = "1",
                     required = true
             )
-            @PathVariable Long id) {
+            @PathVariable Long id,
+            WebRequest request) {
+        if (request.getHeader(HttpHeaders.IF_NONE_MATCH) != null
+                && request.checkNotModified(ETags.of(id, cityService.findCityVersion(id)))) {
+            return null;
+        }
         CityDTO city = cityService.findCityById(id);
-        return ResponseEntity.ok(city);
+        return ResponseEntity.ok().eTag(ETags.of(city)).body(city);
     }
 
     @Operation(
@@ -144,7 +174,7 @@ public class CityControllers {
             )
             @PathVariable String name) {
         CityDTO city = cityService.findCityByName(name);
-        return ResponseEntity.ok(city);
+        return ResponseEntity.ok().eTag(ETags.of(city)).body(city);
     }
 
     /* =================== POST ENDPOINTS =================== */
@@ -203,6 +233,86 @@ public class CityControllers {
         return ResponseEntity.status(HttpStatus.CREATED).body(city);
     }
 
+    @Operation(
+            summary = "Find many cities by ID",
+            description = "Resolves a list of city IDs in one call (a single IN query, chunked for long lists). Cities come back in request order, with null in the place of IDs that do not exist; those IDs are also listed in missing",
+            tags = {"Cities"}
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Requested cities, in request order",
+                    content = @Content(
+                            mediaType = "application/json",
+                            schema = @Schema(implementation = CityBatchDTO.class),
+                            examples = @ExampleObject(
+                                    name = "Two cities and one miss",
+                                    value = "{\"cities\":[{\"id\":2,\"name\":\"Barcelona\",\"state\":\"Catalonia\",\"country\":\"Spain\"},null,{\"id\":1,\"name\":\"Miami\",\"state\":\"Florida\",\"country\":\"USA\"}],\"missing\":[999]}"
+                            )
+                    )
+            ),
+            @ApiResponse(
+                    responseCode = "400",
+                    description = "Empty list, null IDs or more IDs than cities.batch.max-ids",
+                    content = @Content(schema = @Schema(hidden = true))
+            )
+    })
+    @PostMapping("/cities/batch")
+    public ResponseEntity<CityBatchDTO> findCitiesByIds(
+            @Parameter(
+                    description = "City IDs to resolve",
+                    required = true,
+                    content = @Content(
+                            mediaType = "application/json",
+                            examples = @ExampleObject(
+                                    name = "City IDs",
+                                    value = "[2, 999, 1]"
+                            )
+                    )
+            )
+            @RequestBody List<Long> ids) {
+        return ResponseEntity.ok(cityService.findCitiesByIds(ids));
+    }
+
+    @Operation(
+            summary = "Bulk import cities",
+            description = "Imports cities from a streamed CSV (header with name, state and country columns) or NDJSON body (one city object per line). " +
+                    "Rows are committed in fixed-size batches and the response reports inserted and rejected rows per batch",
+            tags = {"Cities"}
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Import finished",
+                    content = @Content(
+                            mediaType = "application/json",
+                            schema = @Schema(implementation = BulkImportSummaryDTO.class),
+                            examples = @ExampleObject(
+                                    name = "Import summary",
+                                    value = "{\"inserted\":2,\"rejected\":1,\"elapsedMillis\":12,\"batches\":[{\"batch\":1,\"inserted\":2,\"rejected\":1,\"errors\":[\"line 3: state is required\"]}]}"
+                            )
+                    )
+            ),
+            @ApiResponse(
+                    responseCode = "400",
+                    description = "Empty body or CSV header without name, state and country columns"
+            )
+    })
+    @PostMapping(value = "/cities/bulk", consumes = "text/csv")
+    public ResponseEntity<BulkImportSummaryDTO> bulkImportCitiesCsv(InputStream body) throws IOException {
+        return ResponseEntity.ok(cityImportService.importCitiesFromCsv(body));
+    }
+
+    @Operation(
+            summary = "Bulk import cities (NDJSON)",
+            description = "Same as the CSV bulk import, reading one JSON city object per line",
+            tags = {"Cities"}
+    )
+    @PostMapping(value = "/cities/bulk", consumes = "application/x-ndjson")
+    public ResponseEntity<BulkImportSummaryDTO> bulkImportCitiesNdjson(InputStream body) throws IOException {
+        return ResponseEntity.ok(cityImportService.importCitiesFromNdjson(body));
+    }
+
     /* =================== PUT ENDPOINTS =================== */
 
     @Operation(
@@ -248,7 +358,7 @@ public class CityControllers {
             )
             @RequestBody Map<String, Object> updates) {
         CityDTO updatedCity = cityService.updateCityById(id, updates);
-        return ResponseEntity.ok(updatedCity);
+        return ResponseEntity.ok().eTag(ETags.of(updatedCity)).body(updatedCity);
     }
 
     /* =================== DELETE ENDPOINTS =================== */
@@ -304,9 +414,45 @@ public class CityControllers {
     }
 
 
+    @Operation(
+            summary = "Find many hotels by ID",
+            description = "Resolves a list of hotel IDs from the local hotel replica, or with a single call to Hotels Service while the replica is stale. Hotels come back in request order, with null in the place of IDs that do not exist; those IDs are also listed in missing",
+            tags = {"Hotel Integration"}
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Requested hotels, in request order",
+                    content = @Content(
+                            mediaType = "application/json",
+                            schema = @Schema(implementation = HotelsBatchDTO.class)
+                    )
+            ),
+            @ApiResponse(
+                    responseCode = "400",
+                    description = "Empty list, null IDs or too many IDs"
+            )
+    })
+    @PostMapping("/hotels/batch")
+    public ResponseEntity<HotelsBatchDTO> findHotelsByIds(
+            @Parameter(
+                    description = "Hotel IDs to resolve",
+                    required = true,
+                    content = @Content(
+                            mediaType = "application/json",
+                            examples = @ExampleObject(
+                                    name = "Hotel IDs",
+                                    value = "[2, 999, 1]"
+                            )
+                    )
+            )
+            @RequestBody List<Long> ids) {
+        return ResponseEntity.ok(hotelQueryService.findHotelsByIds(ids));
+    }
+
     @Operation(
             summary = "Find hotels by city",
-            description = "Retrieves all hotels available in a specific city through integration with Hotels Service",
+            description = "Retrieves all hotels available in a specific city, in name order, from the local hotel replica (through Hotels Service while the replica is stale)",
             tags = {"Hotel Integration"}
     )
     @ApiResponses(value = {
@@ -335,7 +481,48 @@ public class CityControllers {
                     required = true
             )
             @PathVariable String city) {
-        return ResponseEntity.ok(hotelRepository.findHotelsByCity(city));
+        return ResponseEntity.ok(hotelQueryService.findHotelsByCity(city));
+    }
+
+    @Operation(
+            summary = "Find a city with its hotels",
+            description = "City page in one round-trip: the city and its hotels (in name order) are looked up concurrently, under one deadline (cities.city-with-hotels.deadline). " +
+                    "If the hotels are not available in time the answer is partial: hotels is null and listed in unavailable",
+            tags = {"Hotel Integration"}
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "City found; complete, or partial when its hotels could not be read",
+                    content = @Content(
+                            mediaType = "application/json",
+                            schema = @Schema(implementation = CityWithHotelsDTO.class),
+                            examples = @ExampleObject(
+                                    name = "City with hotels",
+                                    value = "{\"city\":{\"id\":1,\"name\":\"Miami\",\"state\":\"Florida\",\"country\":\"USA\"}," +
+                                            "\"hotels\":[{\"name\":\"Ocean Drive Resort\",\"address\":\"123 Ocean Dr\",\"stars\":5,\"city_name\":\"Miami\",\"state\":\"Florida\",\"country\":\"USA\"}]," +
+                                            "\"partial\":false,\"unavailable\":[]}"
+                            )
+                    )
+            ),
+            @ApiResponse(
+                    responseCode = "404",
+                    description = "No city found with the specified name"
+            ),
+            @ApiResponse(
+                    responseCode = "408",
+                    description = "The city could not be read within the deadline"
+            )
+    })
+    @GetMapping("/city/{name}/full")
+    public ResponseEntity<CityWithHotelsDTO> findCityWithHotels(
+            @Parameter(
+                    description = "Name of the city",
+                    example = "Miami",
+                    required = true
+            )
+            @PathVariable String name) {
+        return ResponseEntity.ok(cityWithHotelsService.findCityWithHotels(name));
     }
 
     @Operation(
@@ -365,7 +552,7 @@ public class CityControllers {
                     required = true
             )
             @PathVariable String state) {
-        return ResponseEntity.ok(hotelRepository.findHotelsByState(state));
+        return ResponseEntity.ok(hotelQueryService.findHotelsByState(state));
     }
 
     @Operation(
@@ -395,7 +582,83 @@ public class CityControllers {
                     required = true
             )
             @PathVariable String country) {
-        return ResponseEntity.ok(hotelRepository.findHotelsByCountry(country));
+        return ResponseEntity.ok(hotelQueryService.findHotelsByCountry(country));
+    }
+
+    @Operation(
+            summary = "Find the cities of a state with their hotels",
+            description = "Every city of the state/province with its hotels (in name order), for one city query and one Hotels Service call (a single IN query there) whatever the number of cities. " +
+                    "If Hotels Service gives no answer, every city comes back partial: hotels is null and listed in unavailable",
+            tags = {"Hotel Integration"}
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Cities with their hotels",
+                    content = @Content(
+                            mediaType = "application/json",
+                            schema = @Schema(implementation = CityWithHotelsDTO.class),
+                            examples = @ExampleObject(
+                                    name = "Cities with hotels",
+                                    value = "[{\"city\":{\"id\":1,\"name\":\"Miami\",\"state\":\"Florida\",\"country\":\"USA\"}," +
+                                            "\"hotels\":[{\"name\":\"Ocean Drive Resort\",\"address\":\"123 Ocean Dr\",\"stars\":5,\"city_name\":\"Miami\",\"state\":\"Florida\",\"country\":\"USA\"}]," +
+                                            "\"partial\":false,\"unavailable\":[]}," +
+                                            "{\"city\":{\"id\":2,\"name\":\"Orlando\",\"state\":\"Florida\",\"country\":\"USA\"},\"hotels\":[],\"partial\":false,\"unavailable\":[]}]"
+                            )
+                    )
+            ),
+            @ApiResponse(
+                    responseCode = "404",
+                    description = "No cities found in the specified state/province"
+            )
+    })
+    @GetMapping("/state/{state}/cities-with-hotels")
+    public ResponseEntity<List<CityWithHotelsDTO>> findCitiesWithHotelsByState(
+            @Parameter(
+                    description = "Name of the state/province",
+                    example = "Florida",
+                    required = true
+            )
+            @PathVariable String state) {
+        return ResponseEntity.ok(cityWithHotelsService.findCitiesWithHotelsByState(state));
+    }
+
+    @Operation(
+            summary = "Find the cities of a country with their hotels",
+            description = "Every city of the country with its hotels (in name order), for one city query and one Hotels Service call (a single IN query there) whatever the number of cities. " +
+                    "If Hotels Service gives no answer, every city comes back partial: hotels is null and listed in unavailable",
+            tags = {"Hotel Integration"}
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Cities with their hotels",
+                    content = @Content(
+                            mediaType = "application/json",
+                            schema = @Schema(implementation = CityWithHotelsDTO.class),
+                            examples = @ExampleObject(
+                                    name = "Cities with hotels",
+                                    value = "[{\"city\":{\"id\":1,\"name\":\"Miami\",\"state\":\"Florida\",\"country\":\"USA\"}," +
+                                            "\"hotels\":[{\"name\":\"Ocean Drive Resort\",\"address\":\"123 Ocean Dr\",\"stars\":5,\"city_name\":\"Miami\",\"state\":\"Florida\",\"country\":\"USA\"}]," +
+                                            "\"partial\":false,\"unavailable\":[]}," +
+                                            "{\"city\":{\"id\":2,\"name\":\"Orlando\",\"state\":\"Florida\",\"country\":\"USA\"},\"hotels\":[],\"partial\":false,\"unavailable\":[]}]"
+                            )
+                    )
+            ),
+            @ApiResponse(
+                    responseCode = "404",
+                    description = "No cities found in the specified country"
+            )
+    })
+    @GetMapping("/country/{country}/cities-with-hotels")
+    public ResponseEntity<List<CityWithHotelsDTO>> findCitiesWithHotelsByCountry(
+            @Parameter(
+                    description = "Name of the country",
+                    example = "USA",
+                    required = true
+            )
+            @PathVariable String country) {
+        return ResponseEntity.ok(cityWithHotelsService.findCitiesWithHotelsByCountry(country));
     }
 
     @Operation(
@@ -447,6 +710,6 @@ public class CityControllers {
                     example = "5"
             )
             @RequestParam(required = false) Integer stars) {
-        return ResponseEntity.ok(hotelRepository.findHotelsByFilters(city, state, country, stars));
+        return ResponseEntity.ok(hotelQueryService.findHotelsByFilters(city, state, country, stars));
     }
 }
\ No newline at end of file
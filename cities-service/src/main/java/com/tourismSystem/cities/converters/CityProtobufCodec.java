@@ -0,0 +1,118 @@
+package com.tourismSystem.cities.converters;
+
+import com.google.protobuf.CodedInputStream;
+import com.google.protobuf.CodedOutputStream;
+import com.google.protobuf.WireFormat;
+import com.tourismSystem.cities.dtos.CityDTO;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Protobuf encoding of {@link CityDTO} following resources/proto/cities.proto, written straight from
+ * the DTOs with protobuf-java's coded streams, so no generated message classes (or protoc step) are needed.
+ * Null fields are left out and read back as null.
+ */
+public final class CityProtobufCodec {
+
+    private static final int CITY_LIST_CITIES = 1;
+
+    private static final int ID = 1;
+    private static final int NAME = 2;
+    private static final int STATE = 3;
+    private static final int COUNTRY = 4;
+    private static final int LATITUDE = 5;
+    private static final int LONGITUDE = 6;
+
+    private CityProtobufCodec() {
+    }
+
+    /* =================== ENCODING =================== */
+
+    public static void writeCity(CityDTO city, CodedOutputStream out) throws IOException {
+        if (city.getId() != null) {
+            out.writeInt64(ID, city.getId());
+        }
+        writeString(out, NAME, city.getName());
+        writeString(out, STATE, city.getState());
+        writeString(out, COUNTRY, city.getCountry());
+        writeDouble(out, LATITUDE, city.getLatitude());
+        writeDouble(out, LONGITUDE, city.getLongitude());
+    }
+
+    public static void writeCityList(List<CityDTO> cities, CodedOutputStream out) throws IOException {
+        for (CityDTO city : cities) {
+            out.writeTag(CITY_LIST_CITIES, WireFormat.WIRETYPE_LENGTH_DELIMITED);
+            out.writeUInt32NoTag(size(city));
+            writeCity(city, out);
+        }
+    }
+
+    private static int size(CityDTO city) {
+        int size = 0;
+        if (city.getId() != null) {
+            size += CodedOutputStream.computeInt64Size(ID, city.getId());
+        }
+        size += stringSize(NAME, city.getName());
+        size += stringSize(STATE, city.getState());
+        size += stringSize(COUNTRY, city.getCountry());
+        size += doubleSize(LATITUDE, city.getLatitude());
+        size += doubleSize(LONGITUDE, city.getLongitude());
+        return size;
+    }
+
+    private static void writeString(CodedOutputStream out, int field, String value) throws IOException {
+        if (value != null) {
+            out.writeString(field, value);
+        }
+    }
+
+    private static void writeDouble(CodedOutputStream out, int field, Double value) throws IOException {
+        if (value != null) {
+            out.writeDouble(field, value);
+        }
+    }
+
+    private static int stringSize(int field, String value) {
+        return value == null ? 0 : CodedOutputStream.computeStringSize(field, value);
+    }
+
+    private static int doubleSize(int field, Double value) {
+        return value == null ? 0 : CodedOutputStream.computeDoubleSize(field, value);
+    }
+
+    /* =================== DECODING =================== */
+
+    public static CityDTO readCity(CodedInputStream in) throws IOException {
+        CityDTO city = new CityDTO();
+        int tag;
+        while ((tag = in.readTag()) != 0) {
+            switch (WireFormat.getTagFieldNumber(tag)) {
+                case ID -> city.setId(in.readInt64());
+                case NAME -> city.setName(in.readString());
+                case STATE -> city.setState(in.readString());
+                case COUNTRY -> city.setCountry(in.readString());
+                case LATITUDE -> city.setLatitude(in.readDouble());
+                case LONGITUDE -> city.setLongitude(in.readDouble());
+                default -> in.skipField(tag);
+            }
+        }
+        return city;
+    }
+
+    public static List<CityDTO> readCityList(CodedInputStream in) throws IOException {
+        List<CityDTO> cities = new ArrayList<>();
+        int tag;
+        while ((tag = in.readTag()) != 0) {
+            if (WireFormat.getTagFieldNumber(tag) != CITY_LIST_CITIES) {
+                in.skipField(tag);
+                continue;
+            }
+            int limit = in.pushLimit(in.readRawVarint32());
+            cities.add(readCity(in));
+            in.popLimit(limit);
+        }
+        return cities;
+    }
+}
@@ -0,0 +1,82 @@
+package com.tourismSystem.cities.converters;
+
+import com.google.protobuf.CodedInputStream;
+import com.google.protobuf.CodedOutputStream;
+import com.tourismSystem.cities.dtos.CityDTO;
+import org.springframework.core.ResolvableType;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractGenericHttpMessageConverter;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Serves cities and lists of cities as application/x-protobuf (City / CityList in
+ * resources/proto/cities.proto) to clients that ask for it in Accept.
+ */
+public class CityProtobufHttpMessageConverter extends AbstractGenericHttpMessageConverter<Object> {
+
+    public static final MediaType PROTOBUF = new MediaType("application", "x-protobuf");
+
+    public CityProtobufHttpMessageConverter() {
+        super(PROTOBUF);
+    }
+
+    @Override
+    protected boolean supports(Class<?> clazz) {
+        return CityDTO.class.isAssignableFrom(clazz);
+    }
+
+    // Lists are only known to hold cities from their generic type, checked in canRead/canWrite(Type, ...)
+    @Override
+    public List<MediaType> getSupportedMediaTypes(Class<?> clazz) {
+        return List.class.isAssignableFrom(clazz) || supports(clazz) ? getSupportedMediaTypes() : List.of();
+    }
+
+    @Override
+    public boolean canRead(Type type, Class<?> contextClass, MediaType mediaType) {
+        return isCityOrCityList(type) && canRead(mediaType);
+    }
+
+    @Override
+    public boolean canWrite(Type type, Class<?> clazz, MediaType mediaType) {
+        return (type != null ? isCityOrCityList(type) : supports(clazz)) && canWrite(mediaType);
+    }
+
+    @Override
+    public Object read(Type type, Class<?> contextClass, HttpInputMessage inputMessage) throws IOException {
+        CodedInputStream in = CodedInputStream.newInstance(inputMessage.getBody());
+        return isCityList(type) ? CityProtobufCodec.readCityList(in) : CityProtobufCodec.readCity(in);
+    }
+
+    @Override
+    protected Object readInternal(Class<?> clazz, HttpInputMessage inputMessage) throws IOException {
+        return CityProtobufCodec.readCity(CodedInputStream.newInstance(inputMessage.getBody()));
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    protected void writeInternal(Object body, Type type, HttpOutputMessage outputMessage) throws IOException {
+        CodedOutputStream out = CodedOutputStream.newInstance(outputMessage.getBody());
+        if (body instanceof CityDTO city) {
+            CityProtobufCodec.writeCity(city, out);
+        } else {
+            CityProtobufCodec.writeCityList((List<CityDTO>) body, out);
+        }
+        out.flush();
+    }
+
+    private static boolean isCityOrCityList(Type type) {
+        return CityDTO.class.isAssignableFrom(ResolvableType.forType(type).toClass()) || isCityList(type);
+    }
+
+    private static boolean isCityList(Type type) {
+        ResolvableType resolved = ResolvableType.forType(type);
+        return List.class.isAssignableFrom(resolved.toClass())
+                && CityDTO.class.isAssignableFrom(resolved.as(Collection.class).getGeneric(0).toClass());
+    }
+}
@@ -0,0 +1,19 @@
+package com.tourismSystem.cities.dtos;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchSummaryDTO {
+    private int batch;
+    private int inserted;
+    private int rejected;
+    private List<String> errors;
+}
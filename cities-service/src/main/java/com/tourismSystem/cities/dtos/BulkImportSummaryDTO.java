@@ -0,0 +1,26 @@
+package com.tourismSystem.cities.dtos;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkImportSummaryDTO {
+    private long inserted;
+    private long rejected;
+    private long elapsedMillis;
+    private List<BatchSummaryDTO> batches = new ArrayList<>();
+
+    public void addBatch(BatchSummaryDTO batch) {
+        batches.add(batch);
+        inserted += batch.getInserted();
+        rejected += batch.getRejected();
+    }
+}
@@ -0,0 +1,19 @@
+package com.tourismSystem.cities.dtos;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class CityBatchDTO {
+    // One entry per requested id, in request order; null where no city has that id
+    private List<CityDTO> cities;
+    // Requested ids without a city, in request order and without repeats
+    private List<Long> missing;
+}
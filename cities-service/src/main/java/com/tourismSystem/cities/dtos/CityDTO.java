@@ -1,7 +1,9 @@
 package com.tourismSystem.cities.dtos;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import com.tourismSystem.cities.entities.City;
+import com.tourismSystem.shared.http.ETags;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
@@ -13,12 +15,17 @@ import java.util.List;
 @Setter
 @NoArgsConstructor
 @AllArgsConstructor
-public class CityDTO {
+public class CityDTO implements ETags.Versioned {
     @JsonProperty(access = JsonProperty.Access.READ_ONLY)
     private Long id;
     private String name;
     private String state;
     private String country;
+    private Double latitude;
+    private Double longitude;
+    // Row version, only used to build ETags
+    @JsonIgnore
+    private Long version;
 
 
     public CityDTO(City city){
@@ -26,6 +33,9 @@ public class CityDTO {
         name= city.getName();
         country=city.getCountry();
         state= city.getState();
+        latitude= city.getLatitude();
+        longitude= city.getLongitude();
+        version= city.getVersion();
     }
 
     public City toEntity(){
@@ -34,6 +44,9 @@ public class CityDTO {
         city.setName(name);
         city.setCountry(country);
         city.setState(state);
+        city.setLatitude(latitude);
+        city.setLongitude(longitude);
+        city.setVersion(version);
         return city;
     }
 }
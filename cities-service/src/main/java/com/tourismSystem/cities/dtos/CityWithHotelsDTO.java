@@ -0,0 +1,22 @@
+package com.tourismSystem.cities.dtos;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+
+// Response of GET /tourism/city/{name}/full: the city page in one round-trip
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class CityWithHotelsDTO {
+    private CityDTO city;
+    // In name order; null when the hotels could not be read within the deadline
+    private List<HotelsDTO> hotels;
+    // True when some part is missing; those parts are listed in unavailable (e.g. "hotels")
+    private boolean partial;
+    private List<String> unavailable;
+}
@@ -0,0 +1,30 @@
+package com.tourismSystem.cities.dtos;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+// Hotel change event of hotels-service GET /hotels/events
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class HotelEventDTO {
+
+    public enum Type {
+        SAVED,
+        DELETED,
+        // Hotels were written in bulk without one event each: reload the snapshot
+        RELOADED
+    }
+
+    private Long position;
+    private Type type;
+    private Long hotelId;
+    private Long version;
+    // Epoch milliseconds of the change
+    private Long occurredAt;
+    // The hotel after the change; null for DELETED and RELOADED
+    private HotelsDTO hotel;
+}
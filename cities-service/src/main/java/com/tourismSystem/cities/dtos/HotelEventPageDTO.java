@@ -0,0 +1,28 @@
+package com.tourismSystem.cities.dtos;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+
+// Response of hotels-service GET /hotels/events and /hotels/events/snapshot
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class HotelEventPageDTO {
+    // Events in position order
+    private List<HotelEventDTO> events;
+    // Position of the newest event in the outbox
+    private long head;
+    // The requested events are no longer retained: reload the snapshot
+    private boolean resync;
+    // Snapshot pages only: hotel id to pass as afterId for the following page, null on the last page
+    private Long next;
+
+    public HotelEventPageDTO(List<HotelEventDTO> events, long head, boolean resync) {
+        this(events, head, resync, null);
+    }
+}
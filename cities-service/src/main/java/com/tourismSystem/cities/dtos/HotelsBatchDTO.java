@@ -0,0 +1,20 @@
+package com.tourismSystem.cities.dtos;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+
+// Response of hotels-service POST /hotels/batch
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class HotelsBatchDTO {
+    // One entry per requested id, in request order; null where no hotel has that id
+    private List<HotelsDTO> hotels;
+    // Requested ids without a hotel, in request order and without repeats
+    private List<Long> missing;
+}
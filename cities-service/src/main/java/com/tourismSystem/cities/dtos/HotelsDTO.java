@@ -10,12 +10,15 @@ import lombok.Setter;
 @NoArgsConstructor
 
 public class HotelsDTO {
+    private Long id;
     private String name;
     private String address;
     private Integer stars;
     private String city;
     private String state;
     private String country;
+    private Double latitude;
+    private Double longitude;
 
 
 }
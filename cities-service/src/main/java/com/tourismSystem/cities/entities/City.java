@@ -1,16 +1,20 @@
 package com.tourismSystem.cities.entities;
 
+import com.tourismSystem.shared.text.TextNormalizer;
+import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
-import lombok.AllArgsConstructor;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.PreUpdate;
+import jakarta.persistence.Version;
+import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
 
 @Entity
-@AllArgsConstructor
 @NoArgsConstructor
 @Setter
 @Getter
@@ -22,5 +26,36 @@ public class City {
     private String name;
     private String state;
     private String country;
+    // WGS84 position; geocoded from the city (geocoding/cities.csv) when no exact one is known
+    private Double latitude;
+    private Double longitude;
+    // Bumped on every JPA update; also the city's ETag
+    @Version
+    private Long version;
 
+    // Case- and accent-folded copies of the searchable columns, indexed for equality lookups
+    @Setter(AccessLevel.NONE)
+    @Column(name = "name_key")
+    private String nameKey;
+    @Setter(AccessLevel.NONE)
+    @Column(name = "state_key")
+    private String stateKey;
+    @Setter(AccessLevel.NONE)
+    @Column(name = "country_key")
+    private String countryKey;
+
+    public City(Long id, String name, String state, String country) {
+        this.id = id;
+        this.name = name;
+        this.state = state;
+        this.country = country;
+    }
+
+    @PrePersist
+    @PreUpdate
+    void normalizeKeys() {
+        nameKey = TextNormalizer.fold(name);
+        stateKey = TextNormalizer.fold(state);
+        countryKey = TextNormalizer.fold(country);
+    }
 }
@@ -25,5 +25,12 @@ public class GlobalExceptionHandle {
         error.put("message", ex.getMessage());
         return new ResponseEntity<>(error,HttpStatus.BAD_REQUEST);
     }
+    @ExceptionHandler(InformationNotAvailable.class)
+    public ResponseEntity<Map<String,String>>handleInfoNotAvailable(InformationNotAvailable ex){
+        Map<String,String> error=new HashMap<>();
+        error.put("error","Information Not Available Right Now. Please try later.");
+        error.put("message", ex.getMessage());
+        return new ResponseEntity<>(error,HttpStatus.REQUEST_TIMEOUT);
+    }
 
 }
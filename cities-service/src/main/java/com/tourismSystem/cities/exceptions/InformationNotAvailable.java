@@ -0,0 +1,7 @@
+package com.tourismSystem.cities.exceptions;
+
+public class InformationNotAvailable extends RuntimeException {
+    public InformationNotAvailable(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,91 @@
+package com.tourismSystem.cities.metrics;
+
+import com.tourismSystem.cities.balancing.HedgingFeignClient;
+import com.tourismSystem.cities.repositories.IHotelRepository;
+import feign.Client;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.core.Ordered;
+import org.springframework.stereotype.Component;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.Proxy;
+
+/**
+ * Meters the calls to hotels-service at both ends of the resilience4j annotations:
+ * <ul>
+ *   <li>the Feign client bean is wrapped in a {@link MeteredFeignClient}, one sample per HTTP
+ *   call (each retry and each hedge);</li>
+ *   <li>IHotelRepository is wrapped in a proxy that times what the services actually get back,
+ *   as hotels.client.requests tagged method and outcome: success, fallback (the circuit breaker
+ *   answered with the null of its fallback, see IHotelRepository) or error.</li>
+ * </ul>
+ * Runs after the proxy creator, so the repository it wraps already carries the circuit breaker,
+ * and before {@link com.tourismSystem.cities.balancing.HedgingFeignClientPostProcessor}, so a
+ * hedged read is metered once per leg.
+ */
+@Component
+public class HotelClientMetrics implements BeanPostProcessor, Ordered {
+
+    private final ObjectProvider<MeterRegistry> meterRegistry;
+
+    public HotelClientMetrics(ObjectProvider<MeterRegistry> meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public int getOrder() {
+        return 0;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (bean instanceof Client client && !(bean instanceof MeteredFeignClient) && !(bean instanceof HedgingFeignClient)) {
+            return new MeteredFeignClient(client, meterRegistry.getObject());
+        }
+        if (bean instanceof IHotelRepository repository && !isTimed(repository)) {
+            return Proxy.newProxyInstance(IHotelRepository.class.getClassLoader(), new Class<?>[]{IHotelRepository.class},
+                    new TimedRepository(repository, meterRegistry.getObject()));
+        }
+        return bean;
+    }
+
+    private static boolean isTimed(Object bean) {
+        return Proxy.isProxyClass(bean.getClass()) && Proxy.getInvocationHandler(bean) instanceof TimedRepository;
+    }
+
+    private record TimedRepository(IHotelRepository delegate, MeterRegistry meterRegistry) implements InvocationHandler {
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            // Only the Feign calls: fallbacks, the logger and Object's methods go straight through
+            if (!Modifier.isAbstract(method.getModifiers()) || method.getDeclaringClass() != IHotelRepository.class) {
+                return invokeDelegate(method, args);
+            }
+            Timer.Sample sample = Timer.start(meterRegistry);
+            String outcome = "error";
+            try {
+                Object result = invokeDelegate(method, args);
+                outcome = result == null ? "fallback" : "success";
+                return result;
+            } finally {
+                sample.stop(Timer.builder("hotels.client.requests")
+                        .tags("method", method.getName(), "outcome", outcome)
+                        .register(meterRegistry));
+            }
+        }
+
+        private Object invokeDelegate(Method method, Object[] args) throws Throwable {
+            try {
+                return method.invoke(delegate, args);
+            } catch (InvocationTargetException ex) {
+                throw ex.getCause();
+            }
+        }
+    }
+}
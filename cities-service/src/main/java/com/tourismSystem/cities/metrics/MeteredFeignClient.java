@@ -0,0 +1,167 @@
+package com.tourismSystem.cities.metrics;
+
+import feign.Client;
+import feign.Request;
+import feign.Response;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.LongTaskTimer;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.boot.actuate.metrics.http.Outcome;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.net.URI;
+import java.nio.charset.Charset;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Meters every HTTP call the Feign clients make, one per instance actually called (a retried or
+ * hedged read counts each attempt):
+ * <ul>
+ *   <li>feign.client.requests: time until the answer's headers, tagged client (the service id),
+ *   method, uri, instance (host:port that answered, none when the call failed before), status
+ *   and outcome;</li>
+ *   <li>feign.client.requests.active: calls in flight, tagged client and uri;</li>
+ *   <li>feign.client.request.size and feign.client.response.size: bytes sent and read (as they
+ *   came over the wire, before gzip decoding), same tags as the timer.</li>
+ * </ul>
+ * The uri tag is the template of the client method (/hotels/city/{city}), never the expanded path.
+ */
+public class MeteredFeignClient implements Client {
+
+    private final Client delegate;
+    private final MeterRegistry meterRegistry;
+
+    public MeteredFeignClient(Client delegate, MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public Response execute(Request request, Request.Options options) throws IOException {
+        String host = URI.create(request.url()).getHost();
+        String client = host == null ? "none" : host;
+        String uri = uriTemplate(request);
+        Tags callTags = Tags.of("client", client, "method", request.httpMethod().name(), "uri", uri);
+        LongTaskTimer.Sample active = LongTaskTimer.builder("feign.client.requests.active")
+                .tags("client", client, "uri", uri)
+                .register(meterRegistry)
+                .start();
+        long start = System.nanoTime();
+        Response response;
+        try {
+            response = delegate.execute(request, options);
+        } catch (IOException | RuntimeException ex) {
+            Tags tags = callTags.and("instance", "none", "status", "IO_ERROR", "outcome", Outcome.UNKNOWN.name());
+            timer(tags).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            throw ex;
+        } finally {
+            active.stop();
+        }
+        Tags tags = callTags.and("instance", instance(response), "status", Integer.toString(response.status()),
+                "outcome", Outcome.forStatus(response.status()).name());
+        timer(tags).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        summary("feign.client.request.size", tags).record(request.length());
+        if (response.body() == null) {
+            summary("feign.client.response.size", tags).record(0);
+            return response;
+        }
+        return response.toBuilder()
+                .body(new CountingBody(response.body(), summary("feign.client.response.size", tags)))
+                .build();
+    }
+
+    private Timer timer(Tags tags) {
+        return Timer.builder("feign.client.requests").tags(tags).register(meterRegistry);
+    }
+
+    private DistributionSummary summary(String name, Tags tags) {
+        return DistributionSummary.builder(name).baseUnit("bytes").tags(tags).register(meterRegistry);
+    }
+
+    private static String uriTemplate(Request request) {
+        if (request.requestTemplate() == null || request.requestTemplate().methodMetadata() == null) {
+            return "UNKNOWN";
+        }
+        String path = request.requestTemplate().methodMetadata().template().path();
+        return path.startsWith("/") ? path : "/" + path;
+    }
+
+    private static String instance(Response response) {
+        if (response.request() == null) {
+            return "none";
+        }
+        URI called = URI.create(response.request().url());
+        return called.getPort() == -1 ? called.getHost() : called.getHost() + ":" + called.getPort();
+    }
+
+    // Counts the bytes read from the answer, recorded when the decoder closes it
+    private static final class CountingBody implements Response.Body {
+
+        private final Response.Body delegate;
+        private final DistributionSummary size;
+        private final AtomicLong bytes = new AtomicLong();
+        private final AtomicBoolean recorded = new AtomicBoolean();
+
+        CountingBody(Response.Body delegate, DistributionSummary size) {
+            this.delegate = delegate;
+            this.size = size;
+        }
+
+        @Override
+        public Integer length() {
+            return delegate.length();
+        }
+
+        @Override
+        public boolean isRepeatable() {
+            return delegate.isRepeatable();
+        }
+
+        @Override
+        public InputStream asInputStream() throws IOException {
+            return new FilterInputStream(delegate.asInputStream()) {
+                @Override
+                public int read() throws IOException {
+                    int read = super.read();
+                    if (read != -1) {
+                        bytes.incrementAndGet();
+                    }
+                    return read;
+                }
+
+                @Override
+                public int read(byte[] buffer, int offset, int length) throws IOException {
+                    int read = super.read(buffer, offset, length);
+                    if (read > 0) {
+                        bytes.addAndGet(read);
+                    }
+                    return read;
+                }
+            };
+        }
+
+        @Override
+        public Reader asReader(Charset charset) throws IOException {
+            return new InputStreamReader(asInputStream(), charset);
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                delegate.close();
+            } finally {
+                if (recorded.compareAndSet(false, true)) {
+                    size.record(bytes.get());
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package com.tourismSystem.cities.migration;
+
+import com.tourismSystem.shared.geocoding.CityGeocoder;
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Gives the cities that existed before V4 their position from the geocoding file. Cities not in
+ * the file keep a null position.
+ */
+@Component
+public class V5__Backfill_city_coordinates extends BaseJavaMigration {
+
+    private final CityGeocoder cityGeocoder;
+
+    public V5__Backfill_city_coordinates(CityGeocoder cityGeocoder) {
+        this.cityGeocoder = cityGeocoder;
+    }
+
+    @Override
+    public void migrate(Context context) {
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(new SingleConnectionDataSource(context.getConnection(), true));
+        List<Object[]> updates = new ArrayList<>();
+        jdbcTemplate.query("SELECT id, name, state, country FROM city WHERE latitude IS NULL", rs -> {
+            double[] position = cityGeocoder.locate(rs.getString(2), rs.getString(3), rs.getString(4));
+            if (position != null) {
+                updates.add(new Object[]{position[0], position[1], rs.getLong(1)});
+            }
+        });
+        if (!updates.isEmpty()) {
+            jdbcTemplate.batchUpdate("UPDATE city SET latitude = ?, longitude = ? WHERE id = ?", updates);
+        }
+    }
+}
@@ -1,14 +1,47 @@
 package com.tourismSystem.cities.repositories;
 
+import com.tourismSystem.cities.dtos.CityDTO;
 import com.tourismSystem.cities.entities.City;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
+/**
+ * Read paths select straight into {@link CityDTO}; entities are only loaded by the write paths.
+ */
 public interface CityRepository extends JpaRepository<City,Long> {
-    Optional<List<City>> findCityByState(String state);
-    Optional<List<City>> findCityByCountry(String country);
-    Optional <City> findCityByName(String name);
-    Optional<List<City>>findCityByStateAndCountry(String state, String country);
+
+    String SELECT_DTO = "SELECT new com.tourismSystem.cities.dtos.CityDTO(" +
+            "c.id, c.name, c.state, c.country, c.latitude, c.longitude, c.version) FROM City c ";
+
+    @Query(SELECT_DTO + "WHERE c.id = :id")
+    Optional<CityDTO> findDtoById(Long id);
+
+    // Primary-key probe for conditional GETs; reads only the version
+    @Query("SELECT c.version FROM City c WHERE c.id = :id")
+    Optional<Long> findVersionById(Long id);
+
+    @Query(SELECT_DTO + "ORDER BY c.id")
+    List<CityDTO> findAllDtos();
+
+    @Query(SELECT_DTO + "WHERE c.id IN :ids")
+    List<CityDTO> findDtosByIds(Collection<Long> ids);
+
+    /* Lookups compare the indexed *_key columns against values folded with TextNormalizer,
+     * so they ignore case and accents and stay index seeks. */
+
+    @Query(SELECT_DTO + "WHERE c.stateKey = :stateKey")
+    Optional<List<CityDTO>> findCityByStateKey(String stateKey);
+
+    @Query(SELECT_DTO + "WHERE c.countryKey = :countryKey")
+    Optional<List<CityDTO>> findCityByCountryKey(String countryKey);
+
+    @Query(SELECT_DTO + "WHERE c.nameKey = :nameKey")
+    Optional<CityDTO> findCityByNameKey(String nameKey);
+
+    @Query(SELECT_DTO + "WHERE c.countryKey = :countryKey AND c.stateKey = :stateKey")
+    Optional<List<CityDTO>> findCityByStateKeyAndCountryKey(String stateKey, String countryKey);
 }
@@ -0,0 +1,216 @@
+package com.tourismSystem.cities.repositories;
+
+import com.tourismSystem.cities.dtos.HotelEventDTO;
+import com.tourismSystem.cities.dtos.HotelEventPageDTO;
+import com.tourismSystem.cities.dtos.HotelsBatchDTO;
+import com.tourismSystem.cities.dtos.HotelsDTO;
+import com.tourismSystem.shared.text.TextNormalizer;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * Local, eventually consistent copy of the hotels-service catalog, loaded from its snapshot and then
+ * kept up to date by {@link HotelEventDTO}s (see HotelReplicaSync, the only writer). Hotels are
+ * indexed by case/accent-folded city, state and country, and the lookups mirror the hotels-service
+ * ones: location lists in name order, filters by substring in id order.
+ */
+@Component
+public class HotelReplica {
+
+    private static final Comparator<HotelsDTO> BY_NAME = Comparator.comparing(HotelsDTO::getName,
+            Comparator.nullsFirst(Comparator.naturalOrder())).thenComparing(HotelsDTO::getId);
+
+    // Null until the first snapshot; a new snapshot is built aside and swapped in whole
+    private volatile Projection projection;
+
+    public boolean isLoaded() {
+        return projection != null;
+    }
+
+    // Position of the last event applied; -1 before the first snapshot
+    public long position() {
+        Projection current = projection;
+        return current == null ? -1 : current.position;
+    }
+
+    public int size() {
+        Projection current = projection;
+        return current == null ? 0 : current.hotels.size();
+    }
+
+    // Builds the next snapshot aside, one page at a time
+    public Loader loader() {
+        return new Loader();
+    }
+
+    // Applies a SAVED or DELETED event; versions older than the one held are skipped
+    public void apply(HotelEventDTO event) {
+        Projection current = projection;
+        if (current == null) {
+            throw new IllegalStateException("The hotel replica has not been loaded yet");
+        }
+        current.apply(event);
+        current.position = Math.max(current.position, event.getPosition());
+    }
+
+    /* =================== LOOKUPS =================== */
+
+    public List<HotelsDTO> findByCity(String city) {
+        Projection current = projection;
+        return current.findByKey(current.byCity, city);
+    }
+
+    public List<HotelsDTO> findByState(String state) {
+        Projection current = projection;
+        return current.findByKey(current.byState, state);
+    }
+
+    public List<HotelsDTO> findByCountry(String country) {
+        Projection current = projection;
+        return current.findByKey(current.byCountry, country);
+    }
+
+    // Like hotels-service /hotels/filters without exact: folded substrings, in id order
+    public List<HotelsDTO> findByFilters(String city, String state, String country, Integer stars) {
+        Predicate<Versioned> matches = contains(Versioned::city, city)
+                .and(contains(Versioned::state, state))
+                .and(contains(Versioned::country, country))
+                .and(held -> stars == null || stars.equals(held.hotel().getStars()));
+        return projection.hotels.values().stream()
+                .filter(matches)
+                .map(Versioned::hotel)
+                .sorted(Comparator.comparing(HotelsDTO::getId))
+                .toList();
+    }
+
+    public HotelsBatchDTO findByIds(List<Long> ids) {
+        Map<Long, Versioned> hotels = projection.hotels;
+        List<HotelsDTO> found = new ArrayList<>(ids.size());
+        Set<Long> missing = new LinkedHashSet<>();
+        for (Long id : ids) {
+            Versioned hotel = hotels.get(id);
+            found.add(hotel == null ? null : hotel.hotel());
+            if (hotel == null) {
+                missing.add(id);
+            }
+        }
+        return new HotelsBatchDTO(found, List.copyOf(missing));
+    }
+
+    private static Predicate<Versioned> contains(Function<Versioned, String> key, String fragment) {
+        if (fragment == null) {
+            return held -> true;
+        }
+        String folded = TextNormalizer.fold(fragment);
+        return held -> key.apply(held) != null && key.apply(held).contains(folded);
+    }
+
+    public final class Loader {
+
+        private final Projection loaded = new Projection();
+
+        private Loader() {
+        }
+
+        public void add(HotelEventPageDTO page) {
+            for (HotelEventDTO event : page.getEvents()) {
+                loaded.apply(event);
+            }
+        }
+
+        // Swaps the snapshot in whole, at the position its pages were read from
+        public void finish(long position) {
+            loaded.position = position;
+            projection = loaded;
+        }
+    }
+
+    // The hotel with its city, state and country folded once, when it is applied; a folded key is null
+    // when the hotel has no value for that field
+    private record Versioned(HotelsDTO hotel, long version, String city, String state, String country) {
+
+        Versioned(HotelsDTO hotel, long version) {
+            this(hotel, version, fold(hotel.getCity()), fold(hotel.getState()), fold(hotel.getCountry()));
+        }
+
+        private static String fold(String value) {
+            return value == null ? null : TextNormalizer.fold(value);
+        }
+    }
+
+    private static final class Projection {
+
+        private final Map<Long, Versioned> hotels = new ConcurrentHashMap<>();
+        private final Map<String, Set<Long>> byCity = new ConcurrentHashMap<>();
+        private final Map<String, Set<Long>> byState = new ConcurrentHashMap<>();
+        private final Map<String, Set<Long>> byCountry = new ConcurrentHashMap<>();
+        private volatile long position;
+
+        void apply(HotelEventDTO event) {
+            Versioned held = hotels.get(event.getHotelId());
+            long version = event.getVersion() == null ? 0 : event.getVersion();
+            if (held != null && held.version() > version) {
+                return;
+            }
+            if (event.getType() == HotelEventDTO.Type.SAVED) {
+                if (held != null) {
+                    unindex(held);
+                }
+                Versioned saved = new Versioned(event.getHotel(), version);
+                hotels.put(event.getHotelId(), saved);
+                index(saved);
+            } else if (event.getType() == HotelEventDTO.Type.DELETED && held != null) {
+                hotels.remove(event.getHotelId());
+                unindex(held);
+            }
+        }
+
+        List<HotelsDTO> findByKey(Map<String, Set<Long>> index, String value) {
+            Collection<Long> ids = index.getOrDefault(TextNormalizer.fold(value), Set.of());
+            return ids.stream()
+                    .map(hotels::get)
+                    .filter(Objects::nonNull)
+                    .map(Versioned::hotel)
+                    .sorted(BY_NAME)
+                    .toList();
+        }
+
+        private void index(Versioned held) {
+            add(byCity, held.city(), held.hotel().getId());
+            add(byState, held.state(), held.hotel().getId());
+            add(byCountry, held.country(), held.hotel().getId());
+        }
+
+        private void unindex(Versioned held) {
+            remove(byCity, held.city(), held.hotel().getId());
+            remove(byState, held.state(), held.hotel().getId());
+            remove(byCountry, held.country(), held.hotel().getId());
+        }
+
+        private static void add(Map<String, Set<Long>> index, String key, Long id) {
+            if (key != null) {
+                index.computeIfAbsent(key, k -> ConcurrentHashMap.newKeySet()).add(id);
+            }
+        }
+
+        private static void remove(Map<String, Set<Long>> index, String key, Long id) {
+            if (key != null) {
+                index.computeIfPresent(key, (k, ids) -> {
+                    ids.remove(id);
+                    return ids.isEmpty() ? null : ids;
+                });
+            }
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package com.tourismSystem.cities.repositories;
+
+import com.tourismSystem.cities.dtos.HotelEventPageDTO;
+import org.springframework.cloud.openfeign.FeignClient;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+
+// Change feed of hotels-service, read by HotelReplicaSync. No circuit breaker or fallback: a failed
+// poll only leaves the replica behind, and reads fall back to IHotelRepository once it is too stale
+@FeignClient(name = "hotels-service", contextId = "hotelEvents")
+public interface IHotelEventRepository {
+
+    @GetMapping(value = "/hotels/events", produces = IHotelRepository.WIRE_FORMAT)
+    HotelEventPageDTO findEventsAfter(@RequestParam("after") long after, @RequestParam("limit") int limit);
+
+    // One page of the snapshot; position is null for the first page and then the head it returned
+    @GetMapping(value = "/hotels/events/snapshot", produces = IHotelRepository.WIRE_FORMAT)
+    HotelEventPageDTO findSnapshot(@RequestParam(value = "position", required = false) Long position,
+                                   @RequestParam("afterId") long afterId,
+                                   @RequestParam("limit") int limit);
+}
@@ -1,74 +1,155 @@
 package com.tourismSystem.cities.repositories;
 
+import com.tourismSystem.cities.dtos.HotelsBatchDTO;
 import com.tourismSystem.cities.dtos.HotelsDTO;
+import com.tourismSystem.cities.exceptions.BadRequest;
+import com.tourismSystem.cities.exceptions.ResourceNotFound;
+import feign.FeignException;
 import io.github.resilience4j.circuitbreaker.annotation.CircuitBreaker;
 import io.github.resilience4j.retry.annotation.Retry;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.cloud.openfeign.FeignClient;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestParam;
 
-import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 
 @FeignClient(name="hotels-service") // ¡Sin el atributo fallback aquí!
 public interface IHotelRepository {
 
     Logger logger = LoggerFactory.getLogger(IHotelRepository.class);
 
+    // Asked for in Accept: hotels-service answers in Smile, smaller and cheaper to parse than JSON
+    String WIRE_FORMAT = "application/x-jackson-smile";
+
+    // hotels-service pages its listings: limit/next ask for one page and this header carries the cursor
+    // of the next one (absent on the last). HotelQueryService follows it to read the whole listing
+    String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
     @CircuitBreaker(name = "hotels-service", fallbackMethod = "fallbackFindHotelsById")
     @Retry(name="hotels-service")
-    @GetMapping("hotels/errorId/{id}")
+    @GetMapping(value = "hotels/errorId/{id}", produces = WIRE_FORMAT)
     HotelsDTO findHotelsById(@PathVariable("id") Long id);
 
     @CircuitBreaker(name = "hotels-service", fallbackMethod = "fallbackFindHotelsByCity")
     @Retry(name="hotels-service")
-    @GetMapping("/hotels/city/{city}")
-    List<HotelsDTO> findHotelsByCity(@PathVariable("city") String city);
+    @GetMapping(value = "/hotels/city/{city}", produces = WIRE_FORMAT)
+    ResponseEntity<List<HotelsDTO>> findHotelsByCity(@PathVariable("city") String city,
+                                                     @RequestParam("limit") int limit,
+                                                     @RequestParam(value = "next", required = false) String next);
 
     @CircuitBreaker(name = "hotels-service", fallbackMethod = "fallbackFindHotelsByState")
     @Retry(name="hotels-service")
-    @GetMapping("/hotels/state/{state}")
-    List<HotelsDTO> findHotelsByState(@PathVariable("state") String state);
+    @GetMapping(value = "/hotels/state/{state}", produces = WIRE_FORMAT)
+    ResponseEntity<List<HotelsDTO>> findHotelsByState(@PathVariable("state") String state,
+                                                      @RequestParam("limit") int limit,
+                                                      @RequestParam(value = "next", required = false) String next);
 
     @CircuitBreaker(name = "hotels-service", fallbackMethod = "fallbackFindHotelsByCountry")
     @Retry(name="hotels-service")
-    @GetMapping("/hotels/country/{country}")
-    List<HotelsDTO> findHotelsByCountry(@PathVariable("country") String country);
+    @GetMapping(value = "/hotels/country/{country}", produces = WIRE_FORMAT)
+    ResponseEntity<List<HotelsDTO>> findHotelsByCountry(@PathVariable("country") String country,
+                                                        @RequestParam("limit") int limit,
+                                                        @RequestParam(value = "next", required = false) String next);
 
     @CircuitBreaker(name = "hotels-service", fallbackMethod = "fallbackFindHotelsByFilters")
     @Retry(name="hotels-service")
-    @GetMapping("/hotels/filters")
-    List<HotelsDTO> findHotelsByFilters(@RequestParam("city") String city,
-                                        @RequestParam("state") String state,
-                                        @RequestParam("country") String country,
-                                        @RequestParam("stars") Integer stars);
+    @GetMapping(value = "/hotels/filters", produces = WIRE_FORMAT)
+    ResponseEntity<List<HotelsDTO>> findHotelsByFilters(@RequestParam("city") String city,
+                                                        @RequestParam("state") String state,
+                                                        @RequestParam("country") String country,
+                                                        @RequestParam("stars") Integer stars,
+                                                        @RequestParam("limit") int limit,
+                                                        @RequestParam(value = "next", required = false) String next);
+
+    @CircuitBreaker(name = "hotels-service", fallbackMethod = "fallbackFindHotelsByIds")
+    @Retry(name="hotels-service")
+    @PostMapping(value = "/hotels/batch", produces = WIRE_FORMAT)
+    HotelsBatchDTO findHotelsByIds(@RequestBody List<Long> ids);
+
+    // One entry per requested name, as sent; hotels-service reads them all with one query
+    @CircuitBreaker(name = "hotels-service", fallbackMethod = "fallbackFindHotelsByCities")
+    @Retry(name="hotels-service")
+    @PostMapping(value = "/hotels/cities", produces = WIRE_FORMAT)
+    Map<String, List<HotelsDTO>> findHotelsByCities(@RequestBody List<String> cities);
 
-    // Métodos fallback dentro de la interfaz
+    // Métodos fallback dentro de la interfaz.
+    // Un 404 de hotels-service es una respuesta (no hay tales hoteles): las búsquedas devuelven la lista
+    // vacía, que se cachea como cualquier otra. Otro 4xx es un request rechazado y se propaga como BadRequest.
+    // El resto (5xx, timeout, circuito abierto) devuelve null (sin respuesta): HotelResponseCache sirve la
+    // última respuesta buena o, si no la tiene, la vacía
     default  HotelsDTO fallbackFindHotelsById(Long id, Throwable ex){
+        if (ex instanceof FeignException.NotFound) {
+            throw new ResourceNotFound("Hotel not found with the id " + id);
+        }
+        rethrowRejected(ex);
         logger.warn("🔴 RESILIENCE4J FALLBACK - findHotelsByID para ID: {} por excepción: {}", id, ex.getMessage());
         return null;
     }
 
-    default List<HotelsDTO> fallbackFindHotelsByCity(String city, Throwable ex) {
+    default ResponseEntity<List<HotelsDTO>> fallbackFindHotelsByCity(String city, int limit, String next, Throwable ex) {
+        if (ex instanceof FeignException.NotFound) {
+            return noHotels();
+        }
+        rethrowRejected(ex);
         logger.warn("🔴 RESILIENCE4J FALLBACK - findHotelsByCity para ciudad: {} por excepción: {}", city, ex.getMessage());
-        return Collections.emptyList();
+        return null;
     }
 
-    default List<HotelsDTO> fallbackFindHotelsByState(String state, Throwable ex) {
+    default ResponseEntity<List<HotelsDTO>> fallbackFindHotelsByState(String state, int limit, String next, Throwable ex) {
+        if (ex instanceof FeignException.NotFound) {
+            return noHotels();
+        }
+        rethrowRejected(ex);
         logger.warn("🔴 RESILIENCE4J FALLBACK - findHotelsByState para estado: {} por excepción: {}", state, ex.getMessage());
-        return Collections.emptyList();
+        return null;
     }
 
-    default List<HotelsDTO> fallbackFindHotelsByCountry(String country, Throwable ex) {
+    default ResponseEntity<List<HotelsDTO>> fallbackFindHotelsByCountry(String country, int limit, String next, Throwable ex) {
+        if (ex instanceof FeignException.NotFound) {
+            return noHotels();
+        }
+        rethrowRejected(ex);
         logger.warn("🔴 RESILIENCE4J FALLBACK - findHotelsByCountry para país: {} por excepción: {}", country, ex.getMessage());
-        return Collections.emptyList();
+        return null;
     }
 
-    default List<HotelsDTO> fallbackFindHotelsByFilters(String city, String state, String country, Integer stars, Throwable ex) {
+    default ResponseEntity<List<HotelsDTO>> fallbackFindHotelsByFilters(String city, String state, String country, Integer stars,
+                                                                         int limit, String next, Throwable ex) {
+        if (ex instanceof FeignException.NotFound) {
+            return noHotels();
+        }
+        rethrowRejected(ex);
         logger.warn("🔴 RESILIENCE4J FALLBACK - findHotelsByFilters con filtros: {}, {}, {}, {} por excepción: {}", city, state, country, stars, ex.getMessage());
-        return Collections.emptyList();
+        return null;
+    }
+
+    default HotelsBatchDTO fallbackFindHotelsByIds(List<Long> ids, Throwable ex) {
+        rethrowRejected(ex);
+        logger.warn("🔴 RESILIENCE4J FALLBACK - findHotelsByIds para {} IDs por excepción: {}", ids.size(), ex.getMessage());
+        return null;
+    }
+
+    default Map<String, List<HotelsDTO>> fallbackFindHotelsByCities(List<String> cities, Throwable ex) {
+        rethrowRejected(ex);
+        logger.warn("🔴 RESILIENCE4J FALLBACK - findHotelsByCities para {} ciudades por excepción: {}", cities.size(), ex.getMessage());
+        return null;
+    }
+
+    // Una página vacía y sin cursor: la última del listado
+    private static ResponseEntity<List<HotelsDTO>> noHotels() {
+        return ResponseEntity.ok(List.of());
+    }
+
+    private static void rethrowRejected(Throwable ex) {
+        if (ex instanceof FeignException.FeignClientException rejected) {
+            throw new BadRequest("hotels-service rejected the request with " + rejected.status() + ": " + rejected.contentUTF8());
+        }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,295 @@
+package com.tourismSystem.cities.services;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.tourismSystem.cities.dtos.BatchSummaryDTO;
+import com.tourismSystem.cities.dtos.BulkImportSummaryDTO;
+import com.tourismSystem.cities.dtos.CityDTO;
+import com.tourismSystem.cities.exceptions.BadRequest;
+import com.tourismSystem.shared.csv.CsvReader;
+import com.tourismSystem.shared.geocoding.CityGeocoder;
+import com.tourismSystem.shared.io.BoundedLineReader;
+import com.tourismSystem.shared.io.RecordTooLongException;
+import com.tourismSystem.shared.text.TextNormalizer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Bulk city import. The request body is parsed as it arrives and every batch of
+ * {@code cities.bulk-import.batch-size} rows is committed in its own transaction with a
+ * single JDBC batch, so only one batch is ever held in memory. A row longer than
+ * {@code cities.bulk-import.max-record-length} characters is rejected without being buffered.
+ */
+@Service
+public class CityImportService implements ICityImportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(CityImportService.class);
+
+    private static final String INSERT_CITY =
+            "INSERT INTO city (name, state, country, latitude, longitude, name_key, state_key, country_key) " +
+                    "VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+    private static final int MAX_ERRORS_PER_BATCH = 20;
+    // Length of the city's VARCHAR columns
+    private static final int MAX_TEXT_LENGTH = 255;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final CityGeocoder cityGeocoder;
+    private final int batchSize;
+    private final int maxRecordLength;
+
+    public CityImportService(JdbcTemplate jdbcTemplate,
+                             PlatformTransactionManager transactionManager,
+                             ObjectMapper objectMapper,
+                             CityGeocoder cityGeocoder,
+                             @Value("${cities.bulk-import.batch-size:500}") int batchSize,
+                             @Value("${cities.bulk-import.max-record-length:8192}") int maxRecordLength) {
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("cities.bulk-import.batch-size must be greater than 0");
+        }
+        if (maxRecordLength < 1) {
+            throw new IllegalArgumentException("cities.bulk-import.max-record-length must be greater than 0");
+        }
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.objectMapper = objectMapper;
+        this.cityGeocoder = cityGeocoder;
+        this.batchSize = batchSize;
+        this.maxRecordLength = maxRecordLength;
+    }
+
+    @Override
+    public BulkImportSummaryDTO importCitiesFromCsv(InputStream body) throws IOException {
+        long start = System.nanoTime();
+        BatchWriter writer = new BatchWriter();
+
+        try (CsvReader reader = new CsvReader(new InputStreamReader(body, StandardCharsets.UTF_8), maxRecordLength)) {
+            String[] header;
+            try {
+                header = reader.readRecord();
+            } catch (RecordTooLongException ex) {
+                throw new BadRequest("The CSV header is longer than " + maxRecordLength + " characters");
+            }
+            if (header == null) {
+                throw new BadRequest("The CSV body is empty");
+            }
+            Map<String, Integer> columns = new HashMap<>();
+            for (int i = 0; i < header.length; i++) {
+                columns.put(header[i].replace("\uFEFF", "").trim().toLowerCase(), i);
+            }
+            Integer nameCol = columns.get("name");
+            Integer stateCol = columns.get("state");
+            Integer countryCol = columns.get("country");
+            if (nameCol == null || stateCol == null || countryCol == null) {
+                throw new BadRequest("The CSV header must contain the columns name, state and country");
+            }
+            int minColumns = Math.max(nameCol, Math.max(stateCol, countryCol)) + 1;
+            // Optional; rows without a position are geocoded from their city
+            Integer latitudeCol = columns.get("latitude");
+            Integer longitudeCol = columns.get("longitude");
+
+            String[] record;
+            while ((record = readRecord(reader, writer)) != null) {
+                if (record.length < minColumns) {
+                    writer.reject(reader.getLineNumber(), "expected at least " + minColumns + " columns but found " + record.length);
+                    continue;
+                }
+                Double latitude;
+                Double longitude;
+                try {
+                    latitude = coordinate(record, latitudeCol);
+                    longitude = coordinate(record, longitudeCol);
+                } catch (NumberFormatException ex) {
+                    writer.reject(reader.getLineNumber(), "invalid coordinate: " + ex.getMessage());
+                    continue;
+                }
+                writer.add(reader.getLineNumber(), new CityDTO(null, record[nameCol], record[stateCol], record[countryCol],
+                        latitude, longitude, null));
+            }
+        }
+        return writer.finish(start);
+    }
+
+    @Override
+    public BulkImportSummaryDTO importCitiesFromNdjson(InputStream body) throws IOException {
+        long start = System.nanoTime();
+        BatchWriter writer = new BatchWriter();
+
+        try (BoundedLineReader reader = new BoundedLineReader(new InputStreamReader(body, StandardCharsets.UTF_8), maxRecordLength)) {
+            while (true) {
+                String line;
+                try {
+                    line = reader.readLine();
+                } catch (RecordTooLongException ex) {
+                    // The rest of the line was skipped: the next one is read as usual
+                    writer.reject(ex.getLineNumber(), "longer than " + maxRecordLength + " characters");
+                    continue;
+                }
+                if (line == null) {
+                    break;
+                }
+                long lineNumber = reader.getLineNumber();
+                if (line.isBlank()) {
+                    continue;
+                }
+                try {
+                    writer.add(lineNumber, objectMapper.readValue(line, CityDTO.class));
+                } catch (JsonProcessingException ex) {
+                    writer.reject(lineNumber, "invalid JSON: " + ex.getOriginalMessage());
+                }
+            }
+        }
+        return writer.finish(start);
+    }
+
+    // Where the row after one too long starts is unknown (a quote may have been left open): reading stops there
+    private String[] readRecord(CsvReader reader, BatchWriter writer) throws IOException {
+        try {
+            return reader.readRecord();
+        } catch (RecordTooLongException ex) {
+            writer.reject(ex.getLineNumber(), "longer than " + maxRecordLength + " characters, the rest of the body was not read");
+            return null;
+        }
+    }
+
+    private static Double coordinate(String[] record, Integer column) {
+        if (column == null || column >= record.length || record[column].isBlank()) {
+            return null;
+        }
+        return Double.parseDouble(record[column].trim());
+    }
+
+    private static String validate(CityDTO city) {
+        if (city == null) {
+            return "empty row";
+        }
+        if (city.getName() == null || city.getName().isBlank()) {
+            return "name is required";
+        }
+        if (city.getState() == null || city.getState().isBlank()) {
+            return "state is required";
+        }
+        if (city.getCountry() == null || city.getCountry().isBlank()) {
+            return "country is required";
+        }
+        // One value that does not fit its column would fail and roll back the whole JDBC batch
+        if (city.getName().trim().length() > MAX_TEXT_LENGTH) {
+            return "name is longer than " + MAX_TEXT_LENGTH + " characters";
+        }
+        if (city.getState().trim().length() > MAX_TEXT_LENGTH) {
+            return "state is longer than " + MAX_TEXT_LENGTH + " characters";
+        }
+        if (city.getCountry().trim().length() > MAX_TEXT_LENGTH) {
+            return "country is longer than " + MAX_TEXT_LENGTH + " characters";
+        }
+        if ((city.getLatitude() == null) != (city.getLongitude() == null)) {
+            return "latitude and longitude must be given together";
+        }
+        if (city.getLatitude() != null && (Math.abs(city.getLatitude()) > 90 || Math.abs(city.getLongitude()) > 180)) {
+            return "latitude must be between -90 and 90 and longitude between -180 and 180";
+        }
+        return null;
+    }
+
+    // Collects rows until the batch is full, then commits it and records its summary
+    private class BatchWriter {
+
+        private final BulkImportSummaryDTO summary = new BulkImportSummaryDTO();
+        private final List<CityDTO> cities = new ArrayList<>(batchSize);
+        private final List<String> errors = new ArrayList<>();
+        private int rows = 0;
+        private int rejected = 0;
+
+        void add(long line, CityDTO city) {
+            String problem = validate(city);
+            if (problem != null) {
+                reject(line, problem);
+                return;
+            }
+            city.setName(city.getName().trim());
+            city.setState(city.getState().trim());
+            city.setCountry(city.getCountry().trim());
+            if (city.getLatitude() == null) {
+                double[] position = cityGeocoder.locate(city.getName(), city.getState(), city.getCountry());
+                if (position != null) {
+                    city.setLatitude(position[0]);
+                    city.setLongitude(position[1]);
+                }
+            }
+            cities.add(city);
+            rowAdded();
+        }
+
+        void reject(long line, String reason) {
+            rejected++;
+            if (errors.size() < MAX_ERRORS_PER_BATCH) {
+                errors.add("line " + line + ": " + reason);
+            }
+            rowAdded();
+        }
+
+        private void rowAdded() {
+            if (++rows == batchSize) {
+                flush();
+            }
+        }
+
+        private void flush() {
+            if (rows == 0) {
+                return;
+            }
+            int inserted = 0;
+            if (!cities.isEmpty()) {
+                try {
+                    transactionTemplate.executeWithoutResult(status ->
+                            jdbcTemplate.batchUpdate(INSERT_CITY, cities, cities.size(), (ps, city) -> {
+                                ps.setString(1, city.getName());
+                                ps.setString(2, city.getState());
+                                ps.setString(3, city.getCountry());
+                                ps.setObject(4, city.getLatitude(), Types.DOUBLE);
+                                ps.setObject(5, city.getLongitude(), Types.DOUBLE);
+                                ps.setString(6, TextNormalizer.fold(city.getName()));
+                                ps.setString(7, TextNormalizer.fold(city.getState()));
+                                ps.setString(8, TextNormalizer.fold(city.getCountry()));
+                            }));
+                    inserted = cities.size();
+                } catch (DataAccessException ex) {
+                    logger.warn("City import batch {} rolled back: {}", summary.getBatches().size() + 1, ex.getMessage());
+                    rejected += cities.size();
+                    errors.add("batch rolled back: " + ex.getMostSpecificCause().getMessage());
+                }
+            }
+            summary.addBatch(new BatchSummaryDTO(summary.getBatches().size() + 1, inserted, rejected, List.copyOf(errors)));
+
+            cities.clear();
+            errors.clear();
+            rows = 0;
+            rejected = 0;
+        }
+
+        BulkImportSummaryDTO finish(long start) {
+            flush();
+            summary.setElapsedMillis((System.nanoTime() - start) / 1_000_000);
+            logger.info("City bulk import finished: {} inserted, {} rejected in {} batches ({} ms)",
+                    summary.getInserted(), summary.getRejected(), summary.getBatches().size(), summary.getElapsedMillis());
+            return summary;
+        }
+    }
+}
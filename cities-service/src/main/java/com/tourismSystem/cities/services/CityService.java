@@ -1,68 +1,115 @@
 package com.tourismSystem.cities.services;
 
+import com.tourismSystem.cities.dtos.CityBatchDTO;
 import com.tourismSystem.cities.dtos.CityDTO;
 import com.tourismSystem.cities.entities.City;
 import com.tourismSystem.cities.exceptions.BadRequest;
 import com.tourismSystem.cities.exceptions.ResourceNotFound;
 import com.tourismSystem.cities.repositories.CityRepository;
+import com.tourismSystem.shared.geocoding.CityGeocoder;
+import com.tourismSystem.shared.text.TextNormalizer;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.RequestParam;
 
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
-import java.util.stream.Collectors;
 
 @Service
 public class CityService implements ICityService {
 
+    // Keeps IN lists well below driver and optimizer limits
+    private static final int IN_CLAUSE_CHUNK = 1000;
+
     final private CityRepository cityRepository;
+    final private CityGeocoder cityGeocoder;
+    final private int batchMaxIds;
 
-    public CityService(CityRepository cityRepository) {
+    public CityService(CityRepository cityRepository, CityGeocoder cityGeocoder,
+                       @Value("${cities.batch.max-ids:500}") int batchMaxIds) {
         this.cityRepository = cityRepository;
+        this.cityGeocoder = cityGeocoder;
+        this.batchMaxIds = batchMaxIds;
     }
 
 
     @Override
+    @Transactional(readOnly = true)
     public CityDTO findCityById(Long id) {
-        City city = cityRepository.findById(id)
+        return cityRepository.findDtoById(id)
+                .orElseThrow(() -> new ResourceNotFound("City not found with the id " + id));
+    }
+
+
+    @Override
+    @Transactional(readOnly = true)
+    public Long findCityVersion(Long id) {
+        return cityRepository.findVersionById(id)
                 .orElseThrow(() -> new ResourceNotFound("City not found with the id " + id));
-        return new CityDTO(city);
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public CityBatchDTO findCitiesByIds(List<Long> ids) {
+        if (ids == null || ids.isEmpty()) {
+            throw new BadRequest("At least one city id is required");
+        }
+        if (ids.size() > batchMaxIds) {
+            throw new BadRequest("At most " + batchMaxIds + " city ids can be requested at once");
+        }
+        if (ids.contains(null)) {
+            throw new BadRequest("City ids must not be null");
+        }
+
+        List<Long> distinctIds = List.copyOf(new LinkedHashSet<>(ids));
+        Map<Long, CityDTO> citiesById = new HashMap<>(distinctIds.size() * 2);
+        for (int from = 0; from < distinctIds.size(); from += IN_CLAUSE_CHUNK) {
+            List<Long> chunk = distinctIds.subList(from, Math.min(from + IN_CLAUSE_CHUNK, distinctIds.size()));
+            for (CityDTO city : cityRepository.findDtosByIds(chunk)) {
+                citiesById.put(city.getId(), city);
+            }
+        }
+
+        List<CityDTO> cities = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            cities.add(citiesById.get(id));
+        }
+        List<Long> missing = distinctIds.stream()
+                .filter(id -> !citiesById.containsKey(id))
+                .toList();
+        return new CityBatchDTO(cities, missing);
+    }
 
     @Override
+    @Transactional(readOnly = true)
     public CityDTO findCityByName(String name) {
-        City city = cityRepository.findCityByName(name)
+        return cityRepository.findCityByNameKey(TextNormalizer.fold(name))
                 .orElseThrow(() -> new ResourceNotFound("City not found with the name " + name));
-        return new CityDTO(city);
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<CityDTO> findAllCites() {
-        return cityRepository.findAll()
-                .stream()
-                .map(CityDTO::new)
-                .collect(Collectors.toList());
-
+        return cityRepository.findAllDtos();
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<CityDTO> findCitiesByState(String state) {
-        List<City> citiesList= cityRepository.findCityByState(state)
+        return cityRepository.findCityByStateKey(TextNormalizer.fold(state))
                 .orElseThrow(()->new ResourceNotFound("No cities were found in the state of"+state));
-        return citiesList.stream()
-                .map(CityDTO::new)
-                .collect(Collectors.toList());
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<CityDTO> findCitiesByCountry(String country) {
-        List<City> citiesList= cityRepository.findCityByCountry(country)
+        return cityRepository.findCityByCountryKey(TextNormalizer.fold(country))
                 .orElseThrow(()->new ResourceNotFound("No cities were found in the country of "+country));
-        return citiesList.stream()
-                .map(CityDTO::new)
-                .collect(Collectors.toList());
     }
 
 
@@ -70,6 +117,9 @@ public class CityService implements ICityService {
     @Override
     public CityDTO createCiy(CityDTO cityDTO) {
         City city= cityDTO.toEntity();
+        if (city.getLatitude() == null || city.getLongitude() == null) {
+            geocode(city);
+        }
         City citySaved= cityRepository.save(city);
         return new CityDTO(citySaved);
     }
@@ -83,6 +133,8 @@ public class CityService implements ICityService {
                 case "name"-> existingCity.setName((String) value);
                 case "state"->existingCity.setState((String) value);
                 case "country"->existingCity.setCountry((String) value);
+                case "latitude"->existingCity.setLatitude(value == null ? null : ((Number) value).doubleValue());
+                case "longitude"->existingCity.setLongitude(value == null ? null : ((Number) value).doubleValue());
                 default -> System.out.println("Field not recognized"+ key);
             }
         });
@@ -92,12 +144,10 @@ public class CityService implements ICityService {
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<CityDTO> findCityByStateAndCountry(String state, String country) {
-        List<City> cities= cityRepository.findCityByStateAndCountry(state,country)
+        return cityRepository.findCityByStateKeyAndCountryKey(TextNormalizer.fold(state), TextNormalizer.fold(country))
                 .orElseThrow(()-> new ResourceNotFound("No cities found in that location."));
-        return cities.stream()
-                .map(CityDTO::new)
-                .collect(Collectors.toList());
     }
 
     @Override
@@ -106,5 +156,14 @@ public class CityService implements ICityService {
 
     }
 
+    // Position of the city centroid from the offline geocoding file, when it is listed there
+    private void geocode(City city) {
+        double[] position = cityGeocoder.locate(city.getName(), city.getState(), city.getCountry());
+        if (position != null) {
+            city.setLatitude(position[0]);
+            city.setLongitude(position[1]);
+        }
+    }
+
 
 }
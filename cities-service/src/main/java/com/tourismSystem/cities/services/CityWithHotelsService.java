@@ -0,0 +1,144 @@
+package com.tourismSystem.cities.services;
+
+import com.tourismSystem.cities.dtos.CityDTO;
+import com.tourismSystem.cities.dtos.CityWithHotelsDTO;
+import com.tourismSystem.cities.dtos.HotelsDTO;
+import com.tourismSystem.cities.exceptions.InformationNotAvailable;
+import com.tourismSystem.cities.exceptions.ResourceNotFound;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * City page aggregate: the city lookup and its hotel lookup run side by side on virtual threads, so
+ * the answer takes as long as the slower of the two instead of their sum. Both share one deadline
+ * (cities.city-with-hotels.deadline) and live in a per-request scope that is not left until both
+ * threads have ended:
+ * <ul>
+ *   <li>the city is required: if it fails or misses the deadline, the hotel lookup is cancelled and
+ *   the failure is the answer (404 for an unknown city, 408 past the deadline);</li>
+ *   <li>the hotels are not: if they fail or miss the deadline, that lookup is cancelled and the
+ *   answer is partial, with hotels null and "hotels" listed as unavailable.</li>
+ * </ul>
+ * The state and country listings cost one city query and one hotels-service call for all their cities
+ * (POST /hotels/cities, a single IN query there), split only past cities.hotel-fan-out.max-cities; if
+ * hotels-service gives no answer every city comes back partial.
+ */
+@Service
+public class CityWithHotelsService implements ICityWithHotelsService {
+
+    private static final Logger logger = LoggerFactory.getLogger(CityWithHotelsService.class);
+    private static final ThreadFactory LOOKUPS = Thread.ofVirtual().name("city-with-hotels-", 0).factory();
+
+    private final ICityService cityService;
+    private final IHotelQueryService hotelQueryService;
+    private final Duration deadline;
+    private final int maxCitiesPerCall;
+
+    public CityWithHotelsService(ICityService cityService, IHotelQueryService hotelQueryService,
+                                 @Value("${cities.city-with-hotels.deadline:2s}") Duration deadline,
+                                 @Value("${cities.hotel-fan-out.max-cities:1000}") int maxCitiesPerCall) {
+        this.cityService = cityService;
+        this.hotelQueryService = hotelQueryService;
+        this.deadline = deadline;
+        this.maxCitiesPerCall = maxCitiesPerCall;
+    }
+
+    @Override
+    public CityWithHotelsDTO findCityWithHotels(String name) {
+        long deadlineNanos = System.nanoTime() + deadline.toNanos();
+        // close() waits for both lookups, so none outlives the request
+        try (ExecutorService scope = Executors.newThreadPerTaskExecutor(LOOKUPS)) {
+            Future<CityDTO> city = scope.submit(() -> cityService.findCityByName(name));
+            Future<List<HotelsDTO>> hotels = scope.submit(() -> hotelQueryService.findHotelsByCity(name));
+
+            CityDTO found;
+            try {
+                found = await(city, deadlineNanos, "the city " + name);
+            } catch (RuntimeException ex) {
+                city.cancel(true);
+                hotels.cancel(true);
+                throw ex;
+            }
+            try {
+                return new CityWithHotelsDTO(found, await(hotels, deadlineNanos, "the hotels of " + name), false, List.of());
+            } catch (RuntimeException ex) {
+                hotels.cancel(true);
+                logger.warn("Partial answer for {}: hotels unavailable ({})", name, ex.getMessage());
+                return new CityWithHotelsDTO(found, null, true, List.of("hotels"));
+            }
+        }
+    }
+
+    @Override
+    public List<CityWithHotelsDTO> findCitiesWithHotelsByState(String state) {
+        return withHotels(cityService.findCitiesByState(state), "state of " + state);
+    }
+
+    @Override
+    public List<CityWithHotelsDTO> findCitiesWithHotelsByCountry(String country) {
+        return withHotels(cityService.findCitiesByCountry(country), "country of " + country);
+    }
+
+    private List<CityWithHotelsDTO> withHotels(List<CityDTO> cities, String where) {
+        if (cities.isEmpty()) {
+            throw new ResourceNotFound("No cities were found in the " + where);
+        }
+        List<String> names = cities.stream().map(CityDTO::getName).filter(Objects::nonNull).distinct().toList();
+        Map<String, List<HotelsDTO>> hotelsByCity = new HashMap<>(names.size() * 2);
+        boolean answered = true;
+        try {
+            for (int from = 0; from < names.size() && answered; from += maxCitiesPerCall) {
+                Map<String, List<HotelsDTO>> chunk = hotelQueryService.findHotelsByCities(
+                        names.subList(from, Math.min(from + maxCitiesPerCall, names.size())));
+                answered = chunk != null;
+                if (answered) {
+                    hotelsByCity.putAll(chunk);
+                }
+            }
+        } catch (RuntimeException ex) {
+            answered = false;
+            logger.warn("Partial answer for the {}: hotels unavailable ({})", where, ex.getMessage());
+        }
+
+        List<CityWithHotelsDTO> page = new ArrayList<>(cities.size());
+        for (CityDTO city : cities) {
+            page.add(answered
+                    ? new CityWithHotelsDTO(city, hotelsByCity.getOrDefault(city.getName(), List.of()), false, List.of())
+                    : new CityWithHotelsDTO(city, null, true, List.of("hotels")));
+        }
+        return page;
+    }
+
+    // Result of the lookup by the deadline; its own failure is rethrown as is
+    private static <T> T await(Future<T> lookup, long deadlineNanos, String what) {
+        try {
+            return lookup.get(Math.max(0, deadlineNanos - System.nanoTime()), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException ex) {
+            throw new InformationNotAvailable("Could not read " + what + " in time");
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new InformationNotAvailable("Interrupted while reading " + what);
+        } catch (ExecutionException ex) {
+            if (ex.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException(ex.getCause());
+        }
+    }
+}
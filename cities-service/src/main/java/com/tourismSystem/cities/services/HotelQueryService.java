@@ -0,0 +1,166 @@
+package com.tourismSystem.cities.services;
+
+import com.tourismSystem.cities.cache.HotelResponseCache;
+import com.tourismSystem.cities.dtos.HotelsBatchDTO;
+import com.tourismSystem.cities.dtos.HotelsDTO;
+import com.tourismSystem.cities.repositories.HotelReplica;
+import com.tourismSystem.cities.repositories.IHotelRepository;
+import com.tourismSystem.shared.text.TextNormalizer;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.BiFunction;
+import java.util.function.Supplier;
+
+/**
+ * Answers hotel lookups from the local {@link HotelReplica} while {@link HotelReplicaSync} keeps it
+ * fresh, and through hotels-service (Feign, with its circuit breaker and fallbacks) otherwise.
+ * Requests hotels-service would reject also go there, so they fail the same way. Every answer counts
+ * in hotels.replica.reads, tagged with the source: replica or hotels-service. Concurrent identical
+ * hotels-service calls share one request through {@link HotelRequestCoalescer}, and their answers
+ * are cached by {@link HotelResponseCache}, which also covers for the circuit breaker fallbacks;
+ * names are keyed folded, as hotels-service matches them. hotels-service pages its listings, so those
+ * calls follow the X-Next-Cursor header page by page and answer with the whole listing, as the
+ * replica does, up to cities.hotel-paging.max-hotels: past that only its first hotels (in listing
+ * order) are answered, so one listing cannot pull an unbounded catalog into memory.
+ */
+@Service
+public class HotelQueryService implements IHotelQueryService {
+
+    private static final Logger logger = LoggerFactory.getLogger(HotelQueryService.class);
+
+    private final HotelReplica replica;
+    private final HotelReplicaSync replicaSync;
+    private final IHotelRepository hotelRepository;
+    private final HotelRequestCoalescer coalescer;
+    private final HotelResponseCache responseCache;
+    private final Counter replicaReads;
+    private final Counter remoteReads;
+    private final int pageSize;
+    private final int maxHotels;
+
+    public HotelQueryService(HotelReplica replica, HotelReplicaSync replicaSync, IHotelRepository hotelRepository,
+                             HotelRequestCoalescer coalescer, HotelResponseCache responseCache,
+                             MeterRegistry meterRegistry,
+                             @Value("${cities.hotel-paging.page-size:1000}") int pageSize,
+                             @Value("${cities.hotel-paging.max-hotels:20000}") int maxHotels) {
+        this.replica = replica;
+        this.replicaSync = replicaSync;
+        this.hotelRepository = hotelRepository;
+        this.coalescer = coalescer;
+        this.responseCache = responseCache;
+        this.replicaReads = meterRegistry.counter("hotels.replica.reads", "source", "replica");
+        this.remoteReads = meterRegistry.counter("hotels.replica.reads", "source", "hotels-service");
+        this.pageSize = pageSize;
+        this.maxHotels = maxHotels;
+    }
+
+    @Override
+    public List<HotelsDTO> findHotelsByCity(String city) {
+        return read(() -> replica.findByCity(city),
+                () -> remote("findHotelsByCity", Arrays.asList(TextNormalizer.fold(city)),
+                        () -> allPages("findHotelsByCity",
+                                (limit, next) -> hotelRepository.findHotelsByCity(city, limit, next)), List.of()));
+    }
+
+    @Override
+    public List<HotelsDTO> findHotelsByState(String state) {
+        return read(() -> replica.findByState(state),
+                () -> remote("findHotelsByState", Arrays.asList(TextNormalizer.fold(state)),
+                        () -> allPages("findHotelsByState",
+                                (limit, next) -> hotelRepository.findHotelsByState(state, limit, next)), List.of()));
+    }
+
+    @Override
+    public List<HotelsDTO> findHotelsByCountry(String country) {
+        return read(() -> replica.findByCountry(country),
+                () -> remote("findHotelsByCountry", Arrays.asList(TextNormalizer.fold(country)),
+                        () -> allPages("findHotelsByCountry",
+                                (limit, next) -> hotelRepository.findHotelsByCountry(country, limit, next)), List.of()));
+    }
+
+    @Override
+    public List<HotelsDTO> findHotelsByFilters(String city, String state, String country, Integer stars) {
+        Supplier<List<HotelsDTO>> remote = () -> remote("findHotelsByFilters",
+                Arrays.asList(TextNormalizer.fold(city), TextNormalizer.fold(state), TextNormalizer.fold(country), stars),
+                () -> allPages("findHotelsByFilters",
+                        (limit, next) -> hotelRepository.findHotelsByFilters(city, state, country, stars, limit, next)),
+                List.of());
+        boolean valid = (city != null || state != null || country != null || stars != null)
+                && (stars == null || (stars >= 1 && stars <= 5));
+        return valid ? read(() -> replica.findByFilters(city, state, country, stars), remote) : remote.get();
+    }
+
+    @Override
+    public HotelsBatchDTO findHotelsByIds(List<Long> ids) {
+        // Answers follow the request order, so the ids are keyed as sent.
+        // Nothing resolved: no hotels and no confirmed misses
+        Supplier<HotelsBatchDTO> remote = () -> remote("findHotelsByIds", Arrays.asList(ids),
+                () -> hotelRepository.findHotelsByIds(ids), new HotelsBatchDTO(List.of(), List.of()));
+        boolean valid = ids != null && !ids.isEmpty() && ids.stream().noneMatch(Objects::isNull);
+        return valid ? read(() -> replica.findByIds(ids), remote) : remote.get();
+    }
+
+    @Override
+    public Map<String, List<HotelsDTO>> findHotelsByCities(List<String> cities) {
+        // The answer is keyed by the names as sent, so they are keyed that way too
+        Supplier<Map<String, List<HotelsDTO>>> remote = () -> remote("findHotelsByCities", Arrays.asList(cities),
+                () -> hotelRepository.findHotelsByCities(cities), null);
+        boolean valid = cities != null && !cities.isEmpty() && cities.stream().noneMatch(Objects::isNull);
+        return valid ? read(() -> {
+            Map<String, List<HotelsDTO>> hotelsByCity = new LinkedHashMap<>(cities.size() * 2);
+            for (String city : cities) {
+                hotelsByCity.put(city, replica.findByCity(city));
+            }
+            return hotelsByCity;
+        }, remote) : remote.get();
+    }
+
+    private <T> T read(Supplier<T> local, Supplier<T> remote) {
+        if (replicaSync.isFresh()) {
+            replicaReads.increment();
+            return local.get();
+        }
+        remoteReads.increment();
+        return remote.get();
+    }
+
+    // Every page of a hotels-service listing, in its order, up to maxHotels; a page left without answer
+    // (fallback) leaves the whole listing without one, rather than answering part of it
+    private List<HotelsDTO> allPages(String method, BiFunction<Integer, String, ResponseEntity<List<HotelsDTO>>> page) {
+        List<HotelsDTO> hotels = new ArrayList<>();
+        String next = null;
+        do {
+            ResponseEntity<List<HotelsDTO>> response = page.apply(Math.min(pageSize, maxHotels - hotels.size()), next);
+            if (response == null) {
+                return null;
+            }
+            if (response.getBody() != null) {
+                hotels.addAll(response.getBody());
+            }
+            next = response.getHeaders().getFirst(IHotelRepository.NEXT_CURSOR_HEADER);
+        } while (next != null && hotels.size() < maxHotels);
+        if (next != null || hotels.size() > maxHotels) {
+            logger.warn("{} answered with its first {} hotels: the listing goes on past cities.hotel-paging.max-hotels",
+                    method, maxHotels);
+            return hotels.size() > maxHotels ? new ArrayList<>(hotels.subList(0, maxHotels)) : hotels;
+        }
+        return hotels;
+    }
+
+    // hotels-service call through the response cache, then the coalescer; null (fallback) means no answer
+    private <T> T remote(String method, List<?> key, Supplier<T> call, T empty) {
+        return responseCache.get(method, key, () -> coalescer.execute(method, key, call), empty);
+    }
+}
@@ -0,0 +1,137 @@
+package com.tourismSystem.cities.services;
+
+import com.tourismSystem.cities.dtos.HotelEventDTO;
+import com.tourismSystem.cities.dtos.HotelEventPageDTO;
+import com.tourismSystem.cities.repositories.HotelReplica;
+import com.tourismSystem.cities.repositories.IHotelEventRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keeps {@link HotelReplica} in step with hotels-service: loads its snapshot, then polls the change
+ * feed from the last position applied, reloading the snapshot when the feed asks for it (purged or
+ * reset outbox, bulk import). The replica counts as fresh while the last complete poll is at most
+ * cities.hotel-replica.max-staleness old. Published meters:
+ * hotels.replica.staleness (seconds since that poll), hotels.replica.lag.events (events not applied yet),
+ * hotels.replica.propagation (change to apply time), hotels.replica.size and hotels.replica.reloads.
+ */
+@Service
+public class HotelReplicaSync implements MeterBinder {
+
+    private static final Logger logger = LoggerFactory.getLogger(HotelReplicaSync.class);
+
+    private final IHotelEventRepository hotelEventRepository;
+    private final HotelReplica replica;
+    private final boolean enabled;
+    private final int batchSize;
+    private final Duration maxStaleness;
+    private final Timer propagation;
+    private final Counter reloads;
+
+    private volatile long lastSyncMillis;
+    private volatile long head;
+
+    public HotelReplicaSync(IHotelEventRepository hotelEventRepository,
+                            HotelReplica replica,
+                            MeterRegistry meterRegistry,
+                            @Value("${cities.hotel-replica.enabled:true}") boolean enabled,
+                            @Value("${cities.hotel-replica.batch-size:500}") int batchSize,
+                            @Value("${cities.hotel-replica.max-staleness:30s}") Duration maxStaleness) {
+        this.hotelEventRepository = hotelEventRepository;
+        this.replica = replica;
+        this.enabled = enabled;
+        this.batchSize = batchSize;
+        this.maxStaleness = maxStaleness;
+        this.propagation = Timer.builder("hotels.replica.propagation")
+                .description("Time from a hotel change in hotels-service to its application in the replica")
+                .register(meterRegistry);
+        this.reloads = Counter.builder("hotels.replica.reloads").register(meterRegistry);
+    }
+
+    // The gauges read this instance, so they are bound once it is fully built (by Boot, as a MeterBinder bean)
+    @Override
+    public void bindTo(MeterRegistry meterRegistry) {
+        Gauge.builder("hotels.replica.staleness", this, sync -> sync.lastSyncMillis == 0
+                        ? Double.NaN
+                        : (System.currentTimeMillis() - sync.lastSyncMillis) / 1000.0)
+                .baseUnit("seconds")
+                .register(meterRegistry);
+        Gauge.builder("hotels.replica.lag.events", this, sync -> Math.max(0, sync.head - sync.replica.position()))
+                .register(meterRegistry);
+        Gauge.builder("hotels.replica.size", replica, HotelReplica::size)
+                .register(meterRegistry);
+    }
+
+    public boolean isFresh() {
+        return replica.isLoaded() && System.currentTimeMillis() - lastSyncMillis <= maxStaleness.toMillis();
+    }
+
+    @Scheduled(fixedDelayString = "${cities.hotel-replica.poll-interval-ms:1000}")
+    public void sync() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            boolean reload = !replica.isLoaded();
+            boolean caughtUp = false;
+            while (!caughtUp) {
+                if (reload) {
+                    reload();
+                    reload = false;
+                }
+                HotelEventPageDTO page = hotelEventRepository.findEventsAfter(replica.position(), batchSize);
+                head = page.getHead();
+                reload = page.isResync() || apply(page);
+                caughtUp = !reload && page.getEvents().size() < batchSize;
+            }
+            lastSyncMillis = System.currentTimeMillis();
+        } catch (RuntimeException ex) {
+            logger.warn("Hotel replica sync failed at position {}: {}", replica.position(), ex.getMessage());
+        }
+    }
+
+    // Returns whether a RELOADED event asks for the snapshot; the events after it are in that snapshot
+    private boolean apply(HotelEventPageDTO page) {
+        for (HotelEventDTO event : page.getEvents()) {
+            if (event.getType() == HotelEventDTO.Type.RELOADED) {
+                return true;
+            }
+            replica.apply(event);
+            propagation.record(System.currentTimeMillis() - event.getOccurredAt(), TimeUnit.MILLISECONDS);
+        }
+        return false;
+    }
+
+    // Pages of batch-size hotels, all read at the position of the first one
+    private void reload() {
+        long start = System.nanoTime();
+        HotelReplica.Loader loader = replica.loader();
+        HotelEventPageDTO page = hotelEventRepository.findSnapshot(null, 0, batchSize);
+        long position = page.getHead();
+        loader.add(page);
+        while (page.getNext() != null) {
+            page = hotelEventRepository.findSnapshot(position, page.getNext(), batchSize);
+            if (page.isResync()) {
+                // The next sync starts a new snapshot, or resyncs from the replica still in place
+                throw new IllegalStateException("Hotel snapshot position " + position + " was purged while loading it");
+            }
+            loader.add(page);
+        }
+        loader.finish(position);
+        head = position;
+        reloads.increment();
+        logger.info("Hotel replica loaded {} hotels at position {} in {} ms",
+                replica.size(), position, (System.nanoTime() - start) / 1_000_000);
+    }
+}
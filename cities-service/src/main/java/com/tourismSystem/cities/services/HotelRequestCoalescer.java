@@ -0,0 +1,178 @@
+package com.tourismSystem.cities.services;
+
+import com.tourismSystem.cities.exceptions.InformationNotAvailable;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Single-flight for the hotels-service calls: concurrent calls with the same key (method and
+ * normalized arguments) share one in-flight request, so a trending city costs one Feign call, with
+ * one retry and circuit-breaker pass, instead of one per caller. Nothing is kept once the call ends.
+ * <p>
+ * The call runs on its own virtual thread and every caller waits for it up to
+ * cities.hotel-coalescing.wait-timeout from the moment it joined. A caller that times out or is
+ * interrupted leaves alone; when the last one leaves, the request is cancelled and the next caller
+ * dispatches a new one. Published meters: hotels.client.calls (tagged outcome: dispatched or
+ * coalesced), hotels.client.waits.abandoned (tagged reason: timeout or interrupted),
+ * hotels.client.cancelled and hotels.client.in-flight.
+ */
+@Component
+public class HotelRequestCoalescer {
+
+    private final Map<List<Object>, Flight> flights = new ConcurrentHashMap<>();
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final Duration waitTimeout;
+    private final Counter dispatched;
+    private final Counter coalesced;
+    private final Counter timedOut;
+    private final Counter interrupted;
+    private final Counter cancelled;
+
+    public HotelRequestCoalescer(MeterRegistry meterRegistry,
+                                 @Value("${cities.hotel-coalescing.wait-timeout:10s}") Duration waitTimeout) {
+        this.waitTimeout = waitTimeout;
+        this.dispatched = meterRegistry.counter("hotels.client.calls", "outcome", "dispatched");
+        this.coalesced = meterRegistry.counter("hotels.client.calls", "outcome", "coalesced");
+        this.timedOut = meterRegistry.counter("hotels.client.waits.abandoned", "reason", "timeout");
+        this.interrupted = meterRegistry.counter("hotels.client.waits.abandoned", "reason", "interrupted");
+        this.cancelled = meterRegistry.counter("hotels.client.cancelled");
+        Gauge.builder("hotels.client.in-flight", flights, Map::size).register(meterRegistry);
+    }
+
+    /**
+     * Runs call, or joins the identical one already in flight. The key arguments must already be
+     * normalized the way hotels-service reads them (e.g. folded names), and may contain nulls.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T execute(String method, List<?> arguments, Supplier<T> call) {
+        List<Object> key = List.of(method, arguments);
+        Flight created = new Flight();
+        Flight flight;
+        while (true) {
+            flight = flights.putIfAbsent(key, created);
+            if (flight == null) {
+                flight = created;
+                dispatch(key, flight, call);
+                break;
+            }
+            if (flight.join()) {
+                coalesced.increment();
+                break;
+            }
+            // A flight whose waiters all left is being cancelled: start another one
+            flights.remove(key, flight);
+        }
+
+        boolean answered = false;
+        try {
+            T result = (T) flight.result.get(waitTimeout.toMillis(), TimeUnit.MILLISECONDS);
+            answered = true;
+            return result;
+        } catch (TimeoutException ex) {
+            timedOut.increment();
+            throw new InformationNotAvailable("hotels-service did not answer " + method + " within " + waitTimeout);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            interrupted.increment();
+            throw new InformationNotAvailable("Interrupted while waiting for hotels-service to answer " + method);
+        } catch (ExecutionException ex) {
+            answered = true;
+            if (ex.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (ex.getCause() instanceof Error cause) {
+                throw cause;
+            }
+            throw new IllegalStateException(ex.getCause());
+        } finally {
+            if (!answered) {
+                leave(key, flight);
+            }
+        }
+    }
+
+    private void dispatch(List<Object> key, Flight flight, Supplier<?> call) {
+        dispatched.increment();
+        try {
+            flight.task = executor.submit(() -> {
+                Object result = null;
+                Throwable failure = null;
+                try {
+                    result = call.get();
+                } catch (Throwable ex) {
+                    failure = ex;
+                }
+                // Gone before it answers, so a caller that comes after the answer sends its own call
+                flights.remove(key, flight);
+                if (failure == null) {
+                    flight.result.complete(result);
+                } else {
+                    flight.result.completeExceptionally(failure);
+                }
+            });
+        } catch (RejectedExecutionException ex) {
+            // Shutting down: fail this flight instead of leaving it for others to join
+            flights.remove(key, flight);
+            flight.result.completeExceptionally(ex);
+        }
+    }
+
+    private void leave(List<Object> key, Flight flight) {
+        if (flight.leave() && !flight.result.isDone()) {
+            flights.remove(key, flight);
+            if (flight.task != null) {
+                flight.task.cancel(true);
+            }
+            flight.result.cancel(false);
+            cancelled.increment();
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private static final class Flight {
+
+        private final CompletableFuture<Object> result = new CompletableFuture<>();
+        // Starts with the caller that created it; 0 means abandoned, and then it can no longer be joined
+        private final AtomicInteger waiters = new AtomicInteger(1);
+        private volatile Future<?> task;
+
+        boolean join() {
+            int current;
+            do {
+                current = waiters.get();
+                if (current == 0) {
+                    return false;
+                }
+            } while (!waiters.compareAndSet(current, current + 1));
+            return true;
+        }
+
+        // Whether the caller leaving was the last one waiting
+        boolean leave() {
+            return waiters.decrementAndGet() == 0;
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package com.tourismSystem.cities.services;
+
+import com.tourismSystem.cities.dtos.BulkImportSummaryDTO;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+public interface ICityImportService {
+
+    // CSV with a header row naming at least the name, state and country columns
+    BulkImportSummaryDTO importCitiesFromCsv(InputStream body) throws IOException;
+
+    // One CityDTO JSON object per line
+    BulkImportSummaryDTO importCitiesFromNdjson(InputStream body) throws IOException;
+}
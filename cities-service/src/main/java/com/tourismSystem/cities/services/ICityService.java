@@ -1,5 +1,6 @@
 package com.tourismSystem.cities.services;
 
+import com.tourismSystem.cities.dtos.CityBatchDTO;
 import com.tourismSystem.cities.dtos.CityDTO;
 
 import java.util.List;
@@ -8,6 +9,10 @@ import java.util.Map;
 
 public interface ICityService {
     CityDTO findCityById(Long id);
+    // Current row version (ETag source) without loading the city
+    Long findCityVersion(Long id);
+    // Many ids at once; answers follow the request order and ids without a city are reported as missing
+    CityBatchDTO findCitiesByIds(List<Long> ids);
 
     CityDTO findCityByName(String name);
 
@@ -0,0 +1,13 @@
+package com.tourismSystem.cities.services;
+
+import com.tourismSystem.cities.dtos.CityWithHotelsDTO;
+
+import java.util.List;
+
+public interface ICityWithHotelsService {
+    // City and its hotels, looked up concurrently; hotels missing past the deadline give a partial answer
+    CityWithHotelsDTO findCityWithHotels(String name);
+    // Cities of a state or country with their hotels: one city query and one hotels-service call
+    List<CityWithHotelsDTO> findCitiesWithHotelsByState(String state);
+    List<CityWithHotelsDTO> findCitiesWithHotelsByCountry(String country);
+}
@@ -0,0 +1,19 @@
+package com.tourismSystem.cities.services;
+
+import com.tourismSystem.cities.dtos.HotelsBatchDTO;
+import com.tourismSystem.cities.dtos.HotelsDTO;
+
+import java.util.List;
+import java.util.Map;
+
+// Hotel lookups of the hotel-integration endpoints
+public interface IHotelQueryService {
+    List<HotelsDTO> findHotelsByCity(String city);
+    List<HotelsDTO> findHotelsByState(String state);
+    List<HotelsDTO> findHotelsByCountry(String country);
+    List<HotelsDTO> findHotelsByFilters(String city, String state, String country, Integer stars);
+    // Answers follow the request order; ids without a hotel are reported as missing
+    HotelsBatchDTO findHotelsByIds(List<Long> ids);
+    // One entry per requested name, as sent; null when hotels-service gave no answer
+    Map<String, List<HotelsDTO>> findHotelsByCities(List<String> cities);
+}
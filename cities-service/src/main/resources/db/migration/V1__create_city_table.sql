@@ -0,0 +1,9 @@
+-- Schema previously created by Hibernate (ddl-auto: update). Existing databases are baselined at
+-- this version, so it only runs on empty schemas.
+CREATE TABLE city (
+    id      BIGINT NOT NULL AUTO_INCREMENT,
+    name    VARCHAR(255),
+    state   VARCHAR(255),
+    country VARCHAR(255),
+    PRIMARY KEY (id)
+);
@@ -0,0 +1,10 @@
+-- Case- and accent-folded copies of the lookup columns (see TextNormalizer), so lookups by name,
+-- state and country compare plain indexed columns.
+ALTER TABLE city ADD COLUMN name_key VARCHAR(255);
+ALTER TABLE city ADD COLUMN state_key VARCHAR(255);
+ALTER TABLE city ADD COLUMN country_key VARCHAR(255);
+
+CREATE INDEX idx_city_name_key ON city (name_key);
+CREATE INDEX idx_city_state_key ON city (state_key);
+-- Serves both country-only lookups (leftmost prefix) and state + country lookups
+CREATE INDEX idx_city_country_key_state_key ON city (country_key, state_key);
@@ -0,0 +1,3 @@
+-- WGS84 position of each city (see geocoding/cities.csv)
+ALTER TABLE city ADD COLUMN latitude DOUBLE;
+ALTER TABLE city ADD COLUMN longitude DOUBLE;
@@ -0,0 +1,2 @@
+-- Optimistic-lock version of each city row (JPA @Version); also the source of its HTTP ETag
+ALTER TABLE city ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
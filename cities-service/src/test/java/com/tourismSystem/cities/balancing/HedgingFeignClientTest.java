@@ -0,0 +1,181 @@
+package com.tourismSystem.cities.balancing;
+
+import com.tourismSystem.shared.balancing.InstanceStats;
+import feign.Client;
+import feign.Request;
+import feign.Response;
+import feign.Util;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.client.DefaultServiceInstance;
+import org.springframework.cloud.client.ServiceInstance;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class HedgingFeignClientTest {
+
+    private static final Request.Options OPTIONS = new Request.Options(1, TimeUnit.SECONDS, 5, TimeUnit.SECONDS, true);
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final ExecutorService calls = Executors.newVirtualThreadPerTaskExecutor();
+    // Hedging after 5 samples, waiting at least 50 ms
+    private final InstanceStats stats = new InstanceStats(meterRegistry, 0.3, Duration.ofSeconds(10), Duration.ofSeconds(1),
+            5, Duration.ofMillis(50), Duration.ofSeconds(2));
+
+    @AfterEach
+    void stopCalls() {
+        calls.shutdownNow();
+    }
+
+    @Test
+    void aStalledReadIsAnsweredByTheHedge() throws Exception {
+        learnLatency();
+        StubHotels hotels = new StubHotels(2000);
+        HedgingFeignClient client = new HedgingFeignClient(hotels, stats, calls, meterRegistry);
+
+        long start = System.nanoTime();
+        Response response = client.execute(request(Request.HttpMethod.GET), OPTIONS);
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+
+        assertEquals("call-2", Util.toString(response.body().asReader(StandardCharsets.UTF_8)));
+        assertTrue(elapsedMillis < 1000, "hedged read took " + elapsedMillis + " ms");
+        // Both calls carry the same id, so the load balancer sends them to different instances
+        assertEquals(2, hotels.hedgeIds.size());
+        assertEquals(hotels.hedgeIds.get(0), hotels.hedgeIds.get(1));
+        assertEquals(1.0, meterRegistry.get("hotels.client.hedged.requests")
+                .tag("service", "hotels-service").tag("winner", "hedge").counter().count());
+    }
+
+    @Test
+    void anInterruptedHedgedReadGivesUpAndClosesBothAnswers() throws Exception {
+        learnLatency();
+        StubHotels hotels = new StubHotels(1000, 1000);
+        HedgingFeignClient client = new HedgingFeignClient(hotels, stats, calls, meterRegistry);
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        AtomicBoolean interrupted = new AtomicBoolean();
+
+        Thread caller = Thread.ofVirtual().start(() -> {
+            try {
+                client.execute(request(Request.HttpMethod.GET), OPTIONS);
+            } catch (Throwable ex) {
+                failure.set(ex);
+                interrupted.set(Thread.currentThread().isInterrupted());
+            }
+        });
+        // Interrupted while both calls are out
+        awaitUntil(() -> hotels.calls.get() == 2);
+        caller.interrupt();
+        caller.join(500);
+
+        assertFalse(caller.isAlive(), "the caller kept waiting for an answer");
+        assertInstanceOf(IOException.class, failure.get());
+        assertTrue(interrupted.get());
+        // Neither answer has a reader left: both are closed when they arrive
+        awaitUntil(() -> hotels.closed.get() == 2);
+    }
+
+    @Test
+    void writesAndUnknownServicesAreNotHedged() throws Exception {
+        StubHotels hotels = new StubHotels(100);
+        HedgingFeignClient client = new HedgingFeignClient(hotels, stats, calls, meterRegistry);
+
+        // No latency samples yet: no p95 to wait for
+        client.execute(request(Request.HttpMethod.GET), OPTIONS);
+        learnLatency();
+        client.execute(request(Request.HttpMethod.POST), OPTIONS);
+
+        assertEquals(2, hotels.calls.get());
+        assertTrue(hotels.hedgeIds.isEmpty());
+        assertNull(meterRegistry.find("hotels.client.hedged.requests").counter());
+    }
+
+    // Five 10 ms calls to one instance of hotels-service
+    private void learnLatency() {
+        ServiceInstance instance = new DefaultServiceInstance("hotels-1", "hotels-service", "localhost", 8080, false);
+        for (int i = 0; i < 5; i++) {
+            stats.started(instance);
+            stats.finished(instance, Duration.ofMillis(10).toNanos(), false);
+        }
+        assertNotNull(stats.hedgeDelay("hotels-service").orElse(null));
+    }
+
+    private static void awaitUntil(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.nanoTime() < deadline, "condition not met in 5 s");
+            Thread.sleep(10);
+        }
+    }
+
+    private static Request request(Request.HttpMethod method) {
+        return Request.create(method, "http://hotels-service/hotels/city/Tokio", Map.of(), null, StandardCharsets.UTF_8, null);
+    }
+
+    // The first call answers after the given delay, later ones after theirs (at once by default); each
+    // answers with its number and counts the answers closed
+    private static final class StubHotels implements Client {
+
+        private final long firstDelayMillis;
+        private final long laterDelayMillis;
+        private final AtomicInteger calls = new AtomicInteger();
+        private final AtomicInteger closed = new AtomicInteger();
+        private final List<String> hedgeIds = new CopyOnWriteArrayList<>();
+
+        StubHotels(long firstDelayMillis) {
+            this(firstDelayMillis, 0);
+        }
+
+        StubHotels(long firstDelayMillis, long laterDelayMillis) {
+            this.firstDelayMillis = firstDelayMillis;
+            this.laterDelayMillis = laterDelayMillis;
+        }
+
+        @Override
+        public Response execute(Request request, Request.Options options) throws IOException {
+            int call = calls.incrementAndGet();
+            Collection<String> hedgeId = request.headers().get(HedgingFeignClient.HEDGE_ID);
+            if (hedgeId != null) {
+                hedgeIds.addAll(hedgeId);
+            }
+            try {
+                Thread.sleep(call == 1 ? firstDelayMillis : laterDelayMillis);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+            byte[] body = ("call-" + call).getBytes(StandardCharsets.UTF_8);
+            return Response.builder()
+                    .status(200)
+                    .request(request)
+                    .headers(Map.of())
+                    .body(new ByteArrayInputStream(body) {
+                        @Override
+                        public void close() {
+                            closed.incrementAndGet();
+                        }
+                    }, body.length)
+                    .build();
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package com.tourismSystem.cities.cache;
+
+import com.tourismSystem.cities.exceptions.InformationNotAvailable;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class HotelResponseCacheTest {
+
+    private static final List<String> EMPTY = List.of();
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    void staleAnswersAreServedWhileRefreshedInTheBackground() throws InterruptedException {
+        HotelResponseCache cache = new HotelResponseCache(meterRegistry, 100,
+                Duration.ofMillis(100), Duration.ofMinutes(1), Duration.ofHours(1));
+        AtomicInteger calls = new AtomicInteger();
+        Supplier<List<String>> fetch = () -> List.of("Hotel Imperial v" + calls.incrementAndGet());
+
+        assertEquals(List.of("Hotel Imperial v1"), get(cache, fetch));
+        assertEquals(List.of("Hotel Imperial v1"), get(cache, fetch));
+        assertEquals(1, calls.get());
+
+        Thread.sleep(150);
+        assertEquals(List.of("Hotel Imperial v1"), get(cache, fetch));
+        awaitRefreshes(1);
+        assertEquals(List.of("Hotel Imperial v2"), get(cache, fetch));
+
+        assertEquals(1.0, count("hotels.client.cache.requests", "result", "miss"));
+        assertEquals(2.0, count("hotels.client.cache.requests", "result", "hit"));
+        assertEquals(1.0, count("hotels.client.cache.requests", "result", "stale"));
+    }
+
+    @Test
+    void aFailedRefreshKeepsTheCachedAnswer() throws InterruptedException {
+        HotelResponseCache cache = new HotelResponseCache(meterRegistry, 100,
+                Duration.ofMillis(50), Duration.ofMinutes(1), Duration.ofHours(1));
+        get(cache, () -> List.of("Hotel Imperial"));
+
+        Thread.sleep(100);
+        assertEquals(List.of("Hotel Imperial"), get(cache, () -> null));
+        awaitRefreshes(1);
+        assertEquals(1.0, count("hotels.client.cache.refreshes", "outcome", "failed"));
+        assertEquals(List.of("Hotel Imperial"), get(cache, () -> List.of("Hotel Imperial renovado")));
+    }
+
+    @Test
+    void withoutAnAnswerTheLastKnownGoodOneIsServedBeforeTheEmptyOne() throws InterruptedException {
+        HotelResponseCache cache = new HotelResponseCache(meterRegistry, 100,
+                Duration.ofMillis(50), Duration.ofMillis(50), Duration.ofHours(1));
+        get(cache, () -> List.of("Hotel Imperial"));
+        Thread.sleep(100);
+
+        // Past the hard TTL: fetched first, and the fallback (null) or a timed-out wait gives no answer
+        assertEquals(List.of("Hotel Imperial"), get(cache, () -> null));
+        assertEquals(List.of("Hotel Imperial"), get(cache, () -> {
+            throw new InformationNotAvailable("hotels-service did not answer");
+        }));
+        assertEquals(2.0, count("hotels.client.cache.fallbacks", "served", "last-known-good"));
+
+        // Nothing known for Kioto
+        assertEquals(EMPTY, cache.get("findHotelsByCity", List.of("kioto"), () -> null, EMPTY));
+        assertThrows(InformationNotAvailable.class, () -> cache.get("findHotelsByCity", List.of("kioto"), () -> {
+            throw new InformationNotAvailable("hotels-service did not answer");
+        }, EMPTY));
+        assertEquals(1.0, count("hotels.client.cache.fallbacks", "served", "empty"));
+
+        // An answer again replaces the last known good one
+        assertEquals(List.of("Hotel Imperial renovado"), get(cache, () -> List.of("Hotel Imperial renovado")));
+    }
+
+    private static List<String> get(HotelResponseCache cache, Supplier<List<String>> fetch) {
+        return cache.get("findHotelsByCity", List.of("tokio"), fetch, EMPTY);
+    }
+
+    private double count(String name, String tag, String value) {
+        return meterRegistry.get(name).tag(tag, value).counter().count();
+    }
+
+    private void awaitRefreshes(int expected) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (meterRegistry.get("hotels.client.cache.refreshes").counters().stream()
+                .mapToDouble(counter -> counter.count()).sum() < expected
+                && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+    }
+}
@@ -0,0 +1,218 @@
+package com.tourismSystem.cities.controllers;
+
+import com.google.protobuf.CodedInputStream;
+import com.tourismSystem.cities.converters.CityProtobufCodec;
+import com.tourismSystem.cities.converters.CityProtobufHttpMessageConverter;
+import com.tourismSystem.cities.dtos.CityDTO;
+import com.tourismSystem.cities.entities.City;
+import com.tourismSystem.cities.repositories.CityRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.RequestBuilder;
+import org.springframework.test.web.servlet.ResultActions;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.LongStream;
+
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "spring.jpa.show-sql=false")
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class CityControllersTest {
+
+    private static final long UNKNOWN_ID = Long.MAX_VALUE;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private CityRepository cityRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private final List<Long> saved = new ArrayList<>();
+
+    @AfterEach
+    void removeSaved() {
+        saved.forEach(cityRepository::deleteById);
+        saved.clear();
+    }
+
+    @Test
+    void cityByIdCarriesItsVersionAsETag() throws Exception {
+        City city = save("Etiquetada");
+
+        mockMvc.perform(get("/tourism/city/id/{id}", city.getId()))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "W/\"" + city.getId() + "-" + city.getVersion() + "\""))
+                .andExpect(jsonPath("$.name").value("Etiquetada"));
+    }
+
+    @Test
+    void matchingIfNoneMatchIsAnswered304WithoutLoadingTheCity() throws Exception {
+        City city = save("Vigente");
+        String etag = etag(get("/tourism/city/id/{id}", city.getId()));
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        statistics.setStatisticsEnabled(true);
+        try {
+            mockMvc.perform(get("/tourism/city/id/{id}", city.getId()).header(HttpHeaders.IF_NONE_MATCH, etag))
+                    .andExpect(status().isNotModified())
+                    .andExpect(header().string(HttpHeaders.ETAG, etag))
+                    .andExpect(result -> assertEquals(0, result.getResponse().getContentLength()));
+            // Only the version was read
+            assertEquals(List.of("SELECT c.version FROM City c WHERE c.id = :id"), List.of(statistics.getQueries()));
+        } finally {
+            statistics.setStatisticsEnabled(false);
+        }
+    }
+
+    @Test
+    void anUpdatedCityGetsANewETag() throws Exception {
+        City city = save("Renovada");
+        String etag = etag(get("/tourism/city/id/{id}", city.getId()));
+
+        String updated = mockMvc.perform(put("/tourism/city/{id}", city.getId())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"state\":\"Otro Estado\"}"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertNotEquals(etag, updated);
+
+        mockMvc.perform(get("/tourism/city/id/{id}", city.getId()).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, updated))
+                .andExpect(jsonPath("$.state").value("Otro Estado"));
+    }
+
+    @Test
+    void unknownCityWithIfNoneMatchIsNotFound() throws Exception {
+        mockMvc.perform(get("/tourism/city/id/{id}", UNKNOWN_ID).header(HttpHeaders.IF_NONE_MATCH, "W/\"" + UNKNOWN_ID + "-0\""))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void listETagChangesWhenACityIsAdded() throws Exception {
+        String before = etag(get("/tourism/cities"));
+        mockMvc.perform(get("/tourism/cities").header(HttpHeaders.IF_NONE_MATCH, before))
+                .andExpect(status().isNotModified());
+
+        save("Recién Llegada");
+
+        String after = mockMvc.perform(get("/tourism/cities").header(HttpHeaders.IF_NONE_MATCH, before))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertNotEquals(before, after);
+    }
+
+    @Test
+    void protobufIsServedWhenAcceptedAndJsonOtherwise() throws Exception {
+        City city = save("Binaria");
+
+        mockMvc.perform(get("/tourism/city/id/{id}", city.getId()))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE));
+        byte[] body = mockMvc.perform(get("/tourism/city/id/{id}", city.getId())
+                        .accept(CityProtobufHttpMessageConverter.PROTOBUF))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CONTENT_TYPE, "application/x-protobuf"))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        CityDTO read = CityProtobufCodec.readCity(CodedInputStream.newInstance(body));
+        assertEquals(city.getId(), read.getId());
+        assertEquals("Binaria", read.getName());
+        assertEquals("Estado de Prueba", read.getState());
+        assertNull(read.getLatitude());
+    }
+
+    @Test
+    void protobufListsHoldEveryCity() throws Exception {
+        byte[] body = mockMvc.perform(get("/tourism/cities").accept(CityProtobufHttpMessageConverter.PROTOBUF))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CONTENT_TYPE, "application/x-protobuf"))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        List<CityDTO> cities = CityProtobufCodec.readCityList(CodedInputStream.newInstance(body));
+        assertEquals(cityRepository.count(), cities.size());
+    }
+
+    @Test
+    void batchAnswersInRequestOrderWithExplicitMisses() throws Exception {
+        List<Long> ids = jdbcTemplate.queryForList("SELECT id FROM city ORDER BY id LIMIT 2", Long.class);
+        long first = ids.get(0);
+        long second = ids.get(1);
+
+        // Repeated ids get one entry each; a repeated miss is reported once
+        batch(List.of(second, UNKNOWN_ID, first, second, UNKNOWN_ID))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.cities", hasSize(5)))
+                .andExpect(jsonPath("$.cities[0].id").value(second))
+                .andExpect(jsonPath("$.cities[1]").value(nullValue()))
+                .andExpect(jsonPath("$.cities[2].id").value(first))
+                .andExpect(jsonPath("$.cities[3].id").value(second))
+                .andExpect(jsonPath("$.cities[4]").value(nullValue()))
+                .andExpect(jsonPath("$.missing", contains(UNKNOWN_ID)));
+    }
+
+    @Test
+    void batchOverMaxIdsIsRejected() throws Exception {
+        // cities.batch.max-ids is 500
+        batch(LongStream.rangeClosed(1, 500).boxed().toList()).andExpect(status().isOk());
+        batch(LongStream.rangeClosed(1, 501).boxed().toList()).andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void emptyBatchIsRejected() throws Exception {
+        batch(List.of()).andExpect(status().isBadRequest());
+    }
+
+    private City save(String name) {
+        City city = cityRepository.save(new City(null, name, "Estado de Prueba", "País de Prueba"));
+        saved.add(city.getId());
+        return city;
+    }
+
+    private String etag(RequestBuilder request) throws Exception {
+        String etag = mockMvc.perform(request)
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertNotNull(etag);
+        return etag;
+    }
+
+    private ResultActions batch(List<Long> ids) throws Exception {
+        return mockMvc.perform(post("/tourism/cities/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(ids.toString()));
+    }
+}
@@ -0,0 +1,150 @@
+package com.tourismSystem.cities.controllers;
+
+import com.sun.net.httpserver.HttpServer;
+import com.tourismSystem.cities.CitiesApplication;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Throughput and p99 of a hotel-integration endpoint (/tourism/city/{city}/hotel) while hotels-service
+ * answers slowly, with Tomcat on its platform pool vs. on virtual threads. hotels-service is replaced by
+ * a local stub that sleeps before answering; Tomcat is capped at 20 threads to mimic the 512m containers.
+ * Run with: mvn test -Dtest=HotelIntegrationLoadBenchmark -Dbenchmark=true
+ *           [-Dbenchmark.requests=2000] [-Dbenchmark.concurrency=200] [-Dbenchmark.delay-ms=200]
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class HotelIntegrationLoadBenchmark {
+
+    private static final int TOMCAT_THREADS = 20;
+    private static final String HOTELS = "[{\"id\":1,\"name\":\"Hotel Tokio\",\"address\":\"Calle 1\",\"stars\":4," +
+            "\"city\":\"Tokio\",\"state\":\"Kanto\",\"country\":\"Japón\",\"latitude\":35.68,\"longitude\":139.69}]";
+
+    private static final int REQUESTS = Integer.getInteger("benchmark.requests", 2000);
+    private static final int CONCURRENCY = Integer.getInteger("benchmark.concurrency", 200);
+    private static final long DELAY_MS = Long.getLong("benchmark.delay-ms", 200);
+
+    private static HttpServer slowHotels;
+
+    @BeforeAll
+    static void startSlowHotelsService() throws Exception {
+        slowHotels = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        slowHotels.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+        slowHotels.createContext("/hotels/", exchange -> {
+            try {
+                Thread.sleep(DELAY_MS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            byte[] body = HOTELS.getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().set("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        slowHotels.start();
+    }
+
+    @AfterAll
+    static void stopSlowHotelsService() {
+        slowHotels.stop(0);
+    }
+
+    @Test
+    void comparePlatformAndVirtualThreads() throws Exception {
+        Result platform = run(false);
+        Result virtual = run(true);
+
+        System.out.printf("%d requests, %d concurrent clients, hotels-service delay %d ms, %d Tomcat threads%n",
+                REQUESTS, CONCURRENCY, DELAY_MS, TOMCAT_THREADS);
+        System.out.printf("Platform threads: %8.1f req/s, p50 %6d ms, p99 %6d ms%n",
+                platform.throughput(), platform.p50(), platform.p99());
+        System.out.printf("Virtual threads : %8.1f req/s, p50 %6d ms, p99 %6d ms%n",
+                virtual.throughput(), virtual.p50(), virtual.p99());
+    }
+
+    private Result run(boolean virtualThreads) throws Exception {
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(CitiesApplication.class)
+                .profiles("test")
+                // Command-line arguments, so they win over application-test.yml
+                .run("--server.port=0",
+                        "--server.tomcat.threads.max=" + TOMCAT_THREADS,
+                        "--spring.threads.virtual.enabled=" + virtualThreads,
+                        "--spring.datasource.url=jdbc:h2:mem:load-" + virtualThreads + ";DB_CLOSE_DELAY=-1",
+                        "--spring.jpa.show-sql=false",
+                        // Measures the Feign path, not the local hotel replica
+                        "--cities.hotel-replica.enabled=false",
+                        "--logging.level.org.springframework.web=INFO",
+                        "--logging.level.com.tourismSystem.cities=INFO",
+                        "--spring.cloud.discovery.client.simple.instances.hotels-service[0].uri=http://localhost:"
+                                + slowHotels.getAddress().getPort())) {
+            int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+            URI uri = URI.create("http://localhost:" + port + "/tourism/city/Tokio/hotel");
+
+            HttpClient client = HttpClient.newBuilder().executor(Executors.newVirtualThreadPerTaskExecutor()).build();
+            fire(client, uri, CONCURRENCY);
+            return fire(client, uri, REQUESTS);
+        }
+    }
+
+    private Result fire(HttpClient client, URI uri, int requests) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(uri).GET().build();
+        Semaphore inFlight = new Semaphore(CONCURRENCY);
+        long[] latencies = new long[requests];
+        List<Future<Integer>> statuses = new ArrayList<>(requests);
+
+        long start = System.nanoTime();
+        try (ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < requests; i++) {
+                int n = i;
+                inFlight.acquire();
+                statuses.add(clients.submit(() -> {
+                    try {
+                        long sent = System.nanoTime();
+                        int status = client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+                        latencies[n] = (System.nanoTime() - sent) / 1_000_000;
+                        return status;
+                    } finally {
+                        inFlight.release();
+                    }
+                }));
+            }
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        for (Future<Integer> status : statuses) {
+            assertEquals(200, status.get());
+        }
+        Arrays.sort(latencies);
+        return new Result(requests / seconds, percentile(latencies, 0.50), percentile(latencies, 0.99));
+    }
+
+    private static long percentile(long[] sorted, double p) {
+        return sorted[Math.min(sorted.length - 1, (int) Math.ceil(p * sorted.length) - 1)];
+    }
+
+    private record Result(double throughput, long p50, long p99) {
+    }
+}
@@ -0,0 +1,99 @@
+package com.tourismSystem.cities.converters;
+
+import com.google.protobuf.CodedInputStream;
+import com.google.protobuf.CodedOutputStream;
+import com.tourismSystem.cities.dtos.CityDTO;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class CityProtobufCodecTest {
+
+    private static final CityDTO TOKIO = new CityDTO(1L, "Tokio", "Kantō", "Japón", 35.6895, 139.6917, 7L);
+    private static final CityDTO WITHOUT_POSITION = new CityDTO(2L, "Ushuaia", "Tierra del Fuego", "Argentina",
+            null, null, 0L);
+
+    @Test
+    void aCityKeepsEveryField() throws IOException {
+        assertSameCity(TOKIO, readCity(write(out -> CityProtobufCodec.writeCity(TOKIO, out))));
+    }
+
+    @Test
+    void nullFieldsAreLeftOutAndReadBackAsNull() throws IOException {
+        assertSameCity(WITHOUT_POSITION, readCity(write(out -> CityProtobufCodec.writeCity(WITHOUT_POSITION, out))));
+
+        CityDTO empty = new CityDTO();
+        byte[] bytes = write(out -> CityProtobufCodec.writeCity(empty, out));
+        assertEquals(0, bytes.length);
+        assertSameCity(empty, readCity(bytes));
+    }
+
+    @Test
+    void aListKeepsItsOrder() throws IOException {
+        List<CityDTO> cities = List.of(WITHOUT_POSITION, TOKIO, WITHOUT_POSITION);
+
+        List<CityDTO> read = CityProtobufCodec.readCityList(
+                CodedInputStream.newInstance(write(out -> CityProtobufCodec.writeCityList(cities, out))));
+
+        assertEquals(cities.size(), read.size());
+        for (int i = 0; i < cities.size(); i++) {
+            assertSameCity(cities.get(i), read.get(i));
+        }
+    }
+
+    @Test
+    void unknownFieldsAreSkipped() throws IOException {
+        // A newer cities.proto: extra fields of every wire type, inside the city and around it in the list
+        byte[] city = write(out -> {
+            out.writeUInt64(20, 99);
+            CityProtobufCodec.writeCity(TOKIO, out);
+            out.writeString(21, "unknown");
+            out.writeFixed64(22, 1L);
+            out.writeFixed32(23, 1);
+        });
+        assertSameCity(TOKIO, readCity(city));
+
+        byte[] list = write(out -> {
+            out.writeString(2, "not a city");
+            out.writeByteArray(1, city);
+            out.writeInt32(3, 42);
+            out.writeByteArray(1, write(o -> CityProtobufCodec.writeCity(WITHOUT_POSITION, o)));
+        });
+        List<CityDTO> read = CityProtobufCodec.readCityList(CodedInputStream.newInstance(list));
+        assertEquals(2, read.size());
+        assertSameCity(TOKIO, read.get(0));
+        assertSameCity(WITHOUT_POSITION, read.get(1));
+    }
+
+    // Every field on the wire; the version is only used for ETags and never sent
+    private static void assertSameCity(CityDTO expected, CityDTO actual) {
+        assertEquals(expected.getId(), actual.getId());
+        assertEquals(expected.getName(), actual.getName());
+        assertEquals(expected.getState(), actual.getState());
+        assertEquals(expected.getCountry(), actual.getCountry());
+        assertEquals(expected.getLatitude(), actual.getLatitude());
+        assertEquals(expected.getLongitude(), actual.getLongitude());
+        assertNull(actual.getVersion());
+    }
+
+    private static CityDTO readCity(byte[] bytes) throws IOException {
+        return CityProtobufCodec.readCity(CodedInputStream.newInstance(bytes));
+    }
+
+    private static byte[] write(Writer writer) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        CodedOutputStream out = CodedOutputStream.newInstance(bytes);
+        writer.write(out);
+        out.flush();
+        return bytes.toByteArray();
+    }
+
+    private interface Writer {
+        void write(CodedOutputStream out) throws IOException;
+    }
+}
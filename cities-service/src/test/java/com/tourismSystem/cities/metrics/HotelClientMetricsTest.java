@@ -0,0 +1,154 @@
+package com.tourismSystem.cities.metrics;
+
+import com.tourismSystem.cities.dtos.HotelsBatchDTO;
+import com.tourismSystem.cities.dtos.HotelsDTO;
+import com.tourismSystem.cities.repositories.IHotelRepository;
+import feign.Client;
+import feign.MethodMetadata;
+import feign.Request;
+import feign.RequestTemplate;
+import feign.Response;
+import feign.Util;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.cloud.openfeign.support.SpringMvcContract;
+import org.springframework.http.ResponseEntity;
+
+import java.io.IOException;
+import java.net.ConnectException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class HotelClientMetricsTest {
+
+    private static final Request.Options OPTIONS = new Request.Options(1, TimeUnit.SECONDS, 5, TimeUnit.SECONDS, true);
+    private static final String INSTANCE = "10.0.0.7:8081";
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final HotelClientMetrics metrics = new HotelClientMetrics(provider(meterRegistry));
+
+    @Test
+    void callsAreTaggedByTheUriTemplateAndTheInstanceThatAnswered() throws Exception {
+        byte[] hotels = "[{\"name\":\"Park Hyatt\"}]".getBytes(StandardCharsets.UTF_8);
+        Client client = (Client) metrics.postProcessAfterInitialization(
+                (Client) (request, options) -> answer(request, 200, hotels), "feignClient");
+
+        for (String city : List.of("Tokio", "Osaka", "Sapporo")) {
+            try (Response response = client.execute(findHotelsByCity(city), OPTIONS)) {
+                Util.toByteArray(response.body().asInputStream());
+            }
+        }
+
+        // One series for the three cities
+        assertEquals(1, meterRegistry.find("feign.client.requests").timers().size());
+        assertEquals(3, meterRegistry.get("feign.client.requests")
+                .tags("client", "hotels-service", "method", "GET", "uri", "/hotels/city/{city}")
+                .tags("instance", INSTANCE, "status", "200", "outcome", "SUCCESS")
+                .timer().count());
+        assertEquals(3L * hotels.length, (long) meterRegistry.get("feign.client.response.size")
+                .tag("uri", "/hotels/city/{city}").summary().totalAmount());
+        assertEquals(0, meterRegistry.get("feign.client.requests.active").longTaskTimer().activeTasks());
+    }
+
+    @Test
+    void aCallThatNeverReachedAnInstanceIsAnIoError() {
+        Client client = (Client) metrics.postProcessAfterInitialization((Client) (request, options) -> {
+            throw new ConnectException("Connection refused");
+        }, "feignClient");
+
+        assertThrows(ConnectException.class, () -> client.execute(findHotelsByCity("Tokio"), OPTIONS));
+
+        assertEquals(1, meterRegistry.get("feign.client.requests")
+                .tags("instance", "none", "status", "IO_ERROR", "outcome", "UNKNOWN").timer().count());
+    }
+
+    @Test
+    void theCircuitBreakerFallbackIsItsOwnOutcome() {
+        // Stands for the circuit-breaking proxy: Tokio answers, any other city falls back
+        IHotelRepository repository = (IHotelRepository) metrics.postProcessAfterInitialization(
+                new StubRepository(), "hotels-service");
+
+        repository.findHotelsByCity("Tokio", 100, null);
+        assertNull(repository.findHotelsByCity("Osaka", 100, null));
+        assertThrows(IllegalStateException.class, () -> repository.findHotelsByIds(List.of(1L)));
+
+        assertEquals(1, meterRegistry.get("hotels.client.requests")
+                .tags("method", "findHotelsByCity", "outcome", "success").timer().count());
+        assertEquals(1, meterRegistry.get("hotels.client.requests")
+                .tags("method", "findHotelsByCity", "outcome", "fallback").timer().count());
+        assertEquals(1, meterRegistry.get("hotels.client.requests")
+                .tags("method", "findHotelsByIds", "outcome", "error").timer().count());
+    }
+
+    // The request the load balancer gets from IHotelRepository.findHotelsByCity
+    private static Request findHotelsByCity(String city) throws NoSuchMethodException {
+        MethodMetadata metadata = new SpringMvcContract().parseAndValidateMetadata(IHotelRepository.class).stream()
+                .filter(method -> method.method().getName().equals("findHotelsByCity"))
+                .findFirst()
+                .orElseThrow();
+        RequestTemplate template = new RequestTemplate().methodMetadata(metadata);
+        return Request.create(Request.HttpMethod.GET, "http://hotels-service/hotels/city/" + city, Map.of(),
+                null, StandardCharsets.UTF_8, template);
+    }
+
+    // As the load balancer's delegate answers: for the request rewritten to the chosen instance
+    private static Response answer(Request request, int status, byte[] body) {
+        Request sent = Request.create(request.httpMethod(), request.url().replace("hotels-service", INSTANCE),
+                request.headers(), null, StandardCharsets.UTF_8, request.requestTemplate());
+        return Response.builder().status(status).request(sent).headers(Map.of()).body(body).build();
+    }
+
+    private static ObjectProvider<MeterRegistry> provider(MeterRegistry meterRegistry) {
+        DefaultListableBeanFactory beans = new DefaultListableBeanFactory();
+        beans.registerSingleton("meterRegistry", meterRegistry);
+        return beans.getBeanProvider(MeterRegistry.class);
+    }
+
+    private static final class StubRepository implements IHotelRepository {
+
+        @Override
+        public HotelsDTO findHotelsById(Long id) {
+            return null;
+        }
+
+        @Override
+        public ResponseEntity<List<HotelsDTO>> findHotelsByCity(String city, int limit, String next) {
+            return city.equals("Tokio") ? ResponseEntity.ok(List.of()) : null;
+        }
+
+        @Override
+        public ResponseEntity<List<HotelsDTO>> findHotelsByState(String state, int limit, String next) {
+            return ResponseEntity.ok(List.of());
+        }
+
+        @Override
+        public ResponseEntity<List<HotelsDTO>> findHotelsByCountry(String country, int limit, String next) {
+            return ResponseEntity.ok(List.of());
+        }
+
+        @Override
+        public ResponseEntity<List<HotelsDTO>> findHotelsByFilters(String city, String state, String country, Integer stars,
+                                                                   int limit, String next) {
+            return ResponseEntity.ok(List.of());
+        }
+
+        @Override
+        public HotelsBatchDTO findHotelsByIds(List<Long> ids) {
+            throw new IllegalStateException("hotels-service unavailable");
+        }
+
+        @Override
+        public Map<String, List<HotelsDTO>> findHotelsByCities(List<String> cities) {
+            return Map.of();
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package com.tourismSystem.cities.repositories;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * The lookups in {@link CityRepository} must resolve through the indexes created by the
+ * migrations, not a table scan. Each lookup is run through the repository and the SQL Hibernate
+ * sent for it (recorded by {@link RecordedSql}) is checked against the H2 plan (EXPLAIN names
+ * the index used).
+ */
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+        + "com.tourismSystem.cities.repositories.CityLookupPlanTest$RecordedSql")
+@ActiveProfiles("test")
+class CityLookupPlanTest {
+
+    @Autowired
+    private CityRepository cityRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void lookupsSeekTheKeyIndexes() {
+        assertUsesIndex(() -> cityRepository.findCityByNameKey("cordoba"), "IDX_CITY_NAME_KEY");
+        assertUsesIndex(() -> cityRepository.findCityByStateKey("cordoba"), "IDX_CITY_STATE_KEY");
+        assertUsesIndex(() -> cityRepository.findCityByCountryKey("argentina"), "IDX_CITY_COUNTRY_KEY_STATE_KEY");
+        assertUsesIndex(() -> cityRepository.findCityByStateKeyAndCountryKey("cordoba", "argentina"),
+                "IDX_CITY_COUNTRY_KEY_STATE_KEY");
+    }
+
+    // Parameters stay unbound: H2 plans them without values
+    private void assertUsesIndex(Runnable lookup, String index) {
+        RecordedSql.statements.clear();
+        lookup.run();
+        String sql = RecordedSql.statements.stream().reduce((first, last) -> last)
+                .orElseThrow(() -> new AssertionError("The lookup sent no SQL"));
+        String plan = jdbcTemplate.queryForObject("EXPLAIN " + sql, String.class).toUpperCase();
+        assertTrue(plan.contains(index), () -> "Expected " + index + " in plan of:\n" + sql + "\n" + plan);
+    }
+
+    /** Records the SQL Hibernate prepares, as it will send it. */
+    public static class RecordedSql implements StatementInspector {
+
+        static final Queue<String> statements = new ConcurrentLinkedQueue<>();
+
+        @Override
+        public String inspect(String sql) {
+            statements.add(sql);
+            return sql;
+        }
+    }
+}
@@ -0,0 +1,182 @@
+package com.tourismSystem.cities.services;
+
+import com.tourismSystem.cities.dtos.BatchSummaryDTO;
+import com.tourismSystem.cities.dtos.BulkImportSummaryDTO;
+import com.tourismSystem.cities.exceptions.BadRequest;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Every batch of three rows is committed on its own; rejected rows are reported by line and do not
+ * stop the import.
+ */
+@SpringBootTest(properties = "cities.bulk-import.batch-size=3")
+@ActiveProfiles("test")
+class CityImportServiceTest {
+
+    @Autowired
+    private ICityImportService cityImportService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @AfterEach
+    void removeImported() {
+        jdbcTemplate.update("DELETE FROM city WHERE name LIKE 'Import %'");
+    }
+
+    @Test
+    void csvRowsAreCheckedOneByOneAndCommittedPerBatch() throws Exception {
+        String csv = String.join("\n",
+                // Byte order mark and header case as spreadsheets write them
+                "\uFEFFName,State,Country,Latitude,Longitude",
+                "Import Uno,Kanto,Japón,35.68,139.69",
+                "Import Sin Estado,,Japón,,",
+                "\"Import Dos, con coma\",Kansai,Japón,,",
+                // Second batch
+                "Import Corta,Kansai",
+                "Import Tres,Kansai,Japón,abc,135.5",
+                "Import Cuatro,Kansai,Japón,34.69,",
+                // Third batch, partial
+                "Import Cinco,Hokkaido,Japón,43.06,141.35");
+
+        BulkImportSummaryDTO summary = cityImportService.importCitiesFromCsv(body(csv));
+
+        assertEquals(3, summary.getInserted());
+        assertEquals(4, summary.getRejected());
+        assertEquals(List.of(1, 2, 3), summary.getBatches().stream().map(BatchSummaryDTO::getBatch).toList());
+        assertBatch(summary.getBatches().get(0), 2, 1, "line 3: state is required");
+        assertBatch(summary.getBatches().get(1), 0, 3, "line 5: expected at least 3 columns but found 2",
+                "line 6: invalid coordinate: For input string: \"abc\"",
+                "line 7: latitude and longitude must be given together");
+        assertBatch(summary.getBatches().get(2), 1, 0);
+        assertEquals(List.of("Import Cinco", "Import Dos, con coma", "Import Uno"), imported());
+    }
+
+    @Test
+    void aBatchTheDatabaseRefusesRollsBackAlone() throws Exception {
+        // A row that passes validation but that the database refuses fails the whole JDBC batch
+        jdbcTemplate.execute("ALTER TABLE city ADD CONSTRAINT import_refused CHECK (name <> 'Import Rechazada')");
+        try {
+            String ndjson = String.join("\n",
+                    "{\"name\":\"Import Uno\",\"state\":\"Kanto\",\"country\":\"Japón\"}",
+                    "{\"name\":\"Import Dos\",\"state\":\"Kanto\",\"country\":\"Japón\"}",
+                    "",
+                    "{\"name\":\"Import Tres\",\"state\":\"Kanto\",\"country\":\"Japón\"}",
+                    // Second batch: refused by the database
+                    "{\"name\":\"Import Rechazada\",\"state\":\"Kansai\",\"country\":\"Japón\"}",
+                    "{\"name\":\"Import Cuatro\",\"state\":\"Kansai\",\"country\":\"Japón\"}",
+                    "{\"name\":",
+                    // Third batch
+                    "{\"name\":\"Import Cinco\",\"state\":\"Hokkaido\",\"country\":\"Japón\"}");
+
+            BulkImportSummaryDTO summary = cityImportService.importCitiesFromNdjson(body(ndjson));
+
+            assertEquals(4, summary.getInserted());
+            assertEquals(3, summary.getRejected());
+            assertBatch(summary.getBatches().get(0), 3, 0);
+            BatchSummaryDTO refused = summary.getBatches().get(1);
+            assertEquals(0, refused.getInserted());
+            assertEquals(3, refused.getRejected());
+            assertTrue(refused.getErrors().get(0).startsWith("line 7: invalid JSON"), refused.getErrors().toString());
+            assertTrue(refused.getErrors().get(1).startsWith("batch rolled back"), refused.getErrors().toString());
+            assertBatch(summary.getBatches().get(2), 1, 0);
+            assertEquals(List.of("Import Cinco", "Import Dos", "Import Tres", "Import Uno"), imported());
+        } finally {
+            jdbcTemplate.execute("ALTER TABLE city DROP CONSTRAINT import_refused");
+        }
+    }
+
+    @Test
+    void aValueLongerThanItsColumnIsRejectedAlone() throws Exception {
+        String ndjson = String.join("\n",
+                "{\"name\":\"Import Uno\",\"state\":\"Kanto\",\"country\":\"Japón\"}",
+                "{\"name\":\"Import Dos\",\"state\":\"Kanto\",\"country\":\"Japón\"}",
+                "",
+                "{\"name\":\"Import Tres\",\"state\":\"Kanto\",\"country\":\"Japón\"}",
+                // Second batch: a name longer than its column, which would fail the whole JDBC batch
+                "{\"name\":\"Import " + "x".repeat(300) + "\",\"state\":\"Kansai\",\"country\":\"Japón\"}",
+                "{\"name\":\"Import Cuatro\",\"state\":\"Kansai\",\"country\":\"Japón\"}",
+                "{\"name\":",
+                // Third batch
+                "{\"name\":\"Import Cinco\",\"state\":\"Hokkaido\",\"country\":\"" + "x".repeat(256) + "\"}",
+                "{\"name\":\"Import Seis\",\"state\":\"Hokkaido\",\"country\":\"Japón\"}");
+
+        BulkImportSummaryDTO summary = cityImportService.importCitiesFromNdjson(body(ndjson));
+
+        assertEquals(5, summary.getInserted());
+        assertEquals(3, summary.getRejected());
+        assertBatch(summary.getBatches().get(0), 3, 0);
+        BatchSummaryDTO second = summary.getBatches().get(1);
+        assertEquals(1, second.getInserted());
+        assertEquals(2, second.getRejected());
+        assertEquals("line 5: name is longer than 255 characters", second.getErrors().get(0));
+        assertTrue(second.getErrors().get(1).startsWith("line 7: invalid JSON"), second.getErrors().toString());
+        assertBatch(summary.getBatches().get(2), 1, 1, "line 8: country is longer than 255 characters");
+        assertEquals(List.of("Import Cuatro", "Import Dos", "Import Seis", "Import Tres", "Import Uno"), imported());
+    }
+
+    @Test
+    void aQuoteLeftOpenStopsTheCsvImportAtTheRecordLimit() throws Exception {
+        // Without the limit the open quote would buffer the whole megabyte after it
+        String csv = String.join("\n",
+                "name,state,country",
+                "Import Uno,Kanto,Japón",
+                "\"Import Abierta,Kanto,Japón",
+                "Import Dos,Kanto,Japón\n".repeat(50_000));
+
+        BulkImportSummaryDTO summary = cityImportService.importCitiesFromCsv(body(csv));
+
+        assertEquals(1, summary.getInserted());
+        assertEquals(1, summary.getRejected());
+        assertBatch(summary.getBatches().get(0), 1, 1,
+                "line 3: longer than 8192 characters, the rest of the body was not read");
+        assertEquals(List.of("Import Uno"), imported());
+    }
+
+    @Test
+    void anNdjsonLineOverTheRecordLimitIsRejectedAlone() throws Exception {
+        String ndjson = String.join("\n",
+                "{\"name\":\"Import Uno\",\"state\":\"Kanto\",\"country\":\"Japón\"}",
+                "{\"name\":\"Import " + "x".repeat(10_000) + "\",\"state\":\"Kanto\",\"country\":\"Japón\"}",
+                "{\"name\":\"Import Dos\",\"state\":\"Kanto\",\"country\":\"Japón\"}\r");
+
+        BulkImportSummaryDTO summary = cityImportService.importCitiesFromNdjson(body(ndjson));
+
+        assertBatch(summary.getBatches().get(0), 2, 1, "line 2: longer than 8192 characters");
+        assertEquals(List.of("Import Dos", "Import Uno"), imported());
+    }
+
+    @Test
+    void aCsvWithoutTheRequiredColumnsIsRefused() {
+        assertThrows(BadRequest.class, () -> cityImportService.importCitiesFromCsv(body("name,country\nImport Uno,Japón")));
+        assertThrows(BadRequest.class, () -> cityImportService.importCitiesFromCsv(body("")));
+    }
+
+    private static void assertBatch(BatchSummaryDTO batch, int inserted, int rejected, String... errors) {
+        assertEquals(inserted, batch.getInserted());
+        assertEquals(rejected, batch.getRejected());
+        assertEquals(List.of(errors), batch.getErrors());
+    }
+
+    private List<String> imported() {
+        return jdbcTemplate.queryForList("SELECT name FROM city WHERE name LIKE 'Import %' ORDER BY name", String.class);
+    }
+
+    private static InputStream body(String text) {
+        return new ByteArrayInputStream(text.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,166 @@
+package com.tourismSystem.cities.services;
+
+import com.tourismSystem.cities.dtos.CityDTO;
+import com.tourismSystem.cities.dtos.CityWithHotelsDTO;
+import com.tourismSystem.cities.dtos.HotelsDTO;
+import com.tourismSystem.cities.exceptions.InformationNotAvailable;
+import com.tourismSystem.cities.exceptions.ResourceNotFound;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Proxy;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CityWithHotelsServiceTest {
+
+    private static final CityDTO TOKIO = new CityDTO(1L, "Tokio", "Kanto", "Japón", 35.68, 139.69, 0L);
+    private static final List<HotelsDTO> HOTELS = List.of(
+            new HotelsDTO(1L, "Hotel Imperial", "Calle 1", 4, "Tokio", "Kanto", "Japón", null, null));
+
+    private final CountDownLatch cancelled = new CountDownLatch(1);
+    private final CountDownLatch started = new CountDownLatch(1);
+
+    @Test
+    void takesAsLongAsTheSlowerLookup() {
+        CityWithHotelsService service = service(Duration.ofSeconds(5),
+                () -> after(300, TOKIO), () -> after(300, HOTELS));
+
+        long start = System.nanoTime();
+        CityWithHotelsDTO page = service.findCityWithHotels("Tokio");
+        long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+
+        assertEquals("Tokio", page.getCity().getName());
+        assertEquals(HOTELS, page.getHotels());
+        assertFalse(page.isPartial());
+        assertTrue(elapsedMs < 550, () -> "Lookups ran one after the other: " + elapsedMs + " ms");
+    }
+
+    @Test
+    void hotelsPastTheDeadlineGiveAPartialAnswer() throws InterruptedException {
+        CityWithHotelsService service = service(Duration.ofMillis(300),
+                () -> TOKIO, () -> untilCancelled(HOTELS));
+
+        long start = System.nanoTime();
+        CityWithHotelsDTO page = service.findCityWithHotels("Tokio");
+
+        assertTrue((System.nanoTime() - start) / 1_000_000 < 2_000);
+        assertEquals("Tokio", page.getCity().getName());
+        assertNull(page.getHotels());
+        assertTrue(page.isPartial());
+        assertEquals(List.of("hotels"), page.getUnavailable());
+        assertTrue(cancelled.await(1, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void failingHotelsGiveAPartialAnswer() {
+        CityWithHotelsService service = service(Duration.ofSeconds(5),
+                () -> TOKIO, () -> {
+                    throw new IllegalStateException("hotels-service is down");
+                });
+
+        CityWithHotelsDTO page = service.findCityWithHotels("Tokio");
+        assertTrue(page.isPartial());
+        assertNull(page.getHotels());
+    }
+
+    @Test
+    void anUnknownCityCancelsTheHotelLookup() throws InterruptedException {
+        CityWithHotelsService service = service(Duration.ofSeconds(5),
+                () -> {
+                    // Fails once the hotel lookup is running, so its cancellation has to interrupt it
+                    assertTrue(started.await(1, TimeUnit.SECONDS));
+                    throw new ResourceNotFound("City not found with the name Atlantis");
+                }, () -> untilCancelled(HOTELS));
+
+        long start = System.nanoTime();
+        assertThrows(ResourceNotFound.class, () -> service.findCityWithHotels("Atlantis"));
+        assertTrue((System.nanoTime() - start) / 1_000_000 < 2_000);
+        assertTrue(cancelled.await(1, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void aCityPastTheDeadlineFailsTheRequest() {
+        CityWithHotelsService service = service(Duration.ofMillis(200),
+                () -> untilCancelled(TOKIO), () -> HOTELS);
+
+        assertThrows(InformationNotAvailable.class, () -> service.findCityWithHotels("Tokio"));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void aCountryListingCostsOneHotelsCall() {
+        List<CityDTO> japan = List.of(TOKIO,
+                new CityDTO(2L, "Osaka", "Kansai", "Japón", 34.69, 135.50, 0L),
+                new CityDTO(3L, "Nara", "Kansai", "Japón", 34.68, 135.80, 0L));
+        List<List<String>> calls = new ArrayList<>();
+        CityWithHotelsService service = new CityWithHotelsService(fake(ICityService.class, "findCitiesByCountry", () -> japan),
+                fake(IHotelQueryService.class, "findHotelsByCities", cities -> {
+                    calls.add((List<String>) cities);
+                    return Map.of("Tokio", HOTELS, "Osaka", List.of());
+                }), Duration.ofSeconds(5), 1000);
+
+        List<CityWithHotelsDTO> page = service.findCitiesWithHotelsByCountry("Japón");
+
+        assertEquals(List.of(List.of("Tokio", "Osaka", "Nara")), calls);
+        assertEquals(List.of("Tokio", "Osaka", "Nara"), page.stream().map(city -> city.getCity().getName()).toList());
+        assertEquals(HOTELS, page.get(0).getHotels());
+        assertEquals(List.of(), page.get(2).getHotels());
+        assertTrue(page.stream().noneMatch(CityWithHotelsDTO::isPartial));
+
+        // No answer from hotels-service: the cities still come back, partial
+        CityWithHotelsService unanswered = new CityWithHotelsService(fake(ICityService.class, "findCitiesByCountry", () -> japan),
+                fake(IHotelQueryService.class, "findHotelsByCities", cities -> null), Duration.ofSeconds(5), 1000);
+        assertTrue(unanswered.findCitiesWithHotelsByCountry("Japón").stream()
+                .allMatch(city -> city.isPartial() && city.getHotels() == null));
+    }
+
+    private static CityWithHotelsService service(Duration deadline, Callable<CityDTO> city, Callable<List<HotelsDTO>> hotels) {
+        return new CityWithHotelsService(fake(ICityService.class, "findCityByName", city),
+                fake(IHotelQueryService.class, "findHotelsByCity", hotels), deadline, 1000);
+    }
+
+    private static <T> T after(long millis, T answer) throws InterruptedException {
+        Thread.sleep(millis);
+        return answer;
+    }
+
+    // Blocks until interrupted by the cancellation
+    private <T> T untilCancelled(T answer) {
+        started.countDown();
+        try {
+            Thread.sleep(10_000);
+        } catch (InterruptedException ex) {
+            cancelled.countDown();
+        }
+        return answer;
+    }
+
+    private static <T> T fake(Class<T> type, String method, Callable<?> answer) {
+        return fake(type, method, argument -> answer.call());
+    }
+
+    // Implements only the method the aggregate calls, answering from its first argument
+    private static <T> T fake(Class<T> type, String method, Answer answer) {
+        return type.cast(Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, (proxy, called, args) -> {
+            if (!called.getName().equals(method)) {
+                throw new UnsupportedOperationException(called.getName());
+            }
+            return answer.answer(args == null ? null : args[0]);
+        }));
+    }
+
+    private interface Answer {
+        Object answer(Object argument) throws Exception;
+    }
+}
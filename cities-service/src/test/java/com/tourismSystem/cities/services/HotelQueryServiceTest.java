@@ -0,0 +1,232 @@
+package com.tourismSystem.cities.services;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import com.tourismSystem.cities.dtos.HotelsBatchDTO;
+import com.tourismSystem.cities.dtos.HotelsDTO;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.context.TestPropertySource;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Listings read through the Feign client (replica disabled) from a stub hotels-service that pages them
+ * two hotels at a time, as hotels-service does with hotels.pagination.default-limit.
+ * POST /hotels/batch (ids sent as JSON) only answers in Smile, the wire format the client asks for.
+ * Cached answers are always refetched, and only served when the fetch brings none.
+ */
+@SpringBootTest(properties = {"cities.hotel-paging.page-size=2",
+        "cities.hotel-cache.soft-ttl=0s", "cities.hotel-cache.hard-ttl=0s"})
+@ActiveProfiles("test")
+class HotelQueryServiceTest {
+
+    private static final HttpServer hotels = stubHotelsService();
+    private static final Queue<String> queries = new ConcurrentLinkedQueue<>();
+    // Cities hotels-service answers 404 for, as it does once their last hotel is deleted
+    private static final Set<String> goneCities = ConcurrentHashMap.newKeySet();
+
+    @Autowired
+    private IHotelQueryService hotelQueryService;
+
+    @Autowired
+    private CircuitBreakerRegistry circuitBreakerRegistry;
+
+    @DynamicPropertySource
+    static void hotelsService(DynamicPropertyRegistry registry) {
+        registry.add("spring.cloud.discovery.client.simple.instances.hotels-service[0].uri",
+                () -> "http://localhost:" + hotels.getAddress().getPort());
+    }
+
+    @AfterEach
+    void closeCircuit() {
+        queries.clear();
+        goneCities.clear();
+        circuitBreakerRegistry.circuitBreaker("hotels-service").reset();
+    }
+
+    @AfterAll
+    static void stopHotelsService() {
+        hotels.stop(0);
+    }
+
+    @Test
+    void followsTheCursorAcrossPageBoundaries() {
+        List<HotelsDTO> found = hotelQueryService.findHotelsByCity("Tokio");
+
+        assertEquals(List.of(1L, 2L, 3L, 4L, 5L), found.stream().map(HotelsDTO::getId).toList());
+        assertEquals(List.of("/hotels/city/Tokio?limit=2", "/hotels/city/Tokio?limit=2&next=p2",
+                "/hotels/city/Tokio?limit=2&next=p3"), List.copyOf(queries));
+    }
+
+    @Test
+    void aListingOfExactlyOnePageIsReadOnce() {
+        List<HotelsDTO> found = hotelQueryService.findHotelsByCountry("Japón");
+
+        assertEquals(List.of(1L, 2L), found.stream().map(HotelsDTO::getId).toList());
+        assertEquals(1, queries.size());
+    }
+
+    @Test
+    void filtersAreSentWithEveryPage() {
+        List<HotelsDTO> found = hotelQueryService.findHotelsByFilters("Tokio", null, null, 4);
+
+        assertEquals(List.of(1L, 2L, 3L, 4L, 5L), found.stream().map(HotelsDTO::getId).toList());
+        assertEquals(3, queries.size());
+        assertTrue(queries.stream().allMatch(query -> query.contains("city=Tokio") && query.contains("stars=4")));
+    }
+
+    @Test
+    void aFailedPageLeavesTheWholeListingUnanswered() {
+        // The second page keeps failing: no partial listing, the empty answer of the fallback
+        assertEquals(List.of(), hotelQueryService.findHotelsByState("Kanto"));
+        assertTrue(queries.stream().anyMatch(query -> query.endsWith("next=p2")));
+    }
+
+    @Test
+    void aNotFoundAfterACachedAnswerIsServedAsNoHotels() {
+        assertEquals(5, hotelQueryService.findHotelsByCity("Osaka").size());
+
+        // Its hotels were deleted: not the cached listing, and neither retried nor counted by the circuit breaker
+        goneCities.add("Osaka");
+        queries.clear();
+        for (int i = 0; i < 4; i++) {
+            assertEquals(List.of(), hotelQueryService.findHotelsByCity("Osaka"));
+        }
+        assertEquals(4, queries.size());
+        assertEquals(CircuitBreaker.State.CLOSED, circuitBreakerRegistry.circuitBreaker("hotels-service").getState());
+    }
+
+    @Nested
+    @TestPropertySource(properties = "cities.hotel-paging.max-hotels=3")
+    class WithACap {
+
+        // Its own context: the enclosing instance is wired from the uncapped one
+        @Autowired
+        private IHotelQueryService cappedQueryService;
+
+        @Test
+        void aListingStopsAtTheCap() {
+            List<HotelsDTO> found = cappedQueryService.findHotelsByCity("Tokio");
+
+            // The last page asks only for what is left, and is cut if it brings more
+            assertEquals(List.of(1L, 2L, 3L), found.stream().map(HotelsDTO::getId).toList());
+            assertEquals(List.of("/hotels/city/Tokio?limit=2", "/hotels/city/Tokio?limit=1&next=p2"), List.copyOf(queries));
+        }
+    }
+
+    @Test
+    void batchIsReadInSmile() {
+        HotelsBatchDTO batch = hotelQueryService.findHotelsByIds(Arrays.asList(2L, 99L, 1L));
+
+        assertEquals(Arrays.asList(2L, null, 1L), batch.getHotels().stream()
+                .map(hotel -> hotel == null ? null : hotel.getId()).toList());
+        assertNull(batch.getHotels().get(1));
+        assertEquals(List.of(99L), batch.getMissing());
+        assertEquals("Hotel 2", batch.getHotels().get(0).getName());
+        assertEquals("Japón", batch.getHotels().get(2).getCountry());
+    }
+
+    // Five hotels for any city/filters lookup, two per page; a country fits in one page, the second
+    // page of a state answers 500 and the cities in goneCities 404
+    private static HttpServer stubHotelsService() {
+        try {
+            HttpServer server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+            server.createContext("/hotels/batch", HotelQueryServiceTest::answerBatchInSmile);
+            server.createContext("/hotels/", exchange -> {
+                String query = exchange.getRequestURI().getRawQuery();
+                queries.add(exchange.getRequestURI().getPath() + "?" + query);
+                String path = exchange.getRequestURI().getPath();
+                if (goneCities.stream().anyMatch(city -> path.equals("/hotels/city/" + city))) {
+                    exchange.sendResponseHeaders(404, -1);
+                    exchange.close();
+                } else if (path.startsWith("/hotels/country/")) {
+                    answer(exchange, hotels(1, 2), null);
+                } else if (query.endsWith("next=p2") && path.startsWith("/hotels/state/")) {
+                    exchange.sendResponseHeaders(500, -1);
+                    exchange.close();
+                } else if (query.endsWith("next=p2")) {
+                    answer(exchange, hotels(3, 4), "p3");
+                } else if (query.endsWith("next=p3")) {
+                    answer(exchange, hotels(5, 5), null);
+                } else {
+                    answer(exchange, hotels(1, 2), "p2");
+                }
+            });
+            server.start();
+            return server;
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    // Hotels 1 and 2 exist; 406 unless Smile is accepted
+    private static void answerBatchInSmile(HttpExchange exchange) throws IOException {
+        String accept = exchange.getRequestHeaders().getFirst("Accept");
+        if (accept == null || !accept.contains("application/x-jackson-smile")) {
+            exchange.sendResponseHeaders(406, -1);
+            exchange.close();
+            return;
+        }
+        List<Long> ids = Arrays.asList(new ObjectMapper().readValue(exchange.getRequestBody().readAllBytes(), Long[].class));
+        List<Map<String, Object>> hotels = ids.stream()
+                .map(id -> id <= 2 ? Map.<String, Object>of("id", id, "name", "Hotel " + id, "country", "Japón") : null)
+                .toList();
+        byte[] body = new SmileMapper().writeValueAsBytes(Map.of("hotels", hotels,
+                "missing", ids.stream().filter(id -> id > 2).toList()));
+        exchange.getResponseHeaders().set("Content-Type", "application/x-jackson-smile");
+        exchange.sendResponseHeaders(200, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+
+    private static String hotels(long from, long to) {
+        StringBuilder json = new StringBuilder("[");
+        for (long id = from; id <= to; id++) {
+            json.append(id == from ? "" : ",")
+                    .append("{\"id\":").append(id).append(",\"name\":\"Hotel ").append(id)
+                    .append("\",\"address\":\"Calle ").append(id).append("\",\"stars\":4,\"city\":\"Tokio\"")
+                    .append(",\"state\":\"Kanto\",\"country\":\"Japón\"}");
+        }
+        return json.append("]").toString();
+    }
+
+    private static void answer(HttpExchange exchange, String json, String next) throws IOException {
+        byte[] body = json.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        if (next != null) {
+            exchange.getResponseHeaders().set("X-Next-Cursor", next);
+        }
+        exchange.sendResponseHeaders(200, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+}
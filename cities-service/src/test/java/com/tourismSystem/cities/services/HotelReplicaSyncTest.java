@@ -0,0 +1,191 @@
+package com.tourismSystem.cities.services;
+
+import com.tourismSystem.cities.dtos.HotelEventDTO;
+import com.tourismSystem.cities.dtos.HotelEventPageDTO;
+import com.tourismSystem.cities.dtos.HotelsDTO;
+import com.tourismSystem.cities.repositories.HotelReplica;
+import com.tourismSystem.cities.repositories.IHotelEventRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class HotelReplicaSyncTest {
+
+    private final FakeFeed feed = new FakeFeed();
+    private final HotelReplica replica = new HotelReplica();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final HotelReplicaSync sync = new HotelReplicaSync(feed, replica, meterRegistry, true, 2, Duration.ofSeconds(30));
+
+    @BeforeEach
+    void bindMeters() {
+        sync.bindTo(meterRegistry);
+    }
+
+    @Test
+    void loadsTheSnapshotThenFollowsTheFeed() {
+        feed.hotels.add(saved(0, hotel(1L, "Hotel Imperial", "Tokio", 4), 0));
+        feed.hotels.add(saved(0, hotel(2L, "Ryokan Hanako", "Tokio", 3), 0));
+        assertFalse(sync.isFresh());
+
+        sync.sync();
+        assertTrue(sync.isFresh());
+        assertEquals(List.of("Hotel Imperial", "Ryokan Hanako"), names(replica.findByCity("TOKIO")));
+
+        // Batches of 2: the three events take two polls within the same sync
+        feed.events.add(saved(1, hotel(3L, "Hotel Ángel", "Kioto", 5), 0));
+        feed.events.add(saved(2, hotel(1L, "Hotel Imperial", "Kioto", 5), 1));
+        feed.events.add(new HotelEventDTO(3L, HotelEventDTO.Type.DELETED, 2L, 0L, System.currentTimeMillis(), null));
+        sync.sync();
+
+        assertEquals(3, replica.position());
+        assertTrue(replica.findByCity("Tokio").isEmpty());
+        assertEquals(List.of("Hotel Imperial", "Hotel Ángel"), names(replica.findByCity("kioto")));
+        assertEquals(List.of(3L), replica.findByFilters("kio", null, null, 5).stream()
+                .filter(hotel -> hotel.getName().startsWith("Hotel Á")).map(HotelsDTO::getId).toList());
+        assertEquals(List.of(2L), replica.findByIds(List.of(1L, 2L)).getMissing());
+        assertEquals(0.0, meterRegistry.get("hotels.replica.lag.events").gauge().value());
+        assertEquals(3, meterRegistry.get("hotels.replica.propagation").timer().count());
+    }
+
+    @Test
+    void olderVersionsDoNotOverwriteNewerOnes() {
+        feed.hotels.add(saved(0, hotel(1L, "Hotel Imperial", "Kioto", 5), 2));
+        sync.sync();
+
+        // Replayed change that the snapshot already contains a newer version of
+        feed.events.add(saved(1, hotel(1L, "Hotel Imperial", "Tokio", 4), 1));
+        sync.sync();
+
+        assertEquals(1, replica.position());
+        assertEquals(5, replica.findByCity("Kioto").get(0).getStars());
+    }
+
+    @Test
+    void reloadEventsAndResyncAnswersReloadTheSnapshot() {
+        sync.sync();
+        assertEquals(0, replica.size());
+
+        feed.hotels.add(saved(1, hotel(1L, "Hotel Imperial", "Tokio", 4), 0));
+        feed.events.add(new HotelEventDTO(1L, HotelEventDTO.Type.RELOADED, null, null, System.currentTimeMillis(), null));
+        sync.sync();
+        assertEquals(1, replica.size());
+
+        feed.resync = true;
+        feed.hotels.add(saved(1, hotel(2L, "Ryokan Hanako", "Tokio", 3), 0));
+        sync.sync();
+        assertEquals(2, replica.size());
+        assertEquals(3.0, meterRegistry.get("hotels.replica.reloads").counter().count());
+    }
+
+    @Test
+    void theSnapshotIsLoadedInPagesAtOnePosition() {
+        feed.events.add(saved(1, hotel(9L, "Hotel Viejo", "Osaka", 2), 0));
+        for (long id = 1; id <= 5; id++) {
+            feed.hotels.add(saved(1, hotel(id, "Hotel " + id, "Tokio", 3), 0));
+        }
+        sync.sync();
+
+        // Batches of 2: five hotels take three pages
+        assertEquals(3, feed.snapshotPages);
+        assertEquals(5, replica.size());
+        assertEquals(1, replica.position());
+    }
+
+    @Test
+    void aSnapshotPurgedWhileLoadingIsNotSwappedIn() {
+        for (long id = 1; id <= 3; id++) {
+            feed.hotels.add(saved(0, hotel(id, "Hotel " + id, "Tokio", 3), 0));
+        }
+        feed.purgeDuringSnapshot = true;
+        sync.sync();
+        assertFalse(replica.isLoaded());
+
+        feed.purgeDuringSnapshot = false;
+        sync.sync();
+        assertEquals(3, replica.size());
+        assertEquals(1.0, meterRegistry.get("hotels.replica.reloads").counter().count());
+    }
+
+    @Test
+    void failedPollsLeaveTheReplicaStale() throws InterruptedException {
+        HotelReplicaSync strict = new HotelReplicaSync(feed, replica, new SimpleMeterRegistry(), true, 2, Duration.ofMillis(50));
+        strict.sync();
+        assertTrue(strict.isFresh());
+
+        feed.down = true;
+        Thread.sleep(100);
+        strict.sync();
+        assertFalse(strict.isFresh());
+    }
+
+    private static List<String> names(List<HotelsDTO> hotels) {
+        return hotels.stream().map(HotelsDTO::getName).toList();
+    }
+
+    private static HotelsDTO hotel(Long id, String name, String city, int stars) {
+        return new HotelsDTO(id, name, "Calle " + id, stars, city, "Estado", "Japón", null, null);
+    }
+
+    private static HotelEventDTO saved(long position, HotelsDTO hotel, long version) {
+        return new HotelEventDTO(position, HotelEventDTO.Type.SAVED, hotel.getId(), version, System.currentTimeMillis(), hotel);
+    }
+
+    // hotels-service change feed over two lists: the catalog (snapshot) and the outbox
+    private static class FakeFeed implements IHotelEventRepository {
+
+        private final List<HotelEventDTO> hotels = new ArrayList<>();
+        private final List<HotelEventDTO> events = new ArrayList<>();
+        private boolean resync;
+        private boolean down;
+        private boolean purgeDuringSnapshot;
+        private int snapshotPages;
+
+        @Override
+        public HotelEventPageDTO findEventsAfter(long after, int limit) {
+            if (down) {
+                throw new IllegalStateException("hotels-service is down");
+            }
+            if (resync) {
+                resync = false;
+                return new HotelEventPageDTO(List.of(), head(), true);
+            }
+            List<HotelEventDTO> page = events.stream()
+                    .filter(event -> event.getPosition() > after)
+                    .limit(limit)
+                    .toList();
+            return new HotelEventPageDTO(page, head(), false);
+        }
+
+        @Override
+        public HotelEventPageDTO findSnapshot(Long position, long afterId, int limit) {
+            snapshotPages++;
+            if (down) {
+                throw new IllegalStateException("hotels-service is down");
+            }
+            if (position != null && purgeDuringSnapshot) {
+                return new HotelEventPageDTO(List.of(), head(), true);
+            }
+            List<HotelEventDTO> page = hotels.stream()
+                    .filter(event -> event.getHotelId() > afterId)
+                    .sorted(Comparator.comparing(HotelEventDTO::getHotelId))
+                    .limit(limit + 1L)
+                    .toList();
+            Long next = page.size() > limit ? page.get(limit - 1).getHotelId() : null;
+            return new HotelEventPageDTO(page.subList(0, Math.min(limit, page.size())),
+                    position == null ? head() : position, false, next);
+        }
+
+        private long head() {
+            return events.isEmpty() ? 0 : events.get(events.size() - 1).getPosition();
+        }
+    }
+}
@@ -0,0 +1,190 @@
+package com.tourismSystem.cities.services;
+
+import com.tourismSystem.cities.cache.HotelResponseCache;
+import com.tourismSystem.cities.dtos.HotelsBatchDTO;
+import com.tourismSystem.cities.dtos.HotelsDTO;
+import com.tourismSystem.cities.exceptions.InformationNotAvailable;
+import com.tourismSystem.cities.repositories.HotelReplica;
+import com.tourismSystem.cities.repositories.IHotelRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.ResponseEntity;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class HotelRequestCoalescerTest {
+
+    private static final int CALLERS = 1000;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    void concurrentIdenticalCallsShareOneRequest() throws Exception {
+        HotelRequestCoalescer coalescer = new HotelRequestCoalescer(meterRegistry, Duration.ofSeconds(10));
+        StubHotels hotels = new StubHotels(meterRegistry);
+        // Replica disabled: every lookup goes to hotels-service
+        HotelReplicaSync sync = new HotelReplicaSync(null, new HotelReplica(), meterRegistry, false, 500, Duration.ofSeconds(30));
+        HotelQueryService queries = new HotelQueryService(new HotelReplica(), sync, hotels, coalescer,
+                new HotelResponseCache(meterRegistry, 100, Duration.ZERO, Duration.ZERO, Duration.ofMinutes(1)), meterRegistry, 1000, 20000);
+
+        String[] spellings = {"Tokio", "TOKIO", " tokio "};
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<List<HotelsDTO>>> answers = new ArrayList<>(CALLERS);
+        try (ExecutorService callers = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < CALLERS; i++) {
+                String city = spellings[i % spellings.length];
+                answers.add(callers.submit(() -> {
+                    start.await();
+                    return queries.findHotelsByCity(city);
+                }));
+            }
+            start.countDown();
+        }
+
+        // One answer, shared by every caller
+        List<HotelsDTO> shared = answers.get(0).get();
+        assertEquals(hotels.tokio, shared);
+        for (Future<List<HotelsDTO>> answer : answers) {
+            assertSame(shared, answer.get());
+        }
+        assertEquals(1, hotels.hits.get());
+        assertEquals(1.0, meterRegistry.get("hotels.client.calls").tag("outcome", "dispatched").counter().count());
+        assertEquals(CALLERS - 1.0, meterRegistry.get("hotels.client.calls").tag("outcome", "coalesced").counter().count());
+        assertEquals(0.0, meterRegistry.get("hotels.client.in-flight").gauge().value());
+
+        // The flight is over: the next call is a new request
+        queries.findHotelsByCity("Tokio");
+        assertEquals(2, hotels.hits.get());
+    }
+
+    @Test
+    void eachWaiterTimesOutOnItsOwn() throws Exception {
+        HotelRequestCoalescer coalescer = new HotelRequestCoalescer(meterRegistry, Duration.ofMillis(300));
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger hits = new AtomicInteger();
+
+        try (ExecutorService callers = Executors.newVirtualThreadPerTaskExecutor()) {
+            Future<String> early = callers.submit(() -> coalescer.execute("slow", List.of(), () -> {
+                hits.incrementAndGet();
+                await(release);
+                return "answer";
+            }));
+            Thread.sleep(200);
+            Future<String> late = callers.submit(() -> coalescer.execute("slow", List.of(), () -> "not dispatched"));
+
+            // The first caller gives up at 300 ms; the request goes on for the one that joined later
+            assertTrue(assertThrows(Exception.class, early::get).getCause() instanceof InformationNotAvailable);
+            release.countDown();
+            assertEquals("answer", late.get());
+        }
+        assertEquals(1, hits.get());
+        assertEquals(1.0, meterRegistry.get("hotels.client.waits.abandoned").tag("reason", "timeout").counter().count());
+        assertEquals(0.0, meterRegistry.get("hotels.client.cancelled").counter().count());
+    }
+
+    @Test
+    void theLastWaiterLeavingCancelsTheRequest() throws Exception {
+        HotelRequestCoalescer coalescer = new HotelRequestCoalescer(meterRegistry, Duration.ofMillis(100));
+        CountDownLatch cancelled = new CountDownLatch(1);
+
+        assertThrows(InformationNotAvailable.class, () -> coalescer.execute("stuck", List.of(1L), () -> {
+            try {
+                Thread.sleep(10_000);
+            } catch (InterruptedException ex) {
+                cancelled.countDown();
+            }
+            return "too late";
+        }));
+
+        assertTrue(cancelled.await(5, TimeUnit.SECONDS));
+        assertEquals(1.0, meterRegistry.get("hotels.client.cancelled").counter().count());
+        assertEquals("fresh", coalescer.execute("stuck", List.of(1L), () -> "fresh"));
+        assertEquals(2.0, meterRegistry.get("hotels.client.calls").tag("outcome", "dispatched").counter().count());
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // hotels-service stub: answers once every other caller has joined the call in flight
+    private static class StubHotels implements IHotelRepository {
+
+        private final SimpleMeterRegistry meterRegistry;
+        private final AtomicInteger hits = new AtomicInteger();
+        private final List<HotelsDTO> tokio = List.of(
+                new HotelsDTO(1L, "Hotel Imperial", "Calle 1", 4, "Tokio", "Kanto", "Japón", null, null));
+
+        StubHotels(SimpleMeterRegistry meterRegistry) {
+            this.meterRegistry = meterRegistry;
+        }
+
+        @Override
+        public ResponseEntity<List<HotelsDTO>> findHotelsByCity(String city, int limit, String next) {
+            if (hits.incrementAndGet() == 1) {
+                long deadline = System.currentTimeMillis() + 5_000;
+                while (coalesced() < CALLERS - 1 && System.currentTimeMillis() < deadline) {
+                    try {
+                        Thread.sleep(1);
+                    } catch (InterruptedException ex) {
+                        Thread.currentThread().interrupt();
+                        break;
+                    }
+                }
+            }
+            return ResponseEntity.ok(tokio);
+        }
+
+        private double coalesced() {
+            return meterRegistry.get("hotels.client.calls").tag("outcome", "coalesced").counter().count();
+        }
+
+        @Override
+        public HotelsDTO findHotelsById(Long id) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public ResponseEntity<List<HotelsDTO>> findHotelsByState(String state, int limit, String next) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public ResponseEntity<List<HotelsDTO>> findHotelsByCountry(String country, int limit, String next) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public ResponseEntity<List<HotelsDTO>> findHotelsByFilters(String city, String state, String country, Integer stars,
+                                                                   int limit, String next) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public HotelsBatchDTO findHotelsByIds(List<Long> ids) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Map<String, List<HotelsDTO>> findHotelsByCities(List<String> cities) {
+            throw new UnsupportedOperationException();
+        }
+    }
+}
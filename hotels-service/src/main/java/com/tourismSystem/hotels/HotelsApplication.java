@@ -1,23 +1,41 @@
 package com.tourismSystem.hotels;
 
-import com.tourismSystem.hotels.entities.Hotel;
+import com.tourismSystem.hotels.bootstrap.HotelCsvLoader;
 import com.tourismSystem.hotels.repositories.HotelRepository;
+import com.tourismSystem.hotels.repositories.ReactiveHotelRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.CommandLineRunner;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.cloud.client.discovery.EnableDiscoveryClient;
+import org.springframework.context.annotation.ComponentScan;
+import org.springframework.context.annotation.FilterType;
+import org.springframework.core.io.Resource;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.scheduling.annotation.EnableAsync;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
-import java.io.BufferedReader;
 import java.io.InputStream;
-import java.io.InputStreamReader;
 
 @SpringBootApplication
 @EnableDiscoveryClient
+@EnableAsync
+@EnableScheduling
+// Hotel is a JPA entity, so JPA would also claim the R2DBC repository of the reactive read stack
+@EnableJpaRepositories(excludeFilters = @ComponentScan.Filter(
+		type = FilterType.ASSIGNABLE_TYPE, classes = ReactiveHotelRepository.class))
 public class HotelsApplication implements CommandLineRunner {
 
 	@Autowired
 	private HotelRepository hotelRepository;
+
+	@Autowired
+	private HotelCsvLoader hotelCsvLoader;
+
+	@Value("${hotels.bootstrap.csv-location:classpath:hotelsBD.csv}")
+	private Resource hotelsCsv;
+
 	public static void main(String[] args) {
 		SpringApplication.run(HotelsApplication.class, args);
 	}
@@ -34,36 +52,13 @@ public class HotelsApplication implements CommandLineRunner {
 		}
 	}
 	private void loadHotelsFromCSV() throws Exception {
-		InputStream inputStream = getClass().getClassLoader()
-				.getResourceAsStream("hotelsBD.csv");
-
-		if (inputStream == null) {
-			System.err.println("The file hotelsBD.csv could not be found.");
+		if (!hotelsCsv.exists()) {
+			System.err.println("The file " + hotelsCsv.getDescription() + " could not be found.");
 			return;
 		}
 
-		BufferedReader reader = new BufferedReader(new InputStreamReader(inputStream));
-		String line;
-
-		// Skip header
-		reader.readLine();
-
-		while ((line = reader.readLine()) != null) {
-			String[] data = line.split(",");
-
-			// Create Entity Hotel based on CSV: id,name,address,stars,city,state,country
-			Hotel hotel = new Hotel();
-			//  Self-generated ID
-			hotel.setName(data[1].trim());        // name
-			hotel.setAddress(data[2].trim());     // address
-			hotel.setStars(Integer.parseInt(data[3].trim())); // stars
-			hotel.setCity(data[4].trim());        // city
-			hotel.setState(data[5].trim());       // state
-			hotel.setCountry(data[6].trim());     // country
-
-			hotelRepository.save(hotel);
+		try (InputStream inputStream = hotelsCsv.getInputStream()) {
+			hotelCsvLoader.load(inputStream);
 		}
-
-		reader.close();
 	}
 }
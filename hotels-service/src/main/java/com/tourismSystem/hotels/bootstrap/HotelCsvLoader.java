@@ -0,0 +1,224 @@
+package com.tourismSystem.hotels.bootstrap;
+
+import com.tourismSystem.hotels.entities.Hotel;
+import com.tourismSystem.hotels.events.HotelOutboxRecorder;
+import com.tourismSystem.shared.csv.CsvReader;
+import com.tourismSystem.shared.geocoding.CityGeocoder;
+import com.tourismSystem.shared.io.RecordTooLongException;
+import com.tourismSystem.shared.text.TextNormalizer;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Bootstrap import of hotelsBD.csv. Rows are parsed as a stream, mapped in parallel one chunk
+ * at a time and written with a single JDBC batch (and transaction) per chunk, instead of one
+ * JPA save per row. Those rows raise no per-hotel change events, so a RELOADED outbox event tells
+ * replicas to reload their snapshot once the import is done.
+ * <p>
+ * The batch bypasses the bean validation a JPA save runs, so every row is checked while it is mapped
+ * (Hotel's constraints, numbers that parse, text that fits its column): a bad row is logged with its
+ * line number and skipped, and the rest of its chunk is still written. A record longer than
+ * hotels.bootstrap.max-record-length characters (a quote left open) is rejected without being
+ * buffered and ends the import, since where the next record starts is unknown.
+ */
+@Component
+public class HotelCsvLoader {
+
+    private static final Logger logger = LoggerFactory.getLogger(HotelCsvLoader.class);
+
+    private static final String INSERT_HOTEL =
+            "INSERT INTO hotel (name, address, stars, city, state, country, latitude, longitude, " +
+                    "name_key, address_key, city_key, state_key, country_key) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+    // Length of the hotel's VARCHAR columns
+    private static final int MAX_TEXT_LENGTH = 255;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final CityGeocoder cityGeocoder;
+    private final HotelOutboxRecorder outboxRecorder;
+    private final Validator validator;
+    private final int chunkSize;
+    private final int maxRecordLength;
+
+    public HotelCsvLoader(JdbcTemplate jdbcTemplate,
+                          PlatformTransactionManager transactionManager,
+                          CityGeocoder cityGeocoder,
+                          HotelOutboxRecorder outboxRecorder,
+                          Validator validator,
+                          @Value("${hotels.bootstrap.chunk-size:1000}") int chunkSize,
+                          @Value("${hotels.bootstrap.max-record-length:8192}") int maxRecordLength) {
+        if (chunkSize < 1) {
+            throw new IllegalArgumentException("hotels.bootstrap.chunk-size must be greater than 0");
+        }
+        if (maxRecordLength < 1) {
+            throw new IllegalArgumentException("hotels.bootstrap.max-record-length must be greater than 0");
+        }
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.cityGeocoder = cityGeocoder;
+        this.outboxRecorder = outboxRecorder;
+        this.validator = validator;
+        this.chunkSize = chunkSize;
+        this.maxRecordLength = maxRecordLength;
+    }
+
+    public ImportReport load(InputStream inputStream) throws IOException {
+        long start = System.nanoTime();
+        long inserted = 0;
+        long rejected = 0;
+
+        try (CsvReader reader = new CsvReader(new InputStreamReader(inputStream, StandardCharsets.UTF_8), maxRecordLength)) {
+            List<Row> chunk = new ArrayList<>(chunkSize);
+            try {
+                // Skip header: id,name,address,stars,city,state,country[,latitude,longitude]
+                reader.readRecord();
+
+                String[] record;
+                while ((record = reader.readRecord()) != null) {
+                    chunk.add(new Row(reader.getLineNumber(), record));
+                    if (chunk.size() == chunkSize) {
+                        int written = writeChunk(chunk);
+                        inserted += written;
+                        rejected += chunk.size() - written;
+                        chunk.clear();
+                    }
+                }
+            } catch (RecordTooLongException ex) {
+                logger.warn("Skipping hotel row at line {} longer than {} characters and the rest of the file",
+                        ex.getLineNumber(), maxRecordLength);
+                rejected++;
+            }
+            if (!chunk.isEmpty()) {
+                int written = writeChunk(chunk);
+                inserted += written;
+                rejected += chunk.size() - written;
+            }
+        }
+
+        if (inserted > 0) {
+            outboxRecorder.recordReload();
+        }
+
+        ImportReport report = new ImportReport(inserted, rejected, (System.nanoTime() - start) / 1_000_000);
+        logger.info("Hotel bootstrap finished: {} rows inserted, {} rejected in {} ms ({} rows/sec)",
+                report.inserted(), report.rejected(), report.elapsedMillis(), Math.round(report.rowsPerSecond()));
+        return report;
+    }
+
+    private int writeChunk(List<Row> records) {
+        List<Hotel> hotels = records.parallelStream()
+                .map(this::toHotel)
+                .filter(Objects::nonNull)
+                .toList();
+
+        if (hotels.isEmpty()) {
+            return 0;
+        }
+
+        transactionTemplate.executeWithoutResult(status ->
+                jdbcTemplate.batchUpdate(INSERT_HOTEL, hotels, hotels.size(), (ps, hotel) -> {
+                    ps.setString(1, hotel.getName());
+                    ps.setString(2, hotel.getAddress());
+                    ps.setInt(3, hotel.getStars());
+                    ps.setString(4, hotel.getCity());
+                    ps.setString(5, hotel.getState());
+                    ps.setString(6, hotel.getCountry());
+                    ps.setObject(7, hotel.getLatitude(), Types.DOUBLE);
+                    ps.setObject(8, hotel.getLongitude(), Types.DOUBLE);
+                    ps.setString(9, TextNormalizer.fold(hotel.getName()));
+                    ps.setString(10, TextNormalizer.fold(hotel.getAddress()));
+                    ps.setString(11, TextNormalizer.fold(hotel.getCity()));
+                    ps.setString(12, TextNormalizer.fold(hotel.getState()));
+                    ps.setString(13, TextNormalizer.fold(hotel.getCountry()));
+                }));
+        return hotels.size();
+    }
+
+    // CSV: id,name,address,stars,city,state,country[,latitude,longitude] (id is self-generated).
+    // Rows without a position get the one of their city from the geocoding file.
+    private Hotel toHotel(Row row) {
+        String[] data = row.data();
+        if (data.length < 7) {
+            logger.warn("Skipping hotel row at line {} with {} columns: {}", row.line(), data.length, String.join(",", data));
+            return null;
+        }
+        Hotel hotel = new Hotel();
+        try {
+            hotel.setName(data[1].trim());
+            hotel.setAddress(data[2].trim());
+            hotel.setStars(Integer.parseInt(data[3].trim()));
+            hotel.setCity(data[4].trim());
+            hotel.setState(data[5].trim());
+            hotel.setCountry(data[6].trim());
+            if (data.length >= 9 && !data[7].isBlank() && !data[8].isBlank()) {
+                hotel.setLatitude(Double.parseDouble(data[7].trim()));
+                hotel.setLongitude(Double.parseDouble(data[8].trim()));
+            }
+        } catch (NumberFormatException ex) {
+            logger.warn("Skipping hotel row at line {} with an invalid number: {}", row.line(), ex.getMessage());
+            return null;
+        }
+        String invalid = invalid(hotel);
+        if (invalid != null) {
+            logger.warn("Skipping hotel row at line {}: {}", row.line(), invalid);
+            return null;
+        }
+        if (hotel.getLatitude() == null) {
+            double[] position = cityGeocoder.locate(hotel.getCity(), hotel.getState(), hotel.getCountry());
+            if (position != null) {
+                hotel.setLatitude(position[0]);
+                hotel.setLongitude(position[1]);
+            }
+        }
+        return hotel;
+    }
+
+    // What a JPA save or the table would have refused, or null
+    private String invalid(Hotel hotel) {
+        Set<ConstraintViolation<Hotel>> violations = validator.validate(hotel);
+        if (!violations.isEmpty()) {
+            return violations.stream()
+                    .map(violation -> violation.getPropertyPath() + " " + violation.getMessage())
+                    .sorted()
+                    .collect(Collectors.joining(", "));
+        }
+        for (String text : new String[]{hotel.getName(), hotel.getAddress(), hotel.getCity(), hotel.getState(), hotel.getCountry()}) {
+            if (text.length() > MAX_TEXT_LENGTH) {
+                return "a value is longer than " + MAX_TEXT_LENGTH + " characters";
+            }
+        }
+        if (hotel.getLatitude() != null && (Math.abs(hotel.getLatitude()) > 90 || Math.abs(hotel.getLongitude()) > 180)) {
+            return "position " + hotel.getLatitude() + "," + hotel.getLongitude() + " is out of range";
+        }
+        return null;
+    }
+
+    // A CSV record and the line it ends on
+    private record Row(long line, String[] data) {
+    }
+
+    public record ImportReport(long inserted, long rejected, long elapsedMillis) {
+
+        public double rowsPerSecond() {
+            return elapsedMillis == 0 ? inserted : inserted * 1000.0 / elapsedMillis;
+        }
+    }
+}
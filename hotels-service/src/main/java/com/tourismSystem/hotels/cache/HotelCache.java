@@ -0,0 +1,150 @@
+package com.tourismSystem.hotels.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.tourismSystem.hotels.dto.HotelDTO;
+import com.tourismSystem.hotels.events.HotelChangedEvent;
+import com.tourismSystem.shared.text.TextNormalizer;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Read-through cache for single-hotel lookups. Hotels are cached by id in a bounded Caffeine
+ * (W-TinyLFU) cache; lookups by name and address go through small case/accent-folded key caches that
+ * only point to the id entry. Hit/miss/eviction metrics are published as cache.* meters.
+ * <p>
+ * A load that started before a write may finish after the write's AFTER_COMMIT invalidation. Every
+ * invalidation bumps a generation, and a load only stays cached when no invalidation ran while it was
+ * in flight; otherwise the stale row (and its version, used for If-None-Match) would be served for the
+ * whole TTL.
+ */
+@Component
+public class HotelCache {
+
+    private final Cache<Long, HotelDTO> hotelsById;
+    private final Cache<String, Long> idsByName;
+    private final Cache<String, Long> idsByAddress;
+    private final AtomicLong invalidations = new AtomicLong();
+
+    public HotelCache(MeterRegistry meterRegistry,
+                      @Value("${hotels.cache.maximum-size:10000}") long maximumSize,
+                      @Value("${hotels.cache.ttl:10m}") Duration ttl) {
+        this.hotelsById = newCache(maximumSize, ttl);
+        this.idsByName = newCache(maximumSize, ttl);
+        this.idsByAddress = newCache(maximumSize, ttl);
+
+        CaffeineCacheMetrics.monitor(meterRegistry, hotelsById, "hotels.byId");
+        CaffeineCacheMetrics.monitor(meterRegistry, idsByName, "hotels.byName");
+        CaffeineCacheMetrics.monitor(meterRegistry, idsByAddress, "hotels.byAddress");
+    }
+
+    private static <K, V> Cache<K, V> newCache(long maximumSize, Duration ttl) {
+        return Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+    }
+
+    // The loader may throw (e.g. ResourceNotFound); misses are never cached. It runs outside
+    // Cache.get(key, fn), which would hold a map bin lock (and pin a virtual thread) during the query
+    public HotelDTO getById(Long id, Supplier<HotelDTO> loader) {
+        HotelDTO cached = hotelsById.getIfPresent(id);
+        return cached != null ? cached : load(loader);
+    }
+
+    // Cached hotel or null; never loads
+    public HotelDTO peek(Long id) {
+        return hotelsById.getIfPresent(id);
+    }
+
+    public HotelDTO getByName(String name, Supplier<HotelDTO> loader) {
+        HotelDTO cached = peekByName(name);
+        return cached != null ? cached : load(loader);
+    }
+
+    public HotelDTO getByAddress(String address, Supplier<HotelDTO> loader) {
+        HotelDTO cached = peekByAddress(address);
+        return cached != null ? cached : load(loader);
+    }
+
+    // Like peek, through the name and address keys
+    public HotelDTO peekByName(String name) {
+        String key = fold(name);
+        HotelDTO cached = lookup(idsByName.getIfPresent(key));
+        return cached != null && key.equals(fold(cached.getName())) ? cached : null;
+    }
+
+    public HotelDTO peekByAddress(String address) {
+        String key = fold(address);
+        HotelDTO cached = lookup(idsByAddress.getIfPresent(key));
+        return cached != null && key.equals(fold(cached.getAddress())) ? cached : null;
+    }
+
+    // Taken before loading a hotel elsewhere, and handed back to put with what was loaded
+    public long generation() {
+        return invalidations.get();
+    }
+
+    // Caches a hotel loaded elsewhere (the reactive read path loads without blocking, then stores).
+    // Dropped again if an invalidation ran since the generation was taken: the row may predate it
+    public HotelDTO put(HotelDTO hotel, long generation) {
+        hotelsById.put(hotel.getId(), index(hotel));
+        if (invalidations.get() != generation) {
+            hotelsById.invalidate(hotel.getId());
+        }
+        return hotel;
+    }
+
+    /* =================== INVALIDATION =================== */
+
+    public void invalidate(Long id) {
+        // Bumped first, so a load putting concurrently sees it after its put and drops its entry.
+        // Name/address keys are validated against the id entry on read, so dropping it is enough
+        invalidations.incrementAndGet();
+        hotelsById.invalidate(id);
+    }
+
+    public void invalidateAll() {
+        invalidations.incrementAndGet();
+        hotelsById.invalidateAll();
+        idsByName.invalidateAll();
+        idsByAddress.invalidateAll();
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onHotelChanged(HotelChangedEvent event) {
+        invalidate(event.hotel().getId());
+    }
+
+    private HotelDTO load(Supplier<HotelDTO> loader) {
+        long generation = generation();
+        return put(loader.get(), generation);
+    }
+
+    private HotelDTO lookup(Long id) {
+        return id == null ? null : hotelsById.getIfPresent(id);
+    }
+
+    private HotelDTO index(HotelDTO hotel) {
+        if (hotel.getName() != null) {
+            idsByName.put(fold(hotel.getName()), hotel.getId());
+        }
+        if (hotel.getAddress() != null) {
+            idsByAddress.put(fold(hotel.getAddress()), hotel.getId());
+        }
+        return hotel;
+    }
+
+    private static String fold(String value) {
+        return TextNormalizer.fold(value);
+    }
+}
@@ -0,0 +1,56 @@
+package com.tourismSystem.hotels.config;
+
+import com.tourismSystem.shared.metrics.HttpRouteMetrics;
+import com.tourismSystem.shared.threads.VirtualThreadPinningMonitor;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.config.MeterFilter;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.time.Duration;
+
+/**
+ * Declares the shared {@link HttpRouteMetrics} on the servlet stack and registers it as interceptor
+ * (it is also a filter), and the shared {@link VirtualThreadPinningMonitor} with virtual threads on.
+ * Caps the distinct uri tags of every http.server.* meter: past
+ * management.metrics.web.server.max-uri-tags, new values are dropped instead of opening new series.
+ */
+@Configuration
+public class MetricsConfig implements WebMvcConfigurer {
+
+    private final ObjectProvider<HttpRouteMetrics> routeMetrics;
+
+    public MetricsConfig(ObjectProvider<HttpRouteMetrics> routeMetrics) {
+        this.routeMetrics = routeMetrics;
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        routeMetrics.ifAvailable(registry::addInterceptor);
+    }
+
+    @Bean
+    @ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+    public HttpRouteMetrics httpRouteMetrics(MeterRegistry meterRegistry) {
+        return new HttpRouteMetrics(meterRegistry);
+    }
+
+    @Bean
+    @ConditionalOnThreading(Threading.VIRTUAL)
+    public VirtualThreadPinningMonitor virtualThreadPinningMonitor(MeterRegistry meterRegistry,
+                                                                   @Value("${hotels.virtual-threads.pinning-threshold:20ms}") Duration threshold) {
+        return new VirtualThreadPinningMonitor(meterRegistry, threshold);
+    }
+
+    @Bean
+    public MeterFilter httpServerUriTagLimit(@Value("${management.metrics.web.server.max-uri-tags:100}") int maxUriTags) {
+        return MeterFilter.maximumAllowableTags("http.server", "uri", maxUriTags, MeterFilter.deny());
+    }
+}
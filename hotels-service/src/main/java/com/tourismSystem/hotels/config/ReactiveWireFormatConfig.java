@@ -0,0 +1,77 @@
+package com.tourismSystem.hotels.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.tourismSystem.hotels.converters.HotelProtobufEncoder;
+import org.reactivestreams.Publisher;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.ServerCodecConfigurer;
+import org.springframework.http.codec.cbor.Jackson2CborDecoder;
+import org.springframework.http.codec.cbor.Jackson2CborEncoder;
+import org.springframework.http.codec.json.Jackson2JsonEncoder;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.util.MimeType;
+import org.springframework.web.reactive.config.WebFluxConfigurer;
+import reactor.core.publisher.Flux;
+
+import java.util.Map;
+
+/**
+ * The encodings of {@link WireFormatConfig} for the reactive read stack. WebFlux already brings JSON and
+ * Smile; CBOR and the hotel Protobuf encoder are registered here.
+ */
+@Configuration
+@Profile("reactive")
+public class ReactiveWireFormatConfig implements WebFluxConfigurer {
+
+    private final ObjectMapper objectMapper;
+    private final Jackson2ObjectMapperBuilder objectMapperBuilder;
+
+    public ReactiveWireFormatConfig(ObjectMapper objectMapper, Jackson2ObjectMapperBuilder objectMapperBuilder) {
+        this.objectMapper = objectMapper;
+        this.objectMapperBuilder = objectMapperBuilder;
+    }
+
+    @Override
+    public void configureHttpMessageCodecs(ServerCodecConfigurer configurer) {
+        ObjectMapper cbor = objectMapperBuilder.factory(new CBORFactory()).build();
+        // WebFlux consults type-specific writers (the Protobuf one only takes hotels) before general-purpose
+        // ones, and custom writers before default ones: JSON goes first in both groups to stay the default
+        configurer.customCodecs().register(new HotelJsonEncoder(objectMapper));
+        configurer.customCodecs().register(new Jackson2JsonEncoder(objectMapper));
+        configurer.customCodecs().register(new ValueCborEncoder(cbor));
+        configurer.customCodecs().register(new Jackson2CborDecoder(cbor, MediaType.APPLICATION_CBOR));
+        configurer.customCodecs().register(new HotelProtobufEncoder());
+    }
+
+    private static class HotelJsonEncoder extends Jackson2JsonEncoder {
+
+        HotelJsonEncoder(ObjectMapper mapper) {
+            super(mapper);
+        }
+
+        @Override
+        public boolean canEncode(ResolvableType elementType, MimeType mimeType) {
+            return HotelProtobufEncoder.isHotels(elementType) && super.canEncode(elementType, mimeType);
+        }
+    }
+
+    // Jackson2CborEncoder only encodes single values (encodeValue); response bodies arrive through encode
+    private static class ValueCborEncoder extends Jackson2CborEncoder {
+
+        ValueCborEncoder(ObjectMapper mapper) {
+            super(mapper, MediaType.APPLICATION_CBOR);
+        }
+
+        @Override
+        public Flux<DataBuffer> encode(Publisher<?> inputStream, DataBufferFactory bufferFactory, ResolvableType elementType,
+                                       MimeType mimeType, Map<String, Object> hints) {
+            return Flux.from(inputStream).map(value -> encodeValue(value, bufferFactory, elementType, mimeType, hints));
+        }
+    }
+}
@@ -1,7 +1,16 @@
 package com.tourismSystem.hotels.controllers;
 
+import com.tourismSystem.hotels.dto.HotelBatchDTO;
 import com.tourismSystem.hotels.dto.HotelDTO;
+import com.tourismSystem.hotels.dto.HotelEventPageDTO;
+import com.tourismSystem.hotels.dto.HotelFacetsDTO;
+import com.tourismSystem.hotels.dto.HotelPageDTO;
+import com.tourismSystem.hotels.dto.NearbyHotelDTO;
+import com.tourismSystem.hotels.dto.ScoredHotelDTO;
+import com.tourismSystem.hotels.service.IHotelEventService;
+import com.tourismSystem.hotels.service.IHotelExportService;
 import com.tourismSystem.hotels.service.IHotelService;
+import com.tourismSystem.shared.http.ETags;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -11,23 +20,40 @@ import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
 import java.util.List;
+import java.util.Map;
+import java.util.zip.GZIPOutputStream;
 
 @RestController
 @RequestMapping("/hotels")
+// Servlet stack; ReactiveHotelController serves these endpoints under the reactive profile
+@Profile("!reactive")
 @Tag(
         name = "Hotels Management",
         description = "API for comprehensive hotel management including search, filtering, and detailed information retrieval"
 )
 public class HotelController {
 
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
     private final IHotelService hotelService;
+    private final IHotelExportService hotelExportService;
+    private final IHotelEventService hotelEventService;
 
-    public HotelController(IHotelService hotelService) {
+    public HotelController(IHotelService hotelService, IHotelExportService hotelExportService,
+                           IHotelEventService hotelEventService) {
         this.hotelService = hotelService;
+        this.hotelExportService = hotelExportService;
+        this.hotelEventService = hotelEventService;
     }
 
     /* =================== SINGLE HOTEL ENDPOINTS =================== */
@@ -46,7 +72,7 @@ public class HotelController {
 
     @Operation(
             summary = "Find hotel by ID",
-            description = "Retrieves detailed information of a specific hotel using its unique identifier",
+            description = "Retrieves detailed information of a specific hotel using its unique identifier. Responses carry an ETag; a request whose If-None-Match still matches gets 304 after a version check, without loading the hotel",
             tags = {"Hotel Details"}
     )
     @ApiResponses(value = {
@@ -73,6 +99,10 @@ public class HotelController {
                             )
                     )
             ),
+            @ApiResponse(
+                    responseCode = "304",
+                    description = "Hotel unchanged since the ETag in If-None-Match"
+            ),
             @ApiResponse(
                     responseCode = "400",
                     description = "Invalid ID format"
@@ -85,9 +115,93 @@ public class HotelController {
                     example = "1",
                     required = true
             )
-            @PathVariable Long id) {
+            @PathVariable Long id,
+            WebRequest request) {
+        if (request.getHeader(HttpHeaders.IF_NONE_MATCH) != null
+                && request.checkNotModified(ETags.of(id, hotelService.findHotelVersion(id)))) {
+            return null;
+        }
         HotelDTO hotelDTO = hotelService.findHotelById(id);
-        return ResponseEntity.ok(hotelDTO);
+        return ResponseEntity.ok().eTag(ETags.of(hotelDTO)).body(hotelDTO);
+    }
+
+    @Operation(
+            summary = "Find many hotels by ID",
+            description = "Resolves a list of hotel IDs in one call (a single IN query, chunked for long lists). Hotels come back in request order, with null in the place of IDs that do not exist; those IDs are also listed in missing",
+            tags = {"Hotel Details"}
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Requested hotels, in request order",
+                    content = @Content(
+                            mediaType = "application/json",
+                            schema = @Schema(implementation = HotelBatchDTO.class),
+                            examples = @ExampleObject(
+                                    name = "Two hotels and one miss",
+                                    value = "{\"hotels\":[{\"id\":2,\"name\":\"Paradise Beach Hotel\",\"address\":\"456 Paradise Ave\",\"stars\":4,\"city\":\"Miami\",\"state\":\"Florida\",\"country\":\"USA\"},null,{\"id\":1,\"name\":\"Ocean Drive Luxury Resort\",\"address\":\"123 Ocean Drive, Miami Beach\",\"stars\":5,\"city\":\"Miami\",\"state\":\"Florida\",\"country\":\"USA\"}],\"missing\":[999]}"
+                            )
+                    )
+            ),
+            @ApiResponse(
+                    responseCode = "400",
+                    description = "Empty list, null IDs or more IDs than hotels.batch.max-ids"
+            )
+    })
+    @PostMapping("/batch")
+    public ResponseEntity<HotelBatchDTO> findHotelsByIds(
+            @Parameter(
+                    description = "Hotel IDs to resolve",
+                    required = true,
+                    content = @Content(
+                            mediaType = "application/json",
+                            examples = @ExampleObject(
+                                    name = "Hotel IDs",
+                                    value = "[2, 999, 1]"
+                            )
+                    )
+            )
+            @RequestBody List<Long> ids) {
+        return ResponseEntity.ok(hotelService.findHotelsByIds(ids));
+    }
+
+    @Operation(
+            summary = "Find the hotels of many cities",
+            description = "Hotels of a list of cities in one call, from a single IN query over the folded city names. One entry per requested name (as sent, in request order), with its hotels in name order; cities without hotels get an empty list",
+            tags = {"Location Search"}
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Hotels grouped by requested city",
+                    content = @Content(
+                            mediaType = "application/json",
+                            examples = @ExampleObject(
+                                    name = "Two cities, one without hotels",
+                                    value = "{\"Miami\":[{\"id\":1,\"name\":\"Ocean Drive Luxury Resort\",\"address\":\"123 Ocean Drive, Miami Beach\",\"stars\":5,\"city\":\"Miami\",\"state\":\"Florida\",\"country\":\"USA\"}],\"Orlando\":[]}"
+                            )
+                    )
+            ),
+            @ApiResponse(
+                    responseCode = "400",
+                    description = "Empty list, null names or more cities than hotels.batch.max-cities"
+            )
+    })
+    @PostMapping("/cities")
+    public ResponseEntity<Map<String, List<HotelDTO>>> findHotelsByCities(
+            @Parameter(
+                    description = "City names (case and accents are ignored)",
+                    required = true,
+                    content = @Content(
+                            mediaType = "application/json",
+                            examples = @ExampleObject(
+                                    name = "City names",
+                                    value = "[\"Miami\", \"Orlando\"]"
+                            )
+                    )
+            )
+            @RequestBody List<String> cities) {
+        return ResponseEntity.ok(hotelService.findHotelsByCities(cities));
     }
 
     @Operation(
@@ -122,7 +236,7 @@ public class HotelController {
             )
             @PathVariable String name) {
         HotelDTO hotelDTO = hotelService.findHotelByName(name);
-        return ResponseEntity.ok(hotelDTO);
+        return ResponseEntity.ok().eTag(ETags.of(hotelDTO)).body(hotelDTO);
     }
 
     @Operation(
@@ -153,14 +267,14 @@ public class HotelController {
             )
             @PathVariable String address) {
         HotelDTO hotelDTO = hotelService.findHotelByAddress(address);
-        return ResponseEntity.ok(hotelDTO);
+        return ResponseEntity.ok().eTag(ETags.of(hotelDTO)).body(hotelDTO);
     }
 
     /* =================== LOCATION-BASED SEARCH ENDPOINTS =================== */
 
     @Operation(
             summary = "Find hotels by city",
-            description = "Retrieves all hotels located in a specific city. Perfect for travelers planning city visits",
+            description = "Retrieves all hotels located in a specific city. Perfect for travelers planning city visits. Results are paged in name order; the X-Next-Cursor header carries the cursor of the next page",
             tags = {"Location Search"}
     )
     @ApiResponses(value = {
@@ -188,14 +302,22 @@ public class HotelController {
                     example = "Miami",
                     required = true
             )
-            @PathVariable String city) {
-        List<HotelDTO> hotelDTOList = hotelService.findHotelsByCity(city);
-        return ResponseEntity.ok(hotelDTOList);
+            @PathVariable String city,
+            @Parameter(
+                    description = "Maximum number of hotels in the page (defaults to 100)",
+                    example = "50"
+            )
+            @RequestParam(required = false) Integer limit,
+            @Parameter(
+                    description = "Opaque cursor from the X-Next-Cursor header of the previous page"
+            )
+            @RequestParam(required = false) String next) {
+        return page(hotelService.findHotelsByCity(city, next, limit));
     }
 
     @Operation(
             summary = "Find hotels by state",
-            description = "Retrieves all hotels located in a specific state or province. Ideal for regional travel planning",
+            description = "Retrieves all hotels located in a specific state or province. Ideal for regional travel planning. Results are paged in name order; the X-Next-Cursor header carries the cursor of the next page",
             tags = {"Location Search"}
     )
     @ApiResponses(value = {
@@ -223,14 +345,22 @@ public class HotelController {
                     example = "Florida",
                     required = true
             )
-            @PathVariable String state) {
-        List<HotelDTO> hotelDTOList = hotelService.findHotelsByState(state);
-        return ResponseEntity.ok(hotelDTOList);
+            @PathVariable String state,
+            @Parameter(
+                    description = "Maximum number of hotels in the page (defaults to 100)",
+                    example = "50"
+            )
+            @RequestParam(required = false) Integer limit,
+            @Parameter(
+                    description = "Opaque cursor from the X-Next-Cursor header of the previous page"
+            )
+            @RequestParam(required = false) String next) {
+        return page(hotelService.findHotelsByState(state, next, limit));
     }
 
     @Operation(
             summary = "Find hotels by country",
-            description = "Retrieves all hotels located in a specific country. Perfect for international travel planning",
+            description = "Retrieves all hotels located in a specific country. Perfect for international travel planning. Results are paged in name order; the X-Next-Cursor header carries the cursor of the next page",
             tags = {"Location Search"}
     )
     @ApiResponses(value = {
@@ -258,16 +388,144 @@ public class HotelController {
                     example = "USA",
                     required = true
             )
-            @PathVariable String country) {
-        List<HotelDTO> hotelDTOList = hotelService.findHotelsByCountry(country);
-        return ResponseEntity.ok(hotelDTOList);
+            @PathVariable String country,
+            @Parameter(
+                    description = "Maximum number of hotels in the page (defaults to 100)",
+                    example = "50"
+            )
+            @RequestParam(required = false) Integer limit,
+            @Parameter(
+                    description = "Opaque cursor from the X-Next-Cursor header of the previous page"
+            )
+            @RequestParam(required = false) String next) {
+        return page(hotelService.findHotelsByCountry(country, next, limit));
+    }
+
+    /* =================== EXPORT ENDPOINTS =================== */
+
+    @Operation(
+            summary = "Export the hotel catalog",
+            description = "Streams every hotel as NDJSON (one hotel JSON object per line) straight from a database cursor. " +
+                    "The response is gzip-compressed when the client sends Accept-Encoding: gzip",
+            tags = {"Export"}
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Hotel catalog stream",
+                    content = @Content(
+                            mediaType = "application/x-ndjson",
+                            examples = @ExampleObject(
+                                    name = "Catalog lines",
+                                    value = "{\"id\":1,\"name\":\"Hotel Imperial\",\"address\":\"Calle Real 123\",\"stars\":4,\"city\":\"Tokio\",\"state\":\"Kanto\",\"country\":\"Japón\"}\n" +
+                                            "{\"id\":2,\"name\":\"Ryokan Hanako\",\"address\":\"Avenida Goya 45\",\"stars\":3,\"city\":\"Tokio\",\"state\":\"Kanto\",\"country\":\"Japón\"}"
+                            )
+                    )
+            )
+    })
+    @GetMapping(value = "/export", produces = "application/x-ndjson")
+    public ResponseEntity<StreamingResponseBody> exportHotels(
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        boolean gzip = acceptEncoding != null && acceptEncoding.toLowerCase().contains("gzip");
+
+        StreamingResponseBody body = out -> {
+            if (gzip) {
+                try (GZIPOutputStream gzipOut = new GZIPOutputStream(out, 8192, true)) {
+                    hotelExportService.exportHotels(gzipOut);
+                }
+            } else {
+                hotelExportService.exportHotels(out);
+            }
+        };
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType("application/x-ndjson"))
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (gzip) {
+            response.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        return response.body(body);
+    }
+
+    /* =================== CHANGE FEED ENDPOINTS =================== */
+
+    @Operation(
+            summary = "Read hotel change events",
+            description = "Returns the hotel changes recorded in the outbox after a position, in order. Replicas of the hotel " +
+                    "catalog in other services start from /hotels/events/snapshot and then poll this endpoint with the position " +
+                    "of the last event applied. When resync is true the requested events are no longer retained and the " +
+                    "snapshot has to be loaded again",
+            tags = {"Change Feed"}
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Events after the position (possibly none)",
+                    content = @Content(
+                            mediaType = "application/json",
+                            schema = @Schema(implementation = HotelEventPageDTO.class),
+                            examples = @ExampleObject(
+                                    name = "One update",
+                                    value = "{\"events\":[{\"position\":42,\"type\":\"SAVED\",\"hotelId\":1,\"version\":3,\"occurredAt\":1767225600000,\"hotel\":{\"id\":1,\"name\":\"Hotel Imperial\",\"address\":\"Calle Real 123\",\"stars\":5,\"city\":\"Tokio\",\"state\":\"Kanto\",\"country\":\"Japón\"}}],\"head\":42,\"resync\":false}"
+                            )
+                    )
+            ),
+            @ApiResponse(
+                    responseCode = "400",
+                    description = "Negative position or limit out of range"
+            )
+    })
+    @GetMapping("/events")
+    public ResponseEntity<HotelEventPageDTO> findHotelEvents(
+            @Parameter(description = "Position of the last event already applied (0 to start from the first)", example = "41")
+            @RequestParam(defaultValue = "0") long after,
+            @Parameter(description = "Maximum number of events to return", example = "500")
+            @RequestParam(required = false) Integer limit) {
+        return ResponseEntity.ok(hotelEventService.findEventsAfter(after, limit));
+    }
+
+    @Operation(
+            summary = "Snapshot of the hotel catalog",
+            description = "Every hotel as a SAVED event, with the outbox position (head) to poll /hotels/events from. " +
+                    "Pages are in id order: the first one fixes the position, and the following ones are read with that " +
+                    "position and the next field of the previous page as afterId. When resync is true the outbox was purged " +
+                    "past the position and the snapshot has to start over",
+            tags = {"Change Feed"}
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "One page of the snapshot",
+                    content = @Content(
+                            mediaType = "application/json",
+                            schema = @Schema(implementation = HotelEventPageDTO.class),
+                            examples = @ExampleObject(
+                                    name = "First page",
+                                    value = "{\"events\":[{\"position\":42,\"type\":\"SAVED\",\"hotelId\":1,\"version\":3,\"occurredAt\":1767225600000,\"hotel\":{\"id\":1,\"name\":\"Hotel Imperial\",\"address\":\"Calle Real 123\",\"stars\":5,\"city\":\"Tokio\",\"state\":\"Kanto\",\"country\":\"Japón\"}}],\"head\":42,\"resync\":false,\"next\":1}"
+                            )
+                    )
+            ),
+            @ApiResponse(
+                    responseCode = "400",
+                    description = "Negative position or afterId, or limit out of range"
+            )
+    })
+    @GetMapping("/events/snapshot")
+    public ResponseEntity<HotelEventPageDTO> findHotelSnapshot(
+            @Parameter(description = "Position returned by the first page; omitted to start a snapshot", example = "42")
+            @RequestParam(required = false) Long position,
+            @Parameter(description = "Hotel id of the next field of the previous page (0 for the first page)", example = "0")
+            @RequestParam(defaultValue = "0") long afterId,
+            @Parameter(description = "Maximum number of hotels to return", example = "500")
+            @RequestParam(required = false) Integer limit) {
+        return ResponseEntity.ok(hotelEventService.findSnapshot(position, afterId, limit));
     }
 
     /* =================== QUALITY-BASED SEARCH ENDPOINTS =================== */
 
     @Operation(
             summary = "Find hotels by star rating",
-            description = "Retrieves all hotels with a specific star rating. Great for finding hotels that match your quality preferences",
+            description = "Retrieves all hotels with a specific star rating. Great for finding hotels that match your quality preferences. Results are paged in name order; the X-Next-Cursor header carries the cursor of the next page",
             tags = {"Quality Search"}
     )
     @ApiResponses(value = {
@@ -300,16 +558,24 @@ public class HotelController {
                     required = true,
                     schema = @Schema(minimum = "1", maximum = "5")
             )
-            @PathVariable Integer stars) {
-        List<HotelDTO> hotelDTOList = hotelService.findHotelsByStars(stars);
-        return ResponseEntity.ok(hotelDTOList);
+            @PathVariable Integer stars,
+            @Parameter(
+                    description = "Maximum number of hotels in the page (defaults to 100)",
+                    example = "50"
+            )
+            @RequestParam(required = false) Integer limit,
+            @Parameter(
+                    description = "Opaque cursor from the X-Next-Cursor header of the previous page"
+            )
+            @RequestParam(required = false) String next) {
+        return page(hotelService.findHotelsByStars(stars, next, limit));
     }
 
     /* =================== ADVANCED SEARCH ENDPOINTS =================== */
 
     @Operation(
             summary = "Advanced hotel search with multiple filters",
-            description = "Powerful search functionality that combines multiple criteria including location (city, state, country) and quality (star rating). All parameters are optional and can be used independently or in combination for precise results",
+            description = "Powerful search functionality that combines multiple criteria including location (city, state, country) and quality (star rating). All parameters are optional and can be used independently or in combination for precise results. Results are paged in id order; the X-Next-Cursor header carries the cursor of the next page",
             tags = {"Advanced Search"}
     )
     @ApiResponses(value = {
@@ -377,9 +643,156 @@ public class HotelController {
                     required = false,
                     schema = @Schema(minimum = "1", maximum = "5")
             )
-            @Valid @RequestParam(required = false) Integer stars) {
+            @Valid @RequestParam(required = false) Integer stars,
+            @Parameter(
+                    description = "Match whole city/state/country values (ignoring case and accents) instead of substrings",
+                    example = "true"
+            )
+            @RequestParam(defaultValue = "false") boolean exact,
+            @Parameter(
+                    description = "Maximum number of hotels in the page (defaults to 100)",
+                    example = "50"
+            )
+            @RequestParam(required = false) Integer limit,
+            @Parameter(
+                    description = "Opaque cursor from the X-Next-Cursor header of the previous page"
+            )
+            @RequestParam(required = false) String next) {
+
+        return page(hotelService.findHotelByFilters(city, state, country, stars, exact, next, limit));
+    }
+
+    @Operation(
+            summary = "Hotel counts per facet",
+            description = "Counts the hotels per star rating, country, state and city among the hotels matching the given exact filters (ignoring case and accents), for search UIs. All filters are optional; without any, the counts cover the whole catalog",
+            tags = {"Advanced Search"}
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Facet counts for the filter selection",
+                    content = @Content(
+                            mediaType = "application/json",
+                            schema = @Schema(implementation = HotelFacetsDTO.class),
+                            examples = @ExampleObject(
+                                    name = "Hotels in Japan",
+                                    value = "{\"total\":17,\"stars\":{\"3\":5,\"4\":7,\"5\":5},\"countries\":{\"Japón\":17},\"states\":{\"Kansai\":6,\"Kanto\":5},\"cities\":{\"Tokio\":5,\"Osaka\":3}}"
+                            )
+                    )
+            ),
+            @ApiResponse(
+                    responseCode = "400",
+                    description = "Invalid star rating (must be between 1 and 5)"
+            )
+    })
+    @GetMapping("/facets")
+    public ResponseEntity<HotelFacetsDTO> findHotelFacets(
+            @Parameter(description = "Exact city name", example = "Tokio")
+            @RequestParam(required = false) String city,
+            @Parameter(description = "Exact state or province name", example = "Kanto")
+            @RequestParam(required = false) String state,
+            @Parameter(description = "Exact country name", example = "Japón")
+            @RequestParam(required = false) String country,
+            @Parameter(description = "Exact star rating (1-5)", example = "5", schema = @Schema(minimum = "1", maximum = "5"))
+            @RequestParam(required = false) Integer stars) {
+        return ResponseEntity.ok(hotelService.findHotelFacets(city, state, country, stars));
+    }
+
+    @Operation(
+            summary = "Find the hotels closest to a position",
+            description = "Returns the hotels nearest to the given latitude/longitude, closest first, each with its great-circle distance. Resolved by an in-memory spatial index, so the hotel table is never scanned. radiusKm optionally bounds the distance",
+            tags = {"Advanced Search"}
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Nearest hotels, closest first",
+                    content = @Content(
+                            mediaType = "application/json",
+                            schema = @Schema(implementation = NearbyHotelDTO.class),
+                            examples = @ExampleObject(
+                                    name = "Hotels near Tokyo Station",
+                                    value = "[{\"id\":1,\"name\":\"Hotel Imperial\",\"address\":\"Calle Real 123\",\"stars\":4,\"city\":\"Tokio\",\"state\":\"Kanto\",\"country\":\"Japón\",\"latitude\":35.6762,\"longitude\":139.6503,\"distanceKm\":8.61}]"
+                            )
+                    )
+            ),
+            @ApiResponse(
+                    responseCode = "400",
+                    description = "Missing or out of range lat/lon, non-positive radiusKm or invalid limit"
+            ),
+            @ApiResponse(
+                    responseCode = "404",
+                    description = "No hotels within the given radius"
+            )
+    })
+    @GetMapping("/near")
+    public ResponseEntity<List<NearbyHotelDTO>> findHotelsNear(
+            @Parameter(description = "Latitude in degrees (-90 to 90)", example = "35.6812", required = true)
+            @RequestParam Double lat,
+            @Parameter(description = "Longitude in degrees (-180 to 180)", example = "139.7671", required = true)
+            @RequestParam Double lon,
+            @Parameter(description = "Maximum distance in kilometers; unbounded when omitted", example = "25")
+            @RequestParam(required = false) Double radiusKm,
+            @Parameter(description = "Maximum number of hotels to return (defaults to 100)", example = "10")
+            @RequestParam(required = false) Integer limit) {
+        List<NearbyHotelDTO> hotels = hotelService.findHotelsNear(lat, lon, radiusKm, limit);
+        // Distances follow from the request and the (versioned) hotel positions
+        return ResponseEntity.ok().eTag(ETags.ofAll(hotels)).body(hotels);
+    }
+
+    @Operation(
+            summary = "Full-text hotel search",
+            description = "Ranked (BM25) search over hotel name, address and city. Ignores case and accents (\"Japón\" matches \"japon\"); any query word may match and name matches weigh the most. Returns the best matches first with their relevance score",
+            tags = {"Advanced Search"}
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Matching hotels, best match first",
+                    content = @Content(
+                            mediaType = "application/json",
+                            schema = @Schema(implementation = ScoredHotelDTO.class),
+                            examples = @ExampleObject(
+                                    name = "Search results",
+                                    value = "[{\"id\":1,\"name\":\"Hotel Imperial\",\"address\":\"Calle Real 123\",\"stars\":4,\"city\":\"Tokio\",\"state\":\"Kanto\",\"country\":\"Japón\",\"latitude\":35.6762,\"longitude\":139.6503,\"score\":12.4}]"
+                            )
+                    )
+            ),
+            @ApiResponse(
+                    responseCode = "400",
+                    description = "Blank query or invalid limit"
+            ),
+            @ApiResponse(
+                    responseCode = "404",
+                    description = "No hotel matches the query"
+            )
+    })
+    @GetMapping("/search")
+    public ResponseEntity<List<ScoredHotelDTO>> searchHotels(
+            @Parameter(description = "Words to search for in the hotel name, address and city", example = "imperial tokio", required = true)
+            @RequestParam String q,
+            @Parameter(description = "Maximum number of hotels to return (defaults to 100)", example = "10")
+            @RequestParam(required = false) Integer limit) {
+        List<ScoredHotelDTO> hotels = hotelService.searchHotels(q, limit);
+        // Scores also depend on corpus statistics, so they are part of the tag
+        return ResponseEntity.ok()
+                .eTag(ETags.ofAll(hotels, hotels.stream().map(ScoredHotelDTO::getScore).toList()))
+                .body(hotels);
+    }
 
-        List<HotelDTO> hotelDTOList = hotelService.findHotelByFilters(city, state, country, stars);
-        return ResponseEntity.ok(hotelDTOList);
+    // The body stays a plain list; the cursor of the next page travels in the headers
+    // Conditional GETs are resolved by Spring against the ETag before the body is serialized
+    private ResponseEntity<List<HotelDTO>> page(HotelPageDTO page) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .eTag(ETags.ofAll(page.getHotels(), page.getNext()));
+        if (page.getNext() != null) {
+            String nextUri = ServletUriComponentsBuilder.fromCurrentRequest()
+                    .replaceQueryParam("next", page.getNext())
+                    .build()
+                    .toUriString();
+            response.header(NEXT_CURSOR_HEADER, page.getNext())
+                    .header(HttpHeaders.LINK, "<" + nextUri + ">; rel=\"next\"");
+        }
+        return response.body(page.getHotels());
     }
 }
\ No newline at end of file
@@ -0,0 +1,221 @@
+package com.tourismSystem.hotels.controllers;
+
+import com.tourismSystem.hotels.dto.HotelBatchDTO;
+import com.tourismSystem.hotels.dto.HotelDTO;
+import com.tourismSystem.hotels.dto.HotelEventPageDTO;
+import com.tourismSystem.hotels.dto.HotelFacetsDTO;
+import com.tourismSystem.hotels.dto.HotelPageDTO;
+import com.tourismSystem.hotels.dto.NearbyHotelDTO;
+import com.tourismSystem.hotels.dto.ScoredHotelDTO;
+import com.tourismSystem.hotels.service.IHotelEventService;
+import com.tourismSystem.hotels.service.IHotelService;
+import com.tourismSystem.hotels.service.IReactiveHotelService;
+import com.tourismSystem.shared.http.ETags;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.util.UriComponentsBuilder;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+
+import static com.tourismSystem.hotels.controllers.HotelController.NEXT_CURSOR_HEADER;
+
+/**
+ * WebFlux version of {@link HotelController} for the reactive read stack (profile reactive), with the
+ * same paths, parameters, ETags and errors; the OpenAPI documentation of HotelController applies.
+ * Lookups by id, name, address, location and stars and the export go through R2DBC. Endpoints backed by
+ * the in-memory indexes (filters, facets, near, search), the batch lookups and the change feed still run
+ * the blocking services, on the bounded elastic scheduler so the event loop never waits.
+ */
+@RestController
+@RequestMapping("/hotels")
+@Profile("reactive")
+public class ReactiveHotelController {
+
+    private final IReactiveHotelService hotelService;
+    private final IHotelService blockingHotelService;
+    private final IHotelEventService hotelEventService;
+
+    public ReactiveHotelController(IReactiveHotelService hotelService, IHotelService blockingHotelService,
+                                   IHotelEventService hotelEventService) {
+        this.hotelService = hotelService;
+        this.blockingHotelService = blockingHotelService;
+        this.hotelEventService = hotelEventService;
+    }
+
+    /* =================== SINGLE HOTEL ENDPOINTS =================== */
+
+    @GetMapping("/errorId/{id}")
+    //Endpoint to try CircuitBreaker
+    Mono<ResponseEntity<HotelDTO>> findHotelsById(Long id) {
+        return blocking(() -> blockingHotelService.findHotelsByID(id)).map(ResponseEntity::ok);
+    }
+
+    @GetMapping("/id/{id}")
+    public Mono<ResponseEntity<HotelDTO>> findHotelById(@PathVariable Long id, ServerWebExchange exchange) {
+        Mono<ResponseEntity<HotelDTO>> found = hotelService.findHotelById(id)
+                .map(hotel -> ResponseEntity.ok().eTag(ETags.of(hotel)).body(hotel));
+        if (exchange.getRequest().getHeaders().getFirst(HttpHeaders.IF_NONE_MATCH) == null) {
+            return found;
+        }
+        // Version probe first; the hotel is only loaded when the client's copy is stale
+        return hotelService.findHotelVersion(id)
+                .map(version -> ETags.of(id, version))
+                .flatMap(etag -> exchange.checkNotModified(etag)
+                        ? Mono.just(ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).<HotelDTO>build())
+                        : found);
+    }
+
+    @PostMapping("/batch")
+    public Mono<ResponseEntity<HotelBatchDTO>> findHotelsByIds(@RequestBody List<Long> ids) {
+        return blocking(() -> blockingHotelService.findHotelsByIds(ids)).map(ResponseEntity::ok);
+    }
+
+    @PostMapping("/cities")
+    public Mono<ResponseEntity<Map<String, List<HotelDTO>>>> findHotelsByCities(@RequestBody List<String> cities) {
+        return blocking(() -> blockingHotelService.findHotelsByCities(cities)).map(ResponseEntity::ok);
+    }
+
+    @GetMapping("/name/{name}")
+    public Mono<ResponseEntity<HotelDTO>> findHotelByName(@PathVariable String name) {
+        return hotelService.findHotelByName(name)
+                .map(hotel -> ResponseEntity.ok().eTag(ETags.of(hotel)).body(hotel));
+    }
+
+    @GetMapping("/address/{address}")
+    public Mono<ResponseEntity<HotelDTO>> findHotelByAddress(@PathVariable String address) {
+        return hotelService.findHotelByAddress(address)
+                .map(hotel -> ResponseEntity.ok().eTag(ETags.of(hotel)).body(hotel));
+    }
+
+    /* =================== LOCATION-BASED SEARCH ENDPOINTS =================== */
+
+    @GetMapping("/city/{city}")
+    public Mono<ResponseEntity<List<HotelDTO>>> findHotelByCity(@PathVariable String city,
+                                                               @RequestParam(required = false) Integer limit,
+                                                               @RequestParam(required = false) String next,
+                                                               ServerWebExchange exchange) {
+        return hotelService.findHotelsByCity(city, next, limit).map(page -> page(page, exchange));
+    }
+
+    @GetMapping("/state/{state}")
+    public Mono<ResponseEntity<List<HotelDTO>>> findHotelByState(@PathVariable String state,
+                                                                @RequestParam(required = false) Integer limit,
+                                                                @RequestParam(required = false) String next,
+                                                                ServerWebExchange exchange) {
+        return hotelService.findHotelsByState(state, next, limit).map(page -> page(page, exchange));
+    }
+
+    @GetMapping("/country/{country}")
+    public Mono<ResponseEntity<List<HotelDTO>>> findHotelByCountry(@PathVariable String country,
+                                                                  @RequestParam(required = false) Integer limit,
+                                                                  @RequestParam(required = false) String next,
+                                                                  ServerWebExchange exchange) {
+        return hotelService.findHotelsByCountry(country, next, limit).map(page -> page(page, exchange));
+    }
+
+    /* =================== EXPORT ENDPOINTS =================== */
+
+    // Compressed by the server like any other response (server.compression in application-reactive.yml)
+    @GetMapping(value = "/export", produces = "application/x-ndjson")
+    public ResponseEntity<Flux<DataBuffer>> exportHotels(ServerWebExchange exchange) {
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType("application/x-ndjson"))
+                .body(hotelService.exportHotels(exchange.getResponse().bufferFactory()));
+    }
+
+    /* =================== CHANGE FEED ENDPOINTS =================== */
+
+    @GetMapping("/events")
+    public Mono<ResponseEntity<HotelEventPageDTO>> findHotelEvents(@RequestParam(defaultValue = "0") long after,
+                                                                   @RequestParam(required = false) Integer limit) {
+        return blocking(() -> hotelEventService.findEventsAfter(after, limit)).map(ResponseEntity::ok);
+    }
+
+    @GetMapping("/events/snapshot")
+    public Mono<ResponseEntity<HotelEventPageDTO>> findHotelSnapshot(@RequestParam(required = false) Long position,
+                                                                     @RequestParam(defaultValue = "0") long afterId,
+                                                                     @RequestParam(required = false) Integer limit) {
+        return blocking(() -> hotelEventService.findSnapshot(position, afterId, limit)).map(ResponseEntity::ok);
+    }
+
+    /* =================== QUALITY-BASED SEARCH ENDPOINTS =================== */
+
+    @GetMapping("/stars/{stars}")
+    public Mono<ResponseEntity<List<HotelDTO>>> findHotelByStars(@PathVariable Integer stars,
+                                                                @RequestParam(required = false) Integer limit,
+                                                                @RequestParam(required = false) String next,
+                                                                ServerWebExchange exchange) {
+        return hotelService.findHotelsByStars(stars, next, limit).map(page -> page(page, exchange));
+    }
+
+    /* =================== INDEX-BACKED ENDPOINTS =================== */
+
+    @GetMapping("/filters")
+    public Mono<ResponseEntity<List<HotelDTO>>> findHotelByFilters(@RequestParam(required = false) String city,
+                                                                  @RequestParam(required = false) String state,
+                                                                  @RequestParam(required = false) String country,
+                                                                  @RequestParam(required = false) Integer stars,
+                                                                  @RequestParam(defaultValue = "false") boolean exact,
+                                                                  @RequestParam(required = false) Integer limit,
+                                                                  @RequestParam(required = false) String next,
+                                                                  ServerWebExchange exchange) {
+        return blocking(() -> blockingHotelService.findHotelByFilters(city, state, country, stars, exact, next, limit))
+                .map(page -> page(page, exchange));
+    }
+
+    @GetMapping("/facets")
+    public Mono<ResponseEntity<HotelFacetsDTO>> findHotelFacets(@RequestParam(required = false) String city,
+                                                                @RequestParam(required = false) String state,
+                                                                @RequestParam(required = false) String country,
+                                                                @RequestParam(required = false) Integer stars) {
+        return blocking(() -> blockingHotelService.findHotelFacets(city, state, country, stars)).map(ResponseEntity::ok);
+    }
+
+    @GetMapping("/near")
+    public Mono<ResponseEntity<List<NearbyHotelDTO>>> findHotelsNear(@RequestParam Double lat,
+                                                                    @RequestParam Double lon,
+                                                                    @RequestParam(required = false) Double radiusKm,
+                                                                    @RequestParam(required = false) Integer limit) {
+        return blocking(() -> blockingHotelService.findHotelsNear(lat, lon, radiusKm, limit))
+                .map(hotels -> ResponseEntity.ok().eTag(ETags.ofAll(hotels)).body(hotels));
+    }
+
+    @GetMapping("/search")
+    public Mono<ResponseEntity<List<ScoredHotelDTO>>> searchHotels(@RequestParam String q,
+                                                                  @RequestParam(required = false) Integer limit) {
+        return blocking(() -> blockingHotelService.searchHotels(q, limit))
+                .map(hotels -> ResponseEntity.ok()
+                        .eTag(ETags.ofAll(hotels, hotels.stream().map(ScoredHotelDTO::getScore).toList()))
+                        .body(hotels));
+    }
+
+    private static <T> Mono<T> blocking(Callable<T> call) {
+        return Mono.fromCallable(call).subscribeOn(Schedulers.boundedElastic());
+    }
+
+    // Same headers as HotelController.page
+    private static ResponseEntity<List<HotelDTO>> page(HotelPageDTO page, ServerWebExchange exchange) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .eTag(ETags.ofAll(page.getHotels(), page.getNext()));
+        if (page.getNext() != null) {
+            String nextUri = UriComponentsBuilder.fromUri(exchange.getRequest().getURI())
+                    .replaceQueryParam("next", page.getNext())
+                    .build()
+                    .toUriString();
+            response.header(NEXT_CURSOR_HEADER, page.getNext())
+                    .header(HttpHeaders.LINK, "<" + nextUri + ">; rel=\"next\"");
+        }
+        return response.body(page.getHotels());
+    }
+}
@@ -0,0 +1,161 @@
+package com.tourismSystem.hotels.converters;
+
+import com.google.protobuf.CodedInputStream;
+import com.google.protobuf.CodedOutputStream;
+import com.google.protobuf.WireFormat;
+import com.tourismSystem.hotels.dto.HotelDTO;
+import com.tourismSystem.hotels.dto.NearbyHotelDTO;
+import com.tourismSystem.hotels.dto.ScoredHotelDTO;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Protobuf encoding of {@link HotelDTO} following resources/proto/hotels.proto, written straight from
+ * the DTOs with protobuf-java's coded streams, so no generated message classes (or protoc step) are needed.
+ * Null fields are left out and read back as null.
+ */
+public final class HotelProtobufCodec {
+
+    private static final int HOTEL_LIST_HOTELS = 1;
+
+    private static final int ID = 1;
+    private static final int NAME = 2;
+    private static final int ADDRESS = 3;
+    private static final int STARS = 4;
+    private static final int CITY = 5;
+    private static final int STATE = 6;
+    private static final int COUNTRY = 7;
+    private static final int LATITUDE = 8;
+    private static final int LONGITUDE = 9;
+    private static final int DISTANCE_KM = 10;
+    private static final int SCORE = 11;
+
+    private HotelProtobufCodec() {
+    }
+
+    /* =================== ENCODING =================== */
+
+    public static void writeHotel(HotelDTO hotel, CodedOutputStream out) throws IOException {
+        writeFields(hotel, out);
+    }
+
+    public static void writeHotelList(List<? extends HotelDTO> hotels, CodedOutputStream out) throws IOException {
+        for (HotelDTO hotel : hotels) {
+            out.writeTag(HOTEL_LIST_HOTELS, WireFormat.WIRETYPE_LENGTH_DELIMITED);
+            out.writeUInt32NoTag(size(hotel));
+            writeFields(hotel, out);
+        }
+    }
+
+    private static void writeFields(HotelDTO hotel, CodedOutputStream out) throws IOException {
+        if (hotel.getId() != null) {
+            out.writeInt64(ID, hotel.getId());
+        }
+        writeString(out, NAME, hotel.getName());
+        writeString(out, ADDRESS, hotel.getAddress());
+        if (hotel.getStars() != null) {
+            out.writeInt32(STARS, hotel.getStars());
+        }
+        writeString(out, CITY, hotel.getCity());
+        writeString(out, STATE, hotel.getState());
+        writeString(out, COUNTRY, hotel.getCountry());
+        writeDouble(out, LATITUDE, hotel.getLatitude());
+        writeDouble(out, LONGITUDE, hotel.getLongitude());
+        if (hotel instanceof NearbyHotelDTO nearby) {
+            writeDouble(out, DISTANCE_KM, nearby.getDistanceKm());
+        }
+        if (hotel instanceof ScoredHotelDTO scored) {
+            writeDouble(out, SCORE, scored.getScore());
+        }
+    }
+
+    private static int size(HotelDTO hotel) {
+        int size = 0;
+        if (hotel.getId() != null) {
+            size += CodedOutputStream.computeInt64Size(ID, hotel.getId());
+        }
+        size += stringSize(NAME, hotel.getName());
+        size += stringSize(ADDRESS, hotel.getAddress());
+        if (hotel.getStars() != null) {
+            size += CodedOutputStream.computeInt32Size(STARS, hotel.getStars());
+        }
+        size += stringSize(CITY, hotel.getCity());
+        size += stringSize(STATE, hotel.getState());
+        size += stringSize(COUNTRY, hotel.getCountry());
+        size += doubleSize(LATITUDE, hotel.getLatitude());
+        size += doubleSize(LONGITUDE, hotel.getLongitude());
+        if (hotel instanceof NearbyHotelDTO nearby) {
+            size += doubleSize(DISTANCE_KM, nearby.getDistanceKm());
+        }
+        if (hotel instanceof ScoredHotelDTO scored) {
+            size += doubleSize(SCORE, scored.getScore());
+        }
+        return size;
+    }
+
+    private static void writeString(CodedOutputStream out, int field, String value) throws IOException {
+        if (value != null) {
+            out.writeString(field, value);
+        }
+    }
+
+    private static void writeDouble(CodedOutputStream out, int field, Double value) throws IOException {
+        if (value != null) {
+            out.writeDouble(field, value);
+        }
+    }
+
+    private static int stringSize(int field, String value) {
+        return value == null ? 0 : CodedOutputStream.computeStringSize(field, value);
+    }
+
+    private static int doubleSize(int field, Double value) {
+        return value == null ? 0 : CodedOutputStream.computeDoubleSize(field, value);
+    }
+
+    /* =================== DECODING =================== */
+
+    public static HotelDTO readHotel(CodedInputStream in) throws IOException {
+        HotelDTO hotel = new HotelDTO();
+        Double distanceKm = null;
+        Double score = null;
+        int tag;
+        while ((tag = in.readTag()) != 0) {
+            switch (WireFormat.getTagFieldNumber(tag)) {
+                case ID -> hotel.setId(in.readInt64());
+                case NAME -> hotel.setName(in.readString());
+                case ADDRESS -> hotel.setAddress(in.readString());
+                case STARS -> hotel.setStars(in.readInt32());
+                case CITY -> hotel.setCity(in.readString());
+                case STATE -> hotel.setState(in.readString());
+                case COUNTRY -> hotel.setCountry(in.readString());
+                case LATITUDE -> hotel.setLatitude(in.readDouble());
+                case LONGITUDE -> hotel.setLongitude(in.readDouble());
+                case DISTANCE_KM -> distanceKm = in.readDouble();
+                case SCORE -> score = in.readDouble();
+                default -> in.skipField(tag);
+            }
+        }
+        if (distanceKm != null) {
+            return new NearbyHotelDTO(hotel, distanceKm);
+        }
+        return score != null ? new ScoredHotelDTO(hotel, score) : hotel;
+    }
+
+    public static List<HotelDTO> readHotelList(CodedInputStream in) throws IOException {
+        List<HotelDTO> hotels = new ArrayList<>();
+        int tag;
+        while ((tag = in.readTag()) != 0) {
+            if (WireFormat.getTagFieldNumber(tag) != HOTEL_LIST_HOTELS) {
+                in.skipField(tag);
+                continue;
+            }
+            int limit = in.pushLimit(in.readRawVarint32());
+            hotels.add(readHotel(in));
+            in.popLimit(limit);
+        }
+        return hotels;
+    }
+}
@@ -0,0 +1,86 @@
+package com.tourismSystem.hotels.converters;
+
+import com.google.protobuf.CodedOutputStream;
+import com.tourismSystem.hotels.dto.HotelDTO;
+import org.reactivestreams.Publisher;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.codec.AbstractEncoder;
+import org.springframework.core.codec.EncodingException;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.util.MimeType;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.io.IOException;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * WebFlux counterpart of {@link HotelProtobufHttpMessageConverter} for the reactive read stack. A single
+ * hotel is written as Hotel and a list as HotelList. A Flux of hotels is written entry by entry as it is
+ * produced, and the concatenation is itself a valid HotelList.
+ */
+public class HotelProtobufEncoder extends AbstractEncoder<Object> {
+
+    public HotelProtobufEncoder() {
+        super(MimeType.valueOf(HotelProtobufHttpMessageConverter.PROTOBUF.toString()));
+    }
+
+    @Override
+    public boolean canEncode(ResolvableType elementType, MimeType mimeType) {
+        return isHotels(elementType) && super.canEncode(elementType, mimeType);
+    }
+
+    @Override
+    public Flux<DataBuffer> encode(Publisher<?> inputStream, DataBufferFactory bufferFactory, ResolvableType elementType,
+                                   MimeType mimeType, Map<String, Object> hints) {
+        if (inputStream instanceof Mono<?> value) {
+            return value.map(hotels -> encodeValue(hotels, bufferFactory, elementType, mimeType, hints)).flux();
+        }
+        return Flux.from(inputStream).map(hotel -> write(bufferFactory, List.of((HotelDTO) hotel), true));
+    }
+
+    @Override
+    public DataBuffer encodeValue(Object value, DataBufferFactory bufferFactory, ResolvableType valueType,
+                                  MimeType mimeType, Map<String, Object> hints) {
+        return value instanceof HotelDTO hotel
+                ? write(bufferFactory, List.of(hotel), false)
+                : write(bufferFactory, (List<?>) value, true);
+    }
+
+    private static DataBuffer write(DataBufferFactory bufferFactory, List<?> hotels, boolean asList) {
+        DataBuffer buffer = bufferFactory.allocateBuffer(256 * Math.max(1, hotels.size()));
+        try {
+            CodedOutputStream out = CodedOutputStream.newInstance(buffer.asOutputStream());
+            if (asList) {
+                @SuppressWarnings("unchecked")
+                List<? extends HotelDTO> list = (List<? extends HotelDTO>) hotels;
+                HotelProtobufCodec.writeHotelList(list, out);
+            } else {
+                HotelProtobufCodec.writeHotel((HotelDTO) hotels.get(0), out);
+            }
+            out.flush();
+            return buffer;
+        } catch (IOException ex) {
+            DataBufferUtils.release(buffer);
+            throw new EncodingException("Could not write hotels as Protobuf", ex);
+        }
+    }
+
+    // A hotel or a list of hotels, the only bodies this encoder takes
+    public static boolean isHotels(ResolvableType type) {
+        return isHotel(type) || isHotelList(type);
+    }
+
+    private static boolean isHotel(ResolvableType type) {
+        return HotelDTO.class.isAssignableFrom(type.toClass());
+    }
+
+    private static boolean isHotelList(ResolvableType type) {
+        return List.class.isAssignableFrom(type.toClass())
+                && HotelDTO.class.isAssignableFrom(type.as(Collection.class).getGeneric(0).toClass());
+    }
+}
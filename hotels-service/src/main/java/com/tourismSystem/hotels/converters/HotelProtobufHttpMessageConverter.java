@@ -0,0 +1,82 @@
+package com.tourismSystem.hotels.converters;
+
+import com.google.protobuf.CodedInputStream;
+import com.google.protobuf.CodedOutputStream;
+import com.tourismSystem.hotels.dto.HotelDTO;
+import org.springframework.core.ResolvableType;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractGenericHttpMessageConverter;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Serves hotels and lists of hotels as application/x-protobuf (Hotel / HotelList in
+ * resources/proto/hotels.proto) to clients that ask for it in Accept.
+ */
+public class HotelProtobufHttpMessageConverter extends AbstractGenericHttpMessageConverter<Object> {
+
+    public static final MediaType PROTOBUF = new MediaType("application", "x-protobuf");
+
+    public HotelProtobufHttpMessageConverter() {
+        super(PROTOBUF);
+    }
+
+    @Override
+    protected boolean supports(Class<?> clazz) {
+        return HotelDTO.class.isAssignableFrom(clazz);
+    }
+
+    // Lists are only known to hold hotels from their generic type, checked in canRead/canWrite(Type, ...)
+    @Override
+    public List<MediaType> getSupportedMediaTypes(Class<?> clazz) {
+        return List.class.isAssignableFrom(clazz) || supports(clazz) ? getSupportedMediaTypes() : List.of();
+    }
+
+    @Override
+    public boolean canRead(Type type, Class<?> contextClass, MediaType mediaType) {
+        return isHotelOrHotelList(type) && canRead(mediaType);
+    }
+
+    @Override
+    public boolean canWrite(Type type, Class<?> clazz, MediaType mediaType) {
+        return (type != null ? isHotelOrHotelList(type) : supports(clazz)) && canWrite(mediaType);
+    }
+
+    @Override
+    public Object read(Type type, Class<?> contextClass, HttpInputMessage inputMessage) throws IOException {
+        CodedInputStream in = CodedInputStream.newInstance(inputMessage.getBody());
+        return isHotelList(type) ? HotelProtobufCodec.readHotelList(in) : HotelProtobufCodec.readHotel(in);
+    }
+
+    @Override
+    protected Object readInternal(Class<?> clazz, HttpInputMessage inputMessage) throws IOException {
+        return HotelProtobufCodec.readHotel(CodedInputStream.newInstance(inputMessage.getBody()));
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    protected void writeInternal(Object body, Type type, HttpOutputMessage outputMessage) throws IOException {
+        CodedOutputStream out = CodedOutputStream.newInstance(outputMessage.getBody());
+        if (body instanceof HotelDTO hotel) {
+            HotelProtobufCodec.writeHotel(hotel, out);
+        } else {
+            HotelProtobufCodec.writeHotelList((List<? extends HotelDTO>) body, out);
+        }
+        out.flush();
+    }
+
+    private static boolean isHotelOrHotelList(Type type) {
+        return HotelDTO.class.isAssignableFrom(ResolvableType.forType(type).toClass()) || isHotelList(type);
+    }
+
+    private static boolean isHotelList(Type type) {
+        ResolvableType resolved = ResolvableType.forType(type);
+        return List.class.isAssignableFrom(resolved.toClass())
+                && HotelDTO.class.isAssignableFrom(resolved.as(Collection.class).getGeneric(0).toClass());
+    }
+}
@@ -0,0 +1,19 @@
+package com.tourismSystem.hotels.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class HotelBatchDTO {
+    // One entry per requested id, in request order; null where no hotel has that id
+    private List<HotelDTO> hotels;
+    // Requested ids without a hotel, in request order and without repeats
+    private List<Long> missing;
+}
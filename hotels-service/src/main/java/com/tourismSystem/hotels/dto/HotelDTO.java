@@ -1,5 +1,7 @@
 package com.tourismSystem.hotels.dto;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.tourismSystem.hotels.entities.Hotel;
+import com.tourismSystem.shared.http.ETags;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.validation.constraints.Max;
@@ -14,7 +16,7 @@ import org.springframework.beans.factory.annotation.Value;
 @Setter
 @AllArgsConstructor
 @NoArgsConstructor
-public class HotelDTO {
+public class HotelDTO implements ETags.Versioned {
 
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
@@ -27,6 +29,11 @@ public class HotelDTO {
     private String city;
     private String state;
     private String country;
+    private Double latitude;
+    private Double longitude;
+    // Row version, only used to build ETags
+    @JsonIgnore
+    private Long version;
 
     public HotelDTO(Hotel hotel){
         id= hotel.getId();
@@ -36,6 +43,9 @@ public class HotelDTO {
         city= hotel.getCity();
         state= hotel.getState();
         country= hotel.getCountry();
+        latitude= hotel.getLatitude();
+        longitude= hotel.getLongitude();
+        version= hotel.getVersion();
     }
 
     public Hotel toEntity(){
@@ -47,6 +57,9 @@ public class HotelDTO {
         hotel.setState(state);
         hotel.setAddress(address);
         hotel.setStars(stars);
+        hotel.setLatitude(latitude);
+        hotel.setLongitude(longitude);
+        hotel.setVersion(version);
         return hotel;
     }
 }
@@ -0,0 +1,31 @@
+package com.tourismSystem.hotels.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class HotelEventDTO {
+
+    public enum Type {
+        SAVED,
+        DELETED,
+        // Hotels were written in bulk without one event each (CSV bootstrap): reload the snapshot
+        RELOADED
+    }
+
+    // Position in the outbox; events are replayed in this order
+    private Long position;
+    private Type type;
+    private Long hotelId;
+    // Row version after the change; replicas skip events older than what they hold
+    private Long version;
+    // Epoch milliseconds of the change
+    private Long occurredAt;
+    // The hotel after the change; null for DELETED and RELOADED
+    private HotelDTO hotel;
+}
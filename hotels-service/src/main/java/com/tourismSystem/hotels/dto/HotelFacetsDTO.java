@@ -0,0 +1,22 @@
+package com.tourismSystem.hotels.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.Map;
+
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class HotelFacetsDTO {
+    // Hotels matching the current filter selection
+    private long total;
+    // Counts within that selection; values without hotels are left out
+    private Map<Integer, Long> stars;
+    private Map<String, Long> countries;
+    private Map<String, Long> states;
+    private Map<String, Long> cities;
+}
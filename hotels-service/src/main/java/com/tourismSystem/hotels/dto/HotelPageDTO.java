@@ -0,0 +1,18 @@
+package com.tourismSystem.hotels.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class HotelPageDTO {
+    private List<HotelDTO> hotels;
+    // Opaque cursor of the following page, null on the last page
+    private String next;
+}
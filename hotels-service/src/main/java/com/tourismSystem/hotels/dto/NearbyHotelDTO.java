@@ -0,0 +1,19 @@
+package com.tourismSystem.hotels.dto;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@NoArgsConstructor
+public class NearbyHotelDTO extends HotelDTO {
+    // Great-circle distance from the searched position
+    private Double distanceKm;
+
+    public NearbyHotelDTO(HotelDTO hotel, double distanceKm) {
+        super(hotel.getId(), hotel.getName(), hotel.getAddress(), hotel.getStars(), hotel.getCity(),
+                hotel.getState(), hotel.getCountry(), hotel.getLatitude(), hotel.getLongitude(), hotel.getVersion());
+        this.distanceKm = distanceKm;
+    }
+}
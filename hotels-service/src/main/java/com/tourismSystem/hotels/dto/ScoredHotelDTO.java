@@ -0,0 +1,19 @@
+package com.tourismSystem.hotels.dto;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@NoArgsConstructor
+public class ScoredHotelDTO extends HotelDTO {
+    // BM25 relevance of the hotel for the search query; only comparable within one response
+    private Double score;
+
+    public ScoredHotelDTO(HotelDTO hotel, double score) {
+        super(hotel.getId(), hotel.getName(), hotel.getAddress(), hotel.getStars(), hotel.getCity(),
+                hotel.getState(), hotel.getCountry(), hotel.getLatitude(), hotel.getLongitude(), hotel.getVersion());
+        this.score = score;
+    }
+}
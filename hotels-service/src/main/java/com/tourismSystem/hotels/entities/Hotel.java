@@ -1,18 +1,25 @@
 package com.tourismSystem.hotels.entities;
 
+import com.tourismSystem.hotels.events.HotelEntityListener;
+import com.tourismSystem.shared.text.TextNormalizer;
+import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
+import jakarta.persistence.EntityListeners;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.PreUpdate;
+import jakarta.persistence.Version;
 import jakarta.validation.constraints.Max;
 import jakarta.validation.constraints.Min;
 import lombok.*;
 
-@AllArgsConstructor
 @NoArgsConstructor
 @Getter
 @Setter
 @Entity
+@EntityListeners(HotelEntityListener.class)
 public class Hotel {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -25,9 +32,47 @@ public class Hotel {
     private String city;
     private String state;
     private String country;
+    // WGS84 position; geocoded from the city (geocoding/cities.csv) when no exact one is known
+    private Double latitude;
+    private Double longitude;
+    // Bumped on every JPA update; also the hotel's ETag
+    @Version
+    private Long version;
 
+    // Case- and accent-folded copies of the searchable columns, indexed for equality lookups
+    @Setter(AccessLevel.NONE)
+    @Column(name = "name_key")
+    private String nameKey;
+    @Setter(AccessLevel.NONE)
+    @Column(name = "address_key")
+    private String addressKey;
+    @Setter(AccessLevel.NONE)
+    @Column(name = "city_key")
+    private String cityKey;
+    @Setter(AccessLevel.NONE)
+    @Column(name = "state_key")
+    private String stateKey;
+    @Setter(AccessLevel.NONE)
+    @Column(name = "country_key")
+    private String countryKey;
 
+    public Hotel(Long id, String name, String address, Integer stars, String city, String state, String country) {
+        this.id = id;
+        this.name = name;
+        this.address = address;
+        this.stars = stars;
+        this.city = city;
+        this.state = state;
+        this.country = country;
+    }
 
-
-
+    @PrePersist
+    @PreUpdate
+    void normalizeKeys() {
+        nameKey = TextNormalizer.fold(name);
+        addressKey = TextNormalizer.fold(address);
+        cityKey = TextNormalizer.fold(city);
+        stateKey = TextNormalizer.fold(state);
+        countryKey = TextNormalizer.fold(country);
+    }
 }
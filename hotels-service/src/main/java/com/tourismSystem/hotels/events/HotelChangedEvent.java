@@ -0,0 +1,16 @@
+package com.tourismSystem.hotels.events;
+
+import com.tourismSystem.hotels.entities.Hotel;
+
+/**
+ * Published when JPA inserts, updates or deletes a hotel row, inside the transaction that writes it.
+ * Only {@link HotelOutboxRecorder} listens synchronously, to join that transaction; the in-memory
+ * read structures (indexes, caches) listen after commit, so a rolled-back write never reaches them.
+ */
+public record HotelChangedEvent(Type type, Hotel hotel) {
+
+    public enum Type {
+        SAVED,
+        DELETED
+    }
+}
@@ -0,0 +1,30 @@
+package com.tourismSystem.hotels.events;
+
+import com.tourismSystem.hotels.entities.Hotel;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+// Hibernate resolves this listener through Spring, so it can be constructor-injected
+@Component
+public class HotelEntityListener {
+
+    private final ApplicationEventPublisher publisher;
+
+    public HotelEntityListener(ApplicationEventPublisher publisher) {
+        this.publisher = publisher;
+    }
+
+    @PostPersist
+    @PostUpdate
+    public void onSaved(Hotel hotel) {
+        publisher.publishEvent(new HotelChangedEvent(HotelChangedEvent.Type.SAVED, hotel));
+    }
+
+    @PostRemove
+    public void onDeleted(Hotel hotel) {
+        publisher.publishEvent(new HotelChangedEvent(HotelChangedEvent.Type.DELETED, hotel));
+    }
+}
@@ -0,0 +1,38 @@
+package com.tourismSystem.hotels.events;
+
+import com.tourismSystem.hotels.dto.HotelDTO;
+import com.tourismSystem.hotels.dto.HotelEventDTO;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Ordered log of hotel changes that other services replay through GET /hotels/events. Events are
+ * appended within the transaction of the change, so a rolled-back change is never published. The
+ * store is picked with hotels.outbox.store: jdbc (table hotel_outbox, the default) or memory (local
+ * runs; lost on restart, which consumers notice because their position is past the head).
+ */
+public interface HotelOutbox {
+
+    // hotel is null for DELETED and RELOADED events
+    void append(HotelEventDTO.Type type, Long hotelId, Long version, HotelDTO hotel);
+
+    // Up to limit events with a position greater than the given one, in position order
+    List<HotelEventDTO> readAfter(long position, int limit);
+
+    // Position of the newest event; 0 when there is none
+    long head();
+
+    // Newest position readAfter already serves: no event at or below it can still show up; 0 when there is none
+    long visibleHead();
+
+    // Position of the oldest retained event; 0 when there is none
+    long oldest();
+
+    // Current time, in epoch milliseconds, on the clock that stamps the events
+    long now();
+
+    // Drops the events older than retention, aged on the clock that stamps them, always keeping the
+    // newest one and the one at visibleHead
+    int purgeOlderThan(Duration retention);
+}
@@ -0,0 +1,56 @@
+package com.tourismSystem.hotels.events;
+
+import com.tourismSystem.hotels.dto.HotelDTO;
+import com.tourismSystem.hotels.dto.HotelEventDTO;
+import com.tourismSystem.hotels.entities.Hotel;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Turns every JPA hotel change into an outbox event. The listener runs synchronously inside the
+ * flush that wrote the row, so the event joins its transaction. Events older than
+ * hotels.outbox.retention are purged; consumers that fall further behind reload the snapshot.
+ */
+@Component
+public class HotelOutboxRecorder {
+
+    private static final Logger logger = LoggerFactory.getLogger(HotelOutboxRecorder.class);
+
+    private final HotelOutbox outbox;
+    private final Duration retention;
+
+    public HotelOutboxRecorder(HotelOutbox outbox,
+                               @Value("${hotels.outbox.retention:7d}") Duration retention) {
+        this.outbox = outbox;
+        this.retention = retention;
+    }
+
+    @EventListener
+    public void onHotelChanged(HotelChangedEvent event) {
+        Hotel hotel = event.hotel();
+        if (event.type() == HotelChangedEvent.Type.SAVED) {
+            outbox.append(HotelEventDTO.Type.SAVED, hotel.getId(), hotel.getVersion(), new HotelDTO(hotel));
+        } else {
+            outbox.append(HotelEventDTO.Type.DELETED, hotel.getId(), hotel.getVersion(), null);
+        }
+    }
+
+    // Bulk writes (CSV bootstrap) skip JPA and its events; consumers reload the snapshot instead
+    public void recordReload() {
+        outbox.append(HotelEventDTO.Type.RELOADED, null, null, null);
+    }
+
+    @Scheduled(fixedDelayString = "${hotels.outbox.purge-interval-ms:3600000}")
+    public void purgeExpired() {
+        int purged = outbox.purgeOlderThan(retention);
+        if (purged > 0) {
+            logger.info("Purged {} hotel outbox events older than {}", purged, retention);
+        }
+    }
+}
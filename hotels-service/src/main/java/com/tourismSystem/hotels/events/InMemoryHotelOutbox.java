@@ -0,0 +1,107 @@
+package com.tourismSystem.hotels.events;
+
+import com.tourismSystem.hotels.dto.HotelDTO;
+import com.tourismSystem.hotels.dto.HotelEventDTO;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * Outbox kept in memory for local runs (hotels.outbox.store=memory). Events get their position
+ * when the transaction commits, so positions follow commit order and rolled-back changes never
+ * show up. Only the newest hotels.outbox.memory-capacity events are kept.
+ */
+@Component
+@ConditionalOnProperty(name = "hotels.outbox.store", havingValue = "memory")
+public class InMemoryHotelOutbox implements HotelOutbox {
+
+    private final ConcurrentNavigableMap<Long, HotelEventDTO> events = new ConcurrentSkipListMap<>();
+    private final int capacity;
+    private long head;
+
+    public InMemoryHotelOutbox(@Value("${hotels.outbox.memory-capacity:100000}") int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("hotels.outbox.memory-capacity must be greater than 0");
+        }
+        this.capacity = capacity;
+    }
+
+    @Override
+    public void append(HotelEventDTO.Type type, Long hotelId, Long version, HotelDTO hotel) {
+        long occurredAt = now();
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            add(type, hotelId, version, hotel, occurredAt);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                add(type, hotelId, version, hotel, occurredAt);
+            }
+        });
+    }
+
+    private synchronized void add(HotelEventDTO.Type type, Long hotelId, Long version, HotelDTO hotel, long occurredAt) {
+        head++;
+        events.put(head, new HotelEventDTO(head, type, hotelId, version, occurredAt, hotel));
+        while (events.size() > capacity) {
+            events.pollFirstEntry();
+        }
+    }
+
+    @Override
+    public List<HotelEventDTO> readAfter(long position, int limit) {
+        List<HotelEventDTO> page = new ArrayList<>(Math.min(limit, events.size()));
+        for (HotelEventDTO event : events.tailMap(position, false).values()) {
+            if (page.size() == limit) {
+                break;
+            }
+            page.add(event);
+        }
+        return page;
+    }
+
+    @Override
+    public synchronized long head() {
+        return head;
+    }
+
+    // Positions are handed out at commit, so every event is served as soon as it exists
+    @Override
+    public long visibleHead() {
+        return head();
+    }
+
+    @Override
+    public long oldest() {
+        Map.Entry<Long, HotelEventDTO> oldest = events.firstEntry();
+        return oldest == null ? 0 : oldest.getKey();
+    }
+
+    @Override
+    public long now() {
+        return System.currentTimeMillis();
+    }
+
+    @Override
+    public synchronized int purgeOlderThan(Duration retention) {
+        long cutoff = now() - retention.toMillis();
+        int purged = 0;
+        Map.Entry<Long, HotelEventDTO> oldest;
+        while ((oldest = events.firstEntry()) != null && oldest.getKey() < head
+                && oldest.getValue().getOccurredAt() < cutoff) {
+            events.remove(oldest.getKey());
+            purged++;
+        }
+        return purged;
+    }
+}
@@ -0,0 +1,141 @@
+package com.tourismSystem.hotels.events;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.tourismSystem.hotels.dto.HotelDTO;
+import com.tourismSystem.hotels.dto.HotelEventDTO;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Component;
+
+import java.io.UncheckedIOException;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Outbox in the hotel_outbox table. Rows are inserted through the connection of the running JPA
+ * transaction, so they commit or roll back with the hotel change. Ids are handed out at insert time,
+ * a later id may commit first, and concurrent writers may get ids and occurred_at stamps in different
+ * orders. Readers are only served the run of rows, from the lowest id up, older than
+ * hotels.outbox.visibility-delay, stopping at the first younger one; a position is skipped only if its
+ * transaction stays open for about that delay or longer. Ages are taken from the database clock, shared
+ * by every instance writing and reading the table.
+ */
+@Component
+@ConditionalOnProperty(name = "hotels.outbox.store", havingValue = "jdbc", matchIfMissing = true)
+public class JdbcHotelOutbox implements HotelOutbox {
+
+    // occurred_at is left to the column default, the database clock at insert time
+    private static final String INSERT_EVENT =
+            "INSERT INTO hotel_outbox (type, hotel_id, hotel_version, payload) VALUES (?, ?, ?, ?)";
+
+    private static final String SELECT_AFTER =
+            "SELECT id, type, hotel_id, hotel_version, payload, occurred_at FROM hotel_outbox " +
+                    "WHERE id > ? ORDER BY id LIMIT ?";
+
+    // Newest id below the oldest row still within the visibility delay
+    private static final String SELECT_VISIBLE_HEAD = "SELECT MAX(id) FROM hotel_outbox WHERE id < " +
+            "(SELECT COALESCE(MIN(id), " + Long.MAX_VALUE + ") FROM hotel_outbox WHERE occurred_at > ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+    private final Duration visibilityDelay;
+    private final RowMapper<HotelEventDTO> eventMapper = (rs, rowNum) -> {
+        HotelEventDTO event = new HotelEventDTO(rs.getLong("id"),
+                HotelEventDTO.Type.valueOf(rs.getString("type")),
+                rs.getObject("hotel_id", Long.class),
+                rs.getObject("hotel_version", Long.class),
+                rs.getLong("occurred_at"),
+                null);
+        String payload = rs.getString("payload");
+        if (payload != null) {
+            HotelDTO hotel = read(payload);
+            hotel.setVersion(event.getVersion());
+            event.setHotel(hotel);
+        }
+        return event;
+    };
+
+    public JdbcHotelOutbox(JdbcTemplate jdbcTemplate,
+                           ObjectMapper objectMapper,
+                           @Value("${hotels.outbox.visibility-delay:2s}") Duration visibilityDelay) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.objectMapper = objectMapper;
+        this.visibilityDelay = visibilityDelay;
+    }
+
+    @Override
+    public void append(HotelEventDTO.Type type, Long hotelId, Long version, HotelDTO hotel) {
+        jdbcTemplate.update(INSERT_EVENT, type.name(), hotelId, version, hotel == null ? null : write(hotel));
+    }
+
+    @Override
+    public List<HotelEventDTO> readAfter(long position, int limit) {
+        long visibleUntil = visibleUntil();
+        List<HotelEventDTO> events = jdbcTemplate.query(SELECT_AFTER, eventMapper, position, limit);
+        // A younger row may hold an id below older ones: nothing after it is served yet
+        for (int i = 0; i < events.size(); i++) {
+            if (events.get(i).getOccurredAt() > visibleUntil) {
+                return events.subList(0, i);
+            }
+        }
+        return events;
+    }
+
+    @Override
+    public long head() {
+        Long head = jdbcTemplate.queryForObject("SELECT MAX(id) FROM hotel_outbox", Long.class);
+        return head == null ? 0 : head;
+    }
+
+    @Override
+    public long visibleHead() {
+        Long head = jdbcTemplate.queryForObject(SELECT_VISIBLE_HEAD, Long.class, visibleUntil());
+        return head == null ? 0 : head;
+    }
+
+    @Override
+    public long oldest() {
+        Long oldest = jdbcTemplate.queryForObject("SELECT MIN(id) FROM hotel_outbox", Long.class);
+        return oldest == null ? 0 : oldest;
+    }
+
+    @Override
+    public int purgeOlderThan(Duration retention) {
+        // Cutoff from the database clock, like occurred_at, so JVM clock skew cannot purge early
+        return jdbcTemplate.update("DELETE FROM hotel_outbox WHERE occurred_at < ? AND id < ?",
+                databaseMillis() - retention.toMillis(), visibleHead());
+    }
+
+    @Override
+    public long now() {
+        return databaseMillis();
+    }
+
+    private long visibleUntil() {
+        return databaseMillis() - visibilityDelay.toMillis();
+    }
+
+    private long databaseMillis() {
+        return jdbcTemplate.queryForObject("SELECT CURRENT_TIMESTAMP(3)", Timestamp.class).getTime();
+    }
+
+    private String write(HotelDTO hotel) {
+        try {
+            return objectMapper.writeValueAsString(hotel);
+        } catch (JsonProcessingException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    private HotelDTO read(String payload) {
+        try {
+            return objectMapper.readValue(payload, HotelDTO.class);
+        } catch (JsonProcessingException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+}
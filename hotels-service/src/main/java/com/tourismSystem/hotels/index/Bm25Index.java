@@ -0,0 +1,107 @@
+package com.tourismSystem.hotels.index;
+
+
+import com.tourismSystem.shared.text.TextNormalizer;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * Inverted index over one text field, scored with Okapi BM25. Text is case and accent folded
+ * and split on anything that is not a letter or digit. Scoring only walks the postings of the
+ * query terms, so its cost depends on how many documents match, not on the index size.
+ * Not thread-safe; see {@link HotelSearchIndex}.
+ */
+public class Bm25Index {
+
+    private static final Pattern SEPARATORS = Pattern.compile("[^\\p{L}\\p{N}]+");
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+
+    // term -> (id -> term frequency)
+    private final Map<String, Map<Long, Integer>> postings = new HashMap<>();
+    // id -> distinct terms of the document, needed to unindex it
+    private final Map<Long, List<String>> termsById = new HashMap<>();
+    private final Map<Long, Integer> lengthById = new HashMap<>();
+    private long totalLength = 0;
+
+    public static List<String> tokenize(String text) {
+        String folded = TextNormalizer.fold(text);
+        List<String> tokens = new ArrayList<>();
+        if (folded == null) {
+            return tokens;
+        }
+        for (String token : SEPARATORS.split(folded)) {
+            if (!token.isEmpty()) {
+                tokens.add(token);
+            }
+        }
+        return tokens;
+    }
+
+    public void add(Long id, String text) {
+        remove(id);
+        List<String> tokens = tokenize(text);
+        if (tokens.isEmpty()) {
+            return;
+        }
+        Map<String, Integer> frequencies = new HashMap<>();
+        for (String token : tokens) {
+            frequencies.merge(token, 1, Integer::sum);
+        }
+        frequencies.forEach((term, frequency) ->
+                postings.computeIfAbsent(term, key -> new HashMap<>()).put(id, frequency));
+        termsById.put(id, new ArrayList<>(frequencies.keySet()));
+        lengthById.put(id, tokens.size());
+        totalLength += tokens.size();
+    }
+
+    public void remove(Long id) {
+        List<String> terms = termsById.remove(id);
+        if (terms == null) {
+            return;
+        }
+        for (String term : terms) {
+            Map<Long, Integer> ids = postings.get(term);
+            ids.remove(id);
+            if (ids.isEmpty()) {
+                postings.remove(term);
+            }
+        }
+        totalLength -= lengthById.remove(id);
+    }
+
+    public void clear() {
+        postings.clear();
+        termsById.clear();
+        lengthById.clear();
+        totalLength = 0;
+    }
+
+    /**
+     * Adds {@code weight} times the BM25 score of every document matching one of the (already
+     * tokenized) query terms to {@code scores}.
+     */
+    public void score(List<String> terms, double weight, Map<Long, Double> scores) {
+        int documents = lengthById.size();
+        if (documents == 0) {
+            return;
+        }
+        double averageLength = (double) totalLength / documents;
+        for (String term : terms) {
+            Map<Long, Integer> ids = postings.get(term);
+            if (ids == null) {
+                continue;
+            }
+            double idf = Math.log(1 + (documents - ids.size() + 0.5) / (ids.size() + 0.5));
+            for (Map.Entry<Long, Integer> posting : ids.entrySet()) {
+                double frequency = posting.getValue();
+                double norm = K1 * (1 - B + B * lengthById.get(posting.getKey()) / averageLength);
+                double score = idf * frequency * (K1 + 1) / (frequency + norm);
+                scores.merge(posting.getKey(), weight * score, Double::sum);
+            }
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package com.tourismSystem.hotels.index;
+
+import org.roaringbitmap.RoaringBitmap;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * One facet (e.g. country): a compressed bitmap of hotel ids per distinct value, so a count over a
+ * result set is the cardinality of its intersection with each bitmap. Values are grouped by a
+ * normalized key and reported with the first spelling seen. No per-hotel entry is kept: removing an
+ * id probes the bitmaps of the dimension. Not thread-safe; see {@link HotelFacetIndex}.
+ */
+class FacetDimension {
+
+    private final Function<String, String> normalizer;
+    private final Map<String, Integer> ordinals = new HashMap<>();
+    private final List<String> labels = new ArrayList<>();
+    private final List<RoaringBitmap> bitmaps = new ArrayList<>();
+
+    FacetDimension(Function<String, String> normalizer) {
+        this.normalizer = normalizer;
+    }
+
+    /**
+     * Moves the id to the value, out of the one it had.
+     */
+    void put(int id, String value) {
+        remove(id);
+        add(id, value);
+    }
+
+    /**
+     * Adds an id not indexed yet (bulk builds); a null value leaves it out.
+     */
+    void add(int id, String value) {
+        String key = value == null ? null : normalizer.apply(value);
+        if (key == null) {
+            return;
+        }
+        Integer ordinal = ordinals.get(key);
+        if (ordinal == null) {
+            ordinal = labels.size();
+            ordinals.put(key, ordinal);
+            labels.add(value);
+            bitmaps.add(new RoaringBitmap());
+        }
+        bitmaps.get(ordinal).add(id);
+    }
+
+    void remove(int id) {
+        for (RoaringBitmap bitmap : bitmaps) {
+            if (bitmap.checkedRemove(id)) {
+                return;
+            }
+        }
+    }
+
+    void clear() {
+        ordinals.clear();
+        labels.clear();
+        bitmaps.clear();
+    }
+
+    /**
+     * Ids having the value (compared after normalization); empty when the value is unknown.
+     */
+    RoaringBitmap idsOf(String value) {
+        Integer ordinal = ordinals.get(normalizer.apply(value));
+        return ordinal == null ? new RoaringBitmap() : bitmaps.get(ordinal);
+    }
+
+    RoaringBitmap bitmap(int ordinal) {
+        return bitmaps.get(ordinal);
+    }
+
+    int cardinality() {
+        return labels.size();
+    }
+
+    String label(int ordinal) {
+        return labels.get(ordinal);
+    }
+
+    void runOptimize() {
+        bitmaps.forEach(RoaringBitmap::runOptimize);
+    }
+}
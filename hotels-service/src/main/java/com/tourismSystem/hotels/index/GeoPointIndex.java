@@ -0,0 +1,312 @@
+package com.tourismSystem.hotels.index;
+
+import com.tourismSystem.hotels.utils.GeoDistance;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * k-nearest / radius index over (latitude, longitude) points. Points are stored as unit vectors
+ * in a static 3-d k-d tree, so the straight-line (chord) distance orders points exactly like the
+ * great-circle distance, with no special cases at the poles or the antimeridian.
+ * <p>
+ * Points added or moved after the tree was built live in a small overlay scanned linearly, and
+ * replaced or removed tree points are masked; the tree is rebuilt once the overlay grows past
+ * 1/16 of its size, except during {@link #reload}, which builds it once over everything loaded.
+ * Not thread-safe.
+ */
+public class GeoPointIndex {
+
+    private static final int MIN_OVERLAY_BEFORE_REBUILD = 256;
+
+    // Static k-d tree in array form: the node of [lo, hi) is at (lo + hi) / 2, split on depth % 3
+    private long[] ids = new long[0];
+    private double[] xs = new double[0];
+    private double[] ys = new double[0];
+    private double[] zs = new double[0];
+
+    // id -> {x, y, z} of points not (or no longer) matching their tree entry
+    private final Map<Long, double[]> overlay = new HashMap<>();
+    // Tree entries that were moved or removed since the last build
+    private final Set<Long> masked = new HashSet<>();
+    private final Set<Long> treeIds = new HashSet<>();
+    // While reloading, the overlay grows unbounded and the tree is built once at the end
+    private boolean bulkLoading = false;
+    private int builds = 0;
+
+    public record Neighbor(long id, double distanceKm) {
+    }
+
+    public void put(long id, double latitude, double longitude) {
+        if (treeIds.contains(id)) {
+            masked.add(id);
+        }
+        overlay.put(id, toUnitVector(latitude, longitude));
+        rebuildIfNeeded();
+    }
+
+    public void remove(long id) {
+        overlay.remove(id);
+        if (treeIds.contains(id)) {
+            masked.add(id);
+        }
+        rebuildIfNeeded();
+    }
+
+    /**
+     * Replaces every point with the ones {@code loader} puts. The tree is built once, when the
+     * loader is done (or fails), instead of each time the overlay outgrows it while loading.
+     */
+    public void reload(Consumer<GeoPointIndex> loader) {
+        clear();
+        bulkLoading = true;
+        try {
+            loader.accept(this);
+        } finally {
+            bulkLoading = false;
+            compact();
+        }
+    }
+
+    public void clear() {
+        overlay.clear();
+        masked.clear();
+        treeIds.clear();
+        ids = new long[0];
+        xs = new double[0];
+        ys = new double[0];
+        zs = new double[0];
+    }
+
+    public int size() {
+        return ids.length - masked.size() + overlay.size();
+    }
+
+    /**
+     * Up to {@code limit} points closest to the given position, nearest first. A null radius
+     * means no distance bound.
+     */
+    public List<Neighbor> nearest(double latitude, double longitude, Double radiusKm, int limit) {
+        if (limit < 1) {
+            return List.of();
+        }
+        double[] target = toUnitVector(latitude, longitude);
+        double bound = radiusKm == null ? Double.POSITIVE_INFINITY : squaredChord(radiusKm);
+        // Max-heap on squared chord distance: the head is the worst of the current best
+        PriorityQueue<Candidate> best = new PriorityQueue<>(Comparator.comparingDouble(Candidate::distance).reversed());
+        Search search = new Search(target, limit, bound, best);
+
+        search(search, 0, ids.length, 0);
+        for (Map.Entry<Long, double[]> point : overlay.entrySet()) {
+            double[] p = point.getValue();
+            search.offer(point.getKey(), squaredDistance(target, p[0], p[1], p[2]));
+        }
+
+        List<Neighbor> result = new ArrayList<>(best.size());
+        while (!best.isEmpty()) {
+            Candidate candidate = best.poll();
+            result.add(new Neighbor(candidate.id(), toKilometers(candidate.distance())));
+        }
+        return result.reversed();
+    }
+
+    /* =================== TREE =================== */
+
+    private void search(Search search, int lo, int hi, int depth) {
+        if (lo >= hi) {
+            return;
+        }
+        int mid = (lo + hi) >>> 1;
+        if (!masked.contains(ids[mid])) {
+            search.offer(ids[mid], squaredDistance(search.target, xs[mid], ys[mid], zs[mid]));
+        }
+        double diff = search.target[depth % 3] - coordinate(mid, depth % 3);
+        if (diff < 0) {
+            search(search, lo, mid, depth + 1);
+            if (diff * diff <= search.bound()) {
+                search(search, mid + 1, hi, depth + 1);
+            }
+        } else {
+            search(search, mid + 1, hi, depth + 1);
+            if (diff * diff <= search.bound()) {
+                search(search, lo, mid, depth + 1);
+            }
+        }
+    }
+
+    private void rebuildIfNeeded() {
+        if (!bulkLoading && overlay.size() + masked.size() > Math.max(MIN_OVERLAY_BEFORE_REBUILD, ids.length / 16)) {
+            compact();
+        }
+    }
+
+    /**
+     * Folds the overlay into a freshly balanced tree; call after a bulk load.
+     */
+    public void compact() {
+        if (overlay.isEmpty() && masked.isEmpty()) {
+            return;
+        }
+        int size = size();
+        long[] newIds = new long[size];
+        double[] newXs = new double[size];
+        double[] newYs = new double[size];
+        double[] newZs = new double[size];
+        int n = 0;
+        for (int i = 0; i < ids.length; i++) {
+            if (!masked.contains(ids[i])) {
+                newIds[n] = ids[i];
+                newXs[n] = xs[i];
+                newYs[n] = ys[i];
+                newZs[n] = zs[i];
+                n++;
+            }
+        }
+        for (Map.Entry<Long, double[]> point : overlay.entrySet()) {
+            newIds[n] = point.getKey();
+            newXs[n] = point.getValue()[0];
+            newYs[n] = point.getValue()[1];
+            newZs[n] = point.getValue()[2];
+            n++;
+        }
+        ids = newIds;
+        xs = newXs;
+        ys = newYs;
+        zs = newZs;
+        overlay.clear();
+        masked.clear();
+        treeIds.clear();
+        for (long id : ids) {
+            treeIds.add(id);
+        }
+        build(0, ids.length, 0);
+        builds++;
+    }
+
+    // Trees built so far, for tests
+    int builds() {
+        return builds;
+    }
+
+    private void build(int lo, int hi, int depth) {
+        if (hi - lo <= 1) {
+            return;
+        }
+        int mid = (lo + hi) >>> 1;
+        select(lo, hi - 1, mid, depth % 3);
+        build(lo, mid, depth + 1);
+        build(mid + 1, hi, depth + 1);
+    }
+
+    // Quickselect: places the k-th smallest (on the axis) at k, smaller before it, larger after
+    private void select(int left, int right, int k, int axis) {
+        while (right > left) {
+            double pivot = coordinate((left + right) >>> 1, axis);
+            int i = left;
+            int j = right;
+            while (i <= j) {
+                while (coordinate(i, axis) < pivot) {
+                    i++;
+                }
+                while (coordinate(j, axis) > pivot) {
+                    j--;
+                }
+                if (i <= j) {
+                    swap(i++, j--);
+                }
+            }
+            if (k <= j) {
+                right = j;
+            } else if (k >= i) {
+                left = i;
+            } else {
+                return;
+            }
+        }
+    }
+
+    private double coordinate(int i, int axis) {
+        return axis == 0 ? xs[i] : axis == 1 ? ys[i] : zs[i];
+    }
+
+    private void swap(int a, int b) {
+        long id = ids[a];
+        ids[a] = ids[b];
+        ids[b] = id;
+        double t = xs[a];
+        xs[a] = xs[b];
+        xs[b] = t;
+        t = ys[a];
+        ys[a] = ys[b];
+        ys[b] = t;
+        t = zs[a];
+        zs[a] = zs[b];
+        zs[b] = t;
+    }
+
+    /* =================== GEOMETRY =================== */
+
+    private static double[] toUnitVector(double latitude, double longitude) {
+        double lat = Math.toRadians(latitude);
+        double lon = Math.toRadians(longitude);
+        return new double[]{Math.cos(lat) * Math.cos(lon), Math.cos(lat) * Math.sin(lon), Math.sin(lat)};
+    }
+
+    private static double squaredDistance(double[] target, double x, double y, double z) {
+        double dx = target[0] - x;
+        double dy = target[1] - y;
+        double dz = target[2] - z;
+        return dx * dx + dy * dy + dz * dz;
+    }
+
+    private static double squaredChord(double kilometers) {
+        double angle = Math.min(kilometers / GeoDistance.EARTH_RADIUS_KM, Math.PI);
+        double chord = 2 * Math.sin(angle / 2);
+        return chord * chord;
+    }
+
+    private static double toKilometers(double squaredChord) {
+        return 2 * GeoDistance.EARTH_RADIUS_KM * Math.asin(Math.min(1, Math.sqrt(squaredChord) / 2));
+    }
+
+    private record Candidate(long id, double distance) {
+    }
+
+    private static final class Search {
+        private final double[] target;
+        private final int limit;
+        private final double radiusBound;
+        private final PriorityQueue<Candidate> best;
+
+        private Search(double[] target, int limit, double radiusBound, PriorityQueue<Candidate> best) {
+            this.target = target;
+            this.limit = limit;
+            this.radiusBound = radiusBound;
+            this.best = best;
+        }
+
+        // Squared chord distance a point must not exceed to still make it into the result
+        private double bound() {
+            return best.size() < limit ? radiusBound : best.peek().distance();
+        }
+
+        private void offer(long id, double distance) {
+            if (distance > radiusBound) {
+                return;
+            }
+            if (best.size() < limit) {
+                best.add(new Candidate(id, distance));
+            } else if (distance < best.peek().distance()) {
+                best.poll();
+                best.add(new Candidate(id, distance));
+            }
+        }
+    }
+}
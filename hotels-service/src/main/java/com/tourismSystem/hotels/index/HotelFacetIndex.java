@@ -0,0 +1,219 @@
+package com.tourismSystem.hotels.index;
+
+import com.tourismSystem.hotels.dto.HotelFacetsDTO;
+import com.tourismSystem.hotels.entities.Hotel;
+import com.tourismSystem.hotels.events.HotelChangedEvent;
+import com.tourismSystem.shared.text.TextNormalizer;
+import org.roaringbitmap.PeekableIntIterator;
+import org.roaringbitmap.RoaringBitmap;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Roaring bitmap indexes of hotel ids per stars value, country, state and city (the latter three
+ * matched ignoring case and accents). Exact-match filters are bitmap intersections, which back
+ * /hotels/facets and the exact mode of /hotels/filters. Built once the application is ready and
+ * kept in sync through {@link HotelChangedEvent}.
+ */
+@Component
+public class HotelFacetIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(HotelFacetIndex.class);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final RoaringBitmap all = new RoaringBitmap();
+    private final FacetDimension stars = new FacetDimension(value -> value);
+    private final FacetDimension countries = new FacetDimension(TextNormalizer::fold);
+    private final FacetDimension states = new FacetDimension(TextNormalizer::fold);
+    private final FacetDimension cities = new FacetDimension(TextNormalizer::fold);
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private volatile boolean ready = false;
+
+    public HotelFacetIndex(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Async
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        long start = System.nanoTime();
+        boolean[] indexable = {true};
+        lock.writeLock().lock();
+        try {
+            ready = false;
+            all.clear();
+            stars.clear();
+            countries.clear();
+            states.clear();
+            cities.clear();
+            jdbcTemplate.query("SELECT id, stars, city, state, country FROM hotel", rs -> {
+                long id = rs.getLong(1);
+                if (id > Integer.MAX_VALUE) {
+                    indexable[0] = false;
+                    return;
+                }
+                Integer hotelStars = rs.getObject(2) == null ? null : rs.getInt(2);
+                add((int) id, hotelStars, rs.getString(3), rs.getString(4), rs.getString(5));
+            });
+            all.runOptimize();
+            stars.runOptimize();
+            countries.runOptimize();
+            states.runOptimize();
+            cities.runOptimize();
+            // Bitmaps hold 32-bit ids; beyond that the database filters are used instead
+            ready = indexable[0];
+        } finally {
+            lock.writeLock().unlock();
+        }
+        if (ready) {
+            logger.info("Hotel facet index built with {} hotels in {} ms",
+                    all.getCardinality(), (System.nanoTime() - start) / 1_000_000);
+        } else {
+            logger.warn("Hotel ids exceed the 32-bit range, facet index disabled");
+        }
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onHotelChanged(HotelChangedEvent event) {
+        Hotel hotel = event.hotel();
+        if (hotel.getId() > Integer.MAX_VALUE) {
+            ready = false;
+            return;
+        }
+        int id = hotel.getId().intValue();
+        lock.writeLock().lock();
+        try {
+            all.remove(id);
+            stars.remove(id);
+            countries.remove(id);
+            states.remove(id);
+            cities.remove(id);
+            if (event.type() == HotelChangedEvent.Type.SAVED) {
+                add(id, hotel.getStars(), hotel.getCity(), hotel.getState(), hotel.getCountry());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Counts per stars value, country, state and city among the hotels matching all the given
+     * exact filters (null filters are ignored), each the cardinality of an intersection of bitmaps.
+     */
+    public HotelFacetsDTO facets(String city, String state, String country, Integer stars) {
+        lock.readLock().lock();
+        try {
+            RoaringBitmap matching = match(city, state, country, stars);
+            long[] starCounts = counts(matching, this.stars);
+            long[] countryCounts = counts(matching, countries);
+            long[] stateCounts = counts(matching, states);
+            long[] cityCounts = counts(matching, cities);
+
+            Map<Integer, Long> starFacet = new TreeMap<>();
+            for (int ordinal = 0; ordinal < starCounts.length; ordinal++) {
+                if (starCounts[ordinal] > 0) {
+                    starFacet.put(Integer.valueOf(this.stars.label(ordinal)), starCounts[ordinal]);
+                }
+            }
+            return new HotelFacetsDTO(matching.getLongCardinality(), starFacet,
+                    toFacet(countries, countryCounts), toFacet(states, stateCounts), toFacet(cities, cityCounts));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Ids (ascending, greater than {@code lastId}) of up to {@code limit} hotels matching all the
+     * given exact filters.
+     */
+    public List<Long> findPage(String city, String state, String country, Integer stars, Long lastId, int limit) {
+        lock.readLock().lock();
+        try {
+            PeekableIntIterator ids = match(city, state, country, stars).getIntIterator();
+            if (lastId != null) {
+                if (lastId >= Integer.MAX_VALUE) {
+                    return List.of();
+                }
+                ids.advanceIfNeeded((int) Math.max(0, lastId + 1));
+            }
+            List<Long> page = new ArrayList<>(Math.min(limit, 1024));
+            while (ids.hasNext() && page.size() < limit) {
+                page.add((long) ids.next());
+            }
+            return page;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private RoaringBitmap match(String city, String state, String country, Integer stars) {
+        RoaringBitmap result = all;
+        if (stars != null) {
+            result = RoaringBitmap.and(result, this.stars.idsOf(stars.toString()));
+        }
+        if (country != null) {
+            result = RoaringBitmap.and(result, countries.idsOf(country));
+        }
+        if (state != null) {
+            result = RoaringBitmap.and(result, states.idsOf(state));
+        }
+        if (city != null) {
+            result = RoaringBitmap.and(result, cities.idsOf(city));
+        }
+        return result;
+    }
+
+    // The id must not be indexed yet (cleared index, or removed first)
+    private void add(int id, Integer hotelStars, String city, String state, String country) {
+        all.add(id);
+        stars.add(id, hotelStars == null ? null : hotelStars.toString());
+        countries.add(id, country);
+        states.add(id, state);
+        cities.add(id, city);
+    }
+
+    private static long[] counts(RoaringBitmap matching, FacetDimension dimension) {
+        long[] counts = new long[dimension.cardinality()];
+        for (int ordinal = 0; ordinal < counts.length; ordinal++) {
+            counts[ordinal] = RoaringBitmap.andCardinality(matching, dimension.bitmap(ordinal));
+        }
+        return counts;
+    }
+
+    // Most frequent values first
+    private static Map<String, Long> toFacet(FacetDimension dimension, long[] counts) {
+        List<Integer> ordinals = new ArrayList<>();
+        for (int ordinal = 0; ordinal < counts.length; ordinal++) {
+            if (counts[ordinal] > 0) {
+                ordinals.add(ordinal);
+            }
+        }
+        ordinals.sort(Comparator.<Integer>comparingLong(ordinal -> counts[ordinal]).reversed()
+                .thenComparing(dimension::label));
+        Map<String, Long> facet = new LinkedHashMap<>();
+        for (int ordinal : ordinals) {
+            facet.put(dimension.label(ordinal), counts[ordinal]);
+        }
+        return facet;
+    }
+}
@@ -0,0 +1,88 @@
+package com.tourismSystem.hotels.index;
+
+import com.tourismSystem.hotels.entities.Hotel;
+import com.tourismSystem.hotels.events.HotelChangedEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.List;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory spatial index over the hotel positions, used by /hotels/near to find the closest
+ * hotels without scanning the table. Built once the application is ready and kept in sync
+ * through {@link HotelChangedEvent}; hotels without a position are not indexed.
+ */
+@Component
+public class HotelGeoIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(HotelGeoIndex.class);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final GeoPointIndex points = new GeoPointIndex();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private volatile boolean ready = false;
+
+    public HotelGeoIndex(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Async
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        long start = System.nanoTime();
+        int hotels;
+        lock.writeLock().lock();
+        try {
+            ready = false;
+            // One tree build for the whole table, not one each time the overlay outgrows the tree
+            points.reload(index -> jdbcTemplate.query(
+                    "SELECT id, latitude, longitude FROM hotel WHERE latitude IS NOT NULL AND longitude IS NOT NULL",
+                    rs -> {
+                        index.put(rs.getLong(1), rs.getDouble(2), rs.getDouble(3));
+                    }));
+            hotels = points.size();
+            ready = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        logger.info("Hotel geo index built with {} hotels in {} ms",
+                hotels, (System.nanoTime() - start) / 1_000_000);
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onHotelChanged(HotelChangedEvent event) {
+        Hotel hotel = event.hotel();
+        lock.writeLock().lock();
+        try {
+            if (event.type() == HotelChangedEvent.Type.SAVED && hotel.getLatitude() != null && hotel.getLongitude() != null) {
+                points.put(hotel.getId(), hotel.getLatitude(), hotel.getLongitude());
+            } else {
+                points.remove(hotel.getId());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public List<GeoPointIndex.Neighbor> nearest(double latitude, double longitude, Double radiusKm, int limit) {
+        lock.readLock().lock();
+        try {
+            return points.nearest(latitude, longitude, radiusKm, limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+}
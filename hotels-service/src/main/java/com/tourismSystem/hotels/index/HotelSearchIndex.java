@@ -0,0 +1,141 @@
+package com.tourismSystem.hotels.index;
+
+import com.tourismSystem.hotels.entities.Hotel;
+import com.tourismSystem.hotels.events.HotelChangedEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Embedded full-text index over hotel name, address and city, used by /hotels/search. Each field
+ * is a {@link Bm25Index}; a hotel's score is the weighted sum of its field scores, so a name match
+ * outranks the same word in an address. Built once the application is ready and kept in sync
+ * through {@link HotelChangedEvent}.
+ */
+@Component
+public class HotelSearchIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(HotelSearchIndex.class);
+
+    private static final double NAME_WEIGHT = 3.0;
+    private static final double ADDRESS_WEIGHT = 1.0;
+    private static final double CITY_WEIGHT = 1.5;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final Bm25Index names = new Bm25Index();
+    private final Bm25Index addresses = new Bm25Index();
+    private final Bm25Index cities = new Bm25Index();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private volatile boolean ready = false;
+
+    public record Hit(long id, double score) {
+    }
+
+    public HotelSearchIndex(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Async
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        long start = System.nanoTime();
+        int[] hotels = {0};
+        lock.writeLock().lock();
+        try {
+            ready = false;
+            names.clear();
+            addresses.clear();
+            cities.clear();
+            jdbcTemplate.query("SELECT id, name, address, city FROM hotel", rs -> {
+                put(rs.getLong(1), rs.getString(2), rs.getString(3), rs.getString(4));
+                hotels[0]++;
+            });
+            ready = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        logger.info("Hotel search index built with {} hotels in {} ms",
+                hotels[0], (System.nanoTime() - start) / 1_000_000);
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onHotelChanged(HotelChangedEvent event) {
+        Hotel hotel = event.hotel();
+        lock.writeLock().lock();
+        try {
+            if (event.type() == HotelChangedEvent.Type.SAVED) {
+                put(hotel.getId(), hotel.getName(), hotel.getAddress(), hotel.getCity());
+            } else {
+                names.remove(hotel.getId());
+                addresses.remove(hotel.getId());
+                cities.remove(hotel.getId());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Best {@code limit} hotels for the query, highest score first. Any query term may match.
+     */
+    public List<Hit> search(String query, int limit) {
+        List<String> terms = new ArrayList<>(new LinkedHashSet<>(Bm25Index.tokenize(query)));
+        if (terms.isEmpty() || limit < 1) {
+            return List.of();
+        }
+        Map<Long, Double> scores = new HashMap<>();
+        lock.readLock().lock();
+        try {
+            names.score(terms, NAME_WEIGHT, scores);
+            addresses.score(terms, ADDRESS_WEIGHT, scores);
+            cities.score(terms, CITY_WEIGHT, scores);
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        // Min-heap of the best hits so far; ties go to the lower id
+        Comparator<Hit> worstFirst = Comparator.comparingDouble(Hit::score)
+                .thenComparing(Comparator.comparingLong(Hit::id).reversed());
+        PriorityQueue<Hit> best = new PriorityQueue<>(worstFirst);
+        for (Map.Entry<Long, Double> score : scores.entrySet()) {
+            Hit hit = new Hit(score.getKey(), score.getValue());
+            if (best.size() < limit) {
+                best.add(hit);
+            } else if (worstFirst.compare(hit, best.peek()) > 0) {
+                best.poll();
+                best.add(hit);
+            }
+        }
+        List<Hit> hits = new ArrayList<>(best.size());
+        while (!best.isEmpty()) {
+            hits.add(best.poll());
+        }
+        return hits.reversed();
+    }
+
+    private void put(Long id, String name, String address, String city) {
+        names.add(id, name);
+        addresses.add(id, address);
+        cities.add(id, city);
+    }
+}
@@ -0,0 +1,133 @@
+package com.tourismSystem.hotels.index;
+
+import com.tourismSystem.hotels.entities.Hotel;
+import com.tourismSystem.hotels.events.HotelChangedEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory trigram indexes over the hotel city, state and country columns, used by
+ * /hotels/filters to resolve substring filters to candidate ids without a LIKE '%...%' scan.
+ * Built once the application is ready (after the CSV bootstrap) and kept in sync through
+ * {@link HotelChangedEvent}.
+ */
+@Component
+public class HotelTextIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(HotelTextIndex.class);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TrigramIndex cities = new TrigramIndex();
+    private final TrigramIndex states = new TrigramIndex();
+    private final TrigramIndex countries = new TrigramIndex();
+    // Last indexed city/state/country per hotel, needed to unindex on update or delete
+    private final Map<Long, String[]> indexedValues = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private volatile boolean ready = false;
+
+    public HotelTextIndex(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Async
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        long start = System.nanoTime();
+        int hotels;
+        lock.writeLock().lock();
+        try {
+            ready = false;
+            cities.clear();
+            states.clear();
+            countries.clear();
+            indexedValues.clear();
+            jdbcTemplate.query("SELECT id, city, state, country FROM hotel", rs -> {
+                put(rs.getLong(1), rs.getString(2), rs.getString(3), rs.getString(4));
+            });
+            hotels = indexedValues.size();
+            ready = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        logger.info("Hotel text index built with {} hotels in {} ms",
+                hotels, (System.nanoTime() - start) / 1_000_000);
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onHotelChanged(HotelChangedEvent event) {
+        Hotel hotel = event.hotel();
+        lock.writeLock().lock();
+        try {
+            removeIndexed(hotel.getId());
+            if (event.type() == HotelChangedEvent.Type.SAVED) {
+                put(hotel.getId(), hotel.getCity(), hotel.getState(), hotel.getCountry());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Ids of the hotels whose city, state and country contain the given fragments (ignoring case
+     * and accents). Null fragments are not filtered on; returns null when all three are null.
+     */
+    public Set<Long> findCandidates(String city, String state, String country) {
+        if (city == null && state == null && country == null) {
+            return null;
+        }
+        lock.readLock().lock();
+        try {
+            Set<Long> result = intersect(null, city, cities);
+            result = intersect(result, state, states);
+            result = intersect(result, country, countries);
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private static Set<Long> intersect(Set<Long> current, String fragment, TrigramIndex index) {
+        if (fragment == null || (current != null && current.isEmpty())) {
+            return current;
+        }
+        Set<Long> ids = index.findContaining(fragment);
+        if (current == null) {
+            return ids;
+        }
+        current.retainAll(ids);
+        return current;
+    }
+
+    private void put(Long id, String city, String state, String country) {
+        cities.add(city, id);
+        states.add(state, id);
+        countries.add(country, id);
+        indexedValues.put(id, new String[]{city, state, country});
+    }
+
+    private void removeIndexed(Long id) {
+        String[] previous = indexedValues.remove(id);
+        if (previous != null) {
+            cities.remove(previous[0], id);
+            states.remove(previous[1], id);
+            countries.remove(previous[2], id);
+        }
+    }
+}
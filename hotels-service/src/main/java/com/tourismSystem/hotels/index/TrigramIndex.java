@@ -0,0 +1,112 @@
+package com.tourismSystem.hotels.index;
+
+
+import com.tourismSystem.shared.text.TextNormalizer;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Substring index over one text column. Trigrams point to the distinct folded values that
+ * contain them and every value points to the ids of its rows, so a "%fragment%" lookup only
+ * touches the values sharing the fragment's trigrams. Not thread-safe; see {@link HotelTextIndex}.
+ */
+public class TrigramIndex {
+
+    private static final int GRAM = 3;
+
+    private final Map<String, Set<Long>> idsByValue = new HashMap<>();
+    private final Map<String, Set<String>> valuesByTrigram = new HashMap<>();
+
+    public void add(String value, Long id) {
+        String folded = TextNormalizer.fold(value);
+        if (folded == null) {
+            return;
+        }
+        Set<Long> ids = idsByValue.get(folded);
+        if (ids == null) {
+            ids = new HashSet<>();
+            idsByValue.put(folded, ids);
+            for (String trigram : trigrams(folded)) {
+                valuesByTrigram.computeIfAbsent(trigram, key -> new HashSet<>()).add(folded);
+            }
+        }
+        ids.add(id);
+    }
+
+    public void remove(String value, Long id) {
+        String folded = TextNormalizer.fold(value);
+        if (folded == null) {
+            return;
+        }
+        Set<Long> ids = idsByValue.get(folded);
+        if (ids == null || !ids.remove(id) || !ids.isEmpty()) {
+            return;
+        }
+        idsByValue.remove(folded);
+        for (String trigram : trigrams(folded)) {
+            Set<String> values = valuesByTrigram.get(trigram);
+            if (values != null) {
+                values.remove(folded);
+                if (values.isEmpty()) {
+                    valuesByTrigram.remove(trigram);
+                }
+            }
+        }
+    }
+
+    public void clear() {
+        idsByValue.clear();
+        valuesByTrigram.clear();
+    }
+
+    /**
+     * Ids of the rows whose value contains the fragment, ignoring case and accents.
+     */
+    public Set<Long> findContaining(String fragment) {
+        String folded = TextNormalizer.fold(fragment);
+        Set<Long> result = new HashSet<>();
+        for (String value : matchingValues(folded)) {
+            result.addAll(idsByValue.get(value));
+        }
+        return result;
+    }
+
+    private Iterable<String> matchingValues(String folded) {
+        // Fragments shorter than a trigram can only be checked against the distinct values
+        if (folded.length() < GRAM) {
+            return idsByValue.keySet().stream().filter(value -> value.contains(folded)).toList();
+        }
+
+        // Every trigram must be present; the shortest posting list is enough to verify against
+        Set<String> candidates = null;
+        for (String trigram : trigrams(folded)) {
+            Set<String> values = valuesByTrigram.get(trigram);
+            if (values == null) {
+                return List.of();
+            }
+            if (candidates == null || values.size() < candidates.size()) {
+                candidates = values;
+            }
+        }
+
+        List<String> matches = new ArrayList<>();
+        for (String value : candidates) {
+            if (value.contains(folded)) {
+                matches.add(value);
+            }
+        }
+        return matches;
+    }
+
+    private static Set<String> trigrams(String folded) {
+        Set<String> trigrams = new HashSet<>();
+        for (int i = 0; i + GRAM <= folded.length(); i++) {
+            trigrams.add(folded.substring(i, i + GRAM));
+        }
+        return trigrams;
+    }
+}
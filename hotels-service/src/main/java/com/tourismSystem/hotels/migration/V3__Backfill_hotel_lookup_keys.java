@@ -0,0 +1,46 @@
+package com.tourismSystem.hotels.migration;
+
+import com.tourismSystem.shared.text.TextNormalizer;
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Fills the *_key columns added in V2 for rows that existed before them. Written in Java because
+ * the folding (accent stripping) has to match {@link TextNormalizer} exactly.
+ */
+@Component
+public class V3__Backfill_hotel_lookup_keys extends BaseJavaMigration {
+
+    private static final int BATCH_SIZE = 1000;
+
+    private static final String UPDATE_KEYS = "UPDATE hotel SET name_key = ?, address_key = ?, " +
+            "city_key = ?, state_key = ?, country_key = ? WHERE id = ?";
+
+    @Override
+    public void migrate(Context context) {
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(new SingleConnectionDataSource(context.getConnection(), true));
+        long lastId = 0;
+        List<Object[]> rows;
+        do {
+            rows = jdbcTemplate.query(
+                    "SELECT id, name, address, city, state, country FROM hotel WHERE id > ? ORDER BY id LIMIT " + BATCH_SIZE,
+                    (rs, rowNum) -> new Object[]{
+                            TextNormalizer.fold(rs.getString(2)),
+                            TextNormalizer.fold(rs.getString(3)),
+                            TextNormalizer.fold(rs.getString(4)),
+                            TextNormalizer.fold(rs.getString(5)),
+                            TextNormalizer.fold(rs.getString(6)),
+                            rs.getLong(1)},
+                    lastId);
+            if (!rows.isEmpty()) {
+                jdbcTemplate.batchUpdate(UPDATE_KEYS, rows);
+                lastId = (Long) rows.get(rows.size() - 1)[5];
+            }
+        } while (rows.size() == BATCH_SIZE);
+    }
+}
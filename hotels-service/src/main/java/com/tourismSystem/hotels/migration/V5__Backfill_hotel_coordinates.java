@@ -0,0 +1,48 @@
+package com.tourismSystem.hotels.migration;
+
+import com.tourismSystem.shared.geocoding.CityGeocoder;
+import com.tourismSystem.shared.text.TextNormalizer;
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Gives the hotels that existed before V4 the position of their city. Hotels whose city is not
+ * in the geocoding file keep a null position and are left out of /hotels/near.
+ */
+@Component
+public class V5__Backfill_hotel_coordinates extends BaseJavaMigration {
+
+    private static final String UPDATE_POSITION = "UPDATE hotel SET latitude = ?, longitude = ? " +
+            "WHERE city_key = ? AND state_key = ? AND country_key = ? AND latitude IS NULL";
+
+    private final CityGeocoder cityGeocoder;
+
+    public V5__Backfill_hotel_coordinates(CityGeocoder cityGeocoder) {
+        this.cityGeocoder = cityGeocoder;
+    }
+
+    @Override
+    public void migrate(Context context) {
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(new SingleConnectionDataSource(context.getConnection(), true));
+        List<Object[]> updates = new ArrayList<>();
+        jdbcTemplate.query("SELECT DISTINCT city, state, country FROM hotel WHERE latitude IS NULL", rs -> {
+            String city = rs.getString(1);
+            String state = rs.getString(2);
+            String country = rs.getString(3);
+            double[] position = cityGeocoder.locate(city, state, country);
+            if (position != null) {
+                updates.add(new Object[]{position[0], position[1],
+                        TextNormalizer.fold(city), TextNormalizer.fold(state), TextNormalizer.fold(country)});
+            }
+        });
+        if (!updates.isEmpty()) {
+            jdbcTemplate.batchUpdate(UPDATE_POSITION, updates);
+        }
+    }
+}
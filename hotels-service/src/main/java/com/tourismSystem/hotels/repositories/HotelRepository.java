@@ -1,25 +1,102 @@
 package com.tourismSystem.hotels.repositories;
 
+import com.tourismSystem.hotels.dto.HotelDTO;
 import com.tourismSystem.hotels.entities.Hotel;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
+/**
+ * Read paths select straight into {@link HotelDTO} (constructor projection), so no managed
+ * entities are hydrated, tracked in the persistence context or dirty-checked at flush.
+ */
 public interface HotelRepository extends JpaRepository<Hotel,Long> {
 
-    Optional<Hotel> findHotelByNameIgnoreCase(String name);
-    Optional<Hotel> findHotelByAddressIgnoreCase(String address);
-    Optional<List<Hotel>> findHotelsByCityIgnoreCase(String city);
-    Optional<List<Hotel>> findHotelsByStateIgnoreCase(String state);
-    Optional<List<Hotel>> findHotelsByCountryIgnoreCase(String country);
-    Optional<List<Hotel>> findHotelsByStars(Integer stars);
-
-    @Query("SELECT h FROM Hotel h WHERE " +
-            "(:city IS NULL OR LOWER(h.city) LIKE LOWER(CONCAT('%', :city, '%'))) AND " +
-            "(:state IS NULL OR LOWER(h.state) LIKE LOWER(CONCAT('%', :state, '%'))) AND " +
-            "(:country IS NULL OR LOWER(h.country) LIKE LOWER(CONCAT('%', :country, '%'))) AND " +
-            "(:stars IS NULL OR h.stars = :stars)")
-    Optional<List<Hotel>> findByFilters(String city, String state, String country, Integer stars);
+    int EXPORT_FETCH_SIZE = 1000;
+
+    String SELECT_DTO = "SELECT new com.tourismSystem.hotels.dto.HotelDTO(" +
+            "h.id, h.name, h.address, h.stars, h.city, h.state, h.country, h.latitude, h.longitude, h.version) FROM Hotel h ";
+
+    // Null names sort first (MySQL and H2 alike): after one come the rest of them by id, then every named hotel
+    String AFTER_CURSOR = "(:lastId IS NULL" +
+            " OR (:lastName IS NULL AND (h.name IS NOT NULL OR h.id > :lastId))" +
+            " OR h.name > :lastName OR (h.name = :lastName AND h.id > :lastId))";
+
+    @Query(SELECT_DTO + "WHERE h.id = :id")
+    Optional<HotelDTO> findDtoById(Long id);
+
+    // Primary-key probe for conditional GETs; reads only the version
+    @Query("SELECT h.version FROM Hotel h WHERE h.id = :id")
+    Optional<Long> findVersionById(Long id);
+
+    /* Case-insensitive lookups compare the *_key columns against a value folded with
+     * TextNormalizer, so they stay index seeks instead of scanning UPPER(column). */
+
+    @Query(SELECT_DTO + "WHERE h.nameKey = :nameKey")
+    Optional<HotelDTO> findDtoByNameKey(String nameKey);
+
+    @Query(SELECT_DTO + "WHERE h.addressKey = :addressKey")
+    Optional<HotelDTO> findDtoByAddressKey(String addressKey);
+
+    @Query(SELECT_DTO + "WHERE h.id IN :ids AND (:stars IS NULL OR h.stars = :stars) ORDER BY h.id")
+    List<HotelDTO> findByIdsAndStars(Collection<Long> ids, Integer stars);
+
+    // Hotels of many cities at once, grouped by city and in name order within each (idx_hotel_city_key_name)
+    @Query(SELECT_DTO + "WHERE h.cityKey IN :cityKeys ORDER BY h.cityKey, h.name, h.id")
+    List<HotelDTO> findByCityKeys(Collection<String> cityKeys);
+
+    // Forward-only cursor over the whole catalog; must be consumed inside a read-only transaction
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "" + EXPORT_FETCH_SIZE),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "false")
+    })
+    @Query(SELECT_DTO + "ORDER BY h.id")
+    Stream<HotelDTO> streamAll();
+
+    // Pages of the change feed snapshot, in id order
+    @Query(SELECT_DTO + "WHERE h.id > :lastId ORDER BY h.id")
+    List<HotelDTO> findPageAfterId(long lastId, Limit limit);
+
+    /* =================== KEYSET PAGES ===================
+     * Ordered by (name, id); a null lastId means the first page. */
+
+    @Query(SELECT_DTO + "WHERE h.cityKey = :cityKey AND " + AFTER_CURSOR + " ORDER BY h.name, h.id")
+    List<HotelDTO> findPageByCityKey(String cityKey, String lastName, Long lastId, Limit limit);
+
+    @Query(SELECT_DTO + "WHERE h.stateKey = :stateKey AND " + AFTER_CURSOR + " ORDER BY h.name, h.id")
+    List<HotelDTO> findPageByStateKey(String stateKey, String lastName, Long lastId, Limit limit);
+
+    @Query(SELECT_DTO + "WHERE h.countryKey = :countryKey AND " + AFTER_CURSOR + " ORDER BY h.name, h.id")
+    List<HotelDTO> findPageByCountryKey(String countryKey, String lastName, Long lastId, Limit limit);
+
+    @Query(SELECT_DTO + "WHERE h.stars = :stars AND " + AFTER_CURSOR + " ORDER BY h.name, h.id")
+    List<HotelDTO> findPageByStars(Integer stars, String lastName, Long lastId, Limit limit);
+
+    // /hotels/filters without the trigram index (not built yet, or stars only); takes folded
+    // fragments and is ordered by id
+    @Query(SELECT_DTO + "WHERE " +
+            "(:cityKey IS NULL OR h.cityKey LIKE CONCAT('%', :cityKey, '%')) AND " +
+            "(:stateKey IS NULL OR h.stateKey LIKE CONCAT('%', :stateKey, '%')) AND " +
+            "(:countryKey IS NULL OR h.countryKey LIKE CONCAT('%', :countryKey, '%')) AND " +
+            "(:stars IS NULL OR h.stars = :stars) AND " +
+            "(:lastId IS NULL OR h.id > :lastId) ORDER BY h.id")
+    List<HotelDTO> findPageByFilterKeys(String cityKey, String stateKey, String countryKey, Integer stars, Long lastId, Limit limit);
+
+    // Exact /hotels/filters without the facet bitmaps (not built yet); takes folded values
+    @Query(SELECT_DTO + "WHERE " +
+            "(:cityKey IS NULL OR h.cityKey = :cityKey) AND " +
+            "(:stateKey IS NULL OR h.stateKey = :stateKey) AND " +
+            "(:countryKey IS NULL OR h.countryKey = :countryKey) AND " +
+            "(:stars IS NULL OR h.stars = :stars) AND " +
+            "(:lastId IS NULL OR h.id > :lastId) ORDER BY h.id")
+    List<HotelDTO> findPageByExactKeys(String cityKey, String stateKey, String countryKey, Integer stars, Long lastId, Limit limit);
 }
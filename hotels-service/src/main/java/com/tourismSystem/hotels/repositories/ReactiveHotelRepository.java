@@ -0,0 +1,53 @@
+package com.tourismSystem.hotels.repositories;
+
+import com.tourismSystem.hotels.dto.HotelDTO;
+import com.tourismSystem.hotels.entities.Hotel;
+import org.springframework.data.r2dbc.repository.Query;
+import org.springframework.data.r2dbc.repository.R2dbcRepository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * R2DBC counterparts of the {@link HotelRepository} finders, used by the reactive read stack
+ * (profile reactive). Rows map by column name straight onto {@link HotelDTO}, and a Flux is only
+ * fetched as fast as its subscriber requests rows.
+ */
+public interface ReactiveHotelRepository extends R2dbcRepository<Hotel, Long> {
+
+    String SELECT_DTO = "SELECT id, name, address, stars, city, state, country, latitude, longitude, version FROM hotel ";
+
+    // Null names sort first in MySQL: after one come the rest of them by id, then every named hotel
+    String AFTER_CURSOR = "(:lastId IS NULL" +
+            " OR (:lastName IS NULL AND (name IS NOT NULL OR id > :lastId))" +
+            " OR name > :lastName OR (name = :lastName AND id > :lastId))";
+
+    @Query(SELECT_DTO + "WHERE id = :id")
+    Mono<HotelDTO> findDtoById(Long id);
+
+    @Query("SELECT version FROM hotel WHERE id = :id")
+    Mono<Long> findVersionById(Long id);
+
+    @Query(SELECT_DTO + "WHERE name_key = :nameKey")
+    Mono<HotelDTO> findDtoByNameKey(String nameKey);
+
+    @Query(SELECT_DTO + "WHERE address_key = :addressKey")
+    Mono<HotelDTO> findDtoByAddressKey(String addressKey);
+
+    @Query(SELECT_DTO + "ORDER BY id")
+    Flux<HotelDTO> streamAll();
+
+    /* =================== KEYSET PAGES ===================
+     * Ordered by (name, id); a null lastId means the first page. */
+
+    @Query(SELECT_DTO + "WHERE city_key = :cityKey AND " + AFTER_CURSOR + " ORDER BY name, id LIMIT :limit")
+    Flux<HotelDTO> findPageByCityKey(String cityKey, String lastName, Long lastId, int limit);
+
+    @Query(SELECT_DTO + "WHERE state_key = :stateKey AND " + AFTER_CURSOR + " ORDER BY name, id LIMIT :limit")
+    Flux<HotelDTO> findPageByStateKey(String stateKey, String lastName, Long lastId, int limit);
+
+    @Query(SELECT_DTO + "WHERE country_key = :countryKey AND " + AFTER_CURSOR + " ORDER BY name, id LIMIT :limit")
+    Flux<HotelDTO> findPageByCountryKey(String countryKey, String lastName, Long lastId, int limit);
+
+    @Query(SELECT_DTO + "WHERE stars = :stars AND " + AFTER_CURSOR + " ORDER BY name, id LIMIT :limit")
+    Flux<HotelDTO> findPageByStars(Integer stars, String lastName, Long lastId, int limit);
+}
@@ -0,0 +1,37 @@
+package com.tourismSystem.hotels.service;
+
+import com.tourismSystem.hotels.exceptions.BadRequest;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Keyset position of the last hotel of a page: its sort key (the name) and its id as tie-breaker.
+ * Clients only see the opaque Base64 token; a hotel without name is encoded without the separator,
+ * so it stays apart from one named "".
+ */
+record HotelCursor(String name, Long id) {
+
+    private static final char SEPARATOR = ':';
+
+    String encode() {
+        String raw = name == null ? String.valueOf(id) : id + String.valueOf(SEPARATOR) + name;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    static HotelCursor decode(String token) {
+        if (token == null || token.isBlank()) {
+            return null;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separator = raw.indexOf(SEPARATOR);
+            if (separator < 0) {
+                return new HotelCursor(null, Long.parseLong(raw));
+            }
+            return new HotelCursor(raw.substring(separator + 1), Long.parseLong(raw.substring(0, separator)));
+        } catch (IllegalArgumentException | IndexOutOfBoundsException ex) {
+            throw new BadRequest("Invalid pagination cursor: " + token);
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package com.tourismSystem.hotels.service;
+
+import com.tourismSystem.hotels.dto.HotelDTO;
+import com.tourismSystem.hotels.dto.HotelEventDTO;
+import com.tourismSystem.hotels.dto.HotelEventPageDTO;
+import com.tourismSystem.hotels.events.HotelOutbox;
+import com.tourismSystem.hotels.exceptions.BadRequest;
+import com.tourismSystem.hotels.repositories.HotelRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+/**
+ * Change feed read by the hotel replicas of other services: a snapshot to start from, read in pages
+ * of hotels by id that all carry the position taken for the first one, then the outbox events after
+ * that position.
+ */
+@Service
+public class HotelEventService implements IHotelEventService {
+
+    private final HotelOutbox outbox;
+    private final HotelRepository hotelRepository;
+    private final int defaultLimit;
+    private final int maxLimit;
+
+    public HotelEventService(HotelOutbox outbox,
+                             HotelRepository hotelRepository,
+                             @Value("${hotels.outbox.default-limit:500}") int defaultLimit,
+                             @Value("${hotels.outbox.max-limit:5000}") int maxLimit) {
+        this.outbox = outbox;
+        this.hotelRepository = hotelRepository;
+        this.defaultLimit = defaultLimit;
+        this.maxLimit = maxLimit;
+    }
+
+    @Override
+    public HotelEventPageDTO findEventsAfter(long after, Integer limit) {
+        if (after < 0) {
+            throw new BadRequest("after cannot be negative");
+        }
+        int size = limit(limit);
+        long head = outbox.head();
+        boolean resync = purged(after, head);
+        List<HotelEventDTO> events = resync ? List.of() : outbox.readAfter(after, size);
+        return new HotelEventPageDTO(events, head, resync);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public HotelEventPageDTO findSnapshot(Long position, long afterId, Integer limit) {
+        if ((position != null && position < 0) || afterId < 0) {
+            throw new BadRequest("position and afterId cannot be negative");
+        }
+        int size = limit(limit);
+        // Taken before the first page is read: changes racing the scan are also in the feed after it, and
+        // replicas skip stale versions. Only the visible head: past it a transaction still open may own a
+        // lower position than a committed one
+        long from = position == null ? outbox.visibleHead() : position;
+        if (position != null) {
+            long head = outbox.head();
+            if (purged(position, head)) {
+                return new HotelEventPageDTO(List.of(), head, true);
+            }
+        }
+        List<HotelDTO> hotels = hotelRepository.findPageAfterId(afterId, Limit.of(size + 1));
+        Long next = null;
+        if (hotels.size() > size) {
+            hotels = hotels.subList(0, size);
+            next = hotels.get(size - 1).getId();
+        }
+        long now = outbox.now();
+        List<HotelEventDTO> events = hotels.stream()
+                .map(hotel -> new HotelEventDTO(from, HotelEventDTO.Type.SAVED, hotel.getId(), hotel.getVersion(), now, hotel))
+                .toList();
+        return new HotelEventPageDTO(events, from, false, next);
+    }
+
+    private int limit(Integer limit) {
+        if (limit != null && (limit < 1 || limit > maxLimit)) {
+            throw new BadRequest("limit must be between 1 and " + maxLimit);
+        }
+        return limit == null ? defaultLimit : limit;
+    }
+
+    // Past the head: the outbox was reset (in-memory store restarted). Before the oldest event: purged
+    private boolean purged(long position, long head) {
+        long oldest = outbox.oldest();
+        return position > head || (oldest > 0 && position < oldest - 1);
+    }
+}
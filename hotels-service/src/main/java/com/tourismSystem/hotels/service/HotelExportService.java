@@ -0,0 +1,67 @@
+package com.tourismSystem.hotels.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.tourismSystem.hotels.dto.HotelDTO;
+import com.tourismSystem.hotels.repositories.HotelRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * NDJSON export of the whole catalog. Rows come from a forward-only JDBC cursor as DTO
+ * projections, so nothing accumulates in the persistence context and memory stays flat
+ * whatever the size of the table.
+ */
+@Service
+public class HotelExportService implements IHotelExportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(HotelExportService.class);
+
+    private final HotelRepository hotelRepository;
+    private final ObjectWriter hotelWriter;
+    private final ObjectMapper objectMapper;
+
+    public HotelExportService(HotelRepository hotelRepository, ObjectMapper objectMapper) {
+        this.hotelRepository = hotelRepository;
+        this.objectMapper = objectMapper;
+        this.hotelWriter = objectMapper.writerFor(HotelDTO.class)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public long exportHotels(OutputStream out) throws IOException {
+        long start = System.nanoTime();
+        long written = 0;
+
+        try (Stream<HotelDTO> hotels = hotelRepository.streamAll();
+             JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+            // The servlet owns the response stream, and lines are separated by hand
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            generator.setRootValueSeparator(null);
+
+            Iterator<HotelDTO> iterator = hotels.iterator();
+            while (iterator.hasNext()) {
+                hotelWriter.writeValue(generator, iterator.next());
+                generator.writeRaw('\n');
+
+                if (++written % HotelRepository.EXPORT_FETCH_SIZE == 0) {
+                    generator.flush();
+                }
+            }
+            generator.flush();
+        }
+
+        logger.info("Exported {} hotels in {} ms", written, (System.nanoTime() - start) / 1_000_000);
+        return written;
+    }
+}
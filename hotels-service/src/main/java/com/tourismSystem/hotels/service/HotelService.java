@@ -1,25 +1,77 @@
 package com.tourismSystem.hotels.service;
 
+import com.tourismSystem.hotels.cache.HotelCache;
+import com.tourismSystem.hotels.dto.HotelBatchDTO;
 import com.tourismSystem.hotels.dto.HotelDTO;
-import com.tourismSystem.hotels.entities.Hotel;
+import com.tourismSystem.hotels.dto.HotelFacetsDTO;
+import com.tourismSystem.hotels.dto.HotelPageDTO;
+import com.tourismSystem.hotels.dto.NearbyHotelDTO;
+import com.tourismSystem.hotels.dto.ScoredHotelDTO;
 import com.tourismSystem.hotels.exceptions.BadRequest;
 import com.tourismSystem.hotels.exceptions.InformationNotAvailable;
 import com.tourismSystem.hotels.exceptions.ResourceNotFound;
+import com.tourismSystem.hotels.index.GeoPointIndex;
+import com.tourismSystem.hotels.index.HotelFacetIndex;
+import com.tourismSystem.hotels.index.HotelGeoIndex;
+import com.tourismSystem.hotels.index.HotelSearchIndex;
+import com.tourismSystem.hotels.index.HotelTextIndex;
 import com.tourismSystem.hotels.repositories.HotelRepository;
+import com.tourismSystem.shared.text.TextNormalizer;
 import jakarta.ws.rs.BadRequestException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
-import java.util.stream.Collectors;
+import java.util.Set;
 
 @Service
+@Transactional(readOnly = true)
 public class HotelService implements IHotelService {
 
-    final private HotelRepository hotelRepository;
+    // Keeps IN lists well below driver and optimizer limits
+    private static final int IN_CLAUSE_CHUNK = 1000;
 
-    public HotelService(HotelRepository hotelRepository) {
+    final private HotelRepository hotelRepository;
+    final private HotelTextIndex hotelTextIndex;
+    final private HotelGeoIndex hotelGeoIndex;
+    final private HotelSearchIndex hotelSearchIndex;
+    final private HotelFacetIndex hotelFacetIndex;
+    final private HotelCache hotelCache;
+    final private int defaultLimit;
+    final private int maxLimit;
+    final private int batchMaxIds;
+    final private int batchMaxCities;
+
+    public HotelService(HotelRepository hotelRepository,
+                        HotelTextIndex hotelTextIndex,
+                        HotelGeoIndex hotelGeoIndex,
+                        HotelSearchIndex hotelSearchIndex,
+                        HotelFacetIndex hotelFacetIndex,
+                        HotelCache hotelCache,
+                        @Value("${hotels.pagination.default-limit:100}") int defaultLimit,
+                        @Value("${hotels.pagination.max-limit:1000}") int maxLimit,
+                        @Value("${hotels.batch.max-ids:500}") int batchMaxIds,
+                        @Value("${hotels.batch.max-cities:1000}") int batchMaxCities) {
         this.hotelRepository = hotelRepository;
+        this.hotelTextIndex = hotelTextIndex;
+        this.hotelGeoIndex = hotelGeoIndex;
+        this.hotelSearchIndex = hotelSearchIndex;
+        this.hotelFacetIndex = hotelFacetIndex;
+        this.hotelCache = hotelCache;
+        this.defaultLimit = defaultLimit;
+        this.maxLimit = maxLimit;
+        this.batchMaxIds = batchMaxIds;
+        this.batchMaxCities = batchMaxCities;
     }
 
 
@@ -36,83 +88,139 @@ public class HotelService implements IHotelService {
 
     @Override
     public HotelDTO findHotelById(Long id) {
-        Hotel hotel = hotelRepository.findById(id)
+        return hotelCache.getById(id, () -> hotelRepository.findDtoById(id)
+                .orElseThrow(() -> new ResourceNotFound("Hotel not found with id" + id)));
+    }
+
+    @Override
+    public Long findHotelVersion(Long id) {
+        HotelDTO cached = hotelCache.peek(id);
+        if (cached != null) {
+            return cached.getVersion();
+        }
+        return hotelRepository.findVersionById(id)
                 .orElseThrow(() -> new ResourceNotFound("Hotel not found with id" + id));
-        return new HotelDTO(hotel);
     }
 
     @Override
     public HotelDTO findHotelByName(String name) {
-        Hotel hotel = hotelRepository.findHotelByNameIgnoreCase(name)
-                .orElseThrow(() -> new ResourceNotFound("Hotel not found with that name" + name));
-        return new HotelDTO(hotel);
+        return hotelCache.getByName(name, () -> hotelRepository.findDtoByNameKey(TextNormalizer.fold(name))
+                .orElseThrow(() -> new ResourceNotFound("Hotel not found with that name" + name)));
     }
 
     @Override
     public HotelDTO findHotelByAddress(String address) {
-        Hotel hotel = hotelRepository.findHotelByAddressIgnoreCase(address)
-                .orElseThrow(() -> new ResourceNotFound("Hotel not found with that address " + address));
-        return new HotelDTO(hotel);
+        return hotelCache.getByAddress(address, () -> hotelRepository.findDtoByAddressKey(TextNormalizer.fold(address))
+                .orElseThrow(() -> new ResourceNotFound("Hotel not found with that address " + address)));
+    }
+
+    @Override
+    public HotelBatchDTO findHotelsByIds(List<Long> ids) {
+        if (ids == null || ids.isEmpty()) {
+            throw new BadRequest("At least one hotel id is required");
+        }
+        if (ids.size() > batchMaxIds) {
+            throw new BadRequest("At most " + batchMaxIds + " hotel ids can be requested at once");
+        }
+        if (ids.contains(null)) {
+            throw new BadRequest("Hotel ids must not be null");
+        }
+
+        Set<Long> distinctIds = new LinkedHashSet<>(ids);
+        Map<Long, HotelDTO> hotelsById = findByIds(distinctIds);
+
+        List<HotelDTO> hotels = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            hotels.add(hotelsById.get(id));
+        }
+        List<Long> missing = distinctIds.stream()
+                .filter(id -> !hotelsById.containsKey(id))
+                .toList();
+        return new HotelBatchDTO(hotels, missing);
+    }
+
+    @Override
+    public Map<String, List<HotelDTO>> findHotelsByCities(List<String> cities) {
+        if (cities == null || cities.isEmpty()) {
+            throw new BadRequest("At least one city is required");
+        }
+        if (cities.size() > batchMaxCities) {
+            throw new BadRequest("At most " + batchMaxCities + " cities can be requested at once");
+        }
+        if (cities.stream().anyMatch(Objects::isNull)) {
+            throw new BadRequest("City names must not be null");
+        }
+
+        List<String> cityKeys = cities.stream().map(TextNormalizer::fold).distinct().toList();
+        Map<String, List<HotelDTO>> hotelsByKey = new HashMap<>(cityKeys.size() * 2);
+        for (int from = 0; from < cityKeys.size(); from += IN_CLAUSE_CHUNK) {
+            List<String> chunk = cityKeys.subList(from, Math.min(from + IN_CLAUSE_CHUNK, cityKeys.size()));
+            for (HotelDTO hotel : hotelRepository.findByCityKeys(chunk)) {
+                hotelsByKey.computeIfAbsent(TextNormalizer.fold(hotel.getCity()), key -> new ArrayList<>()).add(hotel);
+            }
+        }
+
+        Map<String, List<HotelDTO>> hotelsByCity = new LinkedHashMap<>(cities.size() * 2);
+        for (String city : cities) {
+            hotelsByCity.put(city, hotelsByKey.getOrDefault(TextNormalizer.fold(city), List.of()));
+        }
+        return hotelsByCity;
     }
 
     @Override
-    public List<HotelDTO> findHotelsByCity(String city) {
-        List<Hotel> hotels = hotelRepository.findHotelsByCityIgnoreCase(city)
-                .orElse(null);
+    public HotelPageDTO findHotelsByCity(String city, String next, Integer limit) {
+        HotelCursor cursor = HotelCursor.decode(next);
+        int pageSize = pageSize(limit);
+        List<HotelDTO> hotels = hotelRepository.findPageByCityKey(TextNormalizer.fold(city), lastName(cursor), lastId(cursor), Limit.of(pageSize + 1));
 
-        if (hotels == null || hotels.isEmpty()) {
+        if (cursor == null && hotels.isEmpty()) {
             throw new ResourceNotFound("Hotel not found with that city " + city);
         }
 
-        return hotels.stream()
-                .map(HotelDTO::new)
-                .collect(Collectors.toList());
+        return toPage(hotels, pageSize);
     }
 
     @Override
-    public List<HotelDTO> findHotelsByState(String state) {
-        List<Hotel> hotels = hotelRepository.findHotelsByStateIgnoreCase(state)
-                .orElse(null);
+    public HotelPageDTO findHotelsByState(String state, String next, Integer limit) {
+        HotelCursor cursor = HotelCursor.decode(next);
+        int pageSize = pageSize(limit);
+        List<HotelDTO> hotels = hotelRepository.findPageByStateKey(TextNormalizer.fold(state), lastName(cursor), lastId(cursor), Limit.of(pageSize + 1));
 
-        if (hotels == null || hotels.isEmpty()) {
+        if (cursor == null && hotels.isEmpty()) {
             throw new ResourceNotFound("Hotel not found in that State: " + state);
         }
 
-        return hotels.stream()
-                .map(HotelDTO::new)
-                .collect(Collectors.toList());
+        return toPage(hotels, pageSize);
     }
 
     @Override
-    public List<HotelDTO> findHotelsByCountry(String country) {
-        List<Hotel> hotels = hotelRepository.findHotelsByCountryIgnoreCase(country)
-                .orElse(null);
+    public HotelPageDTO findHotelsByCountry(String country, String next, Integer limit) {
+        HotelCursor cursor = HotelCursor.decode(next);
+        int pageSize = pageSize(limit);
+        List<HotelDTO> hotels = hotelRepository.findPageByCountryKey(TextNormalizer.fold(country), lastName(cursor), lastId(cursor), Limit.of(pageSize + 1));
 
-        if (hotels == null || hotels.isEmpty()) {
+        if (cursor == null && hotels.isEmpty()) {
             throw new ResourceNotFound("Hotel not found in that country  " + country);
         }
 
-        return hotels.stream()
-                .map(HotelDTO::new)
-                .collect(Collectors.toList());
+        return toPage(hotels, pageSize);
     }
 
     @Override
-    public List<HotelDTO> findHotelsByStars(Integer stars) {
+    public HotelPageDTO findHotelsByStars(Integer stars, String next, Integer limit) {
         if (errorStars(stars)) {
             throw new BadRequest("Stars cannot be lower than 1 or greater tha 5");
         }
         String starsIcon = "★".repeat(stars);
-        List<Hotel> hotels = hotelRepository.findHotelsByStars(stars)
-                .orElse(null);
+        HotelCursor cursor = HotelCursor.decode(next);
+        int pageSize = pageSize(limit);
+        List<HotelDTO> hotels = hotelRepository.findPageByStars(stars, lastName(cursor), lastId(cursor), Limit.of(pageSize + 1));
 
-        if (hotels == null || hotels.isEmpty()) {
+        if (cursor == null && hotels.isEmpty()) {
             throw new ResourceNotFound("Hotel not found with " + starsIcon);
         }
 
-        return hotels.stream()
-                .map(HotelDTO::new)
-                .collect(Collectors.toList());
+        return toPage(hotels, pageSize);
     }
 
     public boolean errorStars(Integer numbStars) {
@@ -120,27 +228,175 @@ public class HotelService implements IHotelService {
     }
 
     @Override
-    public List<HotelDTO> findHotelByFilters(String city, String state, String country, Integer stars) {
+    public HotelPageDTO findHotelByFilters(String city, String state, String country, Integer stars, boolean exact,
+                                           String next, Integer limit) {
         // Input validation
-        if (errorStars(stars)) {
+        if (stars != null && errorStars(stars)) {
             throw new BadRequest("Stars cannot be lower than 1 or greater tha 5");
         }
         if (areAllParametersNull(city, state, country, stars)) {
             throw new BadRequest("At least one filter must be provided");
         }
+        HotelCursor cursor = HotelCursor.decode(next);
+        int pageSize = pageSize(limit);
+
+        // Filter results are ordered by id, so only the id part of the cursor is used
+        List<HotelDTO> hotels;
+        if (exact || (city == null && state == null && country == null)) {
+            // Exact filters (stars always is) are bitmap intersections; the database only fetches the page
+            hotels = hotelFacetIndex.isReady()
+                    ? findSortedByIds(hotelFacetIndex.findPage(city, state, country, stars, lastId(cursor), pageSize + 1))
+                    : hotelRepository.findPageByExactKeys(TextNormalizer.fold(city), TextNormalizer.fold(state),
+                            TextNormalizer.fold(country), stars, lastId(cursor), Limit.of(pageSize + 1));
+        } else {
+            // Substring filters are resolved by the trigram index; the database only fetches the candidates
+            Set<Long> candidateIds = hotelTextIndex.isReady()
+                    ? hotelTextIndex.findCandidates(city, state, country)
+                    : null;
+            hotels = candidateIds == null
+                    ? hotelRepository.findPageByFilterKeys(TextNormalizer.fold(city), TextNormalizer.fold(state),
+                            TextNormalizer.fold(country), stars, lastId(cursor), Limit.of(pageSize + 1))
+                    : findPageByIds(candidateIds, stars, lastId(cursor), pageSize + 1);
+        }
 
-        List<Hotel> hotels = hotelRepository.findByFilters(city, state, country, stars)
-                .orElse(null);
+        if (cursor == null && hotels.isEmpty()) {
+            throw new ResourceNotFound("No Hotel Found.");
+        }
 
-        if (hotels == null || hotels.isEmpty()) {
+        return toPage(hotels, pageSize);
+    }
+
+    @Override
+    public HotelFacetsDTO findHotelFacets(String city, String state, String country, Integer stars) {
+        if (stars != null && errorStars(stars)) {
+            throw new BadRequest("Stars cannot be lower than 1 or greater tha 5");
+        }
+        if (!hotelFacetIndex.isReady()) {
+            throw new InformationNotAvailable("The hotel facet index is still being built");
+        }
+        return hotelFacetIndex.facets(city, state, country, stars);
+    }
+
+    @Override
+    public List<NearbyHotelDTO> findHotelsNear(Double latitude, Double longitude, Double radiusKm, Integer limit) {
+        if (latitude == null || longitude == null) {
+            throw new BadRequest("lat and lon are required");
+        }
+        if (latitude < -90 || latitude > 90 || longitude < -180 || longitude > 180) {
+            throw new BadRequest("lat must be between -90 and 90 and lon between -180 and 180");
+        }
+        if (radiusKm != null && !(radiusKm > 0)) {
+            throw new BadRequest("radiusKm must be greater than 0");
+        }
+        int size = pageSize(limit);
+        if (!hotelGeoIndex.isReady()) {
+            throw new InformationNotAvailable("The hotel geo index is still being built");
+        }
+
+        // The index resolves the nearest ids; the database only fetches those rows
+        List<GeoPointIndex.Neighbor> neighbors = hotelGeoIndex.nearest(latitude, longitude, radiusKm, size);
+        if (neighbors.isEmpty()) {
+            throw new ResourceNotFound("No Hotel Found.");
+        }
+        Map<Long, HotelDTO> hotelsById = findByIds(neighbors.stream().map(GeoPointIndex.Neighbor::id).toList());
+
+        List<NearbyHotelDTO> nearby = new ArrayList<>(neighbors.size());
+        for (GeoPointIndex.Neighbor neighbor : neighbors) {
+            HotelDTO hotel = hotelsById.get(neighbor.id());
+            if (hotel != null) {
+                nearby.add(new NearbyHotelDTO(hotel, neighbor.distanceKm()));
+            }
+        }
+        return nearby;
+    }
+
+    @Override
+    public List<ScoredHotelDTO> searchHotels(String query, Integer limit) {
+        if (query == null || query.isBlank()) {
+            throw new BadRequest("q must not be blank");
+        }
+        int size = pageSize(limit);
+        if (!hotelSearchIndex.isReady()) {
+            throw new InformationNotAvailable("The hotel search index is still being built");
+        }
+
+        List<HotelSearchIndex.Hit> hits = hotelSearchIndex.search(query, size);
+        if (hits.isEmpty()) {
             throw new ResourceNotFound("No Hotel Found.");
         }
+        Map<Long, HotelDTO> hotelsById = findByIds(hits.stream().map(HotelSearchIndex.Hit::id).toList());
+
+        List<ScoredHotelDTO> results = new ArrayList<>(hits.size());
+        for (HotelSearchIndex.Hit hit : hits) {
+            HotelDTO hotel = hotelsById.get(hit.id());
+            if (hotel != null) {
+                results.add(new ScoredHotelDTO(hotel, hit.score()));
+            }
+        }
+        return results;
+    }
 
-        return hotels.stream()
-                .map(HotelDTO::new)
-                .collect(Collectors.toList());
+    // Rows for ids picked by an in-memory index (at most one page, so a single IN list)
+    private List<HotelDTO> findSortedByIds(List<Long> ids) {
+        return ids.isEmpty() ? List.of() : hotelRepository.findByIdsAndStars(ids, null);
     }
 
+    // One IN query per IN_CLAUSE_CHUNK ids
+    private Map<Long, HotelDTO> findByIds(Collection<Long> ids) {
+        List<Long> idList = List.copyOf(ids);
+        Map<Long, HotelDTO> hotelsById = new HashMap<>(idList.size() * 2);
+        for (int from = 0; from < idList.size(); from += IN_CLAUSE_CHUNK) {
+            List<Long> chunk = idList.subList(from, Math.min(from + IN_CLAUSE_CHUNK, idList.size()));
+            for (HotelDTO hotel : hotelRepository.findByIdsAndStars(chunk, null)) {
+                hotelsById.put(hotel.getId(), hotel);
+            }
+        }
+        return hotelsById;
+    }
+
+    private List<HotelDTO> findPageByIds(Set<Long> ids, Integer stars, Long lastId, int wanted) {
+        List<Long> sortedIds = ids.stream()
+                .filter(id -> lastId == null || id > lastId)
+                .sorted()
+                .toList();
+        List<HotelDTO> hotels = new ArrayList<>();
+        for (int from = 0; from < sortedIds.size() && hotels.size() < wanted; from += IN_CLAUSE_CHUNK) {
+            List<Long> chunk = sortedIds.subList(from, Math.min(from + IN_CLAUSE_CHUNK, sortedIds.size()));
+            hotels.addAll(hotelRepository.findByIdsAndStars(chunk, stars));
+        }
+        return hotels.size() > wanted ? hotels.subList(0, wanted) : hotels;
+    }
+
+    /* =================== PAGINATION =================== */
+
+    private int pageSize(Integer limit) {
+        if (limit == null) {
+            return defaultLimit;
+        }
+        if (limit < 1 || limit > maxLimit) {
+            throw new BadRequest("limit must be between 1 and " + maxLimit);
+        }
+        return limit;
+    }
+
+    // Pages are queried with one extra row to know whether a next page exists
+    static HotelPageDTO toPage(List<HotelDTO> hotels, int pageSize) {
+        List<HotelDTO> page = hotels.size() > pageSize ? new ArrayList<>(hotels.subList(0, pageSize)) : hotels;
+        String next = null;
+        if (hotels.size() > pageSize) {
+            HotelDTO last = page.get(page.size() - 1);
+            next = new HotelCursor(last.getName(), last.getId()).encode();
+        }
+        return new HotelPageDTO(page, next);
+    }
+
+    static String lastName(HotelCursor cursor) {
+        return cursor == null ? null : cursor.name();
+    }
+
+    static Long lastId(HotelCursor cursor) {
+        return cursor == null ? null : cursor.id();
+    }
 
     private boolean areAllParametersNull(String city, String state, String country, Integer stars) {
         return city == null && state == null && country == null && stars == null;
@@ -0,0 +1,13 @@
+package com.tourismSystem.hotels.service;
+
+import com.tourismSystem.hotels.dto.HotelEventPageDTO;
+
+public interface IHotelEventService {
+
+    // Outbox events after the given position (0 for the first one)
+    HotelEventPageDTO findEventsAfter(long after, Integer limit);
+
+    // One page of every hotel as a SAVED event, in id order after afterId, plus the outbox position the
+    // snapshot is consistent from; a null position starts a snapshot at the current one
+    HotelEventPageDTO findSnapshot(Long position, long afterId, Integer limit);
+}
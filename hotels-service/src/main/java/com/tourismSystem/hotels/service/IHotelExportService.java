@@ -0,0 +1,10 @@
+package com.tourismSystem.hotels.service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+public interface IHotelExportService {
+
+    // Writes every hotel as one HotelDTO JSON object per line; returns the number of hotels written
+    long exportHotels(OutputStream out) throws IOException;
+}
@@ -1,19 +1,44 @@
 package com.tourismSystem.hotels.service;
 
+import com.tourismSystem.hotels.dto.HotelBatchDTO;
 import com.tourismSystem.hotels.dto.HotelDTO;
+import com.tourismSystem.hotels.dto.HotelFacetsDTO;
+import com.tourismSystem.hotels.dto.HotelPageDTO;
+import com.tourismSystem.hotels.dto.NearbyHotelDTO;
+import com.tourismSystem.hotels.dto.ScoredHotelDTO;
 
 import java.util.List;
+import java.util.Map;
 
 public interface IHotelService {
 
     HotelDTO findHotelById(Long id);
+    // Current row version (ETag source) without loading the hotel
+    Long findHotelVersion(Long id);
     HotelDTO findHotelByName(String name);
     HotelDTO findHotelByAddress(String address);
-    List<HotelDTO> findHotelsByCity(String city);
-    List<HotelDTO> findHotelsByState(String state);
-    List<HotelDTO>findHotelsByCountry(String country);
-    List<HotelDTO> findHotelsByStars(Integer stars);
-    List<HotelDTO> findHotelByFilters(String city, String state, String country, Integer stars);
+    // Many ids at once; answers follow the request order and ids without a hotel are reported as missing
+    HotelBatchDTO findHotelsByIds(List<Long> ids);
+    // Hotels of many cities in one query: one entry per requested name (as sent, in request order), hotels in name order
+    Map<String, List<HotelDTO>> findHotelsByCities(List<String> cities);
+
+    // List lookups are keyset-paginated: next is the cursor returned with the previous page (null for the first one)
+    HotelPageDTO findHotelsByCity(String city, String next, Integer limit);
+    HotelPageDTO findHotelsByState(String state, String next, Integer limit);
+    HotelPageDTO findHotelsByCountry(String country, String next, Integer limit);
+    HotelPageDTO findHotelsByStars(Integer stars, String next, Integer limit);
+    // exact = whole-value matches (ignoring case and accents) instead of substring matches
+    HotelPageDTO findHotelByFilters(String city, String state, String country, Integer stars, boolean exact,
+                                    String next, Integer limit);
+
+    // Hotel counts per stars, country, state and city among the hotels matching the exact filters
+    HotelFacetsDTO findHotelFacets(String city, String state, String country, Integer stars);
+
+    // Closest hotels first; a null radius only bounds the search by limit
+    List<NearbyHotelDTO> findHotelsNear(Double latitude, Double longitude, Double radiusKm, Integer limit);
+
+    // Full-text search over name, address and city, best match first
+    List<ScoredHotelDTO> searchHotels(String query, Integer limit);
 
     //This method is only for simulating a failure and activating Circuit Breaker y Resilience4
     HotelDTO findHotelsByID(Long id);
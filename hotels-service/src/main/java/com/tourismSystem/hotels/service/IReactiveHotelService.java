@@ -0,0 +1,26 @@
+package com.tourismSystem.hotels.service;
+
+import com.tourismSystem.hotels.dto.HotelDTO;
+import com.tourismSystem.hotels.dto.HotelPageDTO;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+// Non-blocking versions of the IHotelService finders, with the same errors and pagination
+public interface IReactiveHotelService {
+
+    Mono<HotelDTO> findHotelById(Long id);
+    // Current row version (ETag source) without loading the hotel
+    Mono<Long> findHotelVersion(Long id);
+    Mono<HotelDTO> findHotelByName(String name);
+    Mono<HotelDTO> findHotelByAddress(String address);
+
+    Mono<HotelPageDTO> findHotelsByCity(String city, String next, Integer limit);
+    Mono<HotelPageDTO> findHotelsByState(String state, String next, Integer limit);
+    Mono<HotelPageDTO> findHotelsByCountry(String country, String next, Integer limit);
+    Mono<HotelPageDTO> findHotelsByStars(Integer stars, String next, Integer limit);
+
+    // Every hotel as NDJSON, one buffer per EXPORT_FETCH_SIZE rows, read as the response is written
+    Flux<DataBuffer> exportHotels(DataBufferFactory bufferFactory);
+}
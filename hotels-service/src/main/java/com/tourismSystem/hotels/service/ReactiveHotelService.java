@@ -0,0 +1,192 @@
+package com.tourismSystem.hotels.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.tourismSystem.hotels.cache.HotelCache;
+import com.tourismSystem.hotels.dto.HotelDTO;
+import com.tourismSystem.hotels.dto.HotelPageDTO;
+import com.tourismSystem.hotels.exceptions.BadRequest;
+import com.tourismSystem.hotels.exceptions.ResourceNotFound;
+import com.tourismSystem.hotels.repositories.HotelRepository;
+import com.tourismSystem.hotels.repositories.ReactiveHotelRepository;
+import com.tourismSystem.shared.text.TextNormalizer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Reactive read path (profile reactive): the same lookups as {@link HotelService}, served through R2DBC
+ * so no thread waits on the database. Single-hotel lookups share the {@link HotelCache}.
+ */
+@Service
+@Profile("reactive")
+public class ReactiveHotelService implements IReactiveHotelService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReactiveHotelService.class);
+
+    private final ReactiveHotelRepository hotelRepository;
+    private final HotelCache hotelCache;
+    private final ObjectMapper objectMapper;
+    private final ObjectWriter hotelWriter;
+    private final int defaultLimit;
+    private final int maxLimit;
+
+    public ReactiveHotelService(ReactiveHotelRepository hotelRepository,
+                                HotelCache hotelCache,
+                                ObjectMapper objectMapper,
+                                @Value("${hotels.pagination.default-limit:100}") int defaultLimit,
+                                @Value("${hotels.pagination.max-limit:1000}") int maxLimit) {
+        this.hotelRepository = hotelRepository;
+        this.hotelCache = hotelCache;
+        this.objectMapper = objectMapper;
+        this.hotelWriter = objectMapper.writerFor(HotelDTO.class)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        this.defaultLimit = defaultLimit;
+        this.maxLimit = maxLimit;
+    }
+
+    @Override
+    public Mono<HotelDTO> findHotelById(Long id) {
+        return Mono.justOrEmpty(hotelCache.peek(id))
+                .switchIfEmpty(Mono.defer(() -> {
+                    long generation = hotelCache.generation();
+                    return hotelRepository.findDtoById(id).map(hotel -> hotelCache.put(hotel, generation));
+                }))
+                .switchIfEmpty(Mono.error(() -> new ResourceNotFound("Hotel not found with id" + id)));
+    }
+
+    @Override
+    public Mono<Long> findHotelVersion(Long id) {
+        HotelDTO cached = hotelCache.peek(id);
+        if (cached != null) {
+            return Mono.justOrEmpty(cached.getVersion());
+        }
+        return hotelRepository.findVersionById(id)
+                .switchIfEmpty(Mono.error(() -> new ResourceNotFound("Hotel not found with id" + id)));
+    }
+
+    @Override
+    public Mono<HotelDTO> findHotelByName(String name) {
+        return Mono.justOrEmpty(hotelCache.peekByName(name))
+                .switchIfEmpty(Mono.defer(() -> {
+                    long generation = hotelCache.generation();
+                    return hotelRepository.findDtoByNameKey(TextNormalizer.fold(name)).map(hotel -> hotelCache.put(hotel, generation));
+                }))
+                .switchIfEmpty(Mono.error(() -> new ResourceNotFound("Hotel not found with that name" + name)));
+    }
+
+    @Override
+    public Mono<HotelDTO> findHotelByAddress(String address) {
+        return Mono.justOrEmpty(hotelCache.peekByAddress(address))
+                .switchIfEmpty(Mono.defer(() -> {
+                    long generation = hotelCache.generation();
+                    return hotelRepository.findDtoByAddressKey(TextNormalizer.fold(address)).map(hotel -> hotelCache.put(hotel, generation));
+                }))
+                .switchIfEmpty(Mono.error(() -> new ResourceNotFound("Hotel not found with that address " + address)));
+    }
+
+    @Override
+    public Mono<HotelPageDTO> findHotelsByCity(String city, String next, Integer limit) {
+        return page(next, limit, (cursor, rows) -> hotelRepository.findPageByCityKey(TextNormalizer.fold(city),
+                        HotelService.lastName(cursor), HotelService.lastId(cursor), rows),
+                () -> new ResourceNotFound("Hotel not found with that city " + city));
+    }
+
+    @Override
+    public Mono<HotelPageDTO> findHotelsByState(String state, String next, Integer limit) {
+        return page(next, limit, (cursor, rows) -> hotelRepository.findPageByStateKey(TextNormalizer.fold(state),
+                        HotelService.lastName(cursor), HotelService.lastId(cursor), rows),
+                () -> new ResourceNotFound("Hotel not found in that State: " + state));
+    }
+
+    @Override
+    public Mono<HotelPageDTO> findHotelsByCountry(String country, String next, Integer limit) {
+        return page(next, limit, (cursor, rows) -> hotelRepository.findPageByCountryKey(TextNormalizer.fold(country),
+                        HotelService.lastName(cursor), HotelService.lastId(cursor), rows),
+                () -> new ResourceNotFound("Hotel not found in that country  " + country));
+    }
+
+    @Override
+    public Mono<HotelPageDTO> findHotelsByStars(Integer stars, String next, Integer limit) {
+        if (stars < 1 || stars > 5) {
+            return Mono.error(new BadRequest("Stars cannot be lower than 1 or greater tha 5"));
+        }
+        return page(next, limit, (cursor, rows) -> hotelRepository.findPageByStars(stars,
+                        HotelService.lastName(cursor), HotelService.lastId(cursor), rows),
+                () -> new ResourceNotFound("Hotel not found with " + "★".repeat(stars)));
+    }
+
+    @Override
+    public Flux<DataBuffer> exportHotels(DataBufferFactory bufferFactory) {
+        long start = System.nanoTime();
+        AtomicLong written = new AtomicLong();
+        // Rows are requested from the database only as fast as the client takes the buffers
+        return hotelRepository.streamAll()
+                .buffer(HotelRepository.EXPORT_FETCH_SIZE)
+                .doOnNext(hotels -> written.addAndGet(hotels.size()))
+                .map(hotels -> writeLines(hotels, bufferFactory))
+                .doOnComplete(() -> logger.info("Exported {} hotels in {} ms",
+                        written.get(), (System.nanoTime() - start) / 1_000_000));
+    }
+
+    private DataBuffer writeLines(List<HotelDTO> hotels, DataBufferFactory bufferFactory) {
+        DataBuffer buffer = bufferFactory.allocateBuffer(256 * hotels.size());
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(buffer.asOutputStream())) {
+            generator.setRootValueSeparator(null);
+            for (HotelDTO hotel : hotels) {
+                hotelWriter.writeValue(generator, hotel);
+                generator.writeRaw('\n');
+            }
+        } catch (IOException ex) {
+            DataBufferUtils.release(buffer);
+            throw new UncheckedIOException(ex);
+        }
+        return buffer;
+    }
+
+    /* =================== PAGINATION =================== */
+
+    private interface PageQuery {
+        Flux<HotelDTO> find(HotelCursor cursor, int rows);
+    }
+
+    // Same contract as HotelService: one extra row tells whether a next page exists, and an
+    // empty first page is a 404
+    private Mono<HotelPageDTO> page(String next, Integer limit, PageQuery query,
+                                    Supplier<ResourceNotFound> notFound) {
+        return Mono.defer(() -> {
+            HotelCursor cursor = HotelCursor.decode(next);
+            int pageSize = pageSize(limit);
+            return query.find(cursor, pageSize + 1)
+                    .collectList()
+                    .flatMap(hotels -> cursor == null && hotels.isEmpty()
+                            ? Mono.error(notFound.get())
+                            : Mono.just(HotelService.toPage(hotels, pageSize)));
+        });
+    }
+
+    private int pageSize(Integer limit) {
+        if (limit == null) {
+            return defaultLimit;
+        }
+        if (limit < 1 || limit > maxLimit) {
+            throw new BadRequest("limit must be between 1 and " + maxLimit);
+        }
+        return limit;
+    }
+}
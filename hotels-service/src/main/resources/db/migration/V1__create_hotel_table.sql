@@ -0,0 +1,12 @@
+-- Schema previously created by Hibernate (ddl-auto: update). Existing databases are baselined at
+-- this version, so it only runs on empty schemas.
+CREATE TABLE hotel (
+    id      BIGINT NOT NULL AUTO_INCREMENT,
+    name    VARCHAR(255),
+    address VARCHAR(255),
+    stars   INTEGER,
+    city    VARCHAR(255),
+    state   VARCHAR(255),
+    country VARCHAR(255),
+    PRIMARY KEY (id)
+);
@@ -0,0 +1,16 @@
+-- Case- and accent-folded copies of the lookup columns (see TextNormalizer), so equality lookups
+-- compare plain columns and can seek an index instead of scanning UPPER(column).
+ALTER TABLE hotel ADD COLUMN name_key VARCHAR(255);
+ALTER TABLE hotel ADD COLUMN address_key VARCHAR(255);
+ALTER TABLE hotel ADD COLUMN city_key VARCHAR(255);
+ALTER TABLE hotel ADD COLUMN state_key VARCHAR(255);
+ALTER TABLE hotel ADD COLUMN country_key VARCHAR(255);
+
+CREATE INDEX idx_hotel_name_key ON hotel (name_key);
+CREATE INDEX idx_hotel_address_key ON hotel (address_key);
+
+-- Keyset pages filter on one column and are ordered by (name, id)
+CREATE INDEX idx_hotel_city_key_name ON hotel (city_key, name, id);
+CREATE INDEX idx_hotel_state_key_name ON hotel (state_key, name, id);
+CREATE INDEX idx_hotel_country_key_name ON hotel (country_key, name, id);
+CREATE INDEX idx_hotel_stars_name ON hotel (stars, name, id);
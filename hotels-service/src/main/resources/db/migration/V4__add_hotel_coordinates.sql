@@ -0,0 +1,3 @@
+-- WGS84 position of each hotel, served by the in-memory spatial index behind /hotels/near
+ALTER TABLE hotel ADD COLUMN latitude DOUBLE;
+ALTER TABLE hotel ADD COLUMN longitude DOUBLE;
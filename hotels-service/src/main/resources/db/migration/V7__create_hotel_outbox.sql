@@ -0,0 +1,11 @@
+-- Transactional outbox of hotel changes (JdbcHotelOutbox), replayed by other services through
+-- GET /hotels/events in id order
+CREATE TABLE hotel_outbox (
+    id            BIGINT NOT NULL AUTO_INCREMENT,
+    type          VARCHAR(16) NOT NULL,
+    hotel_id      BIGINT,
+    hotel_version BIGINT,
+    payload       TEXT,
+    occurred_at   BIGINT NOT NULL,
+    PRIMARY KEY (id)
+);
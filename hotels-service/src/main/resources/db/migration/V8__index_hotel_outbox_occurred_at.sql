@@ -0,0 +1,2 @@
+-- The visible head and the purge filter hotel_outbox on occurred_at
+CREATE INDEX idx_hotel_outbox_occurred_at ON hotel_outbox (occurred_at);
@@ -0,0 +1,105 @@
+package com.tourismSystem.hotels.bootstrap;
+
+import com.tourismSystem.hotels.entities.Hotel;
+import com.tourismSystem.hotels.repositories.HotelRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Compares the old row-by-row loader with {@link HotelCsvLoader} on a generated file.
+ * Run with: mvn test -Dtest=HotelCsvLoaderBenchmark -Dbenchmark=true [-Dbenchmark.rows=500000]
+ */
+@SpringBootTest(properties = "spring.jpa.show-sql=false")
+@ActiveProfiles("test")
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class HotelCsvLoaderBenchmark {
+
+    private static final String[][] PLACES = {
+            {"Tokio", "Kanto", "Japón"},
+            {"Barcelona", "Cataluña", "España"},
+            {"Miami", "Florida", "USA"},
+            {"Buenos Aires", "Buenos Aires", "Argentina"}
+    };
+
+    @Autowired
+    private HotelRepository hotelRepository;
+
+    @Autowired
+    private HotelCsvLoader hotelCsvLoader;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void compareLoaders() throws Exception {
+        int rows = Integer.getInteger("benchmark.rows", 500_000);
+        Path csv = generateCsv(rows);
+
+        try {
+            jdbcTemplate.update("DELETE FROM hotel");
+            long start = System.nanoTime();
+            loadRowByRow(csv);
+            long legacyMillis = (System.nanoTime() - start) / 1_000_000;
+            assertEquals(rows, hotelRepository.count());
+
+            jdbcTemplate.update("DELETE FROM hotel");
+            HotelCsvLoader.ImportReport report;
+            try (InputStream in = Files.newInputStream(csv)) {
+                report = hotelCsvLoader.load(in);
+            }
+            assertEquals(rows, report.inserted());
+            assertEquals(rows, hotelRepository.count());
+
+            System.out.printf("Rows: %d%n", rows);
+            System.out.printf("Row-by-row save : %8d ms (%.0f rows/sec)%n", legacyMillis, rows * 1000.0 / Math.max(1, legacyMillis));
+            System.out.printf("Batched loader  : %8d ms (%.0f rows/sec)%n", report.elapsedMillis(), report.rowsPerSecond());
+        } finally {
+            Files.deleteIfExists(csv);
+        }
+    }
+
+    // Previous HotelsApplication.loadHotelsFromCSV: split on ',' and one repository save per row
+    private void loadRowByRow(Path csv) throws Exception {
+        try (BufferedReader reader = Files.newBufferedReader(csv, StandardCharsets.UTF_8)) {
+            reader.readLine();
+            String line;
+            while ((line = reader.readLine()) != null) {
+                String[] data = line.split(",");
+                Hotel hotel = new Hotel();
+                hotel.setName(data[1].trim());
+                hotel.setAddress(data[2].trim());
+                hotel.setStars(Integer.parseInt(data[3].trim()));
+                hotel.setCity(data[4].trim());
+                hotel.setState(data[5].trim());
+                hotel.setCountry(data[6].trim());
+                hotelRepository.save(hotel);
+            }
+        }
+    }
+
+    private Path generateCsv(int rows) throws Exception {
+        Path csv = Files.createTempFile("hotelsBD-benchmark", ".csv");
+        try (BufferedWriter writer = Files.newBufferedWriter(csv, StandardCharsets.UTF_8)) {
+            writer.write("id,name,address,stars,city,state,country\n");
+            for (int i = 1; i <= rows; i++) {
+                String[] place = PLACES[i % PLACES.length];
+                writer.write(i + ",Hotel " + i + ",Calle " + i + "," + (i % 5 + 1) + ","
+                        + place[0] + "," + place[1] + "," + place[2] + "\n");
+            }
+        }
+        return csv;
+    }
+}
@@ -0,0 +1,76 @@
+package com.tourismSystem.hotels.bootstrap;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Bad rows are skipped one by one; the rest of their chunk is still written. A quote left open ends
+ * the import at the record length limit.
+ */
+@SpringBootTest(properties = {"spring.jpa.show-sql=false", "hotels.bootstrap.chunk-size=3"})
+@ActiveProfiles("test")
+class HotelCsvLoaderTest {
+
+    @Autowired
+    private HotelCsvLoader hotelCsvLoader;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @AfterEach
+    void removeLoaded() {
+        jdbcTemplate.update("DELETE FROM hotel WHERE name LIKE 'Csv %'");
+    }
+
+    @Test
+    void badRowsAreSkippedAndTheirChunksStillLoad() throws Exception {
+        String csv = String.join("\n",
+                "id,name,address,stars,city,state,country,latitude,longitude",
+                "1,Csv Uno,Calle 1,4,Tokio,Kanto,Japón,,",
+                "2,Csv Siete Estrellas,Calle 2,7,Tokio,Kanto,Japón,,",
+                "3,Csv Dos,Calle 3,3,Osaka,Kansai,Japón,34.69,135.50",
+                "4,Csv Sin Estrellas,Calle 4,cuatro,Osaka,Kansai,Japón,,",
+                "5,Csv Corta,Calle 5",
+                "6,Csv Polo,Calle 6,2,Osaka,Kansai,Japón,134.69,135.50",
+                "7,\"Csv Tres, con coma\",Calle 7,5,Sapporo,Hokkaido,Japón,,",
+                "8,Csv Cero,Calle 8,0,Sapporo,Hokkaido,Japón,,",
+                "9,Csv " + "x".repeat(300) + ",Calle 9,3,Sapporo,Hokkaido,Japón,,");
+
+        HotelCsvLoader.ImportReport report = hotelCsvLoader.load(new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)));
+
+        assertEquals(3, report.inserted());
+        assertEquals(6, report.rejected());
+        assertEquals(List.of("Csv Dos", "Csv Tres, con coma", "Csv Uno"),
+                jdbcTemplate.queryForList("SELECT name FROM hotel WHERE name LIKE 'Csv %' ORDER BY name", String.class));
+        // Geocoded from its city, as before
+        assertEquals(1, jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM hotel WHERE name = 'Csv Uno' AND latitude IS NOT NULL", Integer.class));
+    }
+
+    @Test
+    void aQuoteLeftOpenStopsTheLoadAtTheRecordLimit() throws Exception {
+        // Without the limit the open quote would buffer the whole megabyte after it
+        String csv = String.join("\n",
+                "id,name,address,stars,city,state,country,latitude,longitude",
+                "1,Csv Uno,Calle 1,4,Tokio,Kanto,Japón,,",
+                "2,\"Csv Abierta,Calle 2,4,Tokio,Kanto,Japón,,",
+                "3,Csv Dos,Calle 3,3,Osaka,Kansai,Japón,,\n".repeat(25_000));
+
+        HotelCsvLoader.ImportReport report = hotelCsvLoader.load(new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)));
+
+        assertEquals(1, report.inserted());
+        assertEquals(1, report.rejected());
+        assertEquals(List.of("Csv Uno"),
+                jdbcTemplate.queryForList("SELECT name FROM hotel WHERE name LIKE 'Csv %' ORDER BY name", String.class));
+    }
+}
@@ -0,0 +1,126 @@
+package com.tourismSystem.hotels.cache;
+
+import com.tourismSystem.hotels.dto.HotelDTO;
+import com.tourismSystem.hotels.entities.Hotel;
+import com.tourismSystem.hotels.events.HotelChangedEvent;
+import com.tourismSystem.hotels.exceptions.ResourceNotFound;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class HotelCacheTest {
+
+    private static final HotelDTO IMPERIAL = hotel(1L, "Hotel Imperial", "Avenida Ginza 3");
+
+    private final HotelCache cache = new HotelCache(new SimpleMeterRegistry(), 100, Duration.ofMinutes(10));
+    private final AtomicInteger loads = new AtomicInteger();
+
+    @Test
+    void aLoadedHotelIsServedByIdNameAndAddress() {
+        assertSame(IMPERIAL, cache.getById(1L, loader(IMPERIAL)));
+
+        assertSame(IMPERIAL, cache.getById(1L, loader(IMPERIAL)));
+        assertSame(IMPERIAL, cache.getByName("Hotel Imperial", loader(IMPERIAL)));
+        assertSame(IMPERIAL, cache.getByAddress("Avenida Ginza 3", loader(IMPERIAL)));
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void nameAndAddressKeysIgnoreCaseAndAccents() {
+        HotelDTO cordoba = hotel(2L, "Hotel Córdoba", "Calle Señor 1");
+        cache.put(cordoba, cache.generation());
+
+        assertSame(cordoba, cache.peekByName("HOTEL CORDOBA"));
+        assertSame(cordoba, cache.peekByName("hotel córdoba"));
+        assertSame(cordoba, cache.peekByAddress("calle senor 1"));
+        assertNull(cache.peekByName("Hotel Cordob"));
+    }
+
+    @Test
+    void aChangedHotelIsDroppedFromEveryKey() {
+        cache.put(IMPERIAL, cache.generation());
+        Hotel changed = new Hotel(1L, "Hotel Imperial", "Avenida Ginza 3", 5, "Tokio", "Kanto", "Japón");
+
+        cache.onHotelChanged(new HotelChangedEvent(HotelChangedEvent.Type.SAVED, changed));
+
+        assertNull(cache.peek(1L));
+        assertNull(cache.peekByName("Hotel Imperial"));
+        assertNull(cache.peekByAddress("Avenida Ginza 3"));
+        cache.getByName("Hotel Imperial", loader(IMPERIAL));
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void aStaleNameKeyDoesNotServeTheRenamedHotel() {
+        cache.put(IMPERIAL, cache.generation());
+        // Renamed and read again: the old name key still points to id 1
+        HotelDTO renamed = hotel(1L, "Hotel Emperador", "Avenida Ginza 3");
+        cache.invalidate(1L);
+        cache.put(renamed, cache.generation());
+
+        assertNull(cache.peekByName("Hotel Imperial"));
+        assertSame(renamed, cache.peekByName("Hotel Emperador"));
+        assertSame(renamed, cache.peekByAddress("Avenida Ginza 3"));
+        // The old name is looked up again, and the loader's answer stands
+        assertThrows(ResourceNotFound.class, () -> cache.getByName("Hotel Imperial", () -> {
+            throw new ResourceNotFound("Hotel not found with the name Hotel Imperial");
+        }));
+    }
+
+    @Test
+    void aLoadOverlappingAnInvalidationIsNotCached() {
+        // The row is read, then the hotel is written and invalidated before the load returns
+        HotelDTO stale = cache.getById(1L, () -> {
+            cache.invalidate(1L);
+            return IMPERIAL;
+        });
+
+        assertSame(IMPERIAL, stale);
+        assertNull(cache.peek(1L));
+        assertNull(cache.peekByName("Hotel Imperial"));
+    }
+
+    @Test
+    void aPutIsDroppedWhenAnInvalidationRanSinceItsGeneration() {
+        long generation = cache.generation();
+        cache.onHotelChanged(new HotelChangedEvent(HotelChangedEvent.Type.SAVED,
+                new Hotel(1L, "Hotel Imperial", "Avenida Ginza 3", 5, "Tokio", "Kanto", "Japón")));
+
+        cache.put(IMPERIAL, generation);
+        assertNull(cache.peek(1L));
+
+        cache.put(IMPERIAL, cache.generation());
+        assertSame(IMPERIAL, cache.peek(1L));
+    }
+
+    @Test
+    void missesAreNeverCached() {
+        Supplier<HotelDTO> missing = () -> {
+            loads.incrementAndGet();
+            throw new ResourceNotFound("Hotel not found with the id 9");
+        };
+
+        assertThrows(ResourceNotFound.class, () -> cache.getById(9L, missing));
+        assertThrows(ResourceNotFound.class, () -> cache.getById(9L, missing));
+        assertEquals(2, loads.get());
+    }
+
+    private Supplier<HotelDTO> loader(HotelDTO hotel) {
+        return () -> {
+            loads.incrementAndGet();
+            return hotel;
+        };
+    }
+
+    private static HotelDTO hotel(Long id, String name, String address) {
+        return new HotelDTO(id, name, address, 4, "Tokio", "Kanto", "Japón", 35.67, 139.76, 0L);
+    }
+}
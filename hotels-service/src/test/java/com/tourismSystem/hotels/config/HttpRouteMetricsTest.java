@@ -0,0 +1,52 @@
+package com.tourismSystem.hotels.config;
+
+import com.tourismSystem.shared.metrics.HttpRouteMetrics;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "spring.jpa.show-sql=false")
+@AutoConfigureMockMvc
+@AutoConfigureObservability
+@ActiveProfiles("test")
+class HttpRouteMetricsTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    void everyCityIsCountedUnderTheRouteTemplate() throws Exception {
+        for (String city : new String[]{"Tokio", "Osaka", "Sapporo"}) {
+            mockMvc.perform(get("/hotels/city/" + city)).andExpect(status().isOk());
+        }
+
+        DistributionSummary sent = meterRegistry.get("http.server.response.size")
+                .tag("uri", "/hotels/city/{city}").tag("status", "200").summary();
+        assertEquals(3, sent.count());
+        assertTrue(sent.totalAmount() > 0);
+        assertEquals(0, meterRegistry.get("http.server.route.active").tag("uri", "/hotels/city/{city}")
+                .longTaskTimer().activeTasks());
+
+        String scrape = mockMvc.perform(get("/actuator/prometheus")).andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        assertTrue(scrape.contains("http_server_requests_seconds_bucket{"), "latency histogram");
+        assertTrue(scrape.contains("http_server_response_size_bytes_bucket{"), "size histogram");
+        assertTrue(scrape.contains("uri=\"/hotels/city/{city}\""));
+        assertFalse(scrape.contains("Osaka"), "path variables never become tag values");
+    }
+}
@@ -0,0 +1,325 @@
+package com.tourismSystem.hotels.controllers;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.protobuf.CodedInputStream;
+import com.tourismSystem.hotels.cache.HotelCache;
+import com.tourismSystem.hotels.converters.HotelProtobufCodec;
+import com.tourismSystem.hotels.converters.HotelProtobufHttpMessageConverter;
+import com.tourismSystem.hotels.dto.HotelDTO;
+import com.tourismSystem.hotels.dto.NearbyHotelDTO;
+import com.tourismSystem.hotels.entities.Hotel;
+import com.tourismSystem.hotels.repositories.HotelRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.RequestBuilder;
+import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.LongStream;
+import java.util.zip.GZIPInputStream;
+
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "spring.jpa.show-sql=false")
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class HotelControllerTest {
+
+    private static final long UNKNOWN_ID = Long.MAX_VALUE;
+    // Only the hotels saved here are in it
+    private static final String CITY = "Ushuaia Etiquetada";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private HotelRepository hotelRepository;
+
+    @Autowired
+    private HotelCache hotelCache;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate transaction;
+    private final List<Long> saved = new ArrayList<>();
+
+    @BeforeEach
+    void openTransactions() {
+        transaction = new TransactionTemplate(transactionManager);
+    }
+
+    @AfterEach
+    void removeSaved() {
+        saved.forEach(id -> transaction.executeWithoutResult(status -> hotelRepository.findById(id).ifPresent(hotelRepository::delete)));
+        saved.clear();
+    }
+
+    @Test
+    void hotelByIdCarriesItsVersionAsETag() throws Exception {
+        Hotel hotel = save("Faro Etiquetado");
+
+        mockMvc.perform(get("/hotels/id/{id}", hotel.getId()))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "W/\"" + hotel.getId() + "-" + hotel.getVersion() + "\""))
+                .andExpect(jsonPath("$.name").value("Faro Etiquetado"));
+    }
+
+    @Test
+    void matchingIfNoneMatchIsAnswered304WithoutLoadingTheHotel() throws Exception {
+        Hotel hotel = save("Faro Vigente");
+        String etag = etag(get("/hotels/id/{id}", hotel.getId()));
+        hotelCache.invalidate(hotel.getId());
+
+        mockMvc.perform(get("/hotels/id/{id}", hotel.getId()).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, etag))
+                .andExpect(result -> assertEquals(0, result.getResponse().getContentLength()));
+        // Only the version was read: the hotel never went through findHotelById and its cache
+        assertNull(hotelCache.peek(hotel.getId()));
+    }
+
+    @Test
+    void anUpdatedHotelGetsANewETag() throws Exception {
+        Hotel hotel = save("Faro Renovado");
+        String etag = etag(get("/hotels/id/{id}", hotel.getId()));
+
+        transaction.executeWithoutResult(status -> hotelRepository.findById(hotel.getId()).orElseThrow().setStars(5));
+
+        String updated = mockMvc.perform(get("/hotels/id/{id}", hotel.getId()).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.stars").value(5))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertNotNull(updated);
+        assertNotEquals(etag, updated);
+    }
+
+    @Test
+    void unknownHotelWithIfNoneMatchIsNotFound() throws Exception {
+        mockMvc.perform(get("/hotels/id/{id}", UNKNOWN_ID).header(HttpHeaders.IF_NONE_MATCH, "W/\"" + UNKNOWN_ID + "-0\""))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void listETagChangesWithTheCursor() throws Exception {
+        save("Faro A");
+        String alone = etag(get("/hotels/city/{city}?limit=1", CITY));
+        mockMvc.perform(get("/hotels/city/{city}?limit=1", CITY).header(HttpHeaders.IF_NONE_MATCH, alone))
+                .andExpect(status().isNotModified());
+
+        // Same hotel on the first page, but now there is a next one: the client must not keep its copy
+        save("Faro B");
+        MvcResult first = mockMvc.perform(get("/hotels/city/{city}?limit=1", CITY).header(HttpHeaders.IF_NONE_MATCH, alone))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].name").value("Faro A"))
+                .andReturn();
+        String next = first.getResponse().getHeader(HotelController.NEXT_CURSOR_HEADER);
+        assertNotNull(next);
+        String withNext = first.getResponse().getHeader(HttpHeaders.ETAG);
+        assertNotEquals(alone, withNext);
+
+        String second = etag(get("/hotels/city/{city}?limit=1&next={next}", CITY, next));
+        assertNotEquals(withNext, second);
+    }
+
+    @Test
+    void pagesWalkPastHotelsWithoutName() throws Exception {
+        // Null names sort first, by id; a cursor on one of them must not skip the rest nor repeat them
+        List<Long> expected = List.of(save(null).getId(), save(null).getId(), save("").getId(), save("Faro A").getId());
+
+        List<Long> walked = new ArrayList<>();
+        String next = null;
+        do {
+            MvcResult page = mockMvc.perform(next == null
+                            ? get("/hotels/city/{city}?limit=1", CITY)
+                            : get("/hotels/city/{city}?limit=1&next={next}", CITY, next))
+                    .andExpect(status().isOk())
+                    .andReturn();
+            List<HotelDTO> hotels = List.of(objectMapper.readValue(page.getResponse().getContentAsByteArray(), HotelDTO[].class));
+            hotels.forEach(hotel -> walked.add(hotel.getId()));
+            next = page.getResponse().getHeader(HotelController.NEXT_CURSOR_HEADER);
+        } while (next != null && walked.size() <= expected.size());
+
+        assertEquals(expected, walked);
+    }
+
+    @Test
+    void protobufIsServedWhenAcceptedAndJsonOtherwise() throws Exception {
+        Hotel hotel = save("Faro Binario");
+
+        mockMvc.perform(get("/hotels/id/{id}", hotel.getId()))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE));
+        byte[] body = mockMvc.perform(get("/hotels/id/{id}", hotel.getId())
+                        .accept(HotelProtobufHttpMessageConverter.PROTOBUF))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CONTENT_TYPE, "application/x-protobuf"))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        HotelDTO read = HotelProtobufCodec.readHotel(CodedInputStream.newInstance(body));
+        assertEquals(hotel.getId(), read.getId());
+        assertEquals("Faro Binario", read.getName());
+        assertEquals(CITY, read.getCity());
+        assertNull(read.getLatitude());
+    }
+
+    @Test
+    void protobufListsKeepTheNearbyDistances() throws Exception {
+        byte[] body = mockMvc.perform(get("/hotels/near?lat=35.68&lon=139.69&limit=3")
+                        .accept(HotelProtobufHttpMessageConverter.PROTOBUF))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CONTENT_TYPE, "application/x-protobuf"))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        List<HotelDTO> hotels = HotelProtobufCodec.readHotelList(CodedInputStream.newInstance(body));
+        assertEquals(3, hotels.size());
+        double previous = 0;
+        for (HotelDTO hotel : hotels) {
+            double distanceKm = ((NearbyHotelDTO) hotel).getDistanceKm();
+            assertTrue(distanceKm >= previous);
+            previous = distanceKm;
+        }
+    }
+
+    @Test
+    void batchAnswersInRequestOrderWithExplicitMisses() throws Exception {
+        List<Long> ids = jdbcTemplate.queryForList("SELECT id FROM hotel ORDER BY id LIMIT 2", Long.class);
+        long first = ids.get(0);
+        long second = ids.get(1);
+
+        // Repeated ids get one entry each; a repeated miss is reported once
+        batch(List.of(second, UNKNOWN_ID, first, second, UNKNOWN_ID))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.hotels", hasSize(5)))
+                .andExpect(jsonPath("$.hotels[0].id").value(second))
+                .andExpect(jsonPath("$.hotels[1]").value(nullValue()))
+                .andExpect(jsonPath("$.hotels[2].id").value(first))
+                .andExpect(jsonPath("$.hotels[3].id").value(second))
+                .andExpect(jsonPath("$.hotels[4]").value(nullValue()))
+                .andExpect(jsonPath("$.missing", contains(UNKNOWN_ID)));
+    }
+
+    @Test
+    void batchOverMaxIdsIsRejected() throws Exception {
+        // hotels.batch.max-ids is 500
+        batch(LongStream.rangeClosed(1, 500).boxed().toList()).andExpect(status().isOk());
+        batch(LongStream.rangeClosed(1, 501).boxed().toList()).andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void emptyBatchIsRejected() throws Exception {
+        batch(List.of()).andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void exportStreamsOneHotelPerLine() throws Exception {
+        MvcResult result = export(null);
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CONTENT_TYPE, "application/x-ndjson"))
+                .andExpect(header().doesNotExist(HttpHeaders.CONTENT_ENCODING));
+        assertCatalog(result.getResponse().getContentAsByteArray());
+    }
+
+    @Test
+    void exportIsGzippedWhenAskedFor() throws Exception {
+        MvcResult result = export("deflate, gzip;q=0.8");
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "gzip"))
+                .andExpect(header().string(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING));
+        try (GZIPInputStream gzip = new GZIPInputStream(
+                new ByteArrayInputStream(result.getResponse().getContentAsByteArray()))) {
+            assertCatalog(gzip.readAllBytes());
+        }
+    }
+
+    private Hotel save(String name) {
+        Hotel hotel = transaction.execute(status ->
+                hotelRepository.save(new Hotel(null, name, "Calle del Faro 1", 3, CITY, "Tierra del Fuego", "Argentina")));
+        saved.add(hotel.getId());
+        return hotel;
+    }
+
+    private String etag(RequestBuilder request) throws Exception {
+        String etag = mockMvc.perform(request)
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertNotNull(etag);
+        return etag;
+    }
+
+    private ResultActions batch(List<Long> ids) throws Exception {
+        return mockMvc.perform(post("/hotels/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(ids.toString()));
+    }
+
+    // The body is written by the StreamingResponseBody once the request has gone async
+    private MvcResult export(String acceptEncoding) throws Exception {
+        var request = get("/hotels/export");
+        if (acceptEncoding != null) {
+            request.header(HttpHeaders.ACCEPT_ENCODING, acceptEncoding);
+        }
+        return mockMvc.perform(request)
+                .andExpect(request().asyncStarted())
+                .andReturn();
+    }
+
+    // Every hotel of the table, once, each line a whole HotelDTO
+    private void assertCatalog(byte[] body) throws IOException {
+        String ndjson = new String(body, StandardCharsets.UTF_8);
+        assertTrue(ndjson.endsWith("\n"));
+        List<String> lines = ndjson.lines().toList();
+        Long total = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM hotel", Long.class);
+        assertTrue(total > 0);
+        assertEquals(total.intValue(), lines.size());
+
+        Set<Long> ids = new HashSet<>();
+        for (String line : lines) {
+            HotelDTO hotel = objectMapper.readValue(line, HotelDTO.class);
+            assertNotNull(hotel.getName());
+            assertTrue(ids.add(hotel.getId()));
+        }
+    }
+}
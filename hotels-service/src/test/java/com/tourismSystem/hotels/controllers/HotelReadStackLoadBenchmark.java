@@ -0,0 +1,126 @@
+package com.tourismSystem.hotels.controllers;
+
+import com.tourismSystem.hotels.HotelsApplication;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Throughput, p99 and peak platform threads of the servlet read stack (Tomcat + JPA, capped at 20 threads
+ * to mimic the 512m containers) vs. the reactive one (profile reactive: Netty + R2DBC), for cursor pages
+ * by country and for the NDJSON export, both on the same in-memory database and build.
+ * Run with: mvn test -Dtest=HotelReadStackLoadBenchmark -Dbenchmark=true
+ *           [-Dbenchmark.requests=2000] [-Dbenchmark.concurrency=200] [-Dbenchmark.exports=40]
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class HotelReadStackLoadBenchmark {
+
+    private static final int TOMCAT_THREADS = 20;
+    private static final String PAGE = "/hotels/country/japon?limit=50";
+    private static final String EXPORT = "/hotels/export";
+
+    private static final int REQUESTS = Integer.getInteger("benchmark.requests", 2000);
+    private static final int CONCURRENCY = Integer.getInteger("benchmark.concurrency", 200);
+    private static final int EXPORTS = Integer.getInteger("benchmark.exports", 40);
+
+    @Test
+    void compareServletAndReactiveStacks() throws Exception {
+        Result[] servlet = run(false);
+        Result[] reactive = run(true);
+
+        System.out.printf("%d page requests and %d exports, %d concurrent clients, %d Tomcat threads%n",
+                REQUESTS, EXPORTS, CONCURRENCY, TOMCAT_THREADS);
+        print("Servlet  pages ", servlet[0]);
+        print("Reactive pages ", reactive[0]);
+        print("Servlet  export", servlet[1]);
+        print("Reactive export", reactive[1]);
+    }
+
+    private Result[] run(boolean reactive) throws Exception {
+        String database = "stack-" + (reactive ? "reactive" : "servlet");
+        SpringApplicationBuilder builder = new SpringApplicationBuilder(HotelsApplication.class)
+                .profiles(reactive ? new String[]{"reactive", "test"} : new String[]{"test"});
+        // Command-line arguments, so they win over application-test.yml
+        try (ConfigurableApplicationContext context = builder.run("--server.port=0",
+                "--server.tomcat.threads.max=" + TOMCAT_THREADS,
+                "--spring.datasource.url=jdbc:h2:mem:" + database + ";DB_CLOSE_DELAY=-1",
+                "--spring.r2dbc.url=r2dbc:h2:mem:///" + database + "?options=DB_CLOSE_DELAY=-1",
+                "--spring.jpa.show-sql=false",
+                "--logging.level.org.springframework.web=INFO",
+                "--logging.level.com.tourismSystem.hotels=INFO")) {
+            int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+            HttpClient client = HttpClient.newBuilder().executor(Executors.newVirtualThreadPerTaskExecutor()).build();
+            URI page = URI.create("http://localhost:" + port + PAGE);
+            URI export = URI.create("http://localhost:" + port + EXPORT);
+
+            fire(client, page, CONCURRENCY);
+            return new Result[]{fire(client, page, REQUESTS), fire(client, export, EXPORTS)};
+        }
+    }
+
+    private Result fire(HttpClient client, URI uri, int requests) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(uri).GET().build();
+        Semaphore inFlight = new Semaphore(CONCURRENCY);
+        long[] latencies = new long[requests];
+        List<Future<Integer>> statuses = new ArrayList<>(requests);
+        // Client threads are virtual and not counted: the peak is the server's platform threads
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        threads.resetPeakThreadCount();
+
+        long start = System.nanoTime();
+        try (ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < requests; i++) {
+                int n = i;
+                inFlight.acquire();
+                statuses.add(clients.submit(() -> {
+                    try {
+                        long sent = System.nanoTime();
+                        int status = client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+                        latencies[n] = (System.nanoTime() - sent) / 1_000_000;
+                        return status;
+                    } finally {
+                        inFlight.release();
+                    }
+                }));
+            }
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        for (Future<Integer> status : statuses) {
+            assertEquals(200, status.get());
+        }
+        Arrays.sort(latencies);
+        return new Result(requests / seconds, percentile(latencies, 0.50), percentile(latencies, 0.99),
+                threads.getPeakThreadCount());
+    }
+
+    private static void print(String label, Result result) {
+        System.out.printf("%s: %8.1f req/s, p50 %6d ms, p99 %6d ms, peak %4d threads%n",
+                label, result.throughput(), result.p50(), result.p99(), result.peakThreads());
+    }
+
+    private static long percentile(long[] sorted, double p) {
+        return sorted[Math.min(sorted.length - 1, (int) Math.ceil(p * sorted.length) - 1)];
+    }
+
+    private record Result(double throughput, long p50, long p99, int peakThreads) {
+    }
+}
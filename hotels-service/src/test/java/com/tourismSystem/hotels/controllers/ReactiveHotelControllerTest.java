@@ -0,0 +1,89 @@
+package com.tourismSystem.hotels.controllers;
+
+import com.tourismSystem.hotels.dto.HotelDTO;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * The reactive read stack answers like {@link HotelController}: same pages, cursors, ETags and errors,
+ * read through R2DBC from the database the JPA side migrated and loaded.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = "spring.jpa.show-sql=false")
+// test after reactive, so its H2 R2DBC url wins
+@ActiveProfiles({"reactive", "test"})
+class ReactiveHotelControllerTest {
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void pagesFollowTheCursorInNameOrder() {
+        Long total = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM hotel WHERE city_key = 'tokio'", Long.class);
+        List<String> names = new ArrayList<>();
+        String next = null;
+        do {
+            String uri = "/hotels/city/tokio?limit=5" + (next == null ? "" : "&next=" + next);
+            var response = webTestClient.get().uri(uri).exchange()
+                    .expectStatus().isOk()
+                    .expectHeader().contentType(MediaType.APPLICATION_JSON)
+                    .expectHeader().exists(HttpHeaders.ETAG)
+                    .expectBodyList(HotelDTO.class).returnResult();
+            response.getResponseBody().forEach(hotel -> names.add(hotel.getName()));
+            next = response.getResponseHeaders().getFirst(HotelController.NEXT_CURSOR_HEADER);
+        } while (next != null);
+
+        assertEquals(total.intValue(), names.size());
+        assertEquals(names.stream().sorted().toList(), names);
+    }
+
+    @Test
+    void matchingEtagIsAnsweredWith304() {
+        String etag = webTestClient.get().uri("/hotels/id/1").exchange()
+                .expectStatus().isOk()
+                .returnResult(HotelDTO.class).getResponseHeaders().getETag();
+        assertNotNull(etag);
+
+        webTestClient.get().uri("/hotels/id/1").header(HttpHeaders.IF_NONE_MATCH, etag).exchange()
+                .expectStatus().isNotModified()
+                .expectBody().isEmpty();
+    }
+
+    @Test
+    void unknownHotelIsNotFound() {
+        webTestClient.get().uri("/hotels/id/999999").exchange()
+                .expectStatus().isNotFound()
+                .expectBody().jsonPath("$.error").isEqualTo("Not Found");
+
+        webTestClient.get().uri("/hotels/stars/9").exchange()
+                .expectStatus().isBadRequest();
+    }
+
+    @Test
+    void exportStreamsEveryHotelAsNdjson() {
+        Long total = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM hotel", Long.class);
+        String body = webTestClient.get().uri("/hotels/export").accept(MediaType.parseMediaType("application/x-ndjson"))
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(String.class).returnResult().getResponseBody();
+
+        assertNotNull(body);
+        assertEquals(total, body.lines().count());
+        assertNull(body.lines().filter(line -> !line.startsWith("{\"id\":")).findFirst().orElse(null));
+    }
+}
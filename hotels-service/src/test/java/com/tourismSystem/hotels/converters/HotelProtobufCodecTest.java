@@ -0,0 +1,114 @@
+package com.tourismSystem.hotels.converters;
+
+import com.google.protobuf.CodedInputStream;
+import com.google.protobuf.CodedOutputStream;
+import com.tourismSystem.hotels.dto.HotelDTO;
+import com.tourismSystem.hotels.dto.NearbyHotelDTO;
+import com.tourismSystem.hotels.dto.ScoredHotelDTO;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class HotelProtobufCodecTest {
+
+    private static final HotelDTO IMPERIAL = new HotelDTO(1L, "Hotel Imperial", "Calle Real 123", 4,
+            "Tokio", "Kantō", "Japón", 35.6895, 139.6917, 7L);
+    private static final HotelDTO WITHOUT_POSITION = new HotelDTO(2L, "Ryokan Hanako", "Avenida Goya 45", 3,
+            "Kioto", "Kansai", "Japón", null, null, 0L);
+
+    @Test
+    void aHotelKeepsEveryField() throws IOException {
+        assertSameHotel(IMPERIAL, readHotel(write(out -> HotelProtobufCodec.writeHotel(IMPERIAL, out))));
+    }
+
+    @Test
+    void nullFieldsAreLeftOutAndReadBackAsNull() throws IOException {
+        assertSameHotel(WITHOUT_POSITION, readHotel(write(out -> HotelProtobufCodec.writeHotel(WITHOUT_POSITION, out))));
+
+        HotelDTO empty = new HotelDTO();
+        byte[] bytes = write(out -> HotelProtobufCodec.writeHotel(empty, out));
+        assertEquals(0, bytes.length);
+        assertSameHotel(empty, readHotel(bytes));
+    }
+
+    @Test
+    void aListKeepsItsOrderAndTheNearbyAndScoredHotels() throws IOException {
+        List<HotelDTO> hotels = List.of(IMPERIAL, new NearbyHotelDTO(WITHOUT_POSITION, 12.5),
+                new ScoredHotelDTO(IMPERIAL, 3.25), new NearbyHotelDTO(IMPERIAL, 0.0));
+
+        List<HotelDTO> read = HotelProtobufCodec.readHotelList(
+                CodedInputStream.newInstance(write(out -> HotelProtobufCodec.writeHotelList(hotels, out))));
+
+        assertEquals(hotels.size(), read.size());
+        for (int i = 0; i < hotels.size(); i++) {
+            assertSameHotel(hotels.get(i), read.get(i));
+        }
+    }
+
+    @Test
+    void unknownFieldsAreSkipped() throws IOException {
+        // A newer hotels.proto: extra fields of every wire type, inside the hotel and around it in the list
+        byte[] hotel = write(out -> {
+            out.writeUInt64(20, 99);
+            HotelProtobufCodec.writeHotel(IMPERIAL, out);
+            out.writeString(21, "unknown");
+            out.writeFixed64(22, 1L);
+            out.writeFixed32(23, 1);
+        });
+        assertSameHotel(IMPERIAL, readHotel(hotel));
+
+        byte[] list = write(out -> {
+            out.writeString(2, "not a hotel");
+            out.writeByteArray(1, hotel);
+            out.writeInt32(3, 42);
+            out.writeByteArray(1, write(o -> HotelProtobufCodec.writeHotel(WITHOUT_POSITION, o)));
+        });
+        List<HotelDTO> read = HotelProtobufCodec.readHotelList(CodedInputStream.newInstance(list));
+        assertEquals(2, read.size());
+        assertSameHotel(IMPERIAL, read.get(0));
+        assertSameHotel(WITHOUT_POSITION, read.get(1));
+    }
+
+    // Every field on the wire; the version is only used for ETags and never sent
+    private static void assertSameHotel(HotelDTO expected, HotelDTO actual) {
+        assertSame(expected.getClass(), actual.getClass());
+        assertEquals(expected.getId(), actual.getId());
+        assertEquals(expected.getName(), actual.getName());
+        assertEquals(expected.getAddress(), actual.getAddress());
+        assertEquals(expected.getStars(), actual.getStars());
+        assertEquals(expected.getCity(), actual.getCity());
+        assertEquals(expected.getState(), actual.getState());
+        assertEquals(expected.getCountry(), actual.getCountry());
+        assertEquals(expected.getLatitude(), actual.getLatitude());
+        assertEquals(expected.getLongitude(), actual.getLongitude());
+        assertNull(actual.getVersion());
+        if (expected instanceof NearbyHotelDTO nearby) {
+            assertEquals(nearby.getDistanceKm(), ((NearbyHotelDTO) actual).getDistanceKm());
+        }
+        if (expected instanceof ScoredHotelDTO scored) {
+            assertEquals(scored.getScore(), ((ScoredHotelDTO) actual).getScore());
+        }
+    }
+
+    private static HotelDTO readHotel(byte[] bytes) throws IOException {
+        return HotelProtobufCodec.readHotel(CodedInputStream.newInstance(bytes));
+    }
+
+    private static byte[] write(Writer writer) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        CodedOutputStream out = CodedOutputStream.newInstance(bytes);
+        writer.write(out);
+        out.flush();
+        return bytes.toByteArray();
+    }
+
+    private interface Writer {
+        void write(CodedOutputStream out) throws IOException;
+    }
+}
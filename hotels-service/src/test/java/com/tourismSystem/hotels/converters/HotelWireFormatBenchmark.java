@@ -0,0 +1,124 @@
+package com.tourismSystem.hotels.converters;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileGenerator;
+import com.google.protobuf.CodedInputStream;
+import com.google.protobuf.CodedOutputStream;
+import com.tourismSystem.hotels.dto.HotelDTO;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.zip.GZIPOutputStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Payload size (raw and gzipped) and encode/decode time of a hotel list in each wire format offered by
+ * content negotiation, with the same mappers the converters use.
+ * Run with: mvn test -Dtest=HotelWireFormatBenchmark -Dbenchmark=true [-Dbenchmark.rows=10000]
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class HotelWireFormatBenchmark {
+
+    private static final int WARMUP = 20;
+    private static final int ITERATIONS = 50;
+    private static final TypeReference<List<HotelDTO>> HOTEL_LIST = new TypeReference<>() {
+    };
+
+    // Same city/state/country repeated across the list, as in a country or state page
+    private static final String[][] CITIES = {
+            {"Tokio", "Kanto", "Japón"}, {"Osaka", "Kansai", "Japón"}, {"Madrid", "Comunidad de Madrid", "España"},
+            {"Barcelona", "Cataluña", "España"}, {"París", "Île-de-France", "Francia"}, {"Lyon", "Auvernia-Ródano-Alpes", "Francia"},
+            {"Londres", "Inglaterra", "Reino Unido"}, {"Múnich", "Baviera", "Alemania"}, {"São Paulo", "São Paulo", "Brasil"},
+            {"Chicago", "Illinois", "Estados Unidos"}, {"Sídney", "Nueva Gales del Sur", "Australia"}, {"Guadalajara", "Jalisco", "México"}};
+
+    @Test
+    void compareWireFormats() throws Exception {
+        List<HotelDTO> hotels = hotels(Integer.getInteger("benchmark.rows", 10_000));
+
+        ObjectMapper json = Jackson2ObjectMapperBuilder.json().build();
+        ObjectMapper smile = Jackson2ObjectMapperBuilder.smile()
+                .factory(SmileFactory.builder().enable(SmileGenerator.Feature.CHECK_SHARED_STRING_VALUES).build())
+                .build();
+        ObjectMapper cbor = Jackson2ObjectMapperBuilder.cbor().build();
+
+        List<Format> formats = List.of(
+                new Format("JSON", json::writeValueAsBytes, bytes -> json.readValue(bytes, HOTEL_LIST)),
+                new Format("Smile", smile::writeValueAsBytes, bytes -> smile.readValue(bytes, HOTEL_LIST)),
+                new Format("CBOR", cbor::writeValueAsBytes, bytes -> cbor.readValue(bytes, HOTEL_LIST)),
+                new Format("Protobuf", HotelWireFormatBenchmark::protobuf,
+                        bytes -> HotelProtobufCodec.readHotelList(CodedInputStream.newInstance(bytes))));
+
+        System.out.printf("%d hotels%n", hotels.size());
+        System.out.printf("%-9s %12s %12s %12s %12s%n", "Format", "bytes", "gzip bytes", "encode ms", "decode ms");
+        for (Format format : formats) {
+            byte[] encoded = format.encoder().encode(hotels);
+            assertEquals(hotels.size(), format.decoder().decode(encoded).size());
+            for (int i = 0; i < WARMUP; i++) {
+                format.decoder().decode(format.encoder().encode(hotels));
+            }
+
+            long start = System.nanoTime();
+            for (int i = 0; i < ITERATIONS; i++) {
+                encoded = format.encoder().encode(hotels);
+            }
+            double encodeMillis = (System.nanoTime() - start) / 1e6 / ITERATIONS;
+
+            start = System.nanoTime();
+            for (int i = 0; i < ITERATIONS; i++) {
+                format.decoder().decode(encoded);
+            }
+            double decodeMillis = (System.nanoTime() - start) / 1e6 / ITERATIONS;
+
+            System.out.printf("%-9s %12d %12d %12.2f %12.2f%n",
+                    format.name(), encoded.length, gzip(encoded).length, encodeMillis, decodeMillis);
+        }
+    }
+
+    private static List<HotelDTO> hotels(int rows) {
+        Random random = new Random(7);
+        List<HotelDTO> hotels = new ArrayList<>(rows);
+        for (int i = 0; i < rows; i++) {
+            String[] city = CITIES[random.nextInt(CITIES.length)];
+            hotels.add(new HotelDTO((long) i + 1, "Hotel " + city[0] + " " + (i + 1), "Calle " + random.nextInt(500) + ", " + city[0],
+                    1 + random.nextInt(5), city[0], city[1], city[2],
+                    random.nextDouble() * 180 - 90, random.nextDouble() * 360 - 180, 0L));
+        }
+        return hotels;
+    }
+
+    private static byte[] protobuf(List<HotelDTO> hotels) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        CodedOutputStream out = CodedOutputStream.newInstance(bytes);
+        HotelProtobufCodec.writeHotelList(hotels, out);
+        out.flush();
+        return bytes.toByteArray();
+    }
+
+    private static byte[] gzip(byte[] bytes) throws IOException {
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+        try (GZIPOutputStream out = new GZIPOutputStream(compressed)) {
+            out.write(bytes);
+        }
+        return compressed.toByteArray();
+    }
+
+    private interface Encoder {
+        byte[] encode(List<HotelDTO> hotels) throws IOException;
+    }
+
+    private interface Decoder {
+        List<? extends HotelDTO> decode(byte[] bytes) throws IOException;
+    }
+
+    private record Format(String name, Encoder encoder, Decoder decoder) {
+    }
+}
@@ -0,0 +1,135 @@
+package com.tourismSystem.hotels.events;
+
+import com.tourismSystem.hotels.cache.HotelCache;
+import com.tourismSystem.hotels.dto.HotelDTO;
+import com.tourismSystem.hotels.entities.Hotel;
+import com.tourismSystem.hotels.index.GeoPointIndex;
+import com.tourismSystem.hotels.index.HotelFacetIndex;
+import com.tourismSystem.hotels.index.HotelGeoIndex;
+import com.tourismSystem.hotels.index.HotelSearchIndex;
+import com.tourismSystem.hotels.index.HotelTextIndex;
+import com.tourismSystem.hotels.repositories.HotelRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * The in-memory indexes and the hotel cache follow committed writes only.
+ */
+@SpringBootTest(properties = "spring.jpa.show-sql=false")
+@ActiveProfiles("test")
+class HotelChangeListenersTest {
+
+    // Far from every seeded hotel
+    private static final double LATITUDE = -54.80;
+    private static final double LONGITUDE = -68.30;
+
+    @Autowired
+    private HotelRepository hotelRepository;
+
+    @Autowired
+    private HotelSearchIndex searchIndex;
+
+    @Autowired
+    private HotelTextIndex textIndex;
+
+    @Autowired
+    private HotelFacetIndex facetIndex;
+
+    @Autowired
+    private HotelGeoIndex geoIndex;
+
+    @Autowired
+    private HotelCache hotelCache;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate transaction;
+    private final List<Long> saved = new ArrayList<>();
+
+    @BeforeEach
+    void waitForTheIndexes() throws InterruptedException {
+        transaction = new TransactionTemplate(transactionManager);
+        for (int i = 0; i < 100 && !(searchIndex.isReady() && textIndex.isReady() && facetIndex.isReady() && geoIndex.isReady()); i++) {
+            Thread.sleep(50);
+        }
+    }
+
+    @AfterEach
+    void removeSaved() {
+        saved.forEach(id -> transaction.executeWithoutResult(status -> hotelRepository.findById(id).ifPresent(hotelRepository::delete)));
+    }
+
+    @Test
+    void aRolledBackInsertIsNeverIndexed() {
+        Hotel hotel = transaction.execute(status -> {
+            Hotel written = hotelRepository.saveAndFlush(hotel("Zafiro Reversado"));
+            status.setRollbackOnly();
+            return written;
+        });
+
+        assertNotNull(hotel.getId());
+        assertFalse(indexed(hotel.getId()));
+        assertEquals(0, facetIndex.facets("Ushuaia Reversada", null, null, null).getTotal());
+    }
+
+    @Test
+    void aCommittedInsertIsIndexed() {
+        Hotel hotel = transaction.execute(status -> hotelRepository.save(hotel("Zafiro Confirmado")));
+        saved.add(hotel.getId());
+
+        assertTrue(indexed(hotel.getId()));
+        assertEquals(1, facetIndex.facets("Ushuaia Reversada", null, null, null).getTotal());
+    }
+
+    @Test
+    void aRolledBackUpdateKeepsTheCachedHotel() {
+        Hotel hotel = transaction.execute(status -> hotelRepository.save(hotel("Zafiro Cacheado")));
+        saved.add(hotel.getId());
+        hotelCache.put(new HotelDTO(hotel), hotelCache.generation());
+
+        transaction.executeWithoutResult(status -> {
+            hotelRepository.findById(hotel.getId()).orElseThrow().setStars(5);
+            hotelRepository.flush();
+            status.setRollbackOnly();
+        });
+        assertNotNull(hotelCache.peek(hotel.getId()));
+
+        transaction.executeWithoutResult(status -> hotelRepository.findById(hotel.getId()).orElseThrow().setStars(5));
+        assertNull(hotelCache.peek(hotel.getId()));
+    }
+
+    private boolean indexed(long id) {
+        boolean searched = searchIndex.search("Zafiro", 50).stream().anyMatch(hit -> hit.id() == id);
+        Set<Long> candidates = textIndex.findCandidates("Ushuaia Reversada", null, null);
+        boolean filtered = candidates != null && candidates.contains(id);
+        boolean located = geoIndex.nearest(LATITUDE, LONGITUDE, 1.0, 10).stream()
+                .map(GeoPointIndex.Neighbor::id).anyMatch(found -> found == id);
+        assertEquals(searched, filtered);
+        assertEquals(searched, located);
+        return searched;
+    }
+
+    private static Hotel hotel(String name) {
+        Hotel hotel = new Hotel(null, name, "Calle Fin del Mundo 1", 3, "Ushuaia Reversada", "Tierra del Fuego", "Argentina");
+        hotel.setLatitude(LATITUDE);
+        hotel.setLongitude(LONGITUDE);
+        return hotel;
+    }
+}
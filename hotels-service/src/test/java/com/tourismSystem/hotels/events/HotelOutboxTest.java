@@ -0,0 +1,197 @@
+package com.tourismSystem.hotels.events;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.tourismSystem.hotels.dto.HotelEventDTO;
+import com.tourismSystem.hotels.dto.HotelEventPageDTO;
+import com.tourismSystem.hotels.entities.Hotel;
+import com.tourismSystem.hotels.repositories.HotelRepository;
+import com.tourismSystem.hotels.service.HotelEventService;
+import com.tourismSystem.hotels.service.IHotelEventService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * JPA hotel changes reach the outbox in their own transaction, and the snapshot plus the events after
+ * its head describe the whole catalog, even while a transaction holding a lower position is still open.
+ */
+@SpringBootTest(properties = {"spring.jpa.show-sql=false", "hotels.outbox.visibility-delay=0s"})
+@ActiveProfiles("test")
+class HotelOutboxTest {
+
+    @Autowired
+    private HotelRepository hotelRepository;
+
+    @Autowired
+    private IHotelEventService hotelEventService;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    void changesArePublishedInOrderWithTheirVersion() {
+        long head = hotelEventService.findEventsAfter(0, null).getHead();
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+
+        Hotel hotel = transaction.execute(status ->
+                hotelRepository.save(new Hotel(null, "Hotel Outbox", "Calle Cola 1", 3, "Tokio", "Kanto", "Japón")));
+        transaction.executeWithoutResult(status -> hotelRepository.findById(hotel.getId()).orElseThrow().setStars(4));
+        transaction.executeWithoutResult(status -> hotelRepository.deleteById(hotel.getId()));
+
+        List<HotelEventDTO> events = hotelEventService.findEventsAfter(head, null).getEvents();
+        assertEquals(3, events.size());
+        assertEquals(List.of(HotelEventDTO.Type.SAVED, HotelEventDTO.Type.SAVED, HotelEventDTO.Type.DELETED),
+                events.stream().map(HotelEventDTO::getType).toList());
+        assertEquals(3, events.get(0).getHotel().getStars());
+        assertEquals(4, events.get(1).getHotel().getStars());
+        assertTrue(events.get(1).getVersion() > events.get(0).getVersion());
+        assertNull(events.get(2).getHotel());
+        assertTrue(events.stream().allMatch(event -> hotel.getId().equals(event.getHotelId())));
+    }
+
+    @Test
+    void rolledBackChangesAreNotPublished() {
+        long head = hotelEventService.findEventsAfter(0, null).getHead();
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            hotelRepository.save(new Hotel(null, "Hotel Fantasma", "Calle Niebla 2", 2, "Tokio", "Kanto", "Japón"));
+            status.setRollbackOnly();
+        });
+
+        assertEquals(head, hotelEventService.findEventsAfter(0, null).getHead());
+        assertTrue(hotelEventService.findEventsAfter(head, null).getEvents().isEmpty());
+    }
+
+    @Test
+    void snapshotCoversEveryHotelFromTheHead() {
+        List<HotelEventPageDTO> pages = snapshot(hotelEventService, 2);
+        long head = pages.get(0).getHead();
+        List<HotelEventDTO> events = pages.stream().flatMap(page -> page.getEvents().stream()).toList();
+
+        assertTrue(pages.size() > 1);
+        assertEquals(hotelRepository.count(), events.size());
+        assertEquals(events.stream().map(HotelEventDTO::getHotelId).sorted().toList(),
+                events.stream().map(HotelEventDTO::getHotelId).toList());
+        assertTrue(pages.stream().allMatch(page -> page.getHead() == head));
+        assertTrue(events.stream().allMatch(event -> event.getPosition() == head));
+        assertFalse(hotelEventService.findEventsAfter(head, null).isResync());
+        assertTrue(hotelEventService.findEventsAfter(head + 1, null).isResync());
+        assertTrue(hotelEventService.findSnapshot(hotelEventService.findEventsAfter(0, null).getHead() + 1, 0, 2).isResync());
+    }
+
+    @Test
+    void aYoungerRowHoldsBackTheOlderOnesAfterIt() {
+        // One second of visibility delay: the row stamped now has a lower id than the one stamped long ago
+        JdbcHotelOutbox outbox = new JdbcHotelOutbox(jdbcTemplate, objectMapper, Duration.ofSeconds(1));
+        long before = outbox.head();
+        long now = outbox.now();
+        String insert = "INSERT INTO hotel_outbox (type, hotel_id, hotel_version, payload, occurred_at) VALUES ('DELETED', ?, 0, NULL, ?)";
+        jdbcTemplate.update(insert, -1L, now);
+        jdbcTemplate.update(insert, -2L, now - 60_000);
+        try {
+            assertTrue(outbox.readAfter(before, 10).isEmpty());
+            assertTrue(outbox.visibleHead() <= before);
+        } finally {
+            jdbcTemplate.update("DELETE FROM hotel_outbox WHERE hotel_id IN (-1, -2)");
+        }
+    }
+
+    @Test
+    void snapshotStaysBehindATransactionStillOpen() throws Exception {
+        // One second of visibility delay, against the same table
+        JdbcHotelOutbox outbox = new JdbcHotelOutbox(jdbcTemplate, objectMapper, Duration.ofSeconds(1));
+        HotelEventService events = new HotelEventService(outbox, hotelRepository, 500, 5000);
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        CountDownLatch written = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicLong openPosition = new AtomicLong();
+        List<Long> saved = new CopyOnWriteArrayList<>();
+
+        // Gets its outbox position first and commits last
+        CompletableFuture<Void> slow = CompletableFuture.runAsync(() -> transaction.executeWithoutResult(status -> {
+            Hotel hotel = hotelRepository.saveAndFlush(new Hotel(null, "Hotel Rezagado", "Calle Lenta 3", 3, "Tokio", "Kanto", "Japón"));
+            saved.add(hotel.getId());
+            openPosition.set(jdbcTemplate.queryForObject("SELECT id FROM hotel_outbox WHERE hotel_id = ?", Long.class, hotel.getId()));
+            written.countDown();
+            await(release);
+        }));
+        try {
+            assertTrue(written.await(10, TimeUnit.SECONDS));
+            Hotel quick = transaction.execute(status ->
+                    hotelRepository.save(new Hotel(null, "Hotel Veloz", "Calle Rápida 4", 4, "Tokio", "Kanto", "Japón")));
+            saved.add(quick.getId());
+            assertTrue(outbox.head() > openPosition.get());
+
+            List<HotelEventPageDTO> pages = snapshot(events, 500);
+            HotelEventPageDTO snapshot = pages.get(0);
+            assertTrue(snapshot.getHead() < openPosition.get());
+            assertTrue(pages.stream().flatMap(page -> page.getEvents().stream())
+                    .anyMatch(event -> quick.getId().equals(event.getHotelId())));
+            assertTrue(pages.stream().flatMap(page -> page.getEvents().stream())
+                    .allMatch(event -> event.getPosition() == snapshot.getHead()));
+
+            release.countDown();
+            slow.get(10, TimeUnit.SECONDS);
+            // The late commit is served after the snapshot once it is visible, with the quick change replayed.
+            // The quick row was stamped later and may clear the delay a little after the open one
+            long quickPosition = jdbcTemplate.queryForObject("SELECT id FROM hotel_outbox WHERE hotel_id = ?", Long.class, quick.getId());
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+            List<Long> served;
+            while (!(served = events.findEventsAfter(snapshot.getHead(), null).getEvents().stream()
+                    .map(HotelEventDTO::getPosition).toList()).containsAll(List.of(openPosition.get(), quickPosition))) {
+                assertTrue(System.nanoTime() < deadline, "Positions never all served, got " + served);
+                Thread.sleep(100);
+            }
+        } finally {
+            release.countDown();
+            slow.exceptionally(ex -> null).get(10, TimeUnit.SECONDS);
+            saved.forEach(hotelRepository::deleteById);
+        }
+    }
+
+    // Every page of a snapshot, following next at the position of the first one
+    private static List<HotelEventPageDTO> snapshot(IHotelEventService events, int limit) {
+        List<HotelEventPageDTO> pages = new ArrayList<>();
+        HotelEventPageDTO page = events.findSnapshot(null, 0, limit);
+        pages.add(page);
+        while (page.getNext() != null) {
+            page = events.findSnapshot(pages.get(0).getHead(), page.getNext(), limit);
+            assertFalse(page.isResync());
+            pages.add(page);
+        }
+        return pages;
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            assertTrue(latch.await(10, TimeUnit.SECONDS));
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(ex);
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package com.tourismSystem.hotels.index;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class Bm25IndexTest {
+
+    @Test
+    void tokenizesIgnoringCaseAccentsAndPunctuation() {
+        assertEquals(List.of("gran", "via", "hotel", "56"), Bm25Index.tokenize("  Gran Vía-Hotel, 56"));
+    }
+
+    @Test
+    void rarerAndShorterMatchesScoreHigher() {
+        Bm25Index index = new Bm25Index();
+        index.add(1L, "Hotel Imperial");
+        index.add(2L, "Hotel Sakura");
+        index.add(3L, "Imperial Palace Hotel and Spa Resort");
+
+        Map<Long, Double> scores = new HashMap<>();
+        index.score(Bm25Index.tokenize("IMPERIAL"), 1.0, scores);
+
+        assertEquals(2, scores.size());
+        assertTrue(scores.get(1L) > scores.get(3L));
+
+        Map<Long, Double> common = new HashMap<>();
+        index.score(Bm25Index.tokenize("hotel"), 1.0, common);
+        assertTrue(common.get(1L) < scores.get(1L));
+    }
+
+    @Test
+    void updatedAndRemovedDocumentsAreUnindexed() {
+        Bm25Index index = new Bm25Index();
+        index.add(1L, "Hotel Japón");
+        index.add(2L, "Ryokan Japón");
+
+        index.add(1L, "Hotel España");
+        index.remove(2L);
+
+        Map<Long, Double> scores = new HashMap<>();
+        index.score(Bm25Index.tokenize("japon"), 1.0, scores);
+        assertTrue(scores.isEmpty());
+        index.score(Bm25Index.tokenize("espana"), 1.0, scores);
+        assertEquals(Map.of(1L, scores.get(1L)), scores);
+    }
+}
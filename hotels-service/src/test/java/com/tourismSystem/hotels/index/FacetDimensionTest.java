@@ -0,0 +1,50 @@
+package com.tourismSystem.hotels.index;
+
+import com.tourismSystem.shared.text.TextNormalizer;
+import org.junit.jupiter.api.Test;
+import org.roaringbitmap.RoaringBitmap;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+class FacetDimensionTest {
+
+    @Test
+    void groupsValuesIgnoringCaseAndAccents() {
+        FacetDimension countries = new FacetDimension(TextNormalizer::fold);
+        countries.put(1, "Japón");
+        countries.put(2, "JAPON");
+        countries.put(3, "España");
+
+        assertEquals(RoaringBitmap.bitmapOf(1, 2), countries.idsOf("japon"));
+        assertEquals(2, countries.cardinality());
+        assertEquals("Japón", countries.label(0));
+    }
+
+    @Test
+    void movedAndRemovedIdsLeaveTheirPreviousValue() {
+        FacetDimension countries = new FacetDimension(TextNormalizer::fold);
+        countries.put(1, "Japón");
+        countries.put(2, "Japón");
+
+        countries.put(1, "España");
+        countries.remove(2);
+
+        assertEquals(new RoaringBitmap(), countries.idsOf("Japón"));
+        assertEquals(RoaringBitmap.bitmapOf(1), countries.idsOf("españa"));
+        assertFalse(countries.bitmap(0).contains(2) || countries.bitmap(1).contains(2));
+    }
+
+    @Test
+    void sparseAndLargeIdsAreIndexed() {
+        FacetDimension countries = new FacetDimension(TextNormalizer::fold);
+        countries.put(7, "Japón");
+        countries.put(Integer.MAX_VALUE, "Japón");
+
+        assertEquals(RoaringBitmap.bitmapOf(7, Integer.MAX_VALUE), countries.idsOf("japon"));
+        assertEquals(RoaringBitmap.bitmapOf(7, Integer.MAX_VALUE), countries.bitmap(0));
+
+        countries.remove(Integer.MAX_VALUE);
+        assertEquals(RoaringBitmap.bitmapOf(7), countries.idsOf("japon"));
+    }
+}
@@ -0,0 +1,91 @@
+package com.tourismSystem.hotels.index;
+
+import com.tourismSystem.hotels.utils.GeoDistance;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.PriorityQueue;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * k-nearest lookups through {@link GeoPointIndex} vs. a brute-force haversine scan of every
+ * hotel position (what a "near" query without a spatial index has to do).
+ * Run with: mvn test -Dtest=GeoPointIndexBenchmark -Dbenchmark=true [-Dbenchmark.rows=1000000]
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class GeoPointIndexBenchmark {
+
+    private static final int QUERIES = 2_000;
+    private static final int K = 10;
+
+    @Test
+    void compareIndexAndBruteForce() {
+        int rows = Integer.getInteger("benchmark.rows", 200_000);
+        Random random = new Random(7);
+        double[] lats = new double[rows];
+        double[] lons = new double[rows];
+        for (int i = 0; i < rows; i++) {
+            lats[i] = random.nextDouble() * 180 - 90;
+            lons[i] = random.nextDouble() * 360 - 180;
+        }
+        GeoPointIndex index = new GeoPointIndex();
+        index.reload(points -> {
+            for (int i = 0; i < rows; i++) {
+                points.put(i, lats[i], lons[i]);
+            }
+        });
+
+        double[][] queries = new double[QUERIES][];
+        for (int i = 0; i < QUERIES; i++) {
+            queries[i] = new double[]{random.nextDouble() * 180 - 90, random.nextDouble() * 360 - 180};
+        }
+
+        // Warm-up, and both sides must agree
+        for (int i = 0; i < 50; i++) {
+            long[] expected = bruteForce(lats, lons, queries[i][0], queries[i][1]);
+            long[] actual = index.nearest(queries[i][0], queries[i][1], null, K).stream()
+                    .mapToLong(GeoPointIndex.Neighbor::id).toArray();
+            assertEquals(Arrays.toString(expected), Arrays.toString(actual));
+        }
+
+        long start = System.nanoTime();
+        long checksum = 0;
+        for (double[] query : queries) {
+            checksum += index.nearest(query[0], query[1], null, K).get(0).id();
+        }
+        double indexMicros = (System.nanoTime() - start) / 1_000.0 / QUERIES;
+
+        int bruteQueries = Math.max(10, QUERIES / 20);
+        start = System.nanoTime();
+        for (int i = 0; i < bruteQueries; i++) {
+            checksum += bruteForce(lats, lons, queries[i][0], queries[i][1])[0];
+        }
+        double bruteMicros = (System.nanoTime() - start) / 1_000.0 / bruteQueries;
+
+        System.out.printf("Points: %d, k = %d (checksum %d)%n", rows, K, checksum);
+        System.out.printf("k-d tree    : %10.1f us/query%n", indexMicros);
+        System.out.printf("Brute force : %10.1f us/query%n", bruteMicros);
+    }
+
+    private static long[] bruteForce(double[] lats, double[] lons, double lat, double lon) {
+        PriorityQueue<double[]> best = new PriorityQueue<>(Comparator.comparingDouble((double[] c) -> c[1]).reversed());
+        for (int i = 0; i < lats.length; i++) {
+            double distance = GeoDistance.haversineKm(lat, lon, lats[i], lons[i]);
+            if (best.size() < K) {
+                best.add(new double[]{i, distance});
+            } else if (distance < best.peek()[1]) {
+                best.poll();
+                best.add(new double[]{i, distance});
+            }
+        }
+        long[] ids = new long[best.size()];
+        for (int i = ids.length - 1; i >= 0; i--) {
+            ids[i] = (long) best.poll()[0];
+        }
+        return ids;
+    }
+}
@@ -0,0 +1,97 @@
+package com.tourismSystem.hotels.index;
+
+import com.tourismSystem.hotels.utils.GeoDistance;
+import org.junit.jupiter.api.Test;
+
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class GeoPointIndexTest {
+
+    @Test
+    void nearestMatchesBruteForceHaversine() {
+        Random random = new Random(42);
+        GeoPointIndex index = new GeoPointIndex();
+        Map<Long, double[]> points = new HashMap<>();
+        for (long id = 1; id <= 5000; id++) {
+            double[] point = {random.nextDouble() * 180 - 90, random.nextDouble() * 360 - 180};
+            points.put(id, point);
+            index.put(id, point[0], point[1]);
+        }
+        index.compact();
+        // Moves and removals after the build go through the overlay
+        for (long id = 1; id <= 100; id++) {
+            double[] point = {random.nextDouble() * 180 - 90, random.nextDouble() * 360 - 180};
+            points.put(id, point);
+            index.put(id, point[0], point[1]);
+        }
+        for (long id = 101; id <= 150; id++) {
+            points.remove(id);
+            index.remove(id);
+        }
+
+        for (int i = 0; i < 50; i++) {
+            double lat = random.nextDouble() * 180 - 90;
+            double lon = random.nextDouble() * 360 - 180;
+            Double radius = i % 2 == 0 ? null : 1500.0;
+            List<Long> expected = points.entrySet().stream()
+                    .filter(e -> radius == null || haversine(lat, lon, e.getValue()) <= radius)
+                    .sorted(Comparator.comparingDouble(e -> haversine(lat, lon, e.getValue())))
+                    .limit(10)
+                    .map(Map.Entry::getKey)
+                    .toList();
+
+            List<GeoPointIndex.Neighbor> nearest = index.nearest(lat, lon, radius, 10);
+
+            assertEquals(expected, nearest.stream().map(GeoPointIndex.Neighbor::id).toList());
+            for (GeoPointIndex.Neighbor neighbor : nearest) {
+                assertEquals(haversine(lat, lon, points.get(neighbor.id())), neighbor.distanceKm(), 1e-6);
+            }
+        }
+    }
+
+    @Test
+    void reloadBuildsTheTreeOnce() {
+        GeoPointIndex index = new GeoPointIndex();
+        // Enough puts to trigger many rebuilds outside a reload
+        for (long id = 1; id <= 2000; id++) {
+            index.put(id, 0, 0);
+        }
+        int builds = index.builds();
+        assertTrue(builds > 1);
+
+        index.reload(points -> {
+            for (long id = 10_001; id <= 30_000; id++) {
+                points.put(id, (id % 180) - 90, (id % 360) - 180);
+            }
+        });
+
+        assertEquals(builds + 1, index.builds());
+        assertEquals(20_000, index.size());
+        // The points of before the reload, all at (0, 0), are gone
+        assertTrue(index.nearest(0, 0, null, 50).stream().allMatch(neighbor -> neighbor.id() > 10_000));
+    }
+
+    @Test
+    void handlesTheAntimeridian() {
+        GeoPointIndex index = new GeoPointIndex();
+        index.put(1L, -17.7, 179.9);
+        index.put(2L, -17.7, 170.0);
+
+        List<GeoPointIndex.Neighbor> nearest = index.nearest(-17.7, -179.9, 50.0, 5);
+
+        assertEquals(1, nearest.size());
+        assertEquals(1L, nearest.get(0).id());
+        assertTrue(nearest.get(0).distanceKm() < 25);
+    }
+
+    private static double haversine(double lat, double lon, double[] point) {
+        return GeoDistance.haversineKm(lat, lon, point[0], point[1]);
+    }
+}
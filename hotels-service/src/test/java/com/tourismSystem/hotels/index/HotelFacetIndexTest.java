@@ -0,0 +1,53 @@
+package com.tourismSystem.hotels.index;
+
+import com.tourismSystem.hotels.dto.HotelFacetsDTO;
+import com.tourismSystem.hotels.entities.Hotel;
+import com.tourismSystem.hotels.events.HotelChangedEvent;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class HotelFacetIndexTest {
+
+    // Fed through change events only, so no database is needed
+    private final HotelFacetIndex index = new HotelFacetIndex(null);
+
+    @Test
+    void countsAreTakenWithinTheSelection() {
+        saved(new Hotel(1L, "Hotel Imperial", "Calle 1", 5, "Tokio", "Kanto", "Japón"));
+        saved(new Hotel(2L, "Ryokan Hanako", "Calle 2", 3, "Kioto", "Kansai", "Japón"));
+        saved(new Hotel(3L, "Hotel Sakura", "Calle 3", 5, "TOKIO", "Kanto", "JAPON"));
+        saved(new Hotel(4L, "Hotel Sol", "Calle 4", 4, "Madrid", "Madrid", "España"));
+
+        HotelFacetsDTO all = index.facets(null, null, null, null);
+        assertEquals(4, all.getTotal());
+        assertEquals(Map.of("Japón", 3L, "España", 1L), all.getCountries());
+
+        HotelFacetsDTO fiveStars = index.facets(null, null, "japon", 5);
+        assertEquals(2, fiveStars.getTotal());
+        assertEquals(Map.of(5, 2L), fiveStars.getStars());
+        assertEquals(Map.of("Tokio", 2L), fiveStars.getCities());
+        assertEquals(Map.of("Kanto", 2L), fiveStars.getStates());
+    }
+
+    @Test
+    void movedAndDeletedHotelsLeaveTheirCounts() {
+        saved(new Hotel(1L, "Hotel Imperial", "Calle 1", 5, "Tokio", "Kanto", "Japón"));
+        saved(new Hotel(2L, "Ryokan Hanako", "Calle 2", 3, "Kioto", "Kansai", "Japón"));
+
+        saved(new Hotel(1L, "Hotel Imperial", "Calle 1", 4, "Kioto", "Kansai", "Japón"));
+        index.onHotelChanged(new HotelChangedEvent(HotelChangedEvent.Type.DELETED,
+                new Hotel(2L, "Ryokan Hanako", "Calle 2", 3, "Kioto", "Kansai", "Japón")));
+
+        HotelFacetsDTO facets = index.facets(null, null, null, null);
+        assertEquals(1, facets.getTotal());
+        assertEquals(Map.of(4, 1L), facets.getStars());
+        assertEquals(Map.of("Kioto", 1L), facets.getCities());
+    }
+
+    private void saved(Hotel hotel) {
+        index.onHotelChanged(new HotelChangedEvent(HotelChangedEvent.Type.SAVED, hotel));
+    }
+}
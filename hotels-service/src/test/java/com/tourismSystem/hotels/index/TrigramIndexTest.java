@@ -0,0 +1,36 @@
+package com.tourismSystem.hotels.index;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TrigramIndexTest {
+
+    @Test
+    void findsSubstringsIgnoringCaseAndAccents() {
+        TrigramIndex index = new TrigramIndex();
+        index.add("Japón", 1L);
+        index.add("Japón", 2L);
+        index.add("España", 3L);
+
+        assertEquals(Set.of(1L, 2L), index.findContaining("JAPON"));
+        assertEquals(Set.of(1L, 2L), index.findContaining("pó"));
+        assertEquals(Set.of(3L), index.findContaining("pañ"));
+        assertTrue(index.findContaining("Francia").isEmpty());
+    }
+
+    @Test
+    void removedIdsAreNoLongerReturned() {
+        TrigramIndex index = new TrigramIndex();
+        index.add("Tokio", 1L);
+        index.add("Kioto", 2L);
+
+        index.remove("Tokio", 1L);
+
+        assertEquals(Set.of(2L), index.findContaining("kio"));
+        assertTrue(index.findContaining("tok").isEmpty());
+    }
+}
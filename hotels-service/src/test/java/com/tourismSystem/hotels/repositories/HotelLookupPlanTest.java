@@ -0,0 +1,101 @@
+package com.tourismSystem.hotels.repositories;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * The lookups in {@link HotelRepository} must resolve through the indexes created by the
+ * migrations, not a table scan. Each lookup is run through the repository and the SQL Hibernate
+ * sent for it (recorded by {@link RecordedSql}) is checked against the H2 plan (EXPLAIN names
+ * the index used), so a change to the JPQL is checked too.
+ */
+@SpringBootTest(properties = {"spring.jpa.show-sql=false",
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+                + "com.tourismSystem.hotels.repositories.HotelLookupPlanTest$RecordedSql"})
+@ActiveProfiles("test")
+class HotelLookupPlanTest {
+
+    @Autowired
+    private HotelRepository hotelRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void equalityLookupsSeekTheKeyIndexes() {
+        assertUsesIndex(() -> hotelRepository.findDtoByNameKey("hilton"), "IDX_HOTEL_NAME_KEY");
+        assertUsesIndex(() -> hotelRepository.findDtoByAddressKey("calle 1"), "IDX_HOTEL_ADDRESS_KEY");
+    }
+
+    @Test
+    void keysetPagesSeekTheCompositeIndexes() {
+        // First pages and the ones after a cursor run the same statement, AFTER_CURSOR included
+        for (String lastName : new String[]{null, "a"}) {
+            Long lastId = lastName == null ? null : 1L;
+            assertUsesIndex(() -> hotelRepository.findPageByCityKey("cordoba", lastName, lastId, Limit.of(20)),
+                    "IDX_HOTEL_CITY_KEY_NAME");
+            assertUsesIndex(() -> hotelRepository.findPageByStateKey("cordoba", lastName, lastId, Limit.of(20)),
+                    "IDX_HOTEL_STATE_KEY_NAME");
+            assertUsesIndex(() -> hotelRepository.findPageByCountryKey("argentina", lastName, lastId, Limit.of(20)),
+                    "IDX_HOTEL_COUNTRY_KEY_NAME");
+            assertUsesIndex(() -> hotelRepository.findPageByStars(5, lastName, lastId, Limit.of(20)),
+                    "IDX_HOTEL_STARS_NAME");
+        }
+    }
+
+    @Test
+    void manyCitiesAtOnceSeekTheCityIndex() {
+        assertUsesIndex(() -> hotelRepository.findByCityKeys(List.of("tokio", "osaka", "kioto")),
+                "IDX_HOTEL_CITY_KEY_NAME");
+    }
+
+    @Test
+    void outboxAgesSeekTheOccurredAtIndex() {
+        String plan = explain("DELETE FROM hotel_outbox WHERE occurred_at < ? AND id < ?");
+        assertTrue(plan.contains("IDX_HOTEL_OUTBOX_OCCURRED_AT"), plan);
+    }
+
+    @Test
+    void foldingTheColumnInTheQueryDefeatsTheIndex() {
+        String plan = explain("SELECT id FROM hotel WHERE UPPER(city) = UPPER('cordoba')");
+        assertFalse(plan.contains("IDX_HOTEL_"), plan);
+    }
+
+    private void assertUsesIndex(Runnable lookup, String index) {
+        RecordedSql.statements.clear();
+        lookup.run();
+        String sql = RecordedSql.statements.stream().reduce((first, last) -> last)
+                .orElseThrow(() -> new AssertionError("The lookup sent no SQL"));
+        String plan = explain(sql);
+        assertTrue(plan.contains(index), () -> "Expected " + index + " in plan of:\n" + sql + "\n" + plan);
+    }
+
+    // Parameters stay unbound: H2 plans them without values
+    private String explain(String sql) {
+        return jdbcTemplate.queryForObject("EXPLAIN " + sql, String.class).toUpperCase();
+    }
+
+    /** Records the SQL Hibernate prepares, as it will send it. */
+    public static class RecordedSql implements StatementInspector {
+
+        static final Queue<String> statements = new ConcurrentLinkedQueue<>();
+
+        @Override
+        public String inspect(String sql) {
+            statements.add(sql);
+            return sql;
+        }
+    }
+}
@@ -0,0 +1,116 @@
+package com.tourismSystem.hotels.repositories;
+
+import com.tourismSystem.hotels.bootstrap.HotelCsvLoader;
+import com.tourismSystem.hotels.dto.HotelDTO;
+import com.tourismSystem.hotels.entities.Hotel;
+import com.tourismSystem.shared.text.TextNormalizer;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Entity hydration + copy constructor vs. DTO projection for a country-wide hotel list.
+ * Run with: mvn test -Dtest=HotelProjectionBenchmark -Dbenchmark=true [-Dbenchmark.rows=20000]
+ */
+@SpringBootTest(properties = "spring.jpa.show-sql=false")
+@ActiveProfiles("test")
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class HotelProjectionBenchmark {
+
+    private static final String COUNTRY = "Benchmarkia";
+    private static final int WARMUP = 5;
+    private static final int ITERATIONS = 20;
+
+    @Autowired
+    private HotelRepository hotelRepository;
+
+    @Autowired
+    private HotelCsvLoader hotelCsvLoader;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void compareEntityAndProjectionReads() throws Exception {
+        int rows = Integer.getInteger("benchmark.rows", 20_000);
+        insertHotels(rows);
+
+        // Previous read path: managed entities in a read-write transaction, copied into DTOs
+        TransactionTemplate readWrite = new TransactionTemplate(transactionManager);
+        Supplier<List<HotelDTO>> entities = () -> readWrite.execute(status -> entityManager
+                .createQuery("SELECT h FROM Hotel h WHERE UPPER(h.country) = UPPER(:country) ORDER BY h.name, h.id", Hotel.class)
+                .setParameter("country", COUNTRY)
+                .setMaxResults(rows)
+                .getResultList()
+                .stream()
+                .map(HotelDTO::new)
+                .toList());
+
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        Supplier<List<HotelDTO>> projection = () -> readOnly.execute(status ->
+                hotelRepository.findPageByCountryKey(TextNormalizer.fold(COUNTRY), null, null, Limit.of(rows)));
+
+        assertEquals(rows, entities.get().size());
+        assertEquals(rows, projection.get().size());
+
+        Result entityResult = measure(entities);
+        Result projectionResult = measure(projection);
+
+        System.out.printf("Rows per call: %d%n", rows);
+        System.out.printf("Entities + copy : %8.2f ms/call, %10d KB allocated/call%n", entityResult.millis(), entityResult.kilobytes());
+        System.out.printf("DTO projection  : %8.2f ms/call, %10d KB allocated/call%n", projectionResult.millis(), projectionResult.kilobytes());
+    }
+
+    private Result measure(Supplier<List<HotelDTO>> call) {
+        for (int i = 0; i < WARMUP; i++) {
+            call.get();
+        }
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().threadId();
+
+        long allocatedBefore = threads.getThreadAllocatedBytes(threadId);
+        long start = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            call.get();
+        }
+        long elapsed = System.nanoTime() - start;
+        long allocated = threads.getThreadAllocatedBytes(threadId) - allocatedBefore;
+
+        return new Result(elapsed / 1_000_000.0 / ITERATIONS, allocated / 1024 / ITERATIONS);
+    }
+
+    private void insertHotels(int rows) throws Exception {
+        jdbcTemplate.update("DELETE FROM hotel WHERE country = ?", COUNTRY);
+        StringBuilder csv = new StringBuilder("id,name,address,stars,city,state,country\n");
+        for (int i = 1; i <= rows; i++) {
+            csv.append(i).append(",Hotel ").append(i).append(",Calle ").append(i).append(',')
+                    .append(i % 5 + 1).append(",Ciudad ").append(i % 50).append(",Estado,").append(COUNTRY).append('\n');
+        }
+        hotelCsvLoader.load(new ByteArrayInputStream(csv.toString().getBytes(StandardCharsets.UTF_8)));
+    }
+
+    private record Result(double millis, long kilobytes) {
+    }
+}
@@ -0,0 +1,217 @@
+package com.tourismSystem.shared.balancing;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.CompletionContext;
+import org.springframework.cloud.client.loadbalancer.LoadBalancerLifecycle;
+import org.springframework.cloud.client.loadbalancer.Request;
+import org.springframework.cloud.client.loadbalancer.Response;
+import org.springframework.cloud.client.loadbalancer.ResponseData;
+import org.springframework.cloud.client.loadbalancer.TimedRequestContext;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Latency and load of every instance a service calls, fed by the load balancer lifecycle of each
+ * call (and directly by hedged calls): an EWMA of the latency (a failure or 5xx counts as at least
+ * the failure penalty) and the calls in flight, per instance, plus the latest 512 latencies per
+ * service for its p95.
+ * <p>
+ * {@link #choose} is power of two choices: two random candidates, and the one with the lower
+ * latency x (in flight + 1) wins. An idle instance never called, or not called for probe-after,
+ * scores 0 so it gets one request and a fresh sample. Published meters:
+ * loadbalancer.instance.latency and loadbalancer.instance.in-flight (tagged service and instance).
+ * <p>
+ * Shared by api-gateway (settings in gateway.load-balancing.*) and cities-service
+ * (cities.load-balancing.*); each declares it as a bean from its own settings.
+ */
+public class InstanceStats implements LoadBalancerLifecycle<Object, Object, ServiceInstance> {
+
+    private static final int WINDOW = 512;
+
+    private final Map<String, Instance> instances = new ConcurrentHashMap<>();
+    private final Map<String, Window> services = new ConcurrentHashMap<>();
+    private final MeterRegistry meterRegistry;
+    private final double smoothing;
+    private final long probeAfterNanos;
+    private final long failurePenaltyNanos;
+    private final int hedgeMinSamples;
+    private final long hedgeMinDelayNanos;
+    private final long hedgeMaxDelayNanos;
+
+    public InstanceStats(MeterRegistry meterRegistry, double smoothing, Duration probeAfter, Duration failurePenalty,
+                         int hedgeMinSamples, Duration hedgeMinDelay, Duration hedgeMaxDelay) {
+        this.meterRegistry = meterRegistry;
+        this.smoothing = smoothing;
+        this.probeAfterNanos = probeAfter.toNanos();
+        this.failurePenaltyNanos = failurePenalty.toNanos();
+        this.hedgeMinSamples = hedgeMinSamples;
+        this.hedgeMinDelayNanos = hedgeMinDelay.toNanos();
+        this.hedgeMaxDelayNanos = hedgeMaxDelay.toNanos();
+    }
+
+    @Override
+    public void onStart(Request<Object> request) {
+    }
+
+    @Override
+    public void onStartRequest(Request<Object> request, Response<ServiceInstance> lbResponse) {
+        if (lbResponse.hasServer() && request.getContext() instanceof TimedRequestContext timed) {
+            timed.setRequestStartTime(System.nanoTime());
+            started(lbResponse.getServer());
+        }
+    }
+
+    @Override
+    public void onComplete(CompletionContext<Object, ServiceInstance, Object> completion) {
+        Response<ServiceInstance> lbResponse = completion.getLoadBalancerResponse();
+        if (lbResponse == null || !lbResponse.hasServer()
+                || !(completion.getLoadBalancerRequest().getContext() instanceof TimedRequestContext timed)
+                || timed.getRequestStartTime() == 0) {
+            return;
+        }
+        boolean failed = completion.status() == CompletionContext.Status.FAILED
+                || (completion.getClientResponse() instanceof ResponseData response
+                && response.getHttpStatus() != null && response.getHttpStatus().is5xxServerError());
+        finished(lbResponse.getServer(), System.nanoTime() - timed.getRequestStartTime(), failed);
+    }
+
+    public void started(ServiceInstance instance) {
+        instance(instance).inFlight.incrementAndGet();
+    }
+
+    public void finished(ServiceInstance instance, long elapsedNanos, boolean failed) {
+        long sample = failed ? Math.max(elapsedNanos, failurePenaltyNanos) : elapsedNanos;
+        Instance stats = instance(instance);
+        stats.inFlight.decrementAndGet();
+        stats.record(sample, smoothing);
+        services.computeIfAbsent(instance.getServiceId(), ignored -> new Window()).add(sample);
+    }
+
+    /**
+     * Power of two choices among the candidates; null when there are none.
+     */
+    public ServiceInstance choose(List<ServiceInstance> candidates) {
+        if (candidates.isEmpty()) {
+            return null;
+        }
+        if (candidates.size() == 1) {
+            return candidates.get(0);
+        }
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int first = random.nextInt(candidates.size());
+        int second = random.nextInt(candidates.size() - 1);
+        if (second >= first) {
+            second++;
+        }
+        ServiceInstance a = candidates.get(first);
+        ServiceInstance b = candidates.get(second);
+        return score(b) < score(a) ? b : a;
+    }
+
+    /**
+     * How long to wait before hedging a call to the service: its p95 latency within the hedging
+     * bounds, or empty while there are too few samples to know it.
+     */
+    public Optional<Duration> hedgeDelay(String serviceId) {
+        Window window = services.get(serviceId);
+        if (window == null || window.count() < hedgeMinSamples) {
+            return Optional.empty();
+        }
+        long p95 = Math.min(Math.max(window.p95(), hedgeMinDelayNanos), hedgeMaxDelayNanos);
+        return Optional.of(Duration.ofNanos(p95));
+    }
+
+    public static String key(ServiceInstance instance) {
+        return instance.getServiceId() + "@" + instance.getHost() + ":" + instance.getPort();
+    }
+
+    public static List<ServiceInstance> without(Collection<ServiceInstance> instances, ServiceInstance excluded) {
+        return instances.stream().filter(instance -> !key(instance).equals(key(excluded))).toList();
+    }
+
+    private double score(ServiceInstance candidate) {
+        Instance stats = instances.get(key(candidate));
+        if (stats == null) {
+            return 0;
+        }
+        long average = stats.averageNanos.get();
+        int inFlight = Math.max(0, stats.inFlight.get());
+        // One probe at a time: an unknown instance is not chosen again until its first call is back
+        if (average == 0) {
+            return inFlight == 0 ? 0 : Double.MAX_VALUE;
+        }
+        if (inFlight == 0 && System.nanoTime() - stats.lastSample > probeAfterNanos) {
+            return 0;
+        }
+        return (double) average * (inFlight + 1);
+    }
+
+    private Instance instance(ServiceInstance instance) {
+        return instances.computeIfAbsent(key(instance), key -> {
+            Instance stats = new Instance();
+            String service = instance.getServiceId();
+            String address = instance.getHost() + ":" + instance.getPort();
+            Tags tags = Tags.of("service", service, "instance", address);
+            meterRegistry.gauge("loadbalancer.instance.latency", tags, stats, tracked -> tracked.averageNanos.get() / 1e9);
+            meterRegistry.gauge("loadbalancer.instance.in-flight", tags, stats, tracked -> tracked.inFlight.get());
+            return stats;
+        });
+    }
+
+    private static final class Instance {
+
+        private final AtomicInteger inFlight = new AtomicInteger();
+        private final AtomicLong averageNanos = new AtomicLong();
+        private volatile long lastSample;
+
+        void record(long sampleNanos, double smoothing) {
+            averageNanos.updateAndGet(average -> average == 0 ? sampleNanos
+                    : average + (long) (smoothing * (sampleNanos - average)));
+            lastSample = System.nanoTime();
+        }
+    }
+
+    // Latest WINDOW latencies of a service; the p95 is recomputed at most every 100 ms
+    private static final class Window {
+
+        private final AtomicLongArray samples = new AtomicLongArray(WINDOW);
+        private final AtomicLong written = new AtomicLong();
+        private volatile long p95;
+        private volatile long p95At;
+
+        void add(long sample) {
+            samples.set((int) (written.getAndIncrement() % WINDOW), sample);
+        }
+
+        long count() {
+            return Math.min(written.get(), WINDOW);
+        }
+
+        long p95() {
+            long now = System.nanoTime();
+            if (p95At != 0 && now - p95At < 100_000_000L) {
+                return p95;
+            }
+            long[] copy = new long[(int) count()];
+            for (int i = 0; i < copy.length; i++) {
+                copy[i] = samples.get(i);
+            }
+            Arrays.sort(copy);
+            p95 = copy.length == 0 ? 0 : copy[Math.min(copy.length - 1, (int) Math.ceil(copy.length * 0.95) - 1)];
+            p95At = now;
+            return p95;
+        }
+    }
+}
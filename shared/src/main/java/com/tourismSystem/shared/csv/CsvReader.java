@@ -0,0 +1,120 @@
+package com.tourismSystem.shared.csv;
+
+import com.tourismSystem.shared.io.RecordTooLongException;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Streaming RFC 4180 reader: fields may be wrapped in double quotes, contain commas
+ * or line breaks, and escape a quote by doubling it (""). Only one record is held in memory, of at
+ * most maxRecordLength characters, so a quote left open cannot buffer the rest of the input.
+ */
+public class CsvReader implements Closeable {
+
+    public static final int DEFAULT_MAX_RECORD_LENGTH = 64 * 1024;
+
+    private final Reader reader;
+    private final int maxRecordLength;
+    private final StringBuilder field = new StringBuilder();
+    private long lineNumber = 0;
+
+    public CsvReader(Reader reader) {
+        this(reader, DEFAULT_MAX_RECORD_LENGTH);
+    }
+
+    public CsvReader(Reader reader, int maxRecordLength) {
+        if (maxRecordLength < 1) {
+            throw new IllegalArgumentException("maxRecordLength must be greater than 0");
+        }
+        this.reader = reader instanceof BufferedReader ? reader : new BufferedReader(reader);
+        this.maxRecordLength = maxRecordLength;
+    }
+
+    /**
+     * Returns the next record, or null at end of input. Blank lines are skipped.
+     *
+     * @throws RecordTooLongException if the record runs past maxRecordLength characters; where the
+     *                                next record starts is unknown then, so the input should not be read further
+     */
+    public String[] readRecord() throws IOException {
+        List<String> fields = new ArrayList<>();
+        field.setLength(0);
+        boolean inQuotes = false;
+        boolean sawAnything = false;
+        int length = 0;
+        long startLine = lineNumber + 1;
+        int c;
+
+        while ((c = reader.read()) != -1) {
+            sawAnything = true;
+            char ch = (char) c;
+            if (++length > maxRecordLength) {
+                field.setLength(0);
+                throw new RecordTooLongException(startLine, maxRecordLength);
+            }
+
+            if (inQuotes) {
+                if (ch == '"') {
+                    reader.mark(1);
+                    int next = reader.read();
+                    if (next == '"') {
+                        field.append('"');
+                    } else {
+                        inQuotes = false;
+                        if (next != -1) {
+                            reader.reset();
+                        }
+                    }
+                } else {
+                    if (ch == '\n') {
+                        lineNumber++;
+                    }
+                    field.append(ch);
+                }
+                continue;
+            }
+
+            switch (ch) {
+                case '"' -> inQuotes = true;
+                case ',' -> {
+                    fields.add(field.toString());
+                    field.setLength(0);
+                }
+                case '\r' -> { /* handled together with \n */ }
+                case '\n' -> {
+                    lineNumber++;
+                    if (fields.isEmpty() && field.isEmpty()) {
+                        sawAnything = false;
+                        length = 0;
+                        startLine = lineNumber + 1;
+                        continue;
+                    }
+                    fields.add(field.toString());
+                    return fields.toArray(new String[0]);
+                }
+                default -> field.append(ch);
+            }
+        }
+
+        if (!sawAnything || (fields.isEmpty() && field.isEmpty())) {
+            return null;
+        }
+        lineNumber++;
+        fields.add(field.toString());
+        return fields.toArray(new String[0]);
+    }
+
+    public long getLineNumber() {
+        return lineNumber;
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+}
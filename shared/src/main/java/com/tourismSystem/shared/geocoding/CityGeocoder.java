@@ -0,0 +1,64 @@
+package com.tourismSystem.shared.geocoding;
+
+import com.tourismSystem.shared.csv.CsvReader;
+import com.tourismSystem.shared.text.TextNormalizer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.io.Resource;
+
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Offline geocoding from a CSV of city centroids (city,state,country,latitude,longitude), matched
+ * ignoring case and accents. Hotels and cities without an exact position get the one of their city.
+ * The file ships once, as {@code geocoding/cities.csv} in the shared resources.
+ */
+public class CityGeocoder {
+
+    private static final Logger logger = LoggerFactory.getLogger(CityGeocoder.class);
+
+    private final Map<String, double[]> positions = new HashMap<>();
+
+    public CityGeocoder(Resource geocodingCsv) {
+        if (!geocodingCsv.exists()) {
+            logger.warn("Geocoding file {} not found, nothing will be geocoded", geocodingCsv);
+            return;
+        }
+        try (CsvReader reader = new CsvReader(new InputStreamReader(geocodingCsv.getInputStream(), StandardCharsets.UTF_8))) {
+            // Skip header: city,state,country,latitude,longitude
+            reader.readRecord();
+            String[] record;
+            while ((record = reader.readRecord()) != null) {
+                if (record.length < 5) {
+                    logger.warn("Skipping geocoding row {} with {} columns", reader.getLineNumber(), record.length);
+                    continue;
+                }
+                try {
+                    positions.put(key(record[0], record[1], record[2]), new double[]{
+                            Double.parseDouble(record[3].trim()), Double.parseDouble(record[4].trim())});
+                } catch (NumberFormatException ex) {
+                    logger.warn("Skipping geocoding row {}: {}", reader.getLineNumber(), ex.getMessage());
+                }
+            }
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Could not read geocoding file " + geocodingCsv, ex);
+        }
+        logger.info("Loaded {} city positions from {}", positions.size(), geocodingCsv);
+    }
+
+    /**
+     * [latitude, longitude] of the city, or null when it is not in the geocoding file.
+     */
+    public double[] locate(String city, String state, String country) {
+        return positions.get(key(city, state, country));
+    }
+
+    private static String key(String city, String state, String country) {
+        return TextNormalizer.fold(city) + '|' + TextNormalizer.fold(state) + '|' + TextNormalizer.fold(country);
+    }
+}
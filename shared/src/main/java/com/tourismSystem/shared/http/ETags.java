@@ -0,0 +1,49 @@
+package com.tourismSystem.shared.http;
+
+import org.springframework.util.DigestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/**
+ * Entity tags built from row versions (hotels, cities) instead of the serialized body, so a matching
+ * If-None-Match is answered with 304 before anything is written. They are weak (W/): the same tag
+ * covers every encoding of the content (JSON, Smile, CBOR, Protobuf, gzip), and Tomcat never
+ * compresses a response carrying a strong one.
+ */
+public final class ETags {
+
+    /** A row sent in a response: its id and the version of the row it was read from. */
+    public interface Versioned {
+
+        Long getId();
+
+        Long getVersion();
+    }
+
+    private ETags() {
+    }
+
+    public static String of(Long id, Long version) {
+        return "W/\"" + id + "-" + version + "\"";
+    }
+
+    public static String of(Versioned row) {
+        return of(row.getId(), row.getVersion());
+    }
+
+    /**
+     * Aggregate tag of a list response: changes when a row enters, leaves or moves within the list,
+     * when one of them is updated, or when any of the extras (cursor, scores...) changes.
+     */
+    public static String ofAll(List<? extends Versioned> rows, Object... extras) {
+        StringBuilder state = new StringBuilder(rows.size() * 16);
+        for (Versioned row : rows) {
+            state.append(row.getId()).append('-').append(row.getVersion()).append(',');
+        }
+        for (Object extra : extras) {
+            state.append('|').append(extra);
+        }
+        return "W/\"" + DigestUtils.md5DigestAsHex(state.toString().getBytes(StandardCharsets.UTF_8)) + "\"";
+    }
+}
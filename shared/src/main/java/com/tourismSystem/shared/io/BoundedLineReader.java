@@ -0,0 +1,66 @@
+package com.tourismSystem.shared.io;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+
+/**
+ * Line reader that holds at most maxLength characters of a line. A longer line is read through to
+ * its end without being kept and reported with a {@link RecordTooLongException}; reading can go on
+ * with the next line.
+ */
+public class BoundedLineReader implements Closeable {
+
+    private final Reader reader;
+    private final int maxLength;
+    private final StringBuilder line = new StringBuilder();
+    private long lineNumber = 0;
+
+    public BoundedLineReader(Reader reader, int maxLength) {
+        if (maxLength < 1) {
+            throw new IllegalArgumentException("maxLength must be greater than 0");
+        }
+        this.reader = reader instanceof BufferedReader ? reader : new BufferedReader(reader);
+        this.maxLength = maxLength;
+    }
+
+    /**
+     * Returns the next line without its terminator (\n or \r\n), or null at end of input.
+     */
+    public String readLine() throws IOException {
+        line.setLength(0);
+        boolean dropped = false;
+        int c;
+        while ((c = reader.read()) != -1 && c != '\n') {
+            // One character over the limit is kept: it may be the \r of \r\n
+            if (line.length() <= maxLength) {
+                line.append((char) c);
+            } else {
+                dropped = true;
+            }
+        }
+        if (c == -1 && line.isEmpty()) {
+            return null;
+        }
+        lineNumber++;
+        int end = line.length();
+        if (end > 0 && line.charAt(end - 1) == '\r') {
+            line.setLength(end - 1);
+        }
+        if (dropped || line.length() > maxLength) {
+            line.setLength(0);
+            throw new RecordTooLongException(lineNumber, maxLength);
+        }
+        return line.toString();
+    }
+
+    public long getLineNumber() {
+        return lineNumber;
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+}
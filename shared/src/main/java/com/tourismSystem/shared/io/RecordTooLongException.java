@@ -0,0 +1,21 @@
+package com.tourismSystem.shared.io;
+
+import java.io.IOException;
+
+/**
+ * A record of an upload, starting at lineNumber, ran past the length its reader accepts, such as a
+ * CSV quote left open or a line without an end. Nothing past the limit was buffered.
+ */
+public class RecordTooLongException extends IOException {
+
+    private final long lineNumber;
+
+    public RecordTooLongException(long lineNumber, int maxLength) {
+        super("record at line " + lineNumber + " is longer than " + maxLength + " characters");
+        this.lineNumber = lineNumber;
+    }
+
+    public long getLineNumber() {
+        return lineNumber;
+    }
+}
@@ -0,0 +1,265 @@
+package com.tourismSystem.shared.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.LongTaskTimer;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.FilterWriter;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.Writer;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Per-route traffic of the REST controllers, next to the http.server.requests timer Spring Boot
+ * already records (latency, status and outcome, with the percentile histogram configured under
+ * management.metrics.distribution): the bytes read and written, and the requests in flight.
+ * <p>
+ * Everything is tagged by the URI template the request matched (/hotels/city/{city}), never by
+ * the raw path, so a city name never opens a new series; requests no controller matched count
+ * under NOT_FOUND, REDIRECTION or UNKNOWN, as in http.server.requests. Response bytes are counted
+ * before server compression. Published meters: http.server.request.size and
+ * http.server.response.size (tagged method, uri and status), http.server.route.active (tagged
+ * method and uri).
+ * <p>
+ * Servlet stack only: each service declares it as a bean in its MetricsConfig, which also adds it
+ * as interceptor (it is both a filter and an interceptor).
+ */
+public class HttpRouteMetrics extends OncePerRequestFilter implements HandlerInterceptor {
+
+    private static final String ACTIVE = HttpRouteMetrics.class.getName() + ".active";
+
+    private final MeterRegistry meterRegistry;
+
+    public HttpRouteMetrics(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        CountingRequest countingRequest = new CountingRequest(request);
+        CountingResponse countingResponse = new CountingResponse(response);
+        try {
+            chain.doFilter(countingRequest, countingResponse);
+        } finally {
+            if (countingRequest.isAsyncStarted()) {
+                // Streamed answers: counted once the async request completes
+                countingRequest.getAsyncContext().addListener(new AsyncListener() {
+                    @Override
+                    public void onComplete(AsyncEvent event) {
+                        record(countingRequest, countingResponse);
+                    }
+
+                    @Override
+                    public void onTimeout(AsyncEvent event) {
+                    }
+
+                    @Override
+                    public void onError(AsyncEvent event) {
+                    }
+
+                    @Override
+                    public void onStartAsync(AsyncEvent event) {
+                    }
+                });
+            } else {
+                record(countingRequest, countingResponse);
+            }
+        }
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        // Async dispatches come through again: the first one is tracked
+        if (request.getAttribute(ACTIVE) == null) {
+            Tags tags = Tags.of("method", request.getMethod(), "uri", uri(request, 200));
+            request.setAttribute(ACTIVE, LongTaskTimer.builder("http.server.route.active")
+                    .tags(tags)
+                    .register(meterRegistry)
+                    .start());
+        }
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        if (request.getAttribute(ACTIVE) instanceof LongTaskTimer.Sample sample && !request.isAsyncStarted()) {
+            sample.stop();
+        }
+    }
+
+    private void record(CountingRequest request, CountingResponse response) {
+        int status = response.getStatus();
+        Tags tags = Tags.of("method", request.getMethod(), "uri", uri(request, status), "status", Integer.toString(status));
+        DistributionSummary.builder("http.server.request.size")
+                .baseUnit("bytes")
+                .tags(tags)
+                .register(meterRegistry)
+                .record(Math.max(request.bytes.get(), request.getContentLengthLong()));
+        DistributionSummary.builder("http.server.response.size")
+                .baseUnit("bytes")
+                .tags(tags)
+                .register(meterRegistry)
+                .record(response.bytes.get());
+    }
+
+    // Same values as the uri tag of http.server.requests
+    private static String uri(HttpServletRequest request, int status) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        if (pattern instanceof String template) {
+            return template.isEmpty() ? "root" : template;
+        }
+        if (status == 404) {
+            return "NOT_FOUND";
+        }
+        return status >= 300 && status < 400 ? "REDIRECTION" : "UNKNOWN";
+    }
+
+    private static final class CountingRequest extends HttpServletRequestWrapper {
+
+        private final AtomicLong bytes = new AtomicLong();
+        private ServletInputStream input;
+
+        CountingRequest(HttpServletRequest request) {
+            super(request);
+        }
+
+        @Override
+        public ServletInputStream getInputStream() throws IOException {
+            if (input == null) {
+                ServletInputStream delegate = super.getInputStream();
+                input = new ServletInputStream() {
+                    @Override
+                    public int read() throws IOException {
+                        int read = delegate.read();
+                        if (read != -1) {
+                            bytes.incrementAndGet();
+                        }
+                        return read;
+                    }
+
+                    @Override
+                    public int read(byte[] buffer, int offset, int length) throws IOException {
+                        int read = delegate.read(buffer, offset, length);
+                        if (read > 0) {
+                            bytes.addAndGet(read);
+                        }
+                        return read;
+                    }
+
+                    @Override
+                    public boolean isFinished() {
+                        return delegate.isFinished();
+                    }
+
+                    @Override
+                    public boolean isReady() {
+                        return delegate.isReady();
+                    }
+
+                    @Override
+                    public void setReadListener(ReadListener listener) {
+                        delegate.setReadListener(listener);
+                    }
+                };
+            }
+            return input;
+        }
+    }
+
+    private static final class CountingResponse extends HttpServletResponseWrapper {
+
+        private final AtomicLong bytes = new AtomicLong();
+        private ServletOutputStream output;
+        private PrintWriter writer;
+
+        CountingResponse(HttpServletResponse response) {
+            super(response);
+        }
+
+        @Override
+        public ServletOutputStream getOutputStream() throws IOException {
+            if (output == null) {
+                ServletOutputStream delegate = super.getOutputStream();
+                output = new ServletOutputStream() {
+                    @Override
+                    public void write(int b) throws IOException {
+                        delegate.write(b);
+                        bytes.incrementAndGet();
+                    }
+
+                    @Override
+                    public void write(byte[] buffer, int offset, int length) throws IOException {
+                        delegate.write(buffer, offset, length);
+                        bytes.addAndGet(length);
+                    }
+
+                    @Override
+                    public void flush() throws IOException {
+                        delegate.flush();
+                    }
+
+                    @Override
+                    public void close() throws IOException {
+                        delegate.close();
+                    }
+
+                    @Override
+                    public boolean isReady() {
+                        return delegate.isReady();
+                    }
+
+                    @Override
+                    public void setWriteListener(WriteListener listener) {
+                        delegate.setWriteListener(listener);
+                    }
+                };
+            }
+            return output;
+        }
+
+        // Characters, for the few answers written as text (error pages)
+        @Override
+        public PrintWriter getWriter() throws IOException {
+            if (writer == null) {
+                writer = new PrintWriter(new FilterWriter(super.getWriter()) {
+                    @Override
+                    public void write(int c) throws IOException {
+                        super.write(c);
+                        bytes.incrementAndGet();
+                    }
+
+                    @Override
+                    public void write(char[] chars, int offset, int length) throws IOException {
+                        super.write(chars, offset, length);
+                        bytes.addAndGet(length);
+                    }
+
+                    @Override
+                    public void write(String text, int offset, int length) throws IOException {
+                        super.write(text, offset, length);
+                        bytes.addAndGet(length);
+                    }
+                });
+            }
+            return writer;
+        }
+    }
+}
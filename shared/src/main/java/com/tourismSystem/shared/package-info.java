@@ -0,0 +1,12 @@
+/**
+ * Code that hotels-service and cities-service both run unchanged, kept once here instead of copied
+ * into each service. api-gateway, which runs on a reactive stack, only compiles the balancing
+ * package (see the compiler includes of its pom).
+ * <p>
+ * It is not a module of its own: each service still builds and ships alone (its own pom and
+ * Dockerfile), and compiles these sources, and packages src/main/resources, as part of its build
+ * through build-helper-maven-plugin.
+ * Nothing here is picked up by component scanning; a service that needs one of these classes as a
+ * bean declares it in its own configuration.
+ */
+package com.tourismSystem.shared;
@@ -0,0 +1,27 @@
+package com.tourismSystem.shared.text;
+
+import java.text.Normalizer;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+/**
+ * Case and accent folding shared by the *_key columns and the in-memory indexes, so "JAPÓN",
+ * "Japón" and "japon" index and match the same way (as the default MySQL ai_ci collation does).
+ * One copy for both services: the hotel replica of cities-service matches keys folded here against
+ * the ones hotels-service folds.
+ */
+public final class TextNormalizer {
+
+    private static final Pattern COMBINING_MARKS = Pattern.compile("\\p{M}+");
+
+    private TextNormalizer() {
+    }
+
+    public static String fold(String value) {
+        if (value == null) {
+            return null;
+        }
+        String decomposed = Normalizer.normalize(value.trim(), Normalizer.Form.NFD);
+        return COMBINING_MARKS.matcher(decomposed).replaceAll("").toLowerCase(Locale.ROOT);
+    }
+}